@@ -26,9 +26,13 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import com.xeiam.xchange.anx.ANXUtils;
 import com.xeiam.xchange.anx.v2.dto.account.polling.ANXAccountInfo;
 import com.xeiam.xchange.anx.v2.dto.account.polling.ANXWallet;
 import com.xeiam.xchange.anx.v2.dto.account.polling.Wallets;
+import com.xeiam.xchange.anx.v2.dto.account.streaming.ANXWalletUpdate;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepth;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepthUpdate;
 import com.xeiam.xchange.anx.v2.dto.marketdata.ANXOrder;
 import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTicker;
 import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTrade;
@@ -36,6 +40,8 @@ import com.xeiam.xchange.anx.v2.dto.trade.polling.ANXOpenOrder;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.Order.OrderType;
 import com.xeiam.xchange.dto.account.AccountInfo;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
 import com.xeiam.xchange.dto.marketdata.Trade;
@@ -158,24 +164,50 @@ public final class ANXAdapters {
 
   }
 
-  // public static OrderBookUpdate adaptDepthUpdate(ANXDepthUpdate anxDepthUpdate) {
-  //
-  // OrderType orderType = anxDepthUpdate.getTradeType().equals("bid") ? OrderType.BID : OrderType.ASK;
-  // BigDecimal volume = new BigDecimal(anxDepthUpdate.getVolumeInt()).divide(new BigDecimal(ANXUtils.BTC_VOLUME_AND_AMOUNT_INT_2_DECIMAL_FACTOR));
-  //
-  // String tradableIdentifier = anxDepthUpdate.getItem();
-  // String transactionCurrency = anxDepthUpdate.getCurrency();
-  // CurrencyPair currencyPair = new CurrencyPair(tradableIdentifier, transactionCurrency);
-  //
-  // BigDecimal price = ANXUtils.getPrice(anxDepthUpdate.getPriceInt());
-  //
-  // BigDecimal totalVolume = new BigDecimal(anxDepthUpdate.getTotalVolumeInt()).divide(new BigDecimal(ANXUtils.BTC_VOLUME_AND_AMOUNT_INT_2_DECIMAL_FACTOR));
-  // Date date = new Date(anxDepthUpdate.getNow() / 1000);
-  //
-  // OrderBookUpdate orderBookUpdate = new OrderBookUpdate(orderType, volume, currencyPair, price, date, totalVolume);
-  //
-  // return orderBookUpdate;
-  // }
+  /**
+   * Adapts a ANXDepthUpdate to an OrderBookUpdate; prices and volumes are read from their exact integer forms
+   * 
+   * @param anxDepthUpdate
+   * @return
+   */
+  public static OrderBookUpdate adaptDepthUpdate(ANXDepthUpdate anxDepthUpdate) {
+
+    OrderType orderType = anxDepthUpdate.getTradeType().equalsIgnoreCase("bid") ? OrderType.BID : OrderType.ASK;
+    CurrencyPair currencyPair = adaptCurrencyPair(anxDepthUpdate.getItem(), anxDepthUpdate.getCurrency());
+
+    BigDecimal price = BigDecimal.valueOf(anxDepthUpdate.getPriceInt(), ANXUtils.getMaxPriceScale(currencyPair));
+    BigDecimal volume = BigDecimal.valueOf(anxDepthUpdate.getVolumeInt(), ANXUtils.VOLUME_AND_AMOUNT_MAX_SCALE);
+    BigDecimal totalVolume = BigDecimal.valueOf(anxDepthUpdate.getTotalVolumeInt(), ANXUtils.VOLUME_AND_AMOUNT_MAX_SCALE);
+    Date date = new Date(anxDepthUpdate.getNow() / 1000);
+
+    return new OrderBookUpdate(orderType, volume, currencyPair, price, date, totalVolume);
+  }
+
+  /**
+   * Adapts a ANXDepth to an OrderBook
+   * 
+   * @param anxDepth
+   * @param currencyPair
+   * @return
+   */
+  public static OrderBook adaptOrderBook(ANXDepth anxDepth, CurrencyPair currencyPair) {
+
+    List<LimitOrder> asks = adaptOrders(anxDepth.getAsks(), currencyPair.baseSymbol, currencyPair.counterSymbol, "ask", "");
+    List<LimitOrder> bids = adaptOrders(anxDepth.getBids(), currencyPair.baseSymbol, currencyPair.counterSymbol, "bid", "");
+    Date date = new Date(anxDepth.getMicroTime() / 1000);
+    return new OrderBook(date, asks, bids);
+  }
+
+  /**
+   * Adapts a streamed ANXWalletUpdate to a Wallet holding the new balance
+   * 
+   * @param anxWalletUpdate
+   * @return
+   */
+  public static Wallet adaptWalletUpdate(ANXWalletUpdate anxWalletUpdate) {
+
+    return new Wallet(anxWalletUpdate.getBalance().getCurrency(), anxWalletUpdate.getBalance().getValue());
+  }
 
   /**
    * Adapts ANXTrade's to a Trades Object
@@ -27,6 +27,8 @@ import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.anx.v2.service.polling.ANXAccountService;
 import com.xeiam.xchange.anx.v2.service.polling.ANXMarketDataService;
 import com.xeiam.xchange.anx.v2.service.polling.ANXTradeService;
+import com.xeiam.xchange.anx.v2.service.streaming.ANXStreamingConfiguration;
+import com.xeiam.xchange.anx.v2.service.streaming.ANXWebsocketService;
 import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
 import com.xeiam.xchange.service.streaming.StreamingExchangeService;
 
@@ -56,8 +58,8 @@ public class ANXExchange extends BaseExchange implements Exchange {
 
     ExchangeSpecification exchangeSpecification = new ExchangeSpecification(this.getClass().getCanonicalName());
     exchangeSpecification.setSslUri("https://anxpro.com");
-    // exchangeSpecification.setPlainTextUriStreaming("ws://websocket.anx.hk");
-    // exchangeSpecification.setSslUriStreaming("wss://websocket.anx.hk");
+    exchangeSpecification.setPlainTextUriStreaming("ws://websocket.anx.hk");
+    exchangeSpecification.setSslUriStreaming("wss://websocket.anx.hk");
     exchangeSpecification.setHost("anxpro.com");
     exchangeSpecification.setPort(443);
     exchangeSpecification.setExchangeName("ANXPRO");
@@ -69,10 +71,10 @@ public class ANXExchange extends BaseExchange implements Exchange {
   @Override
   public StreamingExchangeService getStreamingExchangeService(ExchangeStreamingConfiguration configuration) {
 
-    // if (configuration instanceof ANXStreamingConfiguration) {
-    // return new ANXWebsocketService(getExchangeSpecification(), (ANXStreamingConfiguration) configuration);
-    // }
+    if (configuration instanceof ANXStreamingConfiguration) {
+      return new ANXWebsocketService(getExchangeSpecification(), (ANXStreamingConfiguration) configuration);
+    }
 
-    throw new IllegalArgumentException("ANX.HK does not support streaming in this API");
+    throw new IllegalArgumentException("ANX only supports ANXStreamingConfiguration");
   }
 }
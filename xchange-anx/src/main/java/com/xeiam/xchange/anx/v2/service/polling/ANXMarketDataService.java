@@ -44,20 +44,24 @@
 package com.xeiam.xchange.anx.v2.service.polling;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.anx.v2.ANXAdapters;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepth;
 import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepthWrapper;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTicker;
 import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTrade;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Trades;
-import com.xeiam.xchange.dto.trade.LimitOrder;
-import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.service.polling.BulkPollingMarketDataService;
 
 /**
  * <p>
@@ -65,9 +69,10 @@ import com.xeiam.xchange.service.polling.PollingMarketDataService;
  * </p>
  * <ul>
  * <li>Provides access to various market data values</li>
+ * <li>Fetches tickers and full order books of many pairs in one request</li>
  * </ul>
  */
-public class ANXMarketDataService extends ANXMarketDataServiceRaw implements PollingMarketDataService {
+public class ANXMarketDataService extends ANXMarketDataServiceRaw implements BulkPollingMarketDataService {
 
   /**
    * Constructor
@@ -117,10 +122,47 @@ public class ANXMarketDataService extends ANXMarketDataServiceRaw implements Pol
     }
 
     // Adapt to XChange DTOs
-    List<LimitOrder> asks = ANXAdapters.adaptOrders(anxDepthWrapper.getAnxDepth().getAsks(), currencyPair.baseSymbol, currencyPair.counterSymbol, "ask", "");
-    List<LimitOrder> bids = ANXAdapters.adaptOrders(anxDepthWrapper.getAnxDepth().getBids(), currencyPair.baseSymbol, currencyPair.counterSymbol, "bid", "");
-    Date date = new Date(anxDepthWrapper.getAnxDepth().getMicroTime() / 1000);
-    return new OrderBook(date, asks, bids);
+    return ANXAdapters.adaptOrderBook(anxDepthWrapper.getAnxDepth(), currencyPair);
+  }
+
+  @Override
+  public Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    Map<String, ANXTicker> anxTickers = getANXTickers(currencyPairs);
+
+    Map<CurrencyPair, Ticker> tickers = new LinkedHashMap<CurrencyPair, Ticker>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      ANXTicker anxTicker = anxTickers.get(currencyPair.baseSymbol + currencyPair.counterSymbol);
+      if (anxTicker == null) {
+        throw new ExchangeException("ANX returned no ticker for " + currencyPair);
+      }
+      tickers.put(currencyPair, ANXAdapters.adaptTicker(anxTicker));
+    }
+    return tickers;
+  }
+
+  /**
+   * Get the full market depth of many pairs in one request
+   * 
+   * @param currencyPairs The currency pairs
+   * @param args Ignored, ANX returns full order books only for multiple pairs
+   * @return The order books by currency pair
+   * @throws java.io.IOException
+   */
+  @Override
+  public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    Map<String, ANXDepth> anxDepths = getANXFullOrderBooks(currencyPairs);
+
+    Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<CurrencyPair, OrderBook>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      ANXDepth anxDepth = anxDepths.get(currencyPair.baseSymbol + currencyPair.counterSymbol);
+      if (anxDepth == null) {
+        throw new ExchangeException("ANX returned no order book for " + currencyPair);
+      }
+      orderBooks.put(currencyPair, ANXAdapters.adaptOrderBook(anxDepth, currencyPair));
+    }
+    return orderBooks;
   }
 
   @Override
@@ -26,8 +26,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.anx.v2.ANXV2;
@@ -56,7 +54,7 @@ public class ANXMarketDataServiceRaw extends ANXBasePollingService {
     super(exchangeSpecification);
 
     Assert.notNull(exchangeSpecification.getSslUri(), "Exchange specification URI cannot be null");
-    this.anxV2 = RestProxyFactory.createProxy(ANXV2.class, exchangeSpecification.getSslUri());
+    this.anxV2 = createProxy(ANXV2.class, exchangeSpecification.getSslUri());
   }
 
   public ANXTicker getANXTicker(CurrencyPair currencyPair) throws IOException {
@@ -24,8 +24,6 @@ package com.xeiam.xchange.anx.v2.service.polling;
 import java.io.IOException;
 import java.math.BigDecimal;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.anx.ANXUtils;
@@ -55,7 +53,7 @@ public class ANXTradeServiceRaw extends ANXBasePollingService {
     super(exchangeSpecification);
 
     Assert.notNull(exchangeSpecification.getSslUri(), "Exchange specification URI cannot be null");
-    this.anxV2 = RestProxyFactory.createProxy(ANXV2.class, exchangeSpecification.getSslUri());
+    this.anxV2 = createProxy(ANXV2.class, exchangeSpecification.getSslUri());
     this.signatureCreator = ANXV2Digest.createInstance(exchangeSpecification.getSecretKey());
   }
 
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.anx.v2.service.streaming;
+
+import java.util.LinkedList;
+
+import com.xeiam.xchange.anx.v2.ANXAdapters;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepth;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepthUpdate;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * One currency pair's order book, kept current from ANX depth updates:
+ * </p>
+ * <ul>
+ * <li>Each update carries the new total volume of its price level, which replaces the level in place; a zero total removes it</li>
+ * <li>Updates arriving before the book is seeded from the REST full depth are buffered and replayed on top of it if they are newer. At most
+ * {@link #MAX_PENDING_UPDATES} are kept; if older ones had to be dropped, a snapshot taken before the newest dropped update can't be used and the book
+ * must be seeded again</li>
+ * <li>A crossed book means an update was missed; the book then drops its state and waits to be seeded again</li>
+ * </ul>
+ * <p>
+ * All methods are thread safe; {@link #getSnapshot()} returns a consistent copy.
+ * </p>
+ */
+public class ANXLiveOrderBook {
+
+  /** Maximum number of updates buffered while waiting for a snapshot */
+  static final int MAX_PENDING_UPDATES = 1000;
+
+  private final CurrencyPair currencyPair;
+  private final LinkedList<ANXDepthUpdate> pendingUpdates = new LinkedList<ANXDepthUpdate>();
+
+  private OrderBook orderBook;
+  /** the time of the newest update dropped from the buffer since the book was last seeded, in microseconds */
+  private long droppedUpToMicros = Long.MIN_VALUE;
+  private long droppedUpdates;
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPair The currency pair of the book
+   */
+  public ANXLiveOrderBook(CurrencyPair currencyPair) {
+
+    this.currencyPair = currencyPair;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  /**
+   * @return true once seeded, until the book is invalidated
+   */
+  public synchronized boolean isSeeded() {
+
+    return orderBook != null;
+  }
+
+  /**
+   * @return The number of buffered updates dropped because the buffer was full, since this book was created
+   */
+  public synchronized long getDroppedUpdates() {
+
+    return droppedUpdates;
+  }
+
+  /**
+   * Replace the book with a REST full depth, then replay the buffered updates that are newer than it
+   * 
+   * @param snapshot The full depth, with a timestamp in microseconds
+   * @return false if the snapshot predates an update dropped from the full buffer, or the replayed updates leave the book crossed, in which case it
+   *         must be seeded again
+   */
+  public synchronized boolean seed(ANXDepth snapshot) {
+
+    long snapshotMicros = snapshot.getMicroTime();
+    if (droppedUpToMicros >= snapshotMicros) {
+      // the snapshot misses an update that is no longer buffered either; keep buffering for a newer snapshot
+      return false;
+    }
+    droppedUpToMicros = Long.MIN_VALUE;
+    orderBook = ANXAdapters.adaptOrderBook(snapshot, currencyPair);
+    for (ANXDepthUpdate update : pendingUpdates) {
+      if (update.getNow() > snapshotMicros) {
+        orderBook.update(ANXAdapters.adaptDepthUpdate(update));
+      }
+    }
+    pendingUpdates.clear();
+    return checkNotCrossed();
+  }
+
+  /**
+   * Apply an update, or buffer it if the book is not seeded yet
+   * 
+   * @param update The streamed depth update of this book's pair
+   * @return The applied change, or null if the update was buffered or the book became crossed and must be seeded again (see {@link #isSeeded()})
+   */
+  public synchronized OrderBookUpdate applyUpdate(ANXDepthUpdate update) {
+
+    if (orderBook == null) {
+      pendingUpdates.add(update);
+      if (pendingUpdates.size() > MAX_PENDING_UPDATES) {
+        droppedUpToMicros = Math.max(droppedUpToMicros, pendingUpdates.removeFirst().getNow());
+        droppedUpdates++;
+      }
+      return null;
+    }
+
+    OrderBookUpdate orderBookUpdate = ANXAdapters.adaptDepthUpdate(update);
+    orderBook.update(orderBookUpdate);
+    return checkNotCrossed() ? orderBookUpdate : null;
+  }
+
+  /**
+   * Drop the book and any buffered updates, e.g. after a disconnect
+   */
+  public synchronized void invalidate() {
+
+    orderBook = null;
+    pendingUpdates.clear();
+    droppedUpToMicros = Long.MIN_VALUE;
+  }
+
+  /**
+   * @return A copy of the current book, or null if not seeded
+   */
+  public synchronized OrderBook getSnapshot() {
+
+    if (orderBook == null) {
+      return null;
+    }
+    return new OrderBook(orderBook.getTimeStamp(), orderBook.getAsks(), orderBook.getBids());
+  }
+
+  private boolean checkNotCrossed() {
+
+    LimitOrder bestBid = orderBook.getBestBid();
+    LimitOrder bestAsk = orderBook.getBestAsk();
+    if (bestBid != null && bestAsk != null && bestBid.getLimitPrice().compareTo(bestAsk.getLimitPrice()) >= 0) {
+      invalidate();
+      return false;
+    }
+    return true;
+  }
+
+}
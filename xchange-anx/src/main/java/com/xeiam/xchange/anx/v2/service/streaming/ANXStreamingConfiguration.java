@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.anx.v2.service.streaming;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
+
+/**
+ * <p>
+ * Value object to provide the following
+ * </p>
+ * <ul>
+ * <li>Access to streaming data configuration specific to ANX exchange streaming API</li>
+ * </ul>
+ */
+public class ANXStreamingConfiguration implements ExchangeStreamingConfiguration {
+
+  private final int maxReconnectAttempts;
+  private final int reconnectWaitTimeInMs;
+  private final int timeoutInMs;
+  private final boolean isEncryptedChannel;
+  private final boolean keepAlive;
+  private final Set<CurrencyPair> currencyPairs;
+
+  /**
+   * Constructor
+   * 
+   * @param maxReconnectAttempts
+   * @param reconnectWaitTimeInMs
+   * @param timeoutInMs
+   * @param isEncryptedChannel - should it use an encrypted channel or not? (ws vs. wss protocol)
+   * @param keepAlive - should it ping the socket every 15s?
+   * @param currencyPairs - the pairs whose depth, trades and ticker are streamed
+   */
+  public ANXStreamingConfiguration(int maxReconnectAttempts, int reconnectWaitTimeInMs, int timeoutInMs, boolean isEncryptedChannel, boolean keepAlive,
+      Collection<CurrencyPair> currencyPairs) {
+
+    this.maxReconnectAttempts = maxReconnectAttempts;
+    this.reconnectWaitTimeInMs = reconnectWaitTimeInMs;
+    this.timeoutInMs = timeoutInMs;
+    this.isEncryptedChannel = isEncryptedChannel;
+    this.keepAlive = keepAlive;
+    this.currencyPairs = Collections.unmodifiableSet(new LinkedHashSet<CurrencyPair>(currencyPairs));
+  }
+
+  /**
+   * Constructor streaming BTC/USD over an encrypted channel
+   */
+  public ANXStreamingConfiguration() {
+
+    this(30, 10000, 60000, true, true, Collections.singleton(CurrencyPair.BTC_USD));
+  }
+
+  @Override
+  public int getMaxReconnectAttempts() {
+
+    return maxReconnectAttempts;
+  }
+
+  @Override
+  public int getReconnectWaitTimeInMs() {
+
+    return reconnectWaitTimeInMs;
+  }
+
+  @Override
+  public int getTimeoutInMs() {
+
+    return timeoutInMs;
+  }
+
+  @Override
+  public boolean isEncryptedChannel() {
+
+    return isEncryptedChannel;
+  }
+
+  @Override
+  public boolean keepAlive() {
+
+    return keepAlive;
+  }
+
+  public Set<CurrencyPair> getCurrencyPairs() {
+
+    return currencyPairs;
+  }
+
+}
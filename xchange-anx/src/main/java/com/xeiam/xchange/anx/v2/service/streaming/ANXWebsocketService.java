@@ -0,0 +1,369 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.anx.v2.service.streaming;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.anx.v2.ANXAdapters;
+import com.xeiam.xchange.anx.v2.dto.account.streaming.ANXWalletUpdate;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepthUpdate;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTicker;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTrade;
+import com.xeiam.xchange.anx.v2.dto.trade.streaming.ANXOrderCanceled;
+import com.xeiam.xchange.anx.v2.dto.trade.streaming.ANXTradeLag;
+import com.xeiam.xchange.anx.v2.service.polling.ANXMarketDataService;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.service.streaming.BaseWebSocketExchangeService;
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.ReconnectService;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+
+/**
+ * <p>
+ * Streaming market data service for the ANX exchange
+ * </p>
+ * <p>
+ * On every (re)connection the depth, trade and ticker channels of the configured pairs are subscribed to. Messages with op "private" are
+ * delivered as:
+ * </p>
+ * <ul>
+ * <li>depth: the pair's book is seeded from the REST full depth and kept current in place; each update yields a {@link ExchangeEventType#DEPTH}
+ * event carrying the changed level as an {@link OrderBookUpdate}. A {@link ExchangeEventType#SUBSCRIBE_ORDERS} event carries the whole book after
+ * each (re)seeding, and a consistent copy is available from {@link #getOrderBook(CurrencyPair)}.</li>
+ * <li>trade: a {@link ExchangeEventType#TRADE} event per trade</li>
+ * <li>ticker: a {@link ExchangeEventType#TICKER} event</li>
+ * </ul>
+ * <p>
+ * The service does not authenticate the socket, and so never subscribes to the account channels: the API key and secret of the specification are
+ * only used by the polling services. Should the socket receive account messages anyway, they are delivered as:
+ * </p>
+ * <ul>
+ * <li>wallet: a {@link ExchangeEventType#USER_WALLET_UPDATE} event carrying the new balance as a {@link com.xeiam.xchange.dto.trade.Wallet}</li>
+ * <li>lag: a {@link ExchangeEventType#TRADE_LAG} event carrying the {@link ANXTradeLag}</li>
+ * <li>user_order without a status: the order is gone, a {@link ExchangeEventType#USER_ORDER_CANCELED} event carrying the {@link ANXOrderCanceled}</li>
+ * </ul>
+ * <p>
+ * The REST full depth is only fetched to seed a book, after a (re)connection or when a missed update leaves the book crossed. A failed fetch, or a
+ * snapshot that still leaves the book crossed, is retried with the same backoff as reconnections.
+ * </p>
+ */
+public class ANXWebsocketService extends BaseWebSocketExchangeService implements StreamingExchangeService {
+
+  private static final String DEPTH = "depth";
+  private static final String TRADE = "trade";
+  private static final String TICKER = "ticker";
+  private static final String WALLET = "wallet";
+  private static final String LAG = "lag";
+  private static final String USER_ORDER = "user_order";
+
+  private final Logger log = LoggerFactory.getLogger(ANXWebsocketService.class);
+
+  private final ANXStreamingConfiguration configuration;
+  private final ANXMarketDataService marketDataService;
+  private final ObjectMapper streamObjectMapper;
+  private final Map<CurrencyPair, ANXLiveOrderBook> orderBooks = new ConcurrentHashMap<CurrencyPair, ANXLiveOrderBook>();
+  private final ScheduledExecutorService snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+
+      Thread thread = new Thread(runnable, "anx-order-book-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+  private volatile boolean connected;
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @param configuration The {@link ANXStreamingConfiguration}
+   */
+  public ANXWebsocketService(ExchangeSpecification exchangeSpecification, ANXStreamingConfiguration configuration) {
+
+    super(exchangeSpecification, configuration);
+
+    this.configuration = configuration;
+    this.marketDataService = new ANXMarketDataService(exchangeSpecification);
+    for (CurrencyPair currencyPair : configuration.getCurrencyPairs()) {
+      orderBooks.put(currencyPair, new ANXLiveOrderBook(currencyPair));
+    }
+
+    streamObjectMapper = new ObjectMapper();
+    streamObjectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  @Override
+  public void connect() {
+
+    String apiBase = configuration.isEncryptedChannel() ? exchangeSpecification.getSslUriStreaming() : exchangeSpecification.getPlainTextUriStreaming();
+    if (apiBase == null) {
+      throw new ExchangeException("No streaming URI in the exchange specification");
+    }
+    URI uri = URI.create(apiBase);
+    log.debug("Streaming URI='{}'", uri);
+
+    internalConnect(uri, new ANXEventListener(), new HashMap<String, String>());
+  }
+
+  @Override
+  public void disconnect() {
+
+    connected = false;
+    super.disconnect();
+    for (ANXLiveOrderBook orderBook : orderBooks.values()) {
+      orderBook.invalidate();
+    }
+  }
+
+  /**
+   * <p>
+   * Returns a consistent copy of the live order book maintained from the depth channel.
+   * </p>
+   * 
+   * @param currencyPair The currency pair
+   * @return The order book, or null if the pair is not subscribed or the book is being (re)seeded
+   */
+  public OrderBook getOrderBook(CurrencyPair currencyPair) {
+
+    ANXLiveOrderBook orderBook = orderBooks.get(currencyPair);
+    return orderBook == null ? null : orderBook.getSnapshot();
+  }
+
+  /**
+   * @return The message subscribing to a channel of a pair, e.g. depth.BTCUSD
+   */
+  static String subscribeMessage(String channel, CurrencyPair currencyPair) {
+
+    return "{\"op\":\"subscribe\",\"channel\":\"" + channel + "." + currencyPair.baseSymbol + currencyPair.counterSymbol + "\"}";
+  }
+
+  private void subscribe() {
+
+    for (ANXLiveOrderBook orderBook : orderBooks.values()) {
+      CurrencyPair currencyPair = orderBook.getCurrencyPair();
+      send(subscribeMessage(DEPTH, currencyPair));
+      send(subscribeMessage(TRADE, currencyPair));
+      send(subscribeMessage(TICKER, currencyPair));
+      // updates missed while disconnected are lost: start over from a snapshot
+      orderBook.invalidate();
+      requestSnapshot(orderBook);
+    }
+  }
+
+  /**
+   * Publishes the events of one raw message; failures are logged and counted, not thrown to the websocket thread
+   * 
+   * @param data The message
+   */
+  void handleMessage(String data) {
+
+    JsonNode message;
+    try {
+      message = streamObjectMapper.readTree(data);
+    } catch (IOException e) {
+      metrics.error("message");
+      log.error("JSON stream error", e);
+      return;
+    }
+    if (!"private".equals(message.path("op").asText())) {
+      log.debug("Ignoring message {}", data);
+      return;
+    }
+
+    String type = message.path("private").asText();
+    JsonNode payload = message.get(type);
+    if (payload == null) {
+      log.debug("Ignoring message without payload {}", data);
+      return;
+    }
+    try {
+      if (DEPTH.equals(type)) {
+        onDepthUpdate(data, streamObjectMapper.treeToValue(payload, ANXDepthUpdate.class));
+      }
+      else if (TRADE.equals(type)) {
+        addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.TRADE, data, ANXAdapters.adaptTrade(streamObjectMapper.treeToValue(payload, ANXTrade.class))));
+      }
+      else if (TICKER.equals(type)) {
+        addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.TICKER, data, ANXAdapters.adaptTicker(streamObjectMapper.treeToValue(payload, ANXTicker.class))));
+      }
+      else if (WALLET.equals(type)) {
+        ANXWalletUpdate walletUpdate = streamObjectMapper.treeToValue(payload, ANXWalletUpdate.class);
+        addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.USER_WALLET_UPDATE, data, ANXAdapters.adaptWalletUpdate(walletUpdate)));
+      }
+      else if (LAG.equals(type)) {
+        addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.TRADE_LAG, data, streamObjectMapper.treeToValue(payload, ANXTradeLag.class)));
+      }
+      else if (USER_ORDER.equals(type) && !payload.has("status")) {
+        addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.USER_ORDER_CANCELED, data, streamObjectMapper.treeToValue(payload, ANXOrderCanceled.class)));
+      }
+      else {
+        log.debug("Ignoring {} message {}", type, data);
+      }
+    } catch (IOException e) {
+      metrics.error(type);
+      log.error("JSON stream error", e);
+    } catch (RuntimeException e) {
+      metrics.error(type);
+      log.error("Could not adapt " + type + " message " + data, e);
+    }
+  }
+
+  private void onDepthUpdate(String data, ANXDepthUpdate update) {
+
+    CurrencyPair currencyPair = ANXAdapters.adaptCurrencyPair(update.getItem(), update.getCurrency());
+    ANXLiveOrderBook orderBook = orderBooks.get(currencyPair);
+    if (orderBook == null) {
+      // not a configured pair: there is no book to keep, pass the update on
+      addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.DEPTH, data, ANXAdapters.adaptDepthUpdate(update)));
+      return;
+    }
+
+    boolean seeded = orderBook.isSeeded();
+    OrderBookUpdate change = orderBook.applyUpdate(update);
+    if (change != null) {
+      addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.DEPTH, data, change));
+    }
+    else if (seeded) {
+      log.warn("Order book for {} crossed, resynchronizing", currencyPair);
+      requestSnapshot(orderBook);
+    }
+  }
+
+  private void requestSnapshot(ANXLiveOrderBook orderBook) {
+
+    requestSnapshot(orderBook, 0);
+  }
+
+  private void requestSnapshot(final ANXLiveOrderBook orderBook, final int attempt) {
+
+    snapshotExecutor.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+
+        // a reconnection requests a new snapshot anyway, and an earlier request may have seeded the book already
+        if (!connected || orderBook.isSeeded()) {
+          return;
+        }
+        try {
+          if (!orderBook.seed(marketDataService.getANXFullOrderBook(orderBook.getCurrencyPair()).getAnxDepth())) {
+            log.warn("Order book snapshot for {} is crossed or older than dropped updates ({} dropped so far), resynchronizing", orderBook.getCurrencyPair(),
+                orderBook.getDroppedUpdates());
+            retrySnapshot(orderBook, attempt);
+            return;
+          }
+        } catch (IOException e) {
+          log.error("Failed to fetch the order book snapshot for " + orderBook.getCurrencyPair(), e);
+          retrySnapshot(orderBook, attempt);
+          return;
+        } catch (ExchangeException e) {
+          log.error("Failed to fetch the order book snapshot for " + orderBook.getCurrencyPair(), e);
+          retrySnapshot(orderBook, attempt);
+          return;
+        }
+        OrderBook snapshot = orderBook.getSnapshot();
+        if (snapshot != null) {
+          addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.SUBSCRIBE_ORDERS, null, snapshot));
+        }
+      }
+    }, getSnapshotDelay(attempt), TimeUnit.MILLISECONDS);
+  }
+
+  private void retrySnapshot(ANXLiveOrderBook orderBook, int attempt) {
+
+    metrics.retry("snapshot");
+    requestSnapshot(orderBook, attempt + 1);
+  }
+
+  /**
+   * @return The delay before a snapshot request, in milliseconds: none for the first attempt, then the reconnect wait time doubled for every failed
+   *         attempt, as in {@link ReconnectService}
+   */
+  long getSnapshotDelay(int attempt) {
+
+    if (attempt == 0) {
+      return 0;
+    }
+    int multiplier = 1 << Math.min(attempt - 1, Integer.numberOfTrailingZeros(ReconnectService.MAX_BACKOFF_MULTIPLIER));
+    return (long) configuration.getReconnectWaitTimeInMs() * multiplier;
+  }
+
+  private void addToEventQueue(ExchangeEvent event) {
+
+    // the bus takes a single producer, and order book snapshots are published from the snapshot thread besides the websocket thread
+    synchronized (consumerEventBus) {
+      consumerEventBus.publish(event);
+    }
+  }
+
+  private class ANXEventListener extends ExchangeEventListener {
+
+    @Override
+    public void handleEvent(ExchangeEvent event) throws ExchangeException {
+
+      switch (event.getEventType()) {
+      case MESSAGE:
+        handleMessage(event.getData());
+        break;
+      case CONNECT:
+        connected = true;
+        subscribe();
+        addToEventQueue(event);
+        break;
+      case DISCONNECT:
+        // an error only invalidates the books once it closes the socket: the reconnection then reseeds them
+        connected = false;
+        for (ANXLiveOrderBook orderBook : orderBooks.values()) {
+          orderBook.invalidate();
+        }
+        addToEventQueue(event);
+        break;
+      default:
+        addToEventQueue(event);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.anx.v2.service.streaming;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepth;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepthUpdate;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+
+/**
+ * Test maintaining the ANX order book from depth updates
+ */
+public class ANXLiveOrderBookTest {
+
+  /** the "now" of the example full depth, in microseconds */
+  private static final long SNAPSHOT_MICROS = 1392693096241000L;
+
+  private ANXDepth snapshot;
+
+  @Before
+  public void setUp() throws IOException {
+
+    InputStream is = ANXLiveOrderBookTest.class.getResourceAsStream("/v2/marketdata/example-fulldepth-data.json");
+    snapshot = new ObjectMapper().readValue(is, ANXDepth.class);
+  }
+
+  private static ANXDepthUpdate update(String type, long priceInt, long totalVolumeInt, long now) {
+
+    return new ANXDepthUpdate(type, priceInt, 0, "BTC", "USD", now, totalVolumeInt);
+  }
+
+  @Test
+  public void testUpdateAppliedInPlace() {
+
+    ANXLiveOrderBook liveOrderBook = new ANXLiveOrderBook(CurrencyPair.BTC_USD);
+    assertThat(liveOrderBook.seed(snapshot)).isTrue();
+
+    OrderBookUpdate change = liveOrderBook.applyUpdate(update("ask", 300000000L, 150000000L, SNAPSHOT_MICROS + 1));
+    assertThat(change.getLimitOrder().getType()).isEqualTo(OrderType.ASK);
+    assertThat(change.getTotalVolume()).isEqualTo(new BigDecimal("1.50000000"));
+
+    // a zero total volume removes the level
+    liveOrderBook.applyUpdate(update("bid", 200000000L, 0, SNAPSHOT_MICROS + 2));
+
+    OrderBook orderBook = liveOrderBook.getSnapshot();
+    assertThat(orderBook.getAsks()).hasSize(4);
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("3000.00000"));
+    assertThat(orderBook.getBids()).hasSize(3);
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("210.00000"));
+  }
+
+  @Test
+  public void testUpdatesBufferedUntilSeeded() {
+
+    ANXLiveOrderBook liveOrderBook = new ANXLiveOrderBook(CurrencyPair.BTC_USD);
+
+    // older than the snapshot, must be skipped
+    assertThat(liveOrderBook.applyUpdate(update("bid", 200000000L, 0, SNAPSHOT_MICROS - 1))).isNull();
+    assertThat(liveOrderBook.applyUpdate(update("ask", 326040000L, 0, SNAPSHOT_MICROS + 1))).isNull();
+    assertThat(liveOrderBook.getSnapshot()).isNull();
+
+    assertThat(liveOrderBook.seed(snapshot)).isTrue();
+
+    OrderBook orderBook = liveOrderBook.getSnapshot();
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("2000.00000"));
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("6280.79172"));
+  }
+
+  @Test
+  public void testOverflowNewerThanSnapshotForcesReseed() {
+
+    ANXLiveOrderBook liveOrderBook = new ANXLiveOrderBook(CurrencyPair.BTC_USD);
+
+    for (int i = 0; i <= ANXLiveOrderBook.MAX_PENDING_UPDATES; i++) {
+      liveOrderBook.applyUpdate(update("ask", 300000000L, 150000000L, SNAPSHOT_MICROS + i));
+    }
+    assertThat(liveOrderBook.getDroppedUpdates()).isEqualTo(1L);
+
+    // the update dropped from the buffer is not older than the snapshot: the snapshot can't be used
+    assertThat(liveOrderBook.seed(snapshot)).isFalse();
+    assertThat(liveOrderBook.isSeeded()).isFalse();
+
+    // only updates older than the snapshot dropped: fine
+    liveOrderBook.invalidate();
+    for (int i = 0; i <= ANXLiveOrderBook.MAX_PENDING_UPDATES; i++) {
+      liveOrderBook.applyUpdate(update("ask", 300000000L, 150000000L, SNAPSHOT_MICROS - 1 + i));
+    }
+    assertThat(liveOrderBook.seed(snapshot)).isTrue();
+    assertThat(liveOrderBook.getSnapshot().getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("3000.00000"));
+  }
+
+  @Test
+  public void testCrossedBookInvalidated() {
+
+    ANXLiveOrderBook liveOrderBook = new ANXLiveOrderBook(CurrencyPair.BTC_USD);
+    liveOrderBook.seed(snapshot);
+
+    assertThat(liveOrderBook.applyUpdate(update("bid", 400000000L, 100000000L, SNAPSHOT_MICROS + 1))).isNull();
+    assertThat(liveOrderBook.isSeeded()).isFalse();
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.anx.v2.service.streaming;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.xeiam.xchange.anx.v2.ANXExchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.trade.Wallet;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.ReconnectService;
+
+/**
+ * Test turning ANX streaming messages into events
+ */
+public class ANXWebsocketServiceTest {
+
+  private ANXWebsocketService service;
+
+  @Before
+  public void setUp() {
+
+    // no configured pairs: depth updates are passed on without a book to seed
+    ANXStreamingConfiguration configuration = new ANXStreamingConfiguration(1, 1000, 1000, true, false, Collections.<CurrencyPair> emptySet());
+    service = new ANXWebsocketService(new ANXExchange().getDefaultExchangeSpecification(), configuration);
+  }
+
+  @Test
+  public void testMarketDataMessages() throws InterruptedException {
+
+    service.handleMessage("{\"channel\":\"d5f06780\",\"op\":\"private\",\"origin\":\"broadcast\",\"private\":\"depth\",\"depth\":{\"price\":\"3000.00000\","
+        + "\"type\":1,\"type_str\":\"ask\",\"volume\":\"0.5\",\"price_int\":\"300000000\",\"volume_int\":\"50000000\",\"item\":\"BTC\",\"currency\":\"USD\","
+        + "\"now\":\"1392693096241000\",\"total_volume_int\":\"150000000\"}}");
+    service.handleMessage("{\"op\":\"private\",\"private\":\"trade\",\"trade\":{\"type\":\"trade\",\"date\":1392693096,\"amount\":\"0.5\",\"amount_int\":\"50000000\","
+        + "\"price\":\"3000.00000\",\"price_int\":\"300000000\",\"tid\":\"1392693096241000\",\"item\":\"BTC\",\"price_currency\":\"USD\",\"trade_type\":\"bid\","
+        + "\"primary\":\"Y\",\"properties\":\"limit\"}}");
+    service.handleMessage("{\"op\":\"remark\",\"message\":\"subscribed\"}");
+
+    ExchangeEvent depthEvent = service.getNextEvent();
+    assertThat(depthEvent.getEventType()).isEqualTo(ExchangeEventType.DEPTH);
+    OrderBookUpdate update = (OrderBookUpdate) depthEvent.getPayload();
+    assertThat(update.getLimitOrder().getLimitPrice()).isEqualTo(new BigDecimal("3000.00000"));
+    assertThat(update.getTotalVolume()).isEqualTo(new BigDecimal("1.50000000"));
+
+    ExchangeEvent tradeEvent = service.getNextEvent();
+    assertThat(tradeEvent.getEventType()).isEqualTo(ExchangeEventType.TRADE);
+    Trade trade = (Trade) tradeEvent.getPayload();
+    assertThat(trade.getType()).isEqualTo(OrderType.BID);
+    assertThat(trade.getPrice()).isEqualTo(new BigDecimal("3000.00000"));
+    assertThat(trade.getCurrencyPair()).isEqualTo(CurrencyPair.BTC_USD);
+
+    assertThat(service.checkNextEvent()).isNull();
+  }
+
+  @Test
+  public void testAccountMessages() throws InterruptedException {
+
+    service.handleMessage("{\"op\":\"private\",\"private\":\"wallet\",\"wallet\":{\"op\":\"deposit\",\"amount\":{\"value\":\"1.00000000\",\"currency\":\"BTC\"},"
+        + "\"Balance\":{\"value\":\"3.50000000\",\"currency\":\"BTC\"}}}");
+    service.handleMessage("{\"op\":\"private\",\"private\":\"user_order\",\"user_order\":{\"oid\":\"7c5f2a1e\"}}");
+    service.handleMessage("not json");
+
+    ExchangeEvent walletEvent = service.getNextEvent();
+    assertThat(walletEvent.getEventType()).isEqualTo(ExchangeEventType.USER_WALLET_UPDATE);
+    Wallet wallet = (Wallet) walletEvent.getPayload();
+    assertThat(wallet.getCurrency()).isEqualTo("BTC");
+    assertThat(wallet.getBalance()).isEqualTo(new BigDecimal("3.50000000"));
+
+    ExchangeEvent canceledEvent = service.getNextEvent();
+    assertThat(canceledEvent.getEventType()).isEqualTo(ExchangeEventType.USER_ORDER_CANCELED);
+
+    assertThat(service.checkNextEvent()).isNull();
+  }
+
+  @Test
+  public void testSnapshotRetryBackoff() {
+
+    assertThat(service.getSnapshotDelay(0)).isEqualTo(0L);
+    assertThat(service.getSnapshotDelay(1)).isEqualTo(1000L);
+    assertThat(service.getSnapshotDelay(3)).isEqualTo(4000L);
+    assertThat(service.getSnapshotDelay(100)).isEqualTo(1000L * ReconnectService.MAX_BACKOFF_MULTIPLIER);
+  }
+
+  @Test
+  public void testSubscribeMessage() {
+
+    assertThat(ANXWebsocketService.subscribeMessage("depth", CurrencyPair.BTC_USD)).isEqualTo("{\"op\":\"subscribe\",\"channel\":\"depth.BTCUSD\"}");
+  }
+
+}
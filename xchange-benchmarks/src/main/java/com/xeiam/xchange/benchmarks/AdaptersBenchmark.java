@@ -0,0 +1,408 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xeiam.xchange.anx.v2.ANXAdapters;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXDepth;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTrade;
+import com.xeiam.xchange.anx.v2.dto.marketdata.ANXTradesWrapper;
+import com.xeiam.xchange.bitcoinium.BitcoiniumAdapters;
+import com.xeiam.xchange.bitcoinium.dto.marketdata.BitcoiniumOrderbook;
+import com.xeiam.xchange.bitcurex.BitcurexAdapters;
+import com.xeiam.xchange.bitcurex.dto.marketdata.BitcurexDepth;
+import com.xeiam.xchange.bitcurex.dto.marketdata.BitcurexTrade;
+import com.xeiam.xchange.bitfinex.v1.BitfinexAdapters;
+import com.xeiam.xchange.bitfinex.v1.dto.marketdata.BitfinexDepth;
+import com.xeiam.xchange.bitstamp.BitstampAdapters;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
+import com.xeiam.xchange.btccentral.BTCCentralAdapters;
+import com.xeiam.xchange.btccentral.dto.marketdata.BTCCentralMarketDepth;
+import com.xeiam.xchange.btccentral.dto.marketdata.BTCCentralTrade;
+import com.xeiam.xchange.btcchina.BTCChinaAdapters;
+import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaDepth;
+import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaTrade;
+import com.xeiam.xchange.btce.v3.BTCEAdapters;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepth;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepthWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCETrade;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCETradesWrapper;
+import com.xeiam.xchange.bter.BTERAdapters;
+import com.xeiam.xchange.bter.dto.marketdata.BTERDepth;
+import com.xeiam.xchange.bter.dto.marketdata.BTERTradeHistory;
+import com.xeiam.xchange.campbx.CampBXAdapters;
+import com.xeiam.xchange.campbx.dto.marketdata.CampBXOrderBook;
+import com.xeiam.xchange.cryptonit.v2.CryptonitAdapters;
+import com.xeiam.xchange.cryptonit.v2.dto.marketdata.CryptonitOrders;
+import com.xeiam.xchange.cryptotrade.CryptoTradeAdapters;
+import com.xeiam.xchange.cryptotrade.dto.marketdata.CryptoTradeDepth;
+import com.xeiam.xchange.cryptsy.CryptsyAdapters;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyMarketTradesReturn;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderbook;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderbookReturn;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.hitbtc.HitbtcAdapters;
+import com.xeiam.xchange.hitbtc.dto.marketdata.HitbtcOrderBook;
+import com.xeiam.xchange.justcoin.JustcoinAdapters;
+import com.xeiam.xchange.justcoin.dto.marketdata.JustcoinDepth;
+import com.xeiam.xchange.justcoin.dto.marketdata.JustcoinPublicTrade;
+import com.xeiam.xchange.kraken.KrakenAdapters;
+import com.xeiam.xchange.kraken.dto.marketdata.KrakenDepth;
+import com.xeiam.xchange.kraken.dto.marketdata.KrakenPublicTrades;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenPublicTradesResult;
+import com.xeiam.xchange.lakebtc.LakeBTCAdapters;
+import com.xeiam.xchange.lakebtc.dto.marketdata.LakeBTCOrderBook;
+import com.xeiam.xchange.vaultofsatoshi.VaultOfSatoshiAdapters;
+import com.xeiam.xchange.vaultofsatoshi.dto.marketdata.DepthWrapper;
+import com.xeiam.xchange.vaultofsatoshi.dto.marketdata.TradesWrapper;
+import com.xeiam.xchange.vaultofsatoshi.dto.marketdata.VaultOfSatoshiDepth;
+import com.xeiam.xchange.vaultofsatoshi.dto.marketdata.VaultOfSatoshiTrade;
+import com.xeiam.xchange.virtex.v2.VirtExAdapters;
+import com.xeiam.xchange.virtex.v2.dto.marketdata.VirtExDepth;
+import com.xeiam.xchange.virtex.v2.dto.marketdata.VirtExDepthWrapper;
+import com.xeiam.xchange.virtex.v2.dto.marketdata.VirtExTrade;
+import com.xeiam.xchange.virtex.v2.dto.marketdata.VirtExTradesWrapper;
+
+/**
+ * The exchange-specific to generic conversion of order books and trades, fed from the exchange modules' example JSON. The raw DTOs are
+ * parsed once in setup so only the adapter is measured; see {@link JacksonDeserializersBenchmark} for the parsing itself.
+ * <p>
+ * Every exchange module with example order book or trades JSON is covered; a benchmark is missing where a module has no usable sample or no
+ * adapter for it (e.g. trades for Bitcoinium, CampBX, Hitbtc and LakeBTC, and for Bitfinex, whose sample predates the trade type the adapter
+ * needs). Cryptonit serves bids and asks from separate calls of the same format, so its single sample is adapted as both.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptersBenchmark {
+
+  private KrakenDepth krakenDepth;
+  private KrakenPublicTrades krakenTrades;
+  private BTCEDepth btceDepth;
+  private BTCETrade[] btceTrades;
+  private BitstampOrderBook bitstampOrderBook;
+  private BitstampPriceLevelOrderBook bitstampPriceLevelOrderBook;
+  private BitstampTransaction[] bitstampTransactions;
+  private Map<Integer, CryptsyPublicOrderbook> cryptsyOrderBooks;
+  private CryptsyMarketTradesReturn cryptsyTrades;
+  private ANXDepth anxDepth;
+  private List<ANXTrade> anxTrades;
+  private BitcoiniumOrderbook bitcoiniumOrderBook;
+  private BitcurexDepth bitcurexDepth;
+  private BitcurexTrade[] bitcurexTrades;
+  private BitfinexDepth bitfinexDepth;
+  private BTCCentralMarketDepth btcCentralDepth;
+  private BTCCentralTrade[] btcCentralTrades;
+  private BTCChinaDepth btcChinaDepth;
+  private List<BTCChinaTrade> btcChinaTrades;
+  private BTERDepth bterDepth;
+  private BTERTradeHistory bterTrades;
+  private CampBXOrderBook campBXOrderBook;
+  private CryptonitOrders cryptonitOrders;
+  private CryptonitOrders cryptonitTrades;
+  private CryptoTradeDepth cryptoTradeDepth;
+  private HitbtcOrderBook hitbtcOrderBook;
+  private JustcoinDepth justcoinDepth;
+  private List<JustcoinPublicTrade> justcoinTrades;
+  private LakeBTCOrderBook lakeBTCOrderBook;
+  private VaultOfSatoshiDepth vaultOfSatoshiDepth;
+  private List<VaultOfSatoshiTrade> vaultOfSatoshiTrades;
+  private VirtExDepth virtExDepth;
+  private List<VirtExTrade> virtExTrades;
+
+  @Setup
+  public void setUp() {
+
+    krakenDepth = Fixtures.read("/kraken/marketdata/example-depth-data.json", KrakenDepthResult.class).getResult().get("XXBTZEUR");
+    krakenTrades = Fixtures.read("/kraken/marketdata/example-trades-data.json", KrakenPublicTradesResult.class).getResult();
+    btceDepth = Fixtures.read("/btce/v3/marketdata/example-depth-data.json", BTCEDepthWrapper.class).getDepth("btc_usd");
+    btceTrades = Fixtures.read("/btce/v3/marketdata/example-trades-data.json", BTCETradesWrapper.class).getTrades("btc_usd");
+    bitstampOrderBook = Fixtures.read("/bitstamp/marketdata/example-full-depth-data.json", BitstampOrderBook.class);
+    bitstampPriceLevelOrderBook = Fixtures.read("/bitstamp/marketdata/example-full-depth-data.json", BitstampPriceLevelOrderBook.class);
+    bitstampTransactions = Fixtures.read("/bitstamp/marketdata/example-trades-data.json", BitstampTransaction[].class);
+    cryptsyOrderBooks = CryptsyAdapters.adaptPublicOrderBookMap(Fixtures.read("/cryptsy/marketdata/Sample_AllOrderbook_Public_Data.json",
+        CryptsyPublicOrderbookReturn.class).getReturnValue());
+    cryptsyTrades = Fixtures.read("/cryptsy/marketdata/Sample_MarketTrades_Data.json", CryptsyMarketTradesReturn.class);
+    anxDepth = Fixtures.read("/anx/v2/marketdata/example-fulldepth-data.json", ANXDepth.class);
+    anxTrades = Fixtures.read("/anx/v2/marketdata/example-trades-data.json", ANXTradesWrapper.class).getANXTrades();
+    bitcoiniumOrderBook = Fixtures.read("/bitcoinium/marketdata/example-depth-data.json", BitcoiniumOrderbook.class);
+    bitcurexDepth = Fixtures.read("/bitcurex/marketdata/example-depth-data.json", BitcurexDepth.class);
+    bitcurexTrades = Fixtures.read("/bitcurex/marketdata/example-trades-data.json", BitcurexTrade[].class);
+    bitfinexDepth = Fixtures.read("/bitfinex/v1/marketdata/example-marketdepth-data.json", BitfinexDepth.class);
+    btcCentralDepth = Fixtures.read("/btccentral/Example_DepthData.json", BTCCentralMarketDepth.class);
+    btcCentralTrades = Fixtures.read("/btccentral/Example_TradesData.json", BTCCentralTrade[].class);
+    btcChinaDepth = Fixtures.read("/btcchina/marketdata/example-depth-data.json", BTCChinaDepth.class);
+    btcChinaTrades = Arrays.asList(Fixtures.read("/btcchina/marketdata/example-trades-data.json", BTCChinaTrade[].class));
+    bterDepth = Fixtures.read("/bter/marketdata/example-depth-data.json", BTERDepth.class);
+    bterTrades = Fixtures.read("/bter/marketdata/example-trades-data.json", BTERTradeHistory.class);
+    campBXOrderBook = Fixtures.read("/campbx/marketdata/example-full-depth-data.json", CampBXOrderBook.class);
+    cryptonitOrders = Fixtures.read("/cryptonit/marketdata/example-depth-data.json", CryptonitOrders.class);
+    cryptonitTrades = Fixtures.read("/cryptonit/marketdata/example-trades-data.json", CryptonitOrders.class);
+    cryptoTradeDepth = Fixtures.read("/cryptotrade/marketdata/example-depth-data.json", CryptoTradeDepth.class);
+    hitbtcOrderBook = Fixtures.read("/hitbtc/marketdata/example-orderbook-data.json", HitbtcOrderBook.class);
+    justcoinDepth = Fixtures.read("/justcoin/marketdata/example-depth-data.json", JustcoinDepth.class);
+    justcoinTrades = Arrays.asList(Fixtures.read("/justcoin/marketdata/example-trades-data.json", JustcoinPublicTrade[].class));
+    lakeBTCOrderBook = Fixtures.read("/lakebtc/marketdata/example-orderbook-data.json", LakeBTCOrderBook.class);
+    vaultOfSatoshiDepth = Fixtures.read("/vaultofsatoshi/marketdata/example-depth-data.json", DepthWrapper.class).getDepth();
+    vaultOfSatoshiTrades = Fixtures.read("/vaultofsatoshi/marketdata/example-trades-data.json", TradesWrapper.class).getTrades();
+    virtExDepth = Fixtures.read("/cavirtex/marketdata/example-depth-data-v2.json", VirtExDepthWrapper.class).getDepth();
+    virtExTrades = Fixtures.read("/cavirtex/marketdata/example-trades-data-v2.json", VirtExTradesWrapper.class).getTrades();
+  }
+
+  @Benchmark
+  public OrderBook krakenOrderBook() {
+
+    return KrakenAdapters.adaptOrderBook(krakenDepth, CurrencyPair.BTC_EUR);
+  }
+
+  @Benchmark
+  public Trades krakenTrades() {
+
+    return KrakenAdapters.adaptTrades(krakenTrades.getTrades(), CurrencyPair.BTC_EUR, krakenTrades.getLast());
+  }
+
+  @Benchmark
+  public OrderBook btceOrderBook() {
+
+    List<LimitOrder> asks = BTCEAdapters.adaptOrders(btceDepth.getAsks(), CurrencyPair.BTC_USD, "ask", "");
+    List<LimitOrder> bids = BTCEAdapters.adaptOrders(btceDepth.getBids(), CurrencyPair.BTC_USD, "bid", "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades btceTrades() {
+
+    return BTCEAdapters.adaptTrades(btceTrades, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook bitstampOrderBook() {
+
+    return BitstampAdapters.adaptOrders(bitstampOrderBook, CurrencyPair.BTC_USD, 1000);
+  }
+
+  @Benchmark
+  public OrderBook bitstampPriceLevelOrderBook() {
+
+    return BitstampAdapters.adaptOrders(bitstampPriceLevelOrderBook, CurrencyPair.BTC_USD, 1000);
+  }
+
+  @Benchmark
+  public Trades bitstampTrades() {
+
+    return BitstampAdapters.adaptTrades(bitstampTransactions, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public List<OrderBook> cryptsyOrderBooks() {
+
+    return CryptsyAdapters.adaptPublicOrderBooks(cryptsyOrderBooks);
+  }
+
+  @Benchmark
+  public Trades cryptsyTrades() {
+
+    return CryptsyAdapters.adaptTrades(cryptsyTrades, CurrencyPair.WDC_BTC);
+  }
+
+  @Benchmark
+  public OrderBook anxOrderBook() {
+
+    return ANXAdapters.adaptOrderBook(anxDepth, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public Trades anxTrades() {
+
+    return ANXAdapters.adaptTrades(anxTrades);
+  }
+
+  @Benchmark
+  public OrderBook bitcoiniumOrderBook() {
+
+    return BitcoiniumAdapters.adaptOrderbook(bitcoiniumOrderBook, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook bitcurexOrderBook() {
+
+    List<LimitOrder> asks = BitcurexAdapters.adaptOrders(bitcurexDepth.getAsks(), CurrencyPair.BTC_EUR, OrderType.ASK, "");
+    List<LimitOrder> bids = BitcurexAdapters.adaptOrders(bitcurexDepth.getBids(), CurrencyPair.BTC_EUR, OrderType.BID, "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades bitcurexTrades() {
+
+    return BitcurexAdapters.adaptTrades(bitcurexTrades, CurrencyPair.BTC_EUR);
+  }
+
+  @Benchmark
+  public OrderBook bitfinexOrderBook() {
+
+    List<LimitOrder> asks = BitfinexAdapters.adaptOrders(bitfinexDepth.getAsks(), CurrencyPair.BTC_USD, "ask", "");
+    List<LimitOrder> bids = BitfinexAdapters.adaptOrders(bitfinexDepth.getBids(), CurrencyPair.BTC_USD, "bid", "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public OrderBook btcCentralOrderBook() {
+
+    return BTCCentralAdapters.adaptMarketDepth(btcCentralDepth, CurrencyPair.BTC_EUR);
+  }
+
+  @Benchmark
+  public Trades btcCentralTrades() {
+
+    return BTCCentralAdapters.adaptTrade(btcCentralTrades, CurrencyPair.BTC_EUR);
+  }
+
+  @Benchmark
+  public OrderBook btcChinaOrderBook() {
+
+    List<LimitOrder> asks = BTCChinaAdapters.adaptOrders(btcChinaDepth.getAsks(), CurrencyPair.BTC_CNY, OrderType.ASK);
+    List<LimitOrder> bids = BTCChinaAdapters.adaptOrders(btcChinaDepth.getBids(), CurrencyPair.BTC_CNY, OrderType.BID);
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades btcChinaTrades() {
+
+    return BTCChinaAdapters.adaptTrades(btcChinaTrades, CurrencyPair.BTC_CNY);
+  }
+
+  @Benchmark
+  public OrderBook bterOrderBook() {
+
+    return BTERAdapters.adaptOrderBook(bterDepth, CurrencyPair.LTC_BTC);
+  }
+
+  @Benchmark
+  public Trades bterTrades() {
+
+    return BTERAdapters.adaptTrades(bterTrades, CurrencyPair.BTC_CNY);
+  }
+
+  @Benchmark
+  public OrderBook campBXOrderBook() {
+
+    return CampBXAdapters.adaptOrders(campBXOrderBook, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook cryptonitOrderBook() {
+
+    List<LimitOrder> asks = CryptonitAdapters.adaptOrders(cryptonitOrders, CurrencyPair.BTC_USD, "ask", "");
+    List<LimitOrder> bids = CryptonitAdapters.adaptOrders(cryptonitOrders, CurrencyPair.BTC_USD, "bid", "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades cryptonitTrades() {
+
+    return CryptonitAdapters.adaptTrades(cryptonitTrades, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook cryptoTradeOrderBook() {
+
+    return CryptoTradeAdapters.adaptOrderBook(CurrencyPair.BTC_USD, cryptoTradeDepth);
+  }
+
+  @Benchmark
+  public OrderBook hitbtcOrderBook() {
+
+    return HitbtcAdapters.adaptOrderBook(hitbtcOrderBook, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook justcoinOrderBook() {
+
+    return JustcoinAdapters.adaptOrderBook(CurrencyPair.BTC_USD, justcoinDepth);
+  }
+
+  @Benchmark
+  public Trades justcoinTrades() {
+
+    return JustcoinAdapters.adaptPublicTrades(CurrencyPair.BTC_USD, justcoinTrades);
+  }
+
+  @Benchmark
+  public OrderBook lakeBTCOrderBook() {
+
+    return LakeBTCAdapters.adaptOrderBook(lakeBTCOrderBook, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook vaultOfSatoshiOrderBook() {
+
+    List<LimitOrder> asks = VaultOfSatoshiAdapters.adaptOrders(vaultOfSatoshiDepth.getAsks(), CurrencyPair.BTC_USD, "ask", "");
+    List<LimitOrder> bids = VaultOfSatoshiAdapters.adaptOrders(vaultOfSatoshiDepth.getBids(), CurrencyPair.BTC_USD, "bid", "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades vaultOfSatoshiTrades() {
+
+    return VaultOfSatoshiAdapters.adaptTrades(vaultOfSatoshiTrades, CurrencyPair.BTC_USD);
+  }
+
+  @Benchmark
+  public OrderBook virtExOrderBook() {
+
+    List<LimitOrder> asks = VirtExAdapters.adaptOrders(virtExDepth.getAsks(), CurrencyPair.BTC_CAD, "ask", "");
+    List<LimitOrder> bids = VirtExAdapters.adaptOrders(virtExDepth.getBids(), CurrencyPair.BTC_CAD, "bid", "");
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public Trades virtExTrades() {
+
+    return VirtExAdapters.adaptTrades(virtExTrades, CurrencyPair.BTC_CAD);
+  }
+}
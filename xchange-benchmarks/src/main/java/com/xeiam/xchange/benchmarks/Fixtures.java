@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Loads the example JSON of the exchange modules, which the build copies onto the classpath under the exchange name (e.g.
+ * /kraken/marketdata/example-depth-data.json)
+ */
+final class Fixtures {
+
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private Fixtures() {
+
+  }
+
+  static byte[] bytes(String resource) {
+
+    InputStream is = Fixtures.class.getResourceAsStream(resource);
+    if (is == null) {
+      throw new IllegalStateException("Missing benchmark resource " + resource);
+    }
+    try {
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = is.read(buffer); read >= 0; read = is.read(buffer)) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } finally {
+        is.close();
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read benchmark resource " + resource, e);
+    }
+  }
+
+  static <T> T read(String resource, Class<T> type) {
+
+    try {
+      return MAPPER.readValue(bytes(resource), type);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not parse benchmark resource " + resource, e);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepthWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderBooksReturn;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderbookReturn;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult;
+import com.xeiam.xchange.utils.jackson.CurrencyPairDeserializer;
+import com.xeiam.xchange.utils.jackson.FloatingTimestampDeserializer;
+import com.xeiam.xchange.utils.jackson.ISO8601DateDeserializer;
+import com.xeiam.xchange.utils.jackson.ISODateDeserializer;
+import com.xeiam.xchange.utils.jackson.Rfc1123DateDeserializer;
+import com.xeiam.xchange.utils.jackson.SqlTimeDeserializer;
+
+/**
+ * Parsing with the deserializers in com.xeiam.xchange.utils.jackson. Depth responses are parsed both into the BigDecimal DTOs and through the
+ * fixed-point ({@link com.xeiam.xchange.utils.jackson.PriceLevelDeserializer}) or streamed
+ * ({@link com.xeiam.xchange.utils.jackson.DepthStreamReader}) paths; run with -prof gc to compare allocation as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonDeserializersBenchmark {
+
+  private static final String SCALARS = "{\"iso8601\":\"2014-02-08T10:15:30\",\"iso\":\"2014-02-08T10:15:30.123Z\",\"rfc1123\":\"Sat, 08 Feb 2014 10:15:30 GMT\","
+      + "\"sql\":\"2014-02-08 10:15:30\",\"floating\":1391825343.7876,\"pair\":\"btc_usd\"}";
+
+  private byte[] bitstampDepth;
+  private byte[] krakenDepth;
+  private byte[] btceDepth;
+  private byte[] cryptsyOrderBooks;
+  private byte[] scalars;
+
+  @Setup
+  public void setUp() throws IOException {
+
+    bitstampDepth = Fixtures.bytes("/bitstamp/marketdata/example-full-depth-data.json");
+    krakenDepth = Fixtures.bytes("/kraken/marketdata/example-depth-data.json");
+    btceDepth = Fixtures.bytes("/btce/v3/marketdata/example-depth-data.json");
+    cryptsyOrderBooks = Fixtures.bytes("/cryptsy/marketdata/Sample_AllOrderbook_Public_Data.json");
+    scalars = SCALARS.getBytes("UTF-8");
+  }
+
+  @Benchmark
+  public Object bitstampBigDecimalDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(bitstampDepth, BitstampOrderBook.class);
+  }
+
+  @Benchmark
+  public Object bitstampFixedPointDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(bitstampDepth, BitstampPriceLevelOrderBook.class);
+  }
+
+  @Benchmark
+  public Object krakenDtoDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(krakenDepth, KrakenDepthResult.class);
+  }
+
+  @Benchmark
+  public Object krakenStreamedDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(krakenDepth, KrakenOrderBookResult.class);
+  }
+
+  @Benchmark
+  public Object btceDtoDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(btceDepth, BTCEDepthWrapper.class);
+  }
+
+  @Benchmark
+  public Object btceStreamedDepth() throws IOException {
+
+    return Fixtures.MAPPER.readValue(btceDepth, BTCEOrderBookWrapper.class);
+  }
+
+  @Benchmark
+  public Object cryptsyDtoOrderBooks() throws IOException {
+
+    return Fixtures.MAPPER.readValue(cryptsyOrderBooks, CryptsyPublicOrderbookReturn.class);
+  }
+
+  @Benchmark
+  public Object cryptsyStreamedOrderBooks() throws IOException {
+
+    return Fixtures.MAPPER.readValue(cryptsyOrderBooks, CryptsyPublicOrderBooksReturn.class);
+  }
+
+  @Benchmark
+  public Object scalars() throws IOException {
+
+    return Fixtures.MAPPER.readValue(scalars, Scalars.class);
+  }
+
+  /**
+   * One field per date/pair deserializer
+   */
+  public static class Scalars {
+
+    @JsonProperty("iso8601")
+    @JsonDeserialize(using = ISO8601DateDeserializer.class)
+    public Date iso8601;
+
+    @JsonProperty("iso")
+    @JsonDeserialize(using = ISODateDeserializer.class)
+    public Date iso;
+
+    @JsonProperty("rfc1123")
+    @JsonDeserialize(using = Rfc1123DateDeserializer.class)
+    public Date rfc1123;
+
+    @JsonProperty("sql")
+    @JsonDeserialize(using = SqlTimeDeserializer.class)
+    public Date sql;
+
+    @JsonProperty("floating")
+    @JsonDeserialize(using = FloatingTimestampDeserializer.class)
+    public Date floating;
+
+    @JsonProperty("pair")
+    @JsonDeserialize(using = CurrencyPairDeserializer.class)
+    public CurrencyPair pair;
+  }
+}
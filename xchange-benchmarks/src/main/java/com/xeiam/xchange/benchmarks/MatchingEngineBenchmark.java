@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.simulated.MatchingEngine;
+import com.xeiam.xchange.simulated.SimulatedAccount;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * Order placements and cancels per second on the simulated exchange's {@link MatchingEngine}, with a book seeded to the given depth on each side. The
+ * placing account is funded well beyond what an iteration can spend, so balance checks are part of the measurement but never fail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchingEngineBenchmark {
+
+  private static final int ORDERS = 4096;
+  private static final BigDecimal TICK = new BigDecimal("0.01");
+  private static final BigDecimal MID = new BigDecimal("500.00");
+  private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+  @Param({ "50", "2000" })
+  public int depth;
+
+  private MatchingEngine engine;
+  private SimulatedAccount account;
+  private OrderType[] types;
+  private BigDecimal[] prices;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+
+    Random random = new Random(42);
+    types = new OrderType[ORDERS];
+    prices = new BigDecimal[ORDERS];
+    for (int i = 0; i < ORDERS; i++) {
+      types[i] = random.nextBoolean() ? OrderType.ASK : OrderType.BID;
+      prices[i] = price(types[i], 1 + random.nextInt(depth));
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+
+    Map<String, Object> balances = new HashMap<String, Object>();
+    balances.put("BTC", "1000000000");
+    balances.put("USD", "1000000000000");
+    SimulatedVenue venue = new SimulatedVenue(balances);
+    engine = venue.getMatchingEngine(CurrencyPair.BTC_USD);
+    account = venue.getAccount("benchmark");
+    for (int i = 1; i <= depth; i++) {
+      engine.seed(new LimitOrder(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, null, null, price(OrderType.ASK, i)));
+      engine.seed(new LimitOrder(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, null, null, price(OrderType.BID, i)));
+    }
+    index = 0;
+  }
+
+  /**
+   * A passive limit order joining a level, cancelled straight away
+   */
+  @Benchmark
+  public boolean placeAndCancel() {
+
+    int i = index++ & (ORDERS - 1);
+    String id = engine.placeLimitOrder(account, types[i], AMOUNT, prices[i]);
+    return engine.cancel(account, id);
+  }
+
+  /**
+   * A marketable limit order filled against the best level, whose liquidity is put back by an order of no account
+   */
+  @Benchmark
+  public String placeCrossing() {
+
+    int i = index++ & (ORDERS - 1);
+    OrderType type = types[i];
+    OrderType opposite = type == OrderType.BID ? OrderType.ASK : OrderType.BID;
+    BigDecimal best = price(opposite, 1);
+    engine.placeLimitOrder(account, type, AMOUNT, best);
+    return engine.placeLimitOrder(null, opposite, AMOUNT, best);
+  }
+
+  private static BigDecimal price(OrderType type, int level) {
+
+    BigDecimal offset = TICK.multiply(new BigDecimal(level));
+    return type == OrderType.ASK ? MID.add(offset) : MID.subtract(offset);
+  }
+}
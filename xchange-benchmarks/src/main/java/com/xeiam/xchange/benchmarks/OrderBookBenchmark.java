@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * Building an {@link OrderBook} and applying updates to it, for a shallow and a full (2000 levels per side) book. The update streams are
+ * pre-generated with a fixed seed; every removal is followed by a re-insert at the same price so the depth stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookBenchmark {
+
+  private static final int UPDATES = 4096;
+  private static final BigDecimal TICK = new BigDecimal("0.01");
+  private static final BigDecimal MID = new BigDecimal("500.00");
+
+  @Param({ "50", "2000" })
+  public int depth;
+
+  private List<LimitOrder> asks;
+  private List<LimitOrder> bids;
+  private LimitOrder[] limitOrders;
+  private OrderBookUpdate[] updates;
+  private OrderBook orderBook;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+
+    asks = new ArrayList<LimitOrder>(depth);
+    bids = new ArrayList<LimitOrder>(depth);
+    for (int i = 1; i <= depth; i++) {
+      asks.add(order(OrderType.ASK, i, BigDecimal.ONE));
+      bids.add(order(OrderType.BID, i, BigDecimal.ONE));
+    }
+
+    Random random = new Random(42);
+    limitOrders = new LimitOrder[UPDATES];
+    updates = new OrderBookUpdate[UPDATES];
+    for (int i = 0; i < UPDATES; i++) {
+      OrderType type = random.nextBoolean() ? OrderType.ASK : OrderType.BID;
+      int level = 1 + random.nextInt(depth);
+      BigDecimal volume = new BigDecimal(1 + random.nextInt(1000)).movePointLeft(2);
+      limitOrders[i] = order(type, level, volume);
+      if (i % 8 == 6) {
+        updates[i] = update(type, level, BigDecimal.ZERO);
+        updates[++i] = update(type, level, volume);
+        limitOrders[i] = order(type, level, volume);
+      }
+      else {
+        updates[i] = update(type, level, volume);
+      }
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+
+    orderBook = new OrderBook(null, asks, bids);
+    index = 0;
+  }
+
+  @Benchmark
+  public OrderBook construct() {
+
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Benchmark
+  public OrderBook updateLimitOrder() {
+
+    orderBook.update(limitOrders[index++ & (UPDATES - 1)]);
+    return orderBook;
+  }
+
+  @Benchmark
+  public OrderBook updateOrderBookUpdate() {
+
+    orderBook.update(updates[index++ & (UPDATES - 1)]);
+    return orderBook;
+  }
+
+  @Benchmark
+  public LimitOrder bestBid() {
+
+    return orderBook.getBestBid();
+  }
+
+  private static BigDecimal price(OrderType type, int level) {
+
+    BigDecimal offset = TICK.multiply(new BigDecimal(level));
+    return type == OrderType.ASK ? MID.add(offset) : MID.subtract(offset);
+  }
+
+  private static LimitOrder order(OrderType type, int level, BigDecimal volume) {
+
+    return new LimitOrder(type, volume, CurrencyPair.BTC_USD, "", null, price(type, level));
+  }
+
+  private static OrderBookUpdate update(OrderType type, int level, BigDecimal totalVolume) {
+
+    return new OrderBookUpdate(type, totalVolume, CurrencyPair.BTC_USD, price(type, level), null, totalVolume);
+  }
+}
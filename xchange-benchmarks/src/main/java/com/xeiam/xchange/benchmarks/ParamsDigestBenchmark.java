@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.MediaType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import si.mazi.rescu.Params;
+import si.mazi.rescu.ParamsDigest;
+import si.mazi.rescu.RestInvocation;
+import si.mazi.rescu.RestMethodMetadata;
+
+import com.xeiam.xchange.anx.v2.service.ANXV2Digest;
+import com.xeiam.xchange.bitcurex.service.BitcurexDigest;
+import com.xeiam.xchange.bitfinex.v1.service.BitfinexHmacPostBodyDigest;
+import com.xeiam.xchange.bitstamp.service.BitstampDigest;
+import com.xeiam.xchange.btcchina.dto.trade.request.BTCChinaBuyOrderRequest;
+import com.xeiam.xchange.btcchina.service.BTCChinaDigest;
+import com.xeiam.xchange.btce.v3.service.BTCEHmacPostBodyDigest;
+import com.xeiam.xchange.btctrade.service.BTCTradeDigest;
+import com.xeiam.xchange.bter.service.BTERHmacPostBodyDigest;
+import com.xeiam.xchange.cexio.service.CexIODigest;
+import com.xeiam.xchange.coinbase.service.CoinbaseDigest;
+import com.xeiam.xchange.cryptotrade.service.CryptoTradeHmacPostBodyDigest;
+import com.xeiam.xchange.cryptsy.service.CryptsyHmacPostBodyDigest;
+import com.xeiam.xchange.itbit.v1.service.ItBitHmacPostBodyDigest;
+import com.xeiam.xchange.kraken.service.KrakenDigest;
+
+/**
+ * Signing a typical private request with each of the {@link com.xeiam.xchange.service.BaseParamsDigest} subclasses. The invocations are built
+ * once by rescu, as they are for a real proxy call, and carry everything the digests read: the path, the nonce headers and the body, form-encoded
+ * from {@link SignedEndpoint} or, for BTCChina's JSON-RPC, a JSON request from {@link SignedJsonEndpoint}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParamsDigestBenchmark {
+
+  private static final String SECRET_BASE64 = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMDEyMzQ1Njc4OWFiY2RlZg==";
+
+  private ParamsDigest kraken;
+  private ParamsDigest btce;
+  private ParamsDigest bitstamp;
+  private ParamsDigest cryptsy;
+  private ParamsDigest anx;
+  private ParamsDigest bitcurex;
+  private ParamsDigest bitfinex;
+  private ParamsDigest btcChina;
+  private ParamsDigest btcTrade;
+  private ParamsDigest bter;
+  private ParamsDigest cexIO;
+  private ParamsDigest coinbase;
+  private ParamsDigest cryptoTrade;
+  private ParamsDigest itBit;
+  private RestInvocation invocation;
+  private RestInvocation jsonInvocation;
+
+  @Path("0")
+  public interface SignedEndpoint {
+
+    @POST
+    @Path("private/AddOrder")
+    @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+    Object addOrder(@HeaderParam("API-Key") String apiKey, @HeaderParam("ACCESS_NONCE") long accessNonce, @HeaderParam("X-Auth-Nonce") int authNonce,
+        @HeaderParam("X-Auth-Timestamp") long authTimestamp, @FormParam("nonce") long nonce, @FormParam("pair") String pair, @FormParam("type") String type,
+        @FormParam("price") String price, @FormParam("volume") String volume);
+  }
+
+  @Path("api_trade_v1.php")
+  public interface SignedJsonEndpoint {
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    Object buyOrder(@HeaderParam("Json-Rpc-Tonce") long tonce, BTCChinaBuyOrderRequest request);
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+
+    kraken = KrakenDigest.createInstance(SECRET_BASE64);
+    btce = BTCEHmacPostBodyDigest.createInstance(SECRET_BASE64);
+    bitstamp = BitstampDigest.createInstance(SECRET_BASE64, "123456", "api-key");
+    cryptsy = CryptsyHmacPostBodyDigest.createInstance(SECRET_BASE64);
+    anx = ANXV2Digest.createInstance(SECRET_BASE64);
+    bitcurex = BitcurexDigest.createInstance(SECRET_BASE64, "api-key");
+    bitfinex = BitfinexHmacPostBodyDigest.createInstance(SECRET_BASE64);
+    btcChina = BTCChinaDigest.createInstance("access-key", SECRET_BASE64);
+    btcTrade = BTCTradeDigest.createInstance(SECRET_BASE64);
+    bter = BTERHmacPostBodyDigest.createInstance(SECRET_BASE64);
+    cexIO = CexIODigest.createInstance(SECRET_BASE64, "123456", "api-key");
+    coinbase = CoinbaseDigest.createInstance(SECRET_BASE64);
+    cryptoTrade = CryptoTradeHmacPostBodyDigest.createInstance(SECRET_BASE64);
+    itBit = ItBitHmacPostBodyDigest.createInstance("api-key", SECRET_BASE64);
+
+    RestMethodMetadata metadata = RestMethodMetadata.create(SignedEndpoint.class.getMethod("addOrder", String.class, long.class, int.class, long.class, long.class,
+        String.class, String.class, String.class, String.class), "https://api.example.com", "0");
+    Object[] args = { "api-key", 1391825343000L, 1, 1391825343000L, 1391825343000L, "XXBTZEUR", "buy", "530.75513", "0.248" };
+    invocation = RestInvocation.create(metadata, args, new HashMap<Class<? extends Annotation>, Params>());
+
+    RestMethodMetadata jsonMetadata = RestMethodMetadata.create(SignedJsonEndpoint.class.getMethod("buyOrder", long.class, BTCChinaBuyOrderRequest.class),
+        "https://api.example.com", "api_trade_v1.php");
+    Object[] jsonArgs = { 1391825343000000L, new BTCChinaBuyOrderRequest(new BigDecimal("3530.75"), new BigDecimal("0.248")) };
+    jsonInvocation = RestInvocation.create(jsonMetadata, jsonArgs, new HashMap<Class<? extends Annotation>, Params>());
+  }
+
+  @Benchmark
+  public String krakenHmacSha512() {
+
+    return kraken.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String btceHmacSha512() {
+
+    return btce.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String bitstampHmacSha256() {
+
+    return bitstamp.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String cryptsyHmacSha512() {
+
+    return cryptsy.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String anxHmacSha512() {
+
+    return anx.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String bitcurexHmacSha512() {
+
+    return bitcurex.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String bitfinexHmacSha384() {
+
+    return bitfinex.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String btcChinaHmacSha1() {
+
+    return btcChina.digestParams(jsonInvocation);
+  }
+
+  @Benchmark
+  public String btcTradeHmacSha256() {
+
+    return btcTrade.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String bterHmacSha512() {
+
+    return bter.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String cexIOHmacSha256() {
+
+    return cexIO.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String coinbaseHmacSha256() {
+
+    return coinbase.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String cryptoTradeHmacSha512() {
+
+    return cryptoTrade.digestParams(invocation);
+  }
+
+  @Benchmark
+  public String itBitHmacSha512() {
+
+    return itBit.digestParams(invocation);
+  }
+}
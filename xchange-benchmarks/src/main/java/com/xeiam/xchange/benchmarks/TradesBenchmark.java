@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+
+/**
+ * {@link Trades} construction, which copies and sorts the given list, for input that is already in order (the usual case), reversed (as
+ * several exchanges return it) and shuffled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradesBenchmark {
+
+  @Param({ "100", "2000" })
+  public int size;
+
+  @Param({ "sorted", "reversed", "shuffled" })
+  public String order;
+
+  private List<Trade> trades;
+
+  @Setup
+  public void setUp() {
+
+    trades = new ArrayList<Trade>(size);
+    long start = 1391825343000L;
+    for (int i = 0; i < size; i++) {
+      trades.add(new Trade(i % 2 == 0 ? OrderType.BID : OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, new BigDecimal("500.00"), new Date(start + i * 1000L),
+          String.valueOf(1000000 + i)));
+    }
+    if ("reversed".equals(order)) {
+      Collections.reverse(trades);
+    }
+    else if ("shuffled".equals(order)) {
+      Collections.shuffle(trades, new Random(42));
+    }
+  }
+
+  @Benchmark
+  public Trades sortByTimestamp() {
+
+    return new Trades(trades, TradeSortType.SortByTimestamp);
+  }
+
+  @Benchmark
+  public Trades sortById() {
+
+    return new Trades(trades, TradeSortType.SortByID);
+  }
+}
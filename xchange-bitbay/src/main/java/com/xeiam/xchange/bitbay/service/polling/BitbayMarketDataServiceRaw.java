@@ -2,8 +2,6 @@ package com.xeiam.xchange.bitbay.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitbay.Bitbay;
 import com.xeiam.xchange.bitbay.dto.marketdata.BitbayOrderBook;
@@ -26,7 +24,7 @@ public class BitbayMarketDataServiceRaw extends BitbayBasePollingService {
   protected BitbayMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitbay = RestProxyFactory.createProxy(Bitbay.class, exchangeSpecification.getSslUri());
+    this.bitbay = createProxy(Bitbay.class, exchangeSpecification.getSslUri());
   }
 
   public BitbayTicker getBitbayTicker(CurrencyPair currencyPair) throws IOException {
@@ -23,8 +23,6 @@ package com.xeiam.xchange.bitcoinaverage.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitcoinaverage.BitcoinAverage;
 import com.xeiam.xchange.bitcoinaverage.dto.marketdata.BitcoinAverageTicker;
@@ -50,7 +48,7 @@ public class BitcoinAverageMarketDataServiceRaw extends BitcoinAverageBasePollin
   public BitcoinAverageMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitcoinAverage = RestProxyFactory.createProxy(BitcoinAverage.class, exchangeSpecification.getSslUri());
+    this.bitcoinAverage = createProxy(BitcoinAverage.class, exchangeSpecification.getSslUri());
   }
 
   public BitcoinAverageTicker getBitcoinAverageTicker(String tradableIdentifier, String currency) throws IOException {
@@ -26,8 +26,6 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.CachedDataSession;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.NotAvailableFromExchangeException;
@@ -65,7 +63,7 @@ public class BitcoinChartsMarketDataService extends BitcoinChartsBasePollingServ
   public BitcoinChartsMarketDataService(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitcoinCharts = RestProxyFactory.createProxy(BitcoinCharts.class, exchangeSpecification.getPlainTextUri());
+    this.bitcoinCharts = createProxy(BitcoinCharts.class, exchangeSpecification.getPlainTextUri());
   }
 
   @Override
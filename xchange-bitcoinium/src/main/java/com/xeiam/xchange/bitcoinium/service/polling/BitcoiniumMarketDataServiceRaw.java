@@ -23,8 +23,6 @@ package com.xeiam.xchange.bitcoinium.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitcoinium.Bitcoinium;
 import com.xeiam.xchange.bitcoinium.BitcoiniumUtils;
@@ -53,7 +51,7 @@ public class BitcoiniumMarketDataServiceRaw extends BitcoiniumBasePollingService
   public BitcoiniumMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitcoinium = RestProxyFactory.createProxy(Bitcoinium.class, exchangeSpecification.getSslUri());
+    this.bitcoinium = createProxy(Bitcoinium.class, exchangeSpecification.getSslUri());
   }
 
   /**
@@ -2,8 +2,6 @@ package com.xeiam.xchange.bitcurex.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitcurex.BitcurexAuthenticated;
@@ -20,7 +18,7 @@ public class BitcurexAccountServiceRaw extends BitcurexBasePollingService {
 
     super(exchangeSpecification);
 
-    this.bitcurexAuthenticated = RestProxyFactory.createProxy(BitcurexAuthenticated.class, exchangeSpecification.getSslUri());
+    this.bitcurexAuthenticated = createProxy(BitcurexAuthenticated.class, exchangeSpecification.getSslUri());
     this.signatureCreator = BitcurexDigest.createInstance(exchangeSpecification.getSecretKey(), exchangeSpecification.getApiKey());
   }
 
@@ -23,8 +23,6 @@ package com.xeiam.xchange.bitcurex.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitcurex.Bitcurex;
 import com.xeiam.xchange.bitcurex.dto.marketdata.BitcurexDepth;
@@ -55,7 +53,7 @@ public class BitcurexMarketDataServiceRaw extends BitcurexBasePollingService {
 
   public BitcurexTicker getBitcurexTicker(String currency) throws IOException {
 
-    this.bitcurex = RestProxyFactory.createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
+    this.bitcurex = createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
     // Request data
     BitcurexTicker bitcurexTicker = bitcurex.getTicker();
 
@@ -64,7 +62,7 @@ public class BitcurexMarketDataServiceRaw extends BitcurexBasePollingService {
 
   public BitcurexDepth getBitcurexOrderBook(String currency) throws IOException {
 
-    this.bitcurex = RestProxyFactory.createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
+    this.bitcurex = createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
     // Request data
     BitcurexDepth bitcurexDepth = bitcurex.getFullDepth();
 
@@ -73,7 +71,7 @@ public class BitcurexMarketDataServiceRaw extends BitcurexBasePollingService {
 
   public BitcurexTrade[] getBitcurexTrades(String currency) throws IOException {
 
-    this.bitcurex = RestProxyFactory.createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
+    this.bitcurex = createProxy(Bitcurex.class, "https://" + currency + ".bitcurex.com");
     // Request data
     BitcurexTrade[] bitcurexTrades = bitcurex.getTrades();
 
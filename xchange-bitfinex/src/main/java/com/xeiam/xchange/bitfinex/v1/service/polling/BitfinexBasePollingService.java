@@ -23,12 +23,12 @@ package com.xeiam.xchange.bitfinex.v1.service.polling;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitfinex.v1.Bitfinex;
@@ -37,7 +37,11 @@ import com.xeiam.xchange.bitfinex.v1.service.BitfinexBaseService;
 import com.xeiam.xchange.bitfinex.v1.service.BitfinexHmacPostBodyDigest;
 import com.xeiam.xchange.bitfinex.v1.service.BitfinexPayloadDigest;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.meta.CurrencyPairMetaData;
+import com.xeiam.xchange.dto.meta.ExchangeMetaData;
 import com.xeiam.xchange.service.polling.BasePollingService;
+import com.xeiam.xchange.service.polling.MetaDataLoader;
+import com.xeiam.xchange.service.polling.MetaDataRegistry;
 
 public class BitfinexBasePollingService<T extends Bitfinex> extends BitfinexBaseService implements BasePollingService {
 
@@ -48,7 +52,7 @@ public class BitfinexBasePollingService<T extends Bitfinex> extends BitfinexBase
   protected final T bitfinex;
   protected final ParamsDigest signatureCreator;
   protected final ParamsDigest payloadCreator;
-  private final Set<CurrencyPair> currencyPairs;
+  private final MetaDataRegistry metaDataRegistry;
 
   /**
    * Constructor
@@ -58,11 +62,18 @@ public class BitfinexBasePollingService<T extends Bitfinex> extends BitfinexBase
   public BitfinexBasePollingService(Class<T> type, ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitfinex = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    this.bitfinex = createProxy(type, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = BitfinexHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
     this.payloadCreator = new BitfinexPayloadDigest();
-    this.currencyPairs = new HashSet<CurrencyPair>();
+    this.metaDataRegistry = MetaDataRegistry.getInstance(exchangeSpecification, new MetaDataLoader() {
+
+      @Override
+      public ExchangeMetaData load() throws IOException {
+
+        return loadMetaData();
+      }
+    });
   }
 
   protected int nextNonce() {
@@ -71,14 +82,18 @@ public class BitfinexBasePollingService<T extends Bitfinex> extends BitfinexBase
   }
 
   @Override
-  public synchronized Collection<CurrencyPair> getExchangeSymbols() throws IOException {
+  public Collection<CurrencyPair> getExchangeSymbols() throws IOException {
 
-    if (currencyPairs.isEmpty()) {
-      for (String symbol : bitfinex.getSymbols()) {
-        currencyPairs.add(BitfinexAdapters.adaptCurrencyPair(symbol));
-      }
+    return metaDataRegistry.getMetaData().getCurrencyPairs();
+  }
+
+  private ExchangeMetaData loadMetaData() throws IOException {
+
+    Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>();
+    for (String symbol : bitfinex.getSymbols()) {
+      currencyPairs.put(BitfinexAdapters.adaptCurrencyPair(symbol), new CurrencyPairMetaData(symbol, null, null));
     }
 
-    return currencyPairs;
+    return new ExchangeMetaData(currencyPairs, Collections.<String, String> emptyMap(), System.currentTimeMillis());
   }
 }
@@ -2,8 +2,6 @@ package com.xeiam.xchange.bitmarket.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitmarket.BitMarket;
 import com.xeiam.xchange.bitmarket.dto.marketdata.BitMarketOrderBook;
@@ -26,7 +24,7 @@ public class BitMarketDataServiceRaw extends BitMarketBasePollingService {
   protected BitMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitMarket = RestProxyFactory.createProxy(BitMarket.class, exchangeSpecification.getSslUri());
+    this.bitMarket = createProxy(BitMarket.class, exchangeSpecification.getSslUri());
   }
 
   public BitMarketTicker getBitMarketTicker(CurrencyPair currencyPair) throws IOException {
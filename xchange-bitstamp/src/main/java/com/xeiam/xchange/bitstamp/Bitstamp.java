@@ -30,6 +30,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTicker;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
 
@@ -47,6 +48,13 @@ public interface Bitstamp {
   @Path("order_book/")
   public BitstampOrderBook getOrderBook() throws IOException;
 
+  /**
+   * Same as {@link #getOrderBook()} but with each order parsed into fixed-point price and amount.
+   */
+  @GET
+  @Path("order_book/")
+  public BitstampPriceLevelOrderBook getPriceLevelOrderBook() throws IOException;
+
   @GET
   @Path("ticker/")
   public BitstampTicker getTicker() throws IOException;
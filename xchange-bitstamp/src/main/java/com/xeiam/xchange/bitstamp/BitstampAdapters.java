@@ -30,6 +30,7 @@ import java.util.List;
 
 import com.xeiam.xchange.bitstamp.dto.account.BitstampBalance;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTicker;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
 import com.xeiam.xchange.bitstamp.dto.trade.BitstampUserTransaction;
@@ -39,6 +40,7 @@ import com.xeiam.xchange.dto.Order;
 import com.xeiam.xchange.dto.Order.OrderType;
 import com.xeiam.xchange.dto.account.AccountInfo;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
 import com.xeiam.xchange.dto.marketdata.Trade;
@@ -92,6 +94,31 @@ public final class BitstampAdapters {
     return new OrderBook(date, asks, bids);
   }
 
+  /**
+   * Adapts a BitstampPriceLevelOrderBook to a OrderBook Object
+   * 
+   * @param bitstampOrderBook the fixed-point Bitstamp order book
+   * @param currencyPair (e.g. BTC/USD)
+   * @param timeScale polled order books provide a timestamp in seconds, stream in ms
+   * @return The XChange OrderBook
+   */
+  public static OrderBook adaptOrders(BitstampPriceLevelOrderBook bitstampOrderBook, CurrencyPair currencyPair, int timeScale) {
+
+    List<LimitOrder> asks = createOrdersFromPriceLevels(currencyPair, Order.OrderType.ASK, bitstampOrderBook.getAsks());
+    List<LimitOrder> bids = createOrdersFromPriceLevels(currencyPair, Order.OrderType.BID, bitstampOrderBook.getBids());
+    Date date = new Date(bitstampOrderBook.getTimestamp() * timeScale);
+    return new OrderBook(date, asks, bids);
+  }
+
+  public static List<LimitOrder> createOrdersFromPriceLevels(CurrencyPair currencyPair, Order.OrderType orderType, List<PriceLevel> priceLevels) {
+
+    List<LimitOrder> limitOrders = new ArrayList<LimitOrder>(priceLevels.size());
+    for (PriceLevel priceLevel : priceLevels) {
+      limitOrders.add(priceLevel.toLimitOrder(orderType, currencyPair, null));
+    }
+    return limitOrders;
+  }
+
   public static List<LimitOrder> createOrders(CurrencyPair currencyPair, Order.OrderType orderType, List<List<BigDecimal>> orders) {
 
     List<LimitOrder> limitOrders = new ArrayList<LimitOrder>();
@@ -29,6 +29,8 @@ import com.xeiam.xchange.bitstamp.service.polling.BitstampMarketDataService;
 import com.xeiam.xchange.bitstamp.service.polling.BitstampTradeService;
 import com.xeiam.xchange.bitstamp.service.streaming.BitstampPusherService;
 import com.xeiam.xchange.bitstamp.service.streaming.BitstampStreamingConfiguration;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy.RateLimitPolicyBuilder;
+import com.xeiam.xchange.service.polling.ratelimit.RequestPriority;
 import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
 import com.xeiam.xchange.service.streaming.StreamingExchangeService;
 
@@ -46,6 +48,11 @@ public class BitstampExchange extends BaseExchange implements Exchange {
     exchangeSpecification.setPort(80);
     exchangeSpecification.setExchangeName("Bitstamp");
     exchangeSpecification.setExchangeDescription("Bitstamp is a Bitcoin exchange registered in Slovenia.");
+    // 600 requests per 10 minutes per IP
+    exchangeSpecification.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(1, 10).withPriority("buy", RequestPriority.TRADE).withPriority("sell", RequestPriority.TRADE)
+        .withPriority("cancelOrder", RequestPriority.TRADE).withPriority("getOpenOrders", RequestPriority.ACCOUNT).withPriority("getBalance", RequestPriority.ACCOUNT)
+        .withPriority("getUserTransactions", RequestPriority.ACCOUNT).withPriority("getBitcoinDepositAddress", RequestPriority.ACCOUNT)
+        .withPriority("withdrawBitcoin", RequestPriority.ACCOUNT).build());
     return exchangeSpecification;
   }
 
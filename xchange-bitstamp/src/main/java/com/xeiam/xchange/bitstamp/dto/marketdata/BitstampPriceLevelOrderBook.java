@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.bitstamp.dto.marketdata;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
+import com.xeiam.xchange.utils.jackson.PriceLevelDeserializer;
+
+/**
+ * Fixed-point variant of {@link BitstampOrderBook}: each (price, amount) pair is parsed straight into a {@link PriceLevel} instead of a list of BigDecimals
+ */
+public class BitstampPriceLevelOrderBook {
+
+  private final Long timestamp;
+  private final List<PriceLevel> bids;
+  private final List<PriceLevel> asks;
+
+  /**
+   * Constructor
+   * 
+   * @param timestamp
+   * @param bids
+   * @param asks
+   */
+  public BitstampPriceLevelOrderBook(@JsonProperty("timestamp") Long timestamp, @JsonProperty("bids") @JsonDeserialize(contentUsing = PriceLevelDeserializer.class) List<PriceLevel> bids,
+      @JsonProperty("asks") @JsonDeserialize(contentUsing = PriceLevelDeserializer.class) List<PriceLevel> asks) {
+
+    this.timestamp = timestamp;
+    this.bids = bids;
+    this.asks = asks;
+  }
+
+  /**
+   * @return Timestamp in Unix seconds
+   */
+  public Long getTimestamp() {
+
+    return timestamp;
+  }
+
+  public List<PriceLevel> getBids() {
+
+    return bids;
+  }
+
+  public List<PriceLevel> getAsks() {
+
+    return asks;
+  }
+
+  @Override
+  public String toString() {
+
+    return "BitstampPriceLevelOrderBook [timestamp=" + timestamp + ", bids=" + bids + ", asks=" + asks + "]";
+  }
+
+}
@@ -38,9 +38,21 @@ public class BitstampStreamingOrderBook extends BitstampOrderBook {
    * @param bids
    * @param asks
    */
-  public BitstampStreamingOrderBook(@JsonProperty("bids") List<List<BigDecimal>> bids, @JsonProperty("asks") List<List<BigDecimal>> asks) {
+  public BitstampStreamingOrderBook(List<List<BigDecimal>> bids, List<List<BigDecimal>> asks) {
 
-    super((new Date()).getTime(), bids, asks);
+    this(null, bids, asks);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param timestamp The server time in seconds, sent on the diff channel; the time of receipt is used if absent
+   * @param bids
+   * @param asks
+   */
+  public BitstampStreamingOrderBook(@JsonProperty("timestamp") Long timestamp, @JsonProperty("bids") List<List<BigDecimal>> bids, @JsonProperty("asks") List<List<BigDecimal>> asks) {
+
+    super(timestamp == null ? (new Date()).getTime() : timestamp * 1000, bids, asks);
   }
 
 }
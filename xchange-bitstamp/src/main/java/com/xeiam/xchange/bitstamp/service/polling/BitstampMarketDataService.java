@@ -25,10 +25,14 @@ import java.io.IOException;
 
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitstamp.BitstampAdapters;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTicker;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
 import com.xeiam.xchange.service.polling.PollingMarketDataService;
 
 /**
@@ -50,19 +54,34 @@ public class BitstampMarketDataService extends BitstampMarketDataServiceRaw impl
   @Override
   public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
 
-    return BitstampAdapters.adaptTicker(getBitstampTicker(), currencyPair);
+    BitstampTicker bitstampTicker = getBitstampTicker();
+
+    long start = metrics.start();
+    Ticker ticker = BitstampAdapters.adaptTicker(bitstampTicker, currencyPair);
+    metrics.stop("getTicker", Phase.ADAPTATION, start);
+    return ticker;
   }
 
   @Override
   public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) throws IOException {
 
-    return BitstampAdapters.adaptOrders(getBitstampOrderBook(), currencyPair, 1000);
+    BitstampOrderBook bitstampOrderBook = getBitstampOrderBook();
+
+    long start = metrics.start();
+    OrderBook orderBook = BitstampAdapters.adaptOrders(bitstampOrderBook, currencyPair, 1000);
+    metrics.stop("getOrderBook", Phase.ADAPTATION, start);
+    return orderBook;
   }
 
   @Override
   public Trades getTrades(CurrencyPair currencyPair, Object... args) throws IOException {
 
-    return BitstampAdapters.adaptTrades(getBitstampTransactions(args), currencyPair);
+    BitstampTransaction[] bitstampTransactions = getBitstampTransactions(args);
+
+    long start = metrics.start();
+    Trades trades = BitstampAdapters.adaptTrades(bitstampTransactions, currencyPair);
+    metrics.stop("getTrades", Phase.ADAPTATION, start);
+    return trades;
   }
 
 }
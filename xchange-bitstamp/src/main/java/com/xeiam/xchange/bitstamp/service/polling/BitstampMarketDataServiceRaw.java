@@ -23,12 +23,11 @@ package com.xeiam.xchange.bitstamp.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitstamp.Bitstamp;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTicker;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
 
@@ -47,7 +46,7 @@ public class BitstampMarketDataServiceRaw extends BitstampBasePollingService {
   public BitstampMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitstamp = RestProxyFactory.createProxy(Bitstamp.class, exchangeSpecification.getSslUri());
+    this.bitstamp = createProxy(Bitstamp.class, exchangeSpecification.getSslUri());
   }
 
   public BitstampTicker getBitstampTicker() throws IOException {
@@ -60,6 +59,11 @@ public class BitstampMarketDataServiceRaw extends BitstampBasePollingService {
     return bitstamp.getOrderBook();
   }
 
+  public BitstampPriceLevelOrderBook getBitstampPriceLevelOrderBook() throws IOException {
+
+    return bitstamp.getPriceLevelOrderBook();
+  }
+
   public BitstampTransaction[] getBitstampTransactions(Object... args) throws IOException {
 
     BitstampTransaction[] transactions = null;
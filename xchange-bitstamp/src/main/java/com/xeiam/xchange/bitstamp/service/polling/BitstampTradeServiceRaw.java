@@ -24,8 +24,6 @@ package com.xeiam.xchange.bitstamp.service.polling;
 import java.io.IOException;
 import java.math.BigDecimal;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitstamp.BitstampAuthenticated;
@@ -51,7 +49,7 @@ public class BitstampTradeServiceRaw extends BitstampBasePollingService {
   public BitstampTradeServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.bitstampAuthenticated = RestProxyFactory.createProxy(BitstampAuthenticated.class, exchangeSpecification.getSslUri());
+    this.bitstampAuthenticated = createProxy(BitstampAuthenticated.class, exchangeSpecification.getSslUri());
     this.signatureCreator = BitstampDigest.createInstance(exchangeSpecification.getSecretKey(), exchangeSpecification.getUserName(), exchangeSpecification.getApiKey());
   }
 
@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.bitstamp.service.streaming;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.xeiam.xchange.bitstamp.BitstampAdapters;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampStreamingOrderBook;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * One currency pair's order book, kept current from the Bitstamp diff channel:
+ * </p>
+ * <ul>
+ * <li>Diffs are applied to the book in place; a level with a zero amount is removed</li>
+ * <li>Diffs arriving before the book is seeded from a REST snapshot are buffered and replayed on top of it</li>
+ * <li>A crossed book means a diff was missed; the book then drops its state and waits to be seeded again</li>
+ * </ul>
+ * <p>
+ * All methods are thread safe; {@link #getSnapshot()} returns a consistent copy.
+ * </p>
+ */
+public class BitstampLiveOrderBook {
+
+  /** Maximum number of diffs buffered while waiting for a snapshot */
+  static final int MAX_PENDING_DIFFS = 1000;
+
+  private final CurrencyPair currencyPair;
+  private final LinkedList<BitstampStreamingOrderBook> pendingDiffs = new LinkedList<BitstampStreamingOrderBook>();
+
+  private OrderBook orderBook;
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPair The currency pair of the book
+   */
+  public BitstampLiveOrderBook(CurrencyPair currencyPair) {
+
+    this.currencyPair = currencyPair;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  /**
+   * @return true once seeded, until the book is invalidated
+   */
+  public synchronized boolean isSeeded() {
+
+    return orderBook != null;
+  }
+
+  /**
+   * Replace the book with a REST snapshot, then replay the buffered diffs that are not older than it
+   * 
+   * @param snapshot The polled order book, with a timestamp in seconds
+   * @return false if the replayed diffs leave the book crossed, in which case it must be seeded again
+   */
+  public synchronized boolean seed(BitstampOrderBook snapshot) {
+
+    orderBook = BitstampAdapters.adaptOrders(snapshot, currencyPair, 1000);
+    long snapshotMillis = snapshot.getTimestamp() * 1000;
+    for (BitstampStreamingOrderBook diff : pendingDiffs) {
+      if (diff.getTimestamp() >= snapshotMillis) {
+        apply(diff, null);
+      }
+    }
+    pendingDiffs.clear();
+    return checkNotCrossed();
+  }
+
+  /**
+   * Apply a diff, or buffer it if the book is not seeded yet
+   * 
+   * @param diff The diff pushed on the diff_order_book channel
+   * @return The applied changes, empty if the diff was buffered, or null if the book became crossed and must be seeded again
+   */
+  public synchronized List<OrderBookUpdate> applyDiff(BitstampStreamingOrderBook diff) {
+
+    if (orderBook == null) {
+      pendingDiffs.add(diff);
+      if (pendingDiffs.size() > MAX_PENDING_DIFFS) {
+        pendingDiffs.removeFirst();
+      }
+      return Collections.emptyList();
+    }
+
+    List<OrderBookUpdate> updates = new ArrayList<OrderBookUpdate>(diff.getBids().size() + diff.getAsks().size());
+    apply(diff, updates);
+    return checkNotCrossed() ? updates : null;
+  }
+
+  /**
+   * Drop the book and any buffered diffs, e.g. after a reconnect
+   */
+  public synchronized void invalidate() {
+
+    orderBook = null;
+    pendingDiffs.clear();
+  }
+
+  /**
+   * @return A copy of the current book, or null if not seeded
+   */
+  public synchronized OrderBook getSnapshot() {
+
+    if (orderBook == null) {
+      return null;
+    }
+    return new OrderBook(orderBook.getTimeStamp(), orderBook.getAsks(), orderBook.getBids());
+  }
+
+  private void apply(BitstampStreamingOrderBook diff, List<OrderBookUpdate> updates) {
+
+    Date timestamp = new Date(diff.getTimestamp());
+    apply(OrderType.BID, diff.getBids(), timestamp, updates);
+    apply(OrderType.ASK, diff.getAsks(), timestamp, updates);
+  }
+
+  private void apply(OrderType orderType, List<List<BigDecimal>> levels, Date timestamp, List<OrderBookUpdate> updates) {
+
+    for (List<BigDecimal> level : levels) {
+      BitstampAdapters.checkArgument(level.size() == 2, "Expected a pair (price, amount) but got {0} elements.", level.size());
+      BigDecimal price = level.get(0);
+      BigDecimal amount = level.get(1);
+      OrderBookUpdate update = new OrderBookUpdate(orderType, amount, currencyPair, price, timestamp, amount);
+      orderBook.update(update);
+      if (updates != null) {
+        updates.add(update);
+      }
+    }
+  }
+
+  private boolean checkNotCrossed() {
+
+    LimitOrder bestBid = orderBook.getBestBid();
+    LimitOrder bestAsk = orderBook.getBestAsk();
+    if (bestBid != null && bestAsk != null && bestBid.getLimitPrice().compareTo(bestAsk.getLimitPrice()) >= 0) {
+      invalidate();
+      return false;
+    }
+    return true;
+  }
+
+}
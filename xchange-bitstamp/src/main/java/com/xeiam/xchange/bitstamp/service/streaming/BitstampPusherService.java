@@ -23,9 +23,13 @@ package com.xeiam.xchange.bitstamp.service.streaming;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.java_websocket.WebSocket.READYSTATE;
 import org.slf4j.Logger;
@@ -36,16 +40,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pusher.client.Pusher;
 import com.pusher.client.channel.Channel;
 import com.pusher.client.channel.SubscriptionEventListener;
+import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.bitstamp.BitstampAdapters;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampStreamingOrderBook;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampTransaction;
 import com.xeiam.xchange.bitstamp.service.polling.BitstampBasePollingService;
+import com.xeiam.xchange.bitstamp.service.polling.BitstampMarketDataServiceRaw;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
 import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
 import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
 import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
 import com.xeiam.xchange.service.streaming.ExchangeEventType;
 import com.xeiam.xchange.service.streaming.ReconnectService;
 import com.xeiam.xchange.service.streaming.StreamingExchangeService;
@@ -54,13 +63,31 @@ import com.xeiam.xchange.service.streaming.StreamingExchangeService;
  * <p>
  * Streaming trade service for the Bitstamp exchange
  * </p>
+ * <p>
+ * Channel names are the Bitstamp ones, optionally suffixed with the pair (e.g. order_book_btceur); without a suffix they refer to the pair of the
+ * {@link BitstampStreamingConfiguration}, BTC/USD by default:
+ * </p>
+ * <ul>
+ * <li>live_trades: a {@link ExchangeEventType#TRADE} event per trade</li>
+ * <li>order_book: a {@link ExchangeEventType#SUBSCRIBE_ORDERS} event carrying the top of the book</li>
+ * <li>diff_order_book: the book is seeded from a REST snapshot and kept current in place; each push yields a {@link ExchangeEventType#DEPTH} event
+ * carrying only the changed levels as a list of {@link OrderBookUpdate}s. A consistent copy of the whole book is available from
+ * {@link #getOrderBook(CurrencyPair)}.</li>
+ * </ul>
+ * <p>
+ * A failed snapshot fetch, or a snapshot that leaves the book crossed, is retried with the same backoff as reconnections.
+ * </p>
  */
 public class BitstampPusherService extends BitstampBasePollingService implements StreamingExchangeService {
 
+  private static final String TRADES_CHANNEL = "live_trades";
+  private static final String ORDER_BOOK_CHANNEL = "order_book";
+  private static final String DIFF_ORDER_BOOK_CHANNEL = "diff_order_book";
+
   private final Logger log = LoggerFactory.getLogger(BitstampPusherService.class);
 
   // private final ExchangeEventListener exchangeEventListener;
-  private final BlockingQueue<ExchangeEvent> consumerEventQueue = new LinkedBlockingQueue<ExchangeEvent>();
+  private final ExchangeEventBus consumerEventBus = new ExchangeEventBus();
   private final ObjectMapper streamObjectMapper;
 
   /**
@@ -68,9 +95,23 @@ public class BitstampPusherService extends BitstampBasePollingService implements
    */
   private final BitstampStreamingConfiguration configuration;
 
+  private final BitstampMarketDataServiceRaw marketDataServiceRaw;
+  private final Map<CurrencyPair, BitstampLiveOrderBook> orderBooks = new ConcurrentHashMap<CurrencyPair, BitstampLiveOrderBook>();
+  private final ScheduledExecutorService snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+
+      Thread thread = new Thread(runnable, "bitstamp-order-book-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
   private Pusher client;
   private Map<String, Channel> channels;
   private ReconnectService reconnectService;
+  private volatile boolean connected;
 
   /**
    * Constructor
@@ -83,8 +124,10 @@ public class BitstampPusherService extends BitstampBasePollingService implements
 
     this.configuration = configuration;
     client = new Pusher(configuration.getPusherKey(), configuration.pusherOptions());
-    reconnectService = new ReconnectService(this, configuration);
+    reconnectService = new ReconnectService(this, configuration, metrics);
+    metrics.instrument(consumerEventBus, "consumerEventBus");
     channels = new HashMap<String, Channel>();
+    marketDataServiceRaw = new BitstampMarketDataServiceRaw(exchangeSpecification);
 
     streamObjectMapper = new ObjectMapper();
     streamObjectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -95,14 +138,18 @@ public class BitstampPusherService extends BitstampBasePollingService implements
 
     // Re-connect is handled by the base ReconnectService when it reads a closed conn. state
     client.connect();
+    connected = true;
     channels.clear();
     for (String name : configuration.getChannels()) {
       Channel instance = client.subscribe(name);
-      if (name == "order_book") {
-        bindOrderData(instance);
+      if (name.startsWith(DIFF_ORDER_BOOK_CHANNEL)) {
+        bindDiffOrderData(instance, channelPair(name, DIFF_ORDER_BOOK_CHANNEL, configuration.getCurrencyPair()));
       }
-      else if (name == "live_trades") {
-        bindTradeData(instance);
+      else if (name.startsWith(ORDER_BOOK_CHANNEL)) {
+        bindOrderData(instance, channelPair(name, ORDER_BOOK_CHANNEL, configuration.getCurrencyPair()));
+      }
+      else if (name.startsWith(TRADES_CHANNEL)) {
+        bindTradeData(instance, channelPair(name, TRADES_CHANNEL, configuration.getCurrencyPair()));
       }
       else {
         throw new IllegalArgumentException(name);
@@ -114,8 +161,12 @@ public class BitstampPusherService extends BitstampBasePollingService implements
   @Override
   public void disconnect() {
 
+    connected = false;
     client.disconnect();
     channels.clear();
+    for (BitstampLiveOrderBook orderBook : orderBooks.values()) {
+      orderBook.invalidate();
+    }
   }
 
   /**
@@ -128,7 +179,21 @@ public class BitstampPusherService extends BitstampBasePollingService implements
   @Override
   public ExchangeEvent getNextEvent() throws InterruptedException {
 
-    return consumerEventQueue.take();
+    return consumerEventBus.take();
+  }
+
+  /**
+   * <p>
+   * Returns a consistent copy of the live order book maintained from the diff_order_book channel.
+   * </p>
+   * 
+   * @param currencyPair The currency pair
+   * @return The order book, or null if the pair is not subscribed or the book is being (re)seeded
+   */
+  public OrderBook getOrderBook(CurrencyPair currencyPair) {
+
+    BitstampLiveOrderBook orderBook = orderBooks.get(currencyPair);
+    return orderBook == null ? null : orderBook.getSnapshot();
   }
 
   /**
@@ -171,18 +236,38 @@ public class BitstampPusherService extends BitstampBasePollingService implements
     }
   }
 
-  private void bindOrderData(Channel chan) {
+  /**
+   * @param name The channel name, e.g. order_book or order_book_btceur
+   * @param prefix The channel name without pair suffix
+   * @param defaultPair The pair streamed by the channel without pair suffix
+   * @return The currency pair the channel streams
+   */
+  static CurrencyPair channelPair(String name, String prefix, CurrencyPair defaultPair) {
+
+    if (name.length() == prefix.length()) {
+      return defaultPair;
+    }
+    String symbols = name.substring(prefix.length() + 1).toUpperCase();
+    if (name.charAt(prefix.length()) != '_' || symbols.length() != 6) {
+      throw new IllegalArgumentException(name);
+    }
+    return new CurrencyPair(symbols.substring(0, 3), symbols.substring(3));
+  }
+
+  private void bindOrderData(Channel chan, final CurrencyPair currencyPair) {
 
     SubscriptionEventListener listener = new SubscriptionEventListener() {
 
       @Override
       public void onEvent(String channelName, String eventName, String data) {
 
+        record(ExchangeEventType.SUBSCRIBE_ORDERS, channelName, data);
         ExchangeEvent xevt = null;
         try {
-          OrderBook snapshot = parseOrderBook(data);
+          OrderBook snapshot = parseOrderBook(data, currencyPair);
           xevt = new DefaultExchangeEvent(ExchangeEventType.SUBSCRIBE_ORDERS, data, snapshot);
         } catch (IOException e) {
+          metrics.error(ORDER_BOOK_CHANNEL);
           log.error("JSON stream error", e);
         }
         if (xevt != null) {
@@ -193,25 +278,131 @@ public class BitstampPusherService extends BitstampBasePollingService implements
     chan.bind("data", listener);
   }
 
-  private OrderBook parseOrderBook(String rawJson) throws IOException {
+  private OrderBook parseOrderBook(String rawJson, CurrencyPair currencyPair) throws IOException {
 
+    long start = metrics.start();
     BitstampStreamingOrderBook nativeBook = streamObjectMapper.readValue(rawJson, BitstampStreamingOrderBook.class);
+    metrics.stop(ORDER_BOOK_CHANNEL, Phase.DESERIALIZATION, start);
     // BitstampOrderBook nativeBook = new BitstampOrderBook((new Date()).getTime(), json.get("bids"), json.get("asks"));
-    return BitstampAdapters.adaptOrders(nativeBook, CurrencyPair.BTC_USD, 1);
+    start = metrics.start();
+    OrderBook orderBook = BitstampAdapters.adaptOrders(nativeBook, currencyPair, 1);
+    metrics.stop(ORDER_BOOK_CHANNEL, Phase.ADAPTATION, start);
+    return orderBook;
   }
 
-  private void bindTradeData(Channel chan) {
+  private void bindDiffOrderData(Channel chan, CurrencyPair currencyPair) {
+
+    if (!CURRENCY_PAIRS.contains(currencyPair)) {
+      throw new IllegalArgumentException("No order book snapshot available for " + currencyPair);
+    }
+    BitstampLiveOrderBook existing = orderBooks.get(currencyPair);
+    final BitstampLiveOrderBook orderBook = existing == null ? new BitstampLiveOrderBook(currencyPair) : existing;
+    orderBook.invalidate();
+    orderBooks.put(currencyPair, orderBook);
+    requestSnapshot(orderBook);
 
     SubscriptionEventListener listener = new SubscriptionEventListener() {
 
       @Override
       public void onEvent(String channelName, String eventName, String data) {
 
+        record(ExchangeEventType.DEPTH, channelName, data);
+        try {
+          long start = metrics.start();
+          BitstampStreamingOrderBook diff = streamObjectMapper.readValue(data, BitstampStreamingOrderBook.class);
+          metrics.stop(DIFF_ORDER_BOOK_CHANNEL, Phase.DESERIALIZATION, start);
+          boolean seeded = orderBook.isSeeded();
+          start = metrics.start();
+          List<OrderBookUpdate> updates = orderBook.applyDiff(diff);
+          metrics.stop(DIFF_ORDER_BOOK_CHANNEL, Phase.ADAPTATION, start);
+          if (updates == null) {
+            log.warn("Order book for {} crossed, resynchronizing", orderBook.getCurrencyPair());
+            requestSnapshot(orderBook);
+          }
+          else if (seeded) {
+            addToEventQueue(new DefaultExchangeEvent(ExchangeEventType.DEPTH, data, updates));
+          }
+        } catch (IOException e) {
+          metrics.error(DIFF_ORDER_BOOK_CHANNEL);
+          log.error("JSON stream error", e);
+        }
+      }
+    };
+    chan.bind("data", listener);
+  }
+
+  private void record(ExchangeEventType eventType, String channelName, String data) {
+
+    if (journal != null) {
+      journal.tryAppend(eventType, channelName, data);
+    }
+  }
+
+  private void requestSnapshot(BitstampLiveOrderBook orderBook) {
+
+    requestSnapshot(orderBook, 0);
+  }
+
+  private void requestSnapshot(final BitstampLiveOrderBook orderBook, final int attempt) {
+
+    snapshotExecutor.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+
+        // a reconnection requests a new snapshot anyway, and an earlier request may have seeded the book already
+        if (!connected || orderBook.isSeeded()) {
+          return;
+        }
+        try {
+          if (!orderBook.seed(marketDataServiceRaw.getBitstampOrderBook())) {
+            log.warn("Order book for {} crossed after seeding, resynchronizing", orderBook.getCurrencyPair());
+            retrySnapshot(orderBook, attempt);
+          }
+        } catch (IOException e) {
+          log.error("Failed to fetch the order book snapshot for " + orderBook.getCurrencyPair(), e);
+          retrySnapshot(orderBook, attempt);
+        } catch (ExchangeException e) {
+          log.error("Failed to fetch the order book snapshot for " + orderBook.getCurrencyPair(), e);
+          retrySnapshot(orderBook, attempt);
+        }
+      }
+    }, getSnapshotDelay(attempt), TimeUnit.MILLISECONDS);
+  }
+
+  private void retrySnapshot(BitstampLiveOrderBook orderBook, int attempt) {
+
+    metrics.retry("snapshot");
+    requestSnapshot(orderBook, attempt + 1);
+  }
+
+  /**
+   * @return The delay before a snapshot request, in milliseconds: none for the first attempt, then the reconnect wait time doubled for every failed
+   *         attempt, as in {@link ReconnectService}
+   */
+  long getSnapshotDelay(int attempt) {
+
+    if (attempt == 0) {
+      return 0;
+    }
+    int multiplier = 1 << Math.min(attempt - 1, Integer.numberOfTrailingZeros(ReconnectService.MAX_BACKOFF_MULTIPLIER));
+    return (long) configuration.getReconnectWaitTimeInMs() * multiplier;
+  }
+
+  private void bindTradeData(Channel chan, final CurrencyPair currencyPair) {
+
+    SubscriptionEventListener listener = new SubscriptionEventListener() {
+
+      @Override
+      public void onEvent(String channelName, String eventName, String data) {
+
+        record(ExchangeEventType.TRADE, channelName, data);
         ExchangeEvent xevt = null;
         try {
-          Trade t = parseTrade(data);
+          Trade t = parseTrade(data, currencyPair);
           xevt = new DefaultExchangeEvent(ExchangeEventType.TRADE, data, t);
         } catch (IOException e) {
+          metrics.error(TRADES_CHANNEL);
           log.error("JSON stream error", e);
         }
         if (xevt != null) {
@@ -222,19 +413,20 @@ public class BitstampPusherService extends BitstampBasePollingService implements
     chan.bind("trade", listener);
   }
 
-  private Trade parseTrade(String rawJson) throws IOException {
+  private Trade parseTrade(String rawJson, CurrencyPair currencyPair) throws IOException {
 
+    long start = metrics.start();
     BitstampTransaction transaction = streamObjectMapper.readValue(rawJson, BitstampTransaction.class);
-    return BitstampAdapters.adaptTrade(transaction, CurrencyPair.BTC_USD, 1);
+    metrics.stop(TRADES_CHANNEL, Phase.DESERIALIZATION, start);
+    start = metrics.start();
+    Trade trade = BitstampAdapters.adaptTrade(transaction, currencyPair, 1);
+    metrics.stop(TRADES_CHANNEL, Phase.ADAPTATION, start);
+    return trade;
   }
 
   private void addToEventQueue(ExchangeEvent event) {
 
-    try {
-      consumerEventQueue.put(event);
-    } catch (InterruptedException e) {
-      log.debug("Event queue interrupted", e);
-    }
+    consumerEventBus.publish(event);
   }
 
 }
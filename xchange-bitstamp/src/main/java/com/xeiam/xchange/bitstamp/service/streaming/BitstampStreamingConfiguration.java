@@ -25,6 +25,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import com.pusher.client.PusherOptions;
+import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
 
 /**
@@ -43,6 +44,7 @@ public class BitstampStreamingConfiguration implements ExchangeStreamingConfigur
   private final boolean isEncryptedChannel;
   private final String pusherKey;
   private final Set<String> channels;
+  private final CurrencyPair currencyPair;
   private PusherOptions pusherOpts;
 
   /**
@@ -57,12 +59,29 @@ public class BitstampStreamingConfiguration implements ExchangeStreamingConfigur
   public BitstampStreamingConfiguration(PusherOptions pusherOptions, int maxReconnectAttempts, int reconnectWaitTimeInMs, int timeoutInMs, boolean isEncryptedChannel, String pusherKey,
       Set<String> channels) {
 
+    this(pusherOptions, maxReconnectAttempts, reconnectWaitTimeInMs, timeoutInMs, isEncryptedChannel, pusherKey, channels, CurrencyPair.BTC_USD);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param maxReconnectAttempts
+   * @param reconnectWaitTimeInMs
+   * @param timeoutInMs
+   * @param isEncryptedChannel - should it use an encrypted channel or not? (ws vs. wss protocol)
+   * @param channels - the channels to subscribe to, e.g. diff_order_book or live_trades_btceur
+   * @param currencyPair - the pair streamed by the channels named without a pair suffix
+   */
+  public BitstampStreamingConfiguration(PusherOptions pusherOptions, int maxReconnectAttempts, int reconnectWaitTimeInMs, int timeoutInMs, boolean isEncryptedChannel, String pusherKey,
+      Set<String> channels, CurrencyPair currencyPair) {
+
     this.maxReconnectAttempts = maxReconnectAttempts;
     this.reconnectWaitTimeInMs = reconnectWaitTimeInMs;
     this.timeoutInMs = timeoutInMs;
     this.isEncryptedChannel = isEncryptedChannel;
     this.pusherKey = pusherKey;
     this.channels = channels;
+    this.currencyPair = currencyPair;
     pusherOpts = pusherOptions;
   }
 
@@ -76,6 +95,7 @@ public class BitstampStreamingConfiguration implements ExchangeStreamingConfigur
     channels = new HashSet<String>();
     channels.add("live_trades");
     channels.add("order_book");
+    currencyPair = CurrencyPair.BTC_USD;
     pusherOpts = new PusherOptions();
     pusherOpts.setEncrypted(isEncryptedChannel);
     pusherOpts.setActivityTimeout(4 * timeoutInMs); // Keep-alive interval
@@ -127,4 +147,12 @@ public class BitstampStreamingConfiguration implements ExchangeStreamingConfigur
     return channels;
   }
 
+  /**
+   * @return The pair streamed by the channels named without a pair suffix
+   */
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
 }
@@ -31,6 +31,7 @@ import org.junit.Test;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampPriceLevelOrderBook;
 
 /**
  * Test BitStamp Full Depth JSON parsing
@@ -54,4 +55,22 @@ public class FullDepthJSONTest {
     assertThat(orderBook.getAsks().get(0).get(1)).isEqualTo(new BigDecimal("0.60466812"));
     assertThat(orderBook.getTimestamp()).isEqualTo(1378816304);
   }
+
+  @Test
+  public void testUnmarshalPriceLevels() throws IOException {
+
+    // Read in the JSON from the example resources
+    InputStream is = FullDepthJSONTest.class.getResourceAsStream("/marketdata/example-full-depth-data.json");
+
+    // Use Jackson to parse it
+    ObjectMapper mapper = new ObjectMapper();
+    BitstampPriceLevelOrderBook orderBook = mapper.readValue(is, BitstampPriceLevelOrderBook.class);
+
+    // Verify that the example data was unmarshalled correctly
+    assertThat(orderBook.getBids().get(0).getPrice().toBigDecimal()).isEqualTo(new BigDecimal("123.09"));
+    assertThat(orderBook.getBids().get(0).getAmount().toBigDecimal()).isEqualTo(new BigDecimal("0.16248274"));
+    assertThat(orderBook.getAsks().get(0).getPrice().toBigDecimal()).isEqualTo(new BigDecimal("123.39"));
+    assertThat(orderBook.getAsks().get(0).getAmount().toBigDecimal()).isEqualTo(new BigDecimal("0.60466812"));
+    assertThat(orderBook.getTimestamp()).isEqualTo(1378816304);
+  }
 }
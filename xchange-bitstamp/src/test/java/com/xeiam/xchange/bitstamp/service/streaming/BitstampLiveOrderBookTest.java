@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.bitstamp.service.streaming;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.bitstamp.BitstampExchange;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampOrderBook;
+import com.xeiam.xchange.bitstamp.dto.marketdata.BitstampStreamingOrderBook;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.service.streaming.ReconnectService;
+
+/**
+ * Test maintaining the Bitstamp order book from diffs
+ */
+public class BitstampLiveOrderBookTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private BitstampOrderBook snapshot;
+
+  @Before
+  public void setUp() throws IOException {
+
+    InputStream is = BitstampLiveOrderBookTest.class.getResourceAsStream("/marketdata/example-full-depth-data.json");
+    snapshot = mapper.readValue(is, BitstampOrderBook.class);
+  }
+
+  @Test
+  public void testDiffAppliedInPlace() throws IOException {
+
+    BitstampLiveOrderBook liveOrderBook = new BitstampLiveOrderBook(CurrencyPair.BTC_USD);
+    assertThat(liveOrderBook.seed(snapshot)).isTrue();
+
+    List<OrderBookUpdate> updates = liveOrderBook.applyDiff(diff(1378816305, "[[\"123.09\", \"0\"], [\"123.08\", \"2.5\"]]", "[[\"123.38\", \"1\"]]"));
+
+    assertThat(updates).hasSize(3);
+    OrderBook orderBook = liveOrderBook.getSnapshot();
+    assertThat(orderBook.getBids()).hasSize(1280);
+    assertThat(orderBook.getAsks()).hasSize(1547);
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("123.08"));
+    assertThat(orderBook.getBestBid().getTradableAmount()).isEqualTo(new BigDecimal("2.5"));
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("123.38"));
+  }
+
+  @Test
+  public void testDiffsBufferedUntilSeeded() throws IOException {
+
+    BitstampLiveOrderBook liveOrderBook = new BitstampLiveOrderBook(CurrencyPair.BTC_USD);
+
+    // older than the snapshot, must be skipped
+    assertThat(liveOrderBook.applyDiff(diff(1378816300, "[[\"123.09\", \"0\"]]", "[]"))).isEmpty();
+    assertThat(liveOrderBook.applyDiff(diff(1378816310, "[]", "[[\"123.39\", \"0\"]]"))).isEmpty();
+    assertThat(liveOrderBook.getSnapshot()).isNull();
+
+    assertThat(liveOrderBook.seed(snapshot)).isTrue();
+
+    OrderBook orderBook = liveOrderBook.getSnapshot();
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("123.09"));
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("123.40"));
+  }
+
+  @Test
+  public void testCrossedBookInvalidated() throws IOException {
+
+    BitstampLiveOrderBook liveOrderBook = new BitstampLiveOrderBook(CurrencyPair.BTC_USD);
+    liveOrderBook.seed(snapshot);
+
+    assertThat(liveOrderBook.applyDiff(diff(1378816305, "[[\"123.50\", \"1\"]]", "[]"))).isNull();
+    assertThat(liveOrderBook.isSeeded()).isFalse();
+  }
+
+  @Test
+  public void testSnapshotIsIndependentCopy() throws IOException {
+
+    BitstampLiveOrderBook liveOrderBook = new BitstampLiveOrderBook(CurrencyPair.BTC_USD);
+    liveOrderBook.seed(snapshot);
+    OrderBook before = liveOrderBook.getSnapshot();
+
+    liveOrderBook.applyDiff(diff(1378816305, "[[\"123.09\", \"0\"]]", "[]"));
+
+    assertThat(before.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("123.09"));
+  }
+
+  @Test
+  public void testChannelPair() {
+
+    assertThat(BitstampPusherService.channelPair("diff_order_book", "diff_order_book", CurrencyPair.BTC_USD)).isEqualTo(CurrencyPair.BTC_USD);
+    assertThat(BitstampPusherService.channelPair("diff_order_book", "diff_order_book", CurrencyPair.BTC_EUR)).isEqualTo(CurrencyPair.BTC_EUR);
+    assertThat(BitstampPusherService.channelPair("order_book_btceur", "order_book", CurrencyPair.BTC_USD)).isEqualTo(CurrencyPair.BTC_EUR);
+  }
+
+  @Test
+  public void testSnapshotRetryBackoff() {
+
+    BitstampStreamingConfiguration configuration = new BitstampStreamingConfiguration();
+    BitstampPusherService service = new BitstampPusherService(new ExchangeSpecification(BitstampExchange.class.getName()), configuration);
+    long wait = configuration.getReconnectWaitTimeInMs();
+
+    assertThat(service.getSnapshotDelay(0)).isEqualTo(0L);
+    assertThat(service.getSnapshotDelay(1)).isEqualTo(wait);
+    assertThat(service.getSnapshotDelay(3)).isEqualTo(4 * wait);
+    assertThat(service.getSnapshotDelay(100)).isEqualTo(wait * ReconnectService.MAX_BACKOFF_MULTIPLIER);
+  }
+
+  private BitstampStreamingOrderBook diff(long timestamp, String bids, String asks) throws IOException {
+
+    return mapper.readValue("{\"timestamp\": \"" + timestamp + "\", \"bids\": " + bids + ", \"asks\": " + asks + "}", BitstampStreamingOrderBook.class);
+  }
+
+}
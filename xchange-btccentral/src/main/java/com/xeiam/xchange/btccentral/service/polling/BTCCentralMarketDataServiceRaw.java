@@ -2,8 +2,6 @@ package com.xeiam.xchange.btccentral.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btccentral.BTCCentral;
 import com.xeiam.xchange.btccentral.dto.marketdata.BTCCentralMarketDepth;
@@ -25,7 +23,7 @@ public class BTCCentralMarketDataServiceRaw extends BTCCentralBasePollingService
   protected BTCCentralMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.btcCentral = RestProxyFactory.createProxy(BTCCentral.class, exchangeSpecification.getSslUri());
+    this.btcCentral = createProxy(BTCCentral.class, exchangeSpecification.getSslUri());
   }
 
   public BTCCentralTicker getBTCCentralTicker() throws IOException {
@@ -23,11 +23,11 @@ package com.xeiam.xchange.btcchina.service.polling;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -36,8 +36,12 @@ import com.xeiam.xchange.btcchina.BTCChinaAdapters;
 import com.xeiam.xchange.btcchina.dto.BTCChinaResponse;
 import com.xeiam.xchange.btcchina.service.BTCChinaDigest;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.meta.CurrencyPairMetaData;
+import com.xeiam.xchange.dto.meta.ExchangeMetaData;
 import com.xeiam.xchange.service.BaseExchangeService;
 import com.xeiam.xchange.service.polling.BasePollingService;
+import com.xeiam.xchange.service.polling.MetaDataLoader;
+import com.xeiam.xchange.service.polling.MetaDataRegistry;
 import com.xeiam.xchange.utils.Assert;
 
 /**
@@ -47,7 +51,7 @@ public class BTCChinaBasePollingService<T extends BTCChina> extends BaseExchange
   
   protected final T               btcChina;
   protected final ParamsDigest    signatureCreator;
-  private final Set<CurrencyPair> currencyPairs;
+  private final MetaDataRegistry  metaDataRegistry;
   
   /**
    * Constructor
@@ -59,21 +63,33 @@ public class BTCChinaBasePollingService<T extends BTCChina> extends BaseExchange
     super(exchangeSpecification);
     Assert.notNull(exchangeSpecification.getSslUri(), "Exchange specification URI cannot be null");
     
-    this.btcChina = RestProxyFactory.createProxy(type, (String) exchangeSpecification.getExchangeSpecificParameters().get("dataSslUri"));
+    this.btcChina = createProxy(type, (String) exchangeSpecification.getExchangeSpecificParameters().get("dataSslUri"));
     this.signatureCreator = BTCChinaDigest.createInstance(exchangeSpecification.getApiKey(), exchangeSpecification.getSecretKey());
-    this.currencyPairs = new HashSet<CurrencyPair>();
+    this.metaDataRegistry = MetaDataRegistry.getInstance(exchangeSpecification, new MetaDataLoader() {
+
+      @Override
+      public ExchangeMetaData load() throws IOException {
+
+        return loadMetaData();
+      }
+    });
   }
   
   @Override
-  public synchronized Collection<CurrencyPair> getExchangeSymbols() throws IOException {
-  
-    if (currencyPairs.isEmpty()) {
-      for (String tickerKey : btcChina.getTickers("all").keySet()) {
-        currencyPairs.add(BTCChinaAdapters.adaptCurrencyPairFromTickerMarketKey(tickerKey));
-      }
+  public Collection<CurrencyPair> getExchangeSymbols() throws IOException {
+
+    return metaDataRegistry.getMetaData().getCurrencyPairs();
+  }
+
+  private ExchangeMetaData loadMetaData() throws IOException {
+
+    Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>();
+    for (String tickerKey : btcChina.getTickers("all").keySet()) {
+      CurrencyPair currencyPair = BTCChinaAdapters.adaptCurrencyPairFromTickerMarketKey(tickerKey);
+      currencyPairs.put(currencyPair, new CurrencyPairMetaData(BTCChinaAdapters.adaptMarket(currencyPair), null, null));
     }
-    
-    return currencyPairs;
+
+    return new ExchangeMetaData(currencyPairs, Collections.<String, String> emptyMap(), System.currentTimeMillis());
   }
   
   @SuppressWarnings("rawtypes")
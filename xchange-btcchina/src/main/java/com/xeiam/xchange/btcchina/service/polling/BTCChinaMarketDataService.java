@@ -22,13 +22,18 @@
 package com.xeiam.xchange.btcchina.service.polling;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.NotAvailableFromExchangeException;
 import com.xeiam.xchange.btcchina.BTCChinaAdapters;
 import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaDepth;
 import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaTicker;
+import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaTickerObject;
 import com.xeiam.xchange.btcchina.dto.marketdata.BTCChinaTrade;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.Order.OrderType;
@@ -36,7 +41,8 @@ import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Trades;
 import com.xeiam.xchange.dto.trade.LimitOrder;
-import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.service.polling.BulkMarketData;
+import com.xeiam.xchange.service.polling.BulkPollingMarketDataService;
 
 /**
  * @author ObsessiveOrange
@@ -47,7 +53,7 @@ import com.xeiam.xchange.service.polling.PollingMarketDataService;
  *         <li>Provides access to various market data values</li>
  *         </ul>
  */
-public class BTCChinaMarketDataService extends BTCChinaMarketDataServiceRaw implements PollingMarketDataService {
+public class BTCChinaMarketDataService extends BTCChinaMarketDataServiceRaw implements BulkPollingMarketDataService {
 
   /**
    * Constructor
@@ -82,6 +88,34 @@ public class BTCChinaMarketDataService extends BTCChinaMarketDataServiceRaw impl
     return new OrderBook(null, asks, bids);
   }
 
+  /**
+   * Fetches the tickers of all markets in one request and returns the requested ones
+   */
+  @Override
+  public Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    Map<String, BTCChinaTickerObject> btcChinaTickers = getBTCChinaTickers();
+
+    Map<CurrencyPair, Ticker> tickers = new LinkedHashMap<CurrencyPair, Ticker>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      BTCChinaTickerObject btcChinaTicker = btcChinaTickers.get("ticker_" + BTCChinaAdapters.adaptMarket(currencyPair));
+      if (btcChinaTicker == null) {
+        throw new ExchangeException("BTCChina returned no ticker for " + currencyPair);
+      }
+      tickers.put(currencyPair, BTCChinaAdapters.adaptTicker(new BTCChinaTicker(btcChinaTicker), currencyPair));
+    }
+    return tickers;
+  }
+
+  /**
+   * BTCChina's depth endpoint takes a single market: use {@link BulkMarketData}, which makes one request per pair on the caller's executor
+   */
+  @Override
+  public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) {
+
+    throw new NotAvailableFromExchangeException();
+  }
+
   @Override
   public Trades getTrades(CurrencyPair currencyPair, Object... args) throws IOException {
 
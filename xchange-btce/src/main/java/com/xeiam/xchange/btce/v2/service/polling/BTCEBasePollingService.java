@@ -25,7 +25,6 @@ import java.util.Arrays;
 import java.util.List;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -101,7 +100,7 @@ public class BTCEBasePollingService extends BaseExchangeService implements BaseP
   public BTCEBasePollingService(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.btce = RestProxyFactory.createProxy(BTCEAuthenticated.class, exchangeSpecification.getSslUri());
+    this.btce = createProxy(BTCEAuthenticated.class, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = BTCEHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
   }
@@ -24,8 +24,6 @@ package com.xeiam.xchange.btce.v2.service.polling;
 import java.io.IOException;
 import java.util.List;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btce.v2.BTCE;
 import com.xeiam.xchange.btce.v2.BTCEAdapters;
@@ -58,7 +56,7 @@ public class BTCEMarketDataService extends BTCEBasePollingService implements Pol
   public BTCEMarketDataService(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    btce = RestProxyFactory.createProxy(BTCE.class, exchangeSpecification.getSslUri());
+    btce = createProxy(BTCE.class, exchangeSpecification.getSslUri());
   }
 
   @Override
@@ -186,10 +186,9 @@ public final class BTCEAdapters {
     for (Long id : btceOrderMap.keySet()) {
       BTCEOrder bTCEOrder = btceOrderMap.get(id);
       OrderType orderType = bTCEOrder.getType() == BTCEOrder.Type.buy ? OrderType.BID : OrderType.ASK;
-      String[] pair = bTCEOrder.getPair().split("_");
       BigDecimal price = bTCEOrder.getRate();
       Date timestamp = DateUtils.fromMillisUtc(bTCEOrder.getTimestampCreated() * 1000L);
-      CurrencyPair currencyPair = new CurrencyPair(pair[0].toUpperCase(), pair[1].toUpperCase());
+      CurrencyPair currencyPair = adaptCurrencyPair(bTCEOrder.getPair());
 
       limitOrders.add(new LimitOrder(orderType, bTCEOrder.getAmount(), currencyPair, Long.toString(id), timestamp, price));
     }
@@ -202,13 +201,12 @@ public final class BTCEAdapters {
     for (Entry<Long, BTCETradeHistoryResult> entry : tradeHistory.entrySet()) {
       BTCETradeHistoryResult result = entry.getValue();
       OrderType type = result.getType() == BTCETradeHistoryResult.Type.buy ? OrderType.BID : OrderType.ASK;
-      String[] pair = result.getPair().split("_");
       BigDecimal price = result.getRate();
       BigDecimal tradableAmount = result.getAmount();
       Date timeStamp = DateUtils.fromMillisUtc(result.getTimestamp() * 1000L);
       String orderId = String.valueOf(result.getOrderId());
       String tradeId = String.valueOf(entry.getKey());
-      CurrencyPair currencyPair = new CurrencyPair(pair[0].toUpperCase(), pair[1].toUpperCase());
+      CurrencyPair currencyPair = adaptCurrencyPair(result.getPair());
       trades.add(new Trade(type, tradableAmount, currencyPair, price, timeStamp, tradeId, orderId));
     }
     return new Trades(trades, TradeSortType.SortByTimestamp);
@@ -216,8 +214,7 @@ public final class BTCEAdapters {
 
   public static CurrencyPair adaptCurrencyPair(String btceCurrencyPair) {
 
-    String[] currencies = btceCurrencyPair.split("_");
-    return new CurrencyPair(currencies[0].toUpperCase(), currencies[1].toUpperCase());
+    return BTCEUtils.getCurrencyPair(btceCurrencyPair);
   }
 
   public static List<CurrencyPair> adaptCurrencyPairs(Iterable<String> btcePairs) {
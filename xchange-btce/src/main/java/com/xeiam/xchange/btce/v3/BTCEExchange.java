@@ -27,6 +27,8 @@ import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btce.v3.service.polling.BTCEAccountService;
 import com.xeiam.xchange.btce.v3.service.polling.BTCEMarketDataService;
 import com.xeiam.xchange.btce.v3.service.polling.BTCETradeService;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy.RateLimitPolicyBuilder;
+import com.xeiam.xchange.service.polling.ratelimit.RequestPriority;
 
 /**
  * <p>
@@ -64,6 +66,8 @@ public class BTCEExchange extends BaseExchange implements Exchange {
     exchangeSpecification.setPort(80);
     exchangeSpecification.setExchangeName("BTC-e");
     exchangeSpecification.setExchangeDescription("BTC-e is a Bitcoin exchange registered in Russia.");
+    exchangeSpecification.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(2, 10).withPriority("Trade", RequestPriority.TRADE).withPriority("CancelOrder", RequestPriority.TRADE)
+        .withPriority("getInfo", RequestPriority.ACCOUNT).withPriority("ActiveOrders", RequestPriority.ACCOUNT).withPriority("TradeHistory", RequestPriority.ACCOUNT).build());
 
     return exchangeSpecification;
   }
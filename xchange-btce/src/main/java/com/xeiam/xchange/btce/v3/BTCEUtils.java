@@ -22,12 +22,33 @@
 package com.xeiam.xchange.btce.v3;
 
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable.SymbolFormat;
 
 /**
  * A central place for shared BTC-E properties
  */
 public final class BTCEUtils {
 
+  /**
+   * BTC-e pair names (btc_usd) are formatted or parsed once and then resolved with a single lookup in either direction
+   */
+  private static final CurrencyPairSymbolTable<String> PAIRS = new CurrencyPairSymbolTable<String>(new SymbolFormat<String>() {
+
+    @Override
+    public String format(CurrencyPair currencyPair) {
+
+      return currencyPair.baseSymbol.toLowerCase() + "_" + currencyPair.counterSymbol.toLowerCase();
+    }
+
+    @Override
+    public CurrencyPair parse(String btcePair) {
+
+      String[] currencies = btcePair.split("_");
+      return CurrencyPair.of(currencies[0].toUpperCase(), currencies[1].toUpperCase());
+    }
+  });
+
   /**
    * private Constructor
    */
@@ -37,7 +58,12 @@ public final class BTCEUtils {
 
   public static String getPair(CurrencyPair currencyPair) {
 
-    return currencyPair.baseSymbol.toLowerCase() + "_" + currencyPair.counterSymbol.toLowerCase();
+    return PAIRS.getNativeSymbol(currencyPair);
+  }
+
+  public static CurrencyPair getCurrencyPair(String btcePair) {
+
+    return PAIRS.getCurrencyPair(btcePair);
   }
 
 }
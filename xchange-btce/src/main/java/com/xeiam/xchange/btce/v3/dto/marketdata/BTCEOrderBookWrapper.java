@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.btce.v3.dto.marketdata;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.btce.v3.BTCEAdapters;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper.BTCEOrderBookWrapperDeserializer;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.utils.jackson.DepthStreamReader;
+
+/**
+ * Multi-currency depth from BTCE API v.3, streamed directly into {@link OrderBook}s instead of going through {@link BTCEDepthWrapper}
+ */
+@JsonDeserialize(using = BTCEOrderBookWrapperDeserializer.class)
+public class BTCEOrderBookWrapper {
+
+  private final Map<CurrencyPair, OrderBook> orderBookMap;
+
+  /**
+   * Constructor
+   * 
+   * @param orderBookMap
+   */
+  public BTCEOrderBookWrapper(Map<CurrencyPair, OrderBook> orderBookMap) {
+
+    this.orderBookMap = orderBookMap;
+  }
+
+  public Map<CurrencyPair, OrderBook> getOrderBookMap() {
+
+    return orderBookMap;
+  }
+
+  public OrderBook getOrderBook(CurrencyPair currencyPair) {
+
+    return orderBookMap.get(currencyPair);
+  }
+
+  @Override
+  public String toString() {
+
+    return "BTCEOrderBookWrapper [map=" + orderBookMap + "]";
+  }
+
+  public static class BTCEOrderBookWrapperDeserializer extends JsonDeserializer<BTCEOrderBookWrapper> {
+
+    @Override
+    public BTCEOrderBookWrapper deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+      return readOrderBooks(jp, DepthStreamReader.ALL_LEVELS);
+    }
+
+    /**
+     * Read a depth response, keeping at most maxLevels per side
+     * 
+     * @param jp The parser, on START_OBJECT
+     * @param maxLevels The number of levels to keep per side
+     * @return The order books by currency pair
+     */
+    public static BTCEOrderBookWrapper readOrderBooks(JsonParser jp, int maxLevels) throws IOException {
+
+      Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<CurrencyPair, OrderBook>();
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        CurrencyPair currencyPair = BTCEAdapters.adaptCurrencyPair(jp.getCurrentName());
+        jp.nextToken();
+        orderBooks.put(currencyPair, DepthStreamReader.readOrderBook(jp, currencyPair, maxLevels, false));
+      }
+      return new BTCEOrderBookWrapper(orderBooks);
+    }
+  }
+}
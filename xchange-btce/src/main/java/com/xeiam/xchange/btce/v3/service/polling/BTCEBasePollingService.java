@@ -25,13 +25,11 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -42,6 +40,7 @@ import com.xeiam.xchange.btce.v3.service.BTCEHmacPostBodyDigest;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.service.BaseExchangeService;
 import com.xeiam.xchange.service.polling.BasePollingService;
+import com.xeiam.xchange.service.polling.NonceManager;
 
 /**
  * @author Matija Mazi
@@ -53,12 +52,11 @@ public class BTCEBasePollingService<T extends BTCE> extends BaseExchangeService
   public final Set<CurrencyPair> currencyPairs = new HashSet<CurrencyPair>();
 
   private static final long START_MILLIS = 1356998400000L; // Jan 1st, 2013 in milliseconds from epoch
-  // counter for the nonce
-  private static final AtomicInteger lastNonce = new AtomicInteger((int) ((System.currentTimeMillis() - START_MILLIS) / 250L));
 
   protected final String apiKey;
   protected final T btce;
   protected final ParamsDigest signatureCreator;
+  protected final NonceManager nonceManager;
 
   /**
    * Constructor
@@ -69,9 +67,11 @@ public class BTCEBasePollingService<T extends BTCE> extends BaseExchangeService
 
     super(exchangeSpecification);
 
-    this.btce = RestProxyFactory.createProxy(btceType, exchangeSpecification.getSslUri());
+    this.btce = createProxy(btceType, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = BTCEHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
+    // BTC-e nonces are 32 bit, so count quarter seconds from 2013
+    this.nonceManager = NonceManager.getInstance(exchangeSpecification, START_MILLIS, 4L);
   }
 
   @Override
@@ -86,7 +86,7 @@ public class BTCEBasePollingService<T extends BTCE> extends BaseExchangeService
 
   protected int nextNonce() {
 
-    int nextNonce = lastNonce.incrementAndGet();
+    int nextNonce = (int) nonceManager.next();
     logger.debug("nextNonce in BTCEBaseService: " + nextNonce);
 
     return nextNonce;
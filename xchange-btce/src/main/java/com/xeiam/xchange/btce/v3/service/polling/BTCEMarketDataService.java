@@ -22,13 +22,18 @@
 package com.xeiam.xchange.btce.v3.service.polling;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btce.v3.BTCEAdapters;
 import com.xeiam.xchange.btce.v3.BTCEUtils;
 import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepthWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCETicker;
 import com.xeiam.xchange.btce.v3.dto.marketdata.BTCETickerWrapper;
 import com.xeiam.xchange.btce.v3.dto.marketdata.BTCETrade;
 import com.xeiam.xchange.currency.CurrencyPair;
@@ -36,7 +41,7 @@ import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Trades;
 import com.xeiam.xchange.dto.trade.LimitOrder;
-import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.service.polling.BulkPollingMarketDataService;
 
 /**
  * <p>
@@ -44,9 +49,10 @@ import com.xeiam.xchange.service.polling.PollingMarketDataService;
  * </p>
  * <ul>
  * <li>Provides access to various market data values</li>
+ * <li>Fetches tickers and order books of many pairs in one request</li>
  * </ul>
  */
-public class BTCEMarketDataService extends BTCEMarketDataServiceRaw implements PollingMarketDataService {
+public class BTCEMarketDataService extends BTCEMarketDataServiceRaw implements BulkPollingMarketDataService {
 
   /**
    * @param exchangeSpecification The {@link ExchangeSpecification}
@@ -102,6 +108,56 @@ public class BTCEMarketDataService extends BTCEMarketDataServiceRaw implements P
     return new OrderBook(null, asks, bids);
   }
 
+  @Override
+  public Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    BTCETickerWrapper btceTickerWrapper = getBTCETicker(joinPairs(currencyPairs));
+
+    Map<CurrencyPair, Ticker> tickers = new LinkedHashMap<CurrencyPair, Ticker>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      BTCETicker btceTicker = btceTickerWrapper.getTicker(BTCEUtils.getPair(currencyPair));
+      if (btceTicker == null) {
+        throw new ExchangeException("BTC-e returned no ticker for " + currencyPair);
+      }
+      tickers.put(currencyPair, BTCEAdapters.adaptTicker(btceTicker, currencyPair));
+    }
+    return tickers;
+  }
+
+  /**
+   * Get market depth of many pairs in one request
+   * 
+   * @param currencyPairs The currency pairs
+   * @param args Optional arguments. Exchange-specific. This implementation assumes:
+   *          Integer value from 1 to 2000 -> get corresponding number of items per pair
+   * @return The order books by currency pair
+   * @throws IOException
+   */
+  @Override
+  public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    int size = FULL_SIZE;
+    if (args.length > 0) {
+      Object arg0 = args[0];
+      if (!(arg0 instanceof Integer) || ((Integer) arg0 < 1) || ((Integer) arg0 > FULL_SIZE)) {
+        throw new ExchangeException("Orderbook size argument must be an Integer in the range: (1, 2000)!");
+      }
+      size = (Integer) arg0;
+    }
+
+    BTCEOrderBookWrapper btceOrderBookWrapper = getBTCEOrderBooks(joinPairs(currencyPairs), size);
+
+    Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<CurrencyPair, OrderBook>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      OrderBook orderBook = btceOrderBookWrapper.getOrderBook(currencyPair);
+      if (orderBook == null) {
+        throw new ExchangeException("BTC-e returned no order book for " + currencyPair);
+      }
+      orderBooks.put(currencyPair, orderBook);
+    }
+    return orderBooks;
+  }
+
   /**
    * Get recent trades from exchange
    * 
@@ -136,4 +192,16 @@ public class BTCEMarketDataService extends BTCEMarketDataServiceRaw implements P
     return BTCEAdapters.adaptTrades(bTCETrades, currencyPair);
   }
 
+  private static String joinPairs(Collection<CurrencyPair> currencyPairs) {
+
+    StringBuilder pairs = new StringBuilder();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      if (pairs.length() > 0) {
+        pairs.append("-");
+      }
+      pairs.append(BTCEUtils.getPair(currencyPair));
+    }
+    return pairs.toString();
+  }
+
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.btce.v3.service.marketdata;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.btce.v3.BTCEAdapters;
+import com.xeiam.xchange.btce.v3.BTCEUtils;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepth;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepthWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper.BTCEOrderBookWrapperDeserializer;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * Test streamed parsing of BTCE depth into OrderBook
+ */
+public class BTCEOrderBookJSONTest {
+
+  @Test
+  public void testMatchesAdaptedDepth() throws IOException {
+
+    ObjectMapper mapper = new ObjectMapper();
+    InputStream is = BTCEOrderBookJSONTest.class.getResourceAsStream("/v3/marketdata/example-depth-data.json");
+    BTCEOrderBookWrapper wrapper = mapper.readValue(is, BTCEOrderBookWrapper.class);
+    is = BTCEOrderBookJSONTest.class.getResourceAsStream("/v3/marketdata/example-depth-data.json");
+    BTCEDepth depth = mapper.readValue(is, BTCEDepthWrapper.class).getDepth(BTCEUtils.getPair(CurrencyPair.BTC_USD));
+
+    List<LimitOrder> asks = BTCEAdapters.adaptOrders(depth.getAsks(), CurrencyPair.BTC_USD, "ask", "");
+    List<LimitOrder> bids = BTCEAdapters.adaptOrders(depth.getBids(), CurrencyPair.BTC_USD, "bid", "");
+    OrderBook expected = new OrderBook(null, asks, bids);
+    OrderBook orderBook = wrapper.getOrderBook(CurrencyPair.BTC_USD);
+
+    assertThat(orderBook.getAsks()).hasSize(30);
+    assertThat(orderBook.getAsks()).isEqualTo(expected.getAsks());
+    assertThat(orderBook.getBids()).isEqualTo(expected.getBids());
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("760.98"));
+  }
+
+  @Test
+  public void testMaxLevels() throws IOException {
+
+    InputStream is = BTCEOrderBookJSONTest.class.getResourceAsStream("/v3/marketdata/example-depth-data.json");
+    JsonParser jp = new ObjectMapper().getFactory().createParser(is);
+    jp.nextToken();
+    BTCEOrderBookWrapper wrapper = BTCEOrderBookWrapperDeserializer.readOrderBooks(jp, 5);
+
+    OrderBook orderBook = wrapper.getOrderBook(CurrencyPair.BTC_USD);
+    assertThat(orderBook.getAsks()).hasSize(5);
+    assertThat(orderBook.getBids()).hasSize(5);
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("760.98"));
+  }
+}
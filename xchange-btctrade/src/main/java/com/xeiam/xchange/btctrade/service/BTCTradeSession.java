@@ -27,6 +27,7 @@ import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btctrade.BTCTradeAdapters;
 import com.xeiam.xchange.btctrade.dto.BTCTradeSecretData;
 import com.xeiam.xchange.btctrade.service.polling.BTCTradeSecretDataService;
+import com.xeiam.xchange.service.polling.NonceManager;
 
 /**
  * Represents an API key status.
@@ -34,7 +35,7 @@ import com.xeiam.xchange.btctrade.service.polling.BTCTradeSecretDataService;
  * For one API key, we can only have one single session, and all requests on one session should be synchronized, because:
  * <ol>
  * <li>the {@code BTCTradeSecretData} of one API key is single in server side.</li>
- * <li>the nonce of one API key should be incrementing.</li>
+ * <li>the nonce of one API key should be incrementing, which the shared {@link NonceManager} of the key takes care of.</li>
  * </ol>
  * </p>
  */
@@ -43,7 +44,7 @@ public class BTCTradeSession {
   private final ExchangeSpecification exchangeSpecification;
   private final BTCTradeSecretDataService secretDataService;
 
-  private long lastNonce = 0L;
+  private final NonceManager nonceManager;
 
   private BTCTradeSecretData secretData;
   private long secretExpiresTime;
@@ -59,6 +60,7 @@ public class BTCTradeSession {
 
     this.exchangeSpecification = exchangeSpecification;
     secretDataService = new BTCTradeSecretDataService(exchangeSpecification);
+    nonceManager = NonceManager.getInstance(exchangeSpecification, 0L, 1000000L);
   }
 
   public ExchangeSpecification getExchangeSpecification() {
@@ -81,14 +83,9 @@ public class BTCTradeSession {
    *
    * @return the next nonce of the session.
    */
-  public synchronized long nextNonce() {
+  public long nextNonce() {
 
-    long newNonce = System.currentTimeMillis() * 1000;
-    while (newNonce <= lastNonce) {
-      newNonce++;
-    }
-    lastNonce = newNonce;
-    return newNonce;
+    return nonceManager.next();
   }
 
   public synchronized ParamsDigest getSignatureCreator() {
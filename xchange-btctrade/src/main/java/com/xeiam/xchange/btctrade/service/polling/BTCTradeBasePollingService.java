@@ -24,8 +24,6 @@ package com.xeiam.xchange.btctrade.service.polling;
 import java.util.Arrays;
 import java.util.Collection;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.btctrade.BTCTrade;
 import com.xeiam.xchange.currency.CurrencyPair;
@@ -46,7 +44,7 @@ public class BTCTradeBasePollingService extends BaseExchangeService implements B
     super(exchangeSpecification);
     symbols = Arrays.asList(CurrencyPair.BTC_CNY);
     String baseUrl = exchangeSpecification.getSslUri();
-    btcTrade = RestProxyFactory.createProxy(BTCTrade.class, baseUrl);
+    btcTrade = createProxy(BTCTrade.class, baseUrl);
   }
 
   /**
@@ -25,7 +25,6 @@ import java.io.IOException;
 import java.util.Collection;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -49,7 +48,7 @@ public class BTERBasePollingService<T extends BTER> extends BaseExchangeService
 
     super(exchangeSpecification);
 
-    this.bter = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    this.bter = createProxy(type, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = BTERHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
   }
@@ -24,8 +24,6 @@ package com.xeiam.xchange.campbx.service.polling;
 import java.io.IOException;
 import java.math.BigDecimal;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.campbx.CampBX;
 import com.xeiam.xchange.campbx.dto.CampBXResponse;
@@ -46,7 +44,7 @@ public class CampBXAccountServiceRaw extends CampBXBasePollingService {
   public CampBXAccountServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.campBX = RestProxyFactory.createProxy(CampBX.class, exchangeSpecification.getSslUri());
+    this.campBX = createProxy(CampBX.class, exchangeSpecification.getSslUri());
   }
 
   public MyFunds getCampBXAccountInfo() throws IOException {
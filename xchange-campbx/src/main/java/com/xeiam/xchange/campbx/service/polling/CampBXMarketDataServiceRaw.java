@@ -23,8 +23,6 @@ package com.xeiam.xchange.campbx.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.NotAvailableFromExchangeException;
@@ -49,7 +47,7 @@ public class CampBXMarketDataServiceRaw extends CampBXBasePollingService {
   public CampBXMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.campBX = RestProxyFactory.createProxy(CampBX.class, exchangeSpecification.getSslUri());
+    this.campBX = createProxy(CampBX.class, exchangeSpecification.getSslUri());
   }
 
   public CampBXTicker getCampBXTicker() throws IOException {
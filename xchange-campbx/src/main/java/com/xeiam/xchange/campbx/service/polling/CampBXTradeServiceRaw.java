@@ -25,8 +25,6 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.text.ParseException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.campbx.CampBX;
 import com.xeiam.xchange.campbx.dto.CampBXResponse;
@@ -52,7 +50,7 @@ public class CampBXTradeServiceRaw extends CampBXBasePollingService {
   public CampBXTradeServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.campbx = RestProxyFactory.createProxy(CampBX.class, exchangeSpecification.getSslUri());
+    this.campbx = createProxy(CampBX.class, exchangeSpecification.getSslUri());
   }
 
   public MyOpenOrders getCampBXOpenOrders() throws IOException {
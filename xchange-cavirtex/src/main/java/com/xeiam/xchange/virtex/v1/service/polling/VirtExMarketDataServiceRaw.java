@@ -23,8 +23,6 @@ package com.xeiam.xchange.virtex.v1.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.virtex.v1.VirtEx;
 import com.xeiam.xchange.virtex.v1.dto.marketdata.VirtExDepth;
@@ -53,7 +51,7 @@ public class VirtExMarketDataServiceRaw extends VirtexBasePollingService {
   public VirtExMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.virtEx = RestProxyFactory.createProxy(VirtEx.class, exchangeSpecification.getSslUri());
+    this.virtEx = createProxy(VirtEx.class, exchangeSpecification.getSslUri());
   }
 
   public VirtExTicker getVirtExTicker(String currency) throws IOException {
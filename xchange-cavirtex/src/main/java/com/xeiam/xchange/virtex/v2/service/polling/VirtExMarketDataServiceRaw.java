@@ -24,8 +24,6 @@ package com.xeiam.xchange.virtex.v2.service.polling;
 import java.io.IOException;
 import java.util.List;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.virtex.v2.VirtEx;
@@ -53,7 +51,7 @@ public class VirtExMarketDataServiceRaw extends VirtexBasePollingService {
   public VirtExMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.virtEx = RestProxyFactory.createProxy(VirtEx.class, exchangeSpecification.getSslUri());
+    this.virtEx = createProxy(VirtEx.class, exchangeSpecification.getSslUri());
   }
 
   public VirtExTicker getVirtExTicker(CurrencyPair currencyPair) throws IOException {
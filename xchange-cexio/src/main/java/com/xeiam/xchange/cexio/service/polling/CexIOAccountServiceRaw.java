@@ -25,7 +25,6 @@ import java.io.IOException;
 import java.util.Map;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -52,7 +51,7 @@ public class CexIOAccountServiceRaw extends CexIOBasePollingService {
   public CexIOAccountServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.cexIOAuthenticated = RestProxyFactory.createProxy(CexIOAuthenticated.class, exchangeSpecification.getSslUri());
+    this.cexIOAuthenticated = createProxy(CexIOAuthenticated.class, exchangeSpecification.getSslUri());
     signatureCreator = CexIODigest.createInstance(exchangeSpecification.getSecretKey(), exchangeSpecification.getUserName(), exchangeSpecification.getApiKey());
   }
 
@@ -23,8 +23,6 @@ package com.xeiam.xchange.cexio.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.cexio.CexIO;
 import com.xeiam.xchange.cexio.dto.marketdata.CexIODepth;
@@ -47,7 +45,7 @@ public class CexIOMarketDataServiceRaw extends CexIOBasePollingService {
   public CexIOMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.cexio = RestProxyFactory.createProxy(CexIO.class, exchangeSpecification.getSslUri());
+    this.cexio = createProxy(CexIO.class, exchangeSpecification.getSslUri());
   }
 
   public CexIOTicker getCexIOTicker(CurrencyPair currencyPair) throws IOException {
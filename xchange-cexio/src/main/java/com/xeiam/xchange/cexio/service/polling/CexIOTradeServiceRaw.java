@@ -28,7 +28,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -57,7 +56,7 @@ public class CexIOTradeServiceRaw extends CexIOBasePollingService {
   public CexIOTradeServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    cexIOAuthenticated = RestProxyFactory.createProxy(CexIOAuthenticated.class, exchangeSpecification.getSslUri());
+    cexIOAuthenticated = createProxy(CexIOAuthenticated.class, exchangeSpecification.getSslUri());
     signatureCreator = CexIODigest.createInstance(exchangeSpecification.getSecretKey(), exchangeSpecification.getUserName(), exchangeSpecification.getApiKey());
   }
 
@@ -26,7 +26,6 @@ import java.util.Arrays;
 import java.util.List;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -51,7 +50,7 @@ abstract class CoinbaseBasePollingService<T extends Coinbase> extends BaseExchan
   protected CoinbaseBasePollingService(final Class<T> type, final ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    coinbase = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    coinbase = createProxy(type, exchangeSpecification.getSslUri());
     signatureCreator = CoinbaseDigest.createInstance(exchangeSpecification.getSecretKey());
   }
 
@@ -29,8 +29,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.coinfloor.dto.streaming.CoinfloorOrder;
@@ -56,6 +56,14 @@ import com.xeiam.xchange.dto.trade.OpenOrders;
 import com.xeiam.xchange.dto.trade.Wallet;
 
 /**
+ * <p>
+ * Each adapt method comes in two forms: one taking the raw message, and one taking the message already parsed into a tree, which
+ * {@link com.xeiam.xchange.coinfloor.streaming.CoinfloorEventListener} uses so that every message is parsed only once.
+ * </p>
+ * <p>
+ * The cached order book is updated in place as orders open, close and match, with an index by order id so that removals do not scan the book.
+ * </p>
+ * 
  * @author obsessiveOrange
  */
 
@@ -65,20 +73,46 @@ public class CoinfloorAdapters {
 
   private Object cachedDataSynchronizationObject = new Object();
   private AccountInfo cachedAccountInfo;
-  private Trades cachedTrades;
+  private final List<Trade> cachedTrades = new ArrayList<Trade>();
   private OrderBook cachedOrderBook;
+  private final Map<String, LimitOrder> cachedOrdersById = new HashMap<String, LimitOrder>();
   private Ticker cachedTicker;
 
-  public Map<String, Object> adaptBalances(String data) throws ExchangeException {
+  /**
+   * Parses a raw message into the tree the JsonNode forms of the adapt methods take
+   * 
+   * @param data The raw message
+   * @return The message as a tree
+   * @throws ExchangeException if the message is not valid JSON
+   */
+  public static JsonNode readTree(String data) throws ExchangeException {
 
-    Map<String, Object> resultMap = new HashMap<String, Object>();
+    try {
+      return streamObjectMapper.readTree(data);
+    } catch (IOException e) {
+      throw new ExchangeException("JSON parse error", e);
+    }
+  }
+
+  private static <T> T bind(JsonNode data, Class<T> type) throws ExchangeException {
 
-    CoinfloorBalances rawRetObj;
     try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorBalances.class);
+      return streamObjectMapper.treeToValue(data, type);
     } catch (IOException e) {
       throw new ExchangeException("JSON parse error", e);
     }
+  }
+
+  public Map<String, Object> adaptBalances(String data) throws ExchangeException {
+
+    return adaptBalances(readTree(data));
+  }
+
+  public Map<String, Object> adaptBalances(JsonNode data) throws ExchangeException {
+
+    Map<String, Object> resultMap = new HashMap<String, Object>();
+
+    CoinfloorBalances rawRetObj = bind(data, CoinfloorBalances.class);
     resultMap.put("raw", rawRetObj);
 
     List<Wallet> wallets = new ArrayList<Wallet>();
@@ -113,19 +147,19 @@ public class CoinfloorAdapters {
       type = OrderType.ASK;
     }
 
-    return new LimitOrder(type, order.getBaseQty(), new CurrencyPair(baseCurrency, counterCurrency), String.valueOf(order.getId()), new Date(order.getTime()), order.getPrice());
+    return new LimitOrder(type, order.getBaseQty(), CurrencyPair.of(baseCurrency, counterCurrency), String.valueOf(order.getId()), new Date(order.getTime()), order.getPrice());
   }
 
   public Map<String, Object> adaptOpenOrders(String data) throws ExchangeException {
 
+    return adaptOpenOrders(readTree(data));
+  }
+
+  public Map<String, Object> adaptOpenOrders(JsonNode data) throws ExchangeException {
+
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorOpenOrders rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorOpenOrders.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorOpenOrders rawRetObj = bind(data, CoinfloorOpenOrders.class);
     resultMap.put("raw", rawRetObj);
 
     List<LimitOrder> openOrdersList = new ArrayList<LimitOrder>();
@@ -141,36 +175,33 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptPlaceOrder(String data) {
+  public Map<String, Object> adaptPlaceOrder(String data) throws ExchangeException {
+
+    return adaptPlaceOrder(readTree(data));
+  }
+
+  public Map<String, Object> adaptPlaceOrder(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorPlaceOrder rawRetObj;
-    Map<String, Object> jsonData;
-    try {
-      jsonData = streamObjectMapper.readValue(data, new TypeReference<Map<String, Object>>() {
-      });
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorPlaceOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorPlaceOrder rawRetObj = bind(data, CoinfloorPlaceOrder.class);
 
-    resultMap.put("generic", jsonData.get("id").toString());
+    resultMap.put("generic", data.get("id").asText());
     resultMap.put("raw", rawRetObj);
 
     return resultMap;
   }
 
-  public Map<String, Object> adaptCancelOrder(String data) {
+  public Map<String, Object> adaptCancelOrder(String data) throws ExchangeException {
+
+    return adaptCancelOrder(readTree(data));
+  }
+
+  public Map<String, Object> adaptCancelOrder(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorCancelOrder rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorCancelOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorCancelOrder rawRetObj = bind(data, CoinfloorCancelOrder.class);
 
     resultMap.put("generic", true);
     resultMap.put("raw", rawRetObj);
@@ -178,16 +209,16 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptTradeVolume(String data) {
+  public Map<String, Object> adaptTradeVolume(String data) throws ExchangeException {
+
+    return adaptTradeVolume(readTree(data));
+  }
+
+  public Map<String, Object> adaptTradeVolume(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorTradeVolume rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorTradeVolume.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorTradeVolume rawRetObj = bind(data, CoinfloorTradeVolume.class);
 
     resultMap.put("generic", rawRetObj.getAssetVol());
     resultMap.put("raw", rawRetObj);
@@ -196,16 +227,16 @@ public class CoinfloorAdapters {
   }
 
   // No meaningful generic form availiable - raw and generic output will be the same.
-  public Map<String, Object> adaptEstimateMarketOrder(String data) {
+  public Map<String, Object> adaptEstimateMarketOrder(String data) throws ExchangeException {
+
+    return adaptEstimateMarketOrder(readTree(data));
+  }
+
+  public Map<String, Object> adaptEstimateMarketOrder(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorEstimateMarketOrder rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorEstimateMarketOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorEstimateMarketOrder rawRetObj = bind(data, CoinfloorEstimateMarketOrder.class);
 
     resultMap.put("generic", rawRetObj);
     resultMap.put("raw", rawRetObj);
@@ -213,16 +244,16 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptTicker(String data) {
+  public Map<String, Object> adaptTicker(String data) throws ExchangeException {
+
+    return adaptTicker(readTree(data));
+  }
+
+  public Map<String, Object> adaptTicker(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorTicker rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorTicker.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorTicker rawRetObj = bind(data, CoinfloorTicker.class);
 
     // String tradableIdentifier, BigDecimal last, BigDecimal bid, BigDecimal ask, BigDecimal high, BigDecimal low, BigDecimal volume, Date timestamp
     // base & counter currencies hard coded in; no way to make it dynamic with return data - may change over time.
@@ -232,7 +263,7 @@ public class CoinfloorAdapters {
     BigDecimal low = rawRetObj.getLow();
     BigDecimal high = rawRetObj.getHigh();
     Ticker genericTicker =
-        new Ticker.TickerBuilder().withVolume(rawRetObj.getVolume()).withAsk(ask).withCurrencyPair(new CurrencyPair("BTC", "GBP")).withBid(bid).withHigh(high).withLow(low).withLast(last).build();
+        new Ticker.TickerBuilder().withVolume(rawRetObj.getVolume()).withAsk(ask).withCurrencyPair(CurrencyPair.BTC_GBP).withBid(bid).withHigh(high).withLow(low).withLast(last).build();
 
     synchronized (cachedDataSynchronizationObject) {
       cachedTicker = genericTicker;
@@ -244,16 +275,16 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptTickerUpdate(String data) {
+  public Map<String, Object> adaptTickerUpdate(String data) throws ExchangeException {
+
+    return adaptTickerUpdate(readTree(data));
+  }
+
+  public Map<String, Object> adaptTickerUpdate(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorTicker rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorTicker.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorTicker rawRetObj = bind(data, CoinfloorTicker.class);
     Ticker genericTicker;
 
     synchronized (cachedDataSynchronizationObject) {
@@ -266,7 +297,7 @@ public class CoinfloorAdapters {
       BigDecimal volume = (rawRetObj.getVolume().doubleValue() == 0 ? cachedTicker.getVolume() : rawRetObj.getVolume());
 
       genericTicker =
-          new Ticker.TickerBuilder().withCurrencyPair(new CurrencyPair(rawRetObj.getBase().toString(), rawRetObj.getCounter().toString())).withLast(last).withBid(bid).withAsk(ask).withLow(low)
+          new Ticker.TickerBuilder().withCurrencyPair(CurrencyPair.of(rawRetObj.getBase().toString(), rawRetObj.getCounter().toString())).withLast(last).withBid(bid).withAsk(ask).withLow(low)
               .withHigh(high).withVolume(volume).build();
       cachedTicker = genericTicker;
     }
@@ -279,101 +310,66 @@ public class CoinfloorAdapters {
 
   public Map<String, Object> adaptOrders(String data) throws ExchangeException {
 
+    return adaptOrders(readTree(data));
+  }
+
+  public Map<String, Object> adaptOrders(JsonNode data) throws ExchangeException {
+
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorOrderbook rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorOrderbook.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorOrderbook rawRetObj = bind(data, CoinfloorOrderbook.class);
     resultMap.put("raw", rawRetObj);
     OrderBook orderbook;
 
     synchronized (cachedDataSynchronizationObject) {
-      List<LimitOrder> bidList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getBids());
-      List<LimitOrder> askList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getAsks());
       List<CoinfloorOrder> orders = rawRetObj.getOrders();
-
       if (orders != null) {
         for (CoinfloorOrder order : orders) {
-          if (order.getBaseQty().doubleValue() > 0) {
-            bidList.add(adaptOrder(order));
-          }
-          else {
-            askList.add(adaptOrder(order));
-          }
+          addCachedOrder(adaptOrder(order));
         }
       }
-
-      orderbook = new OrderBook(new Date(), askList, bidList);
-      cachedOrderBook = orderbook;
+      orderbook = snapshotCachedOrderBook();
     }
     resultMap.put("generic", orderbook);
 
     return resultMap;
   }
 
-  public Map<String, Object> adaptOrderOpened(String data) {
+  public Map<String, Object> adaptOrderOpened(String data) throws ExchangeException {
+
+    return adaptOrderOpened(readTree(data));
+  }
+
+  public Map<String, Object> adaptOrderOpened(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorOrder rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorOrder rawRetObj = bind(data, CoinfloorOrder.class);
 
+    LimitOrder order = adaptOrder(rawRetObj);
     synchronized (cachedDataSynchronizationObject) {
-      List<LimitOrder> bidList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getBids());
-      List<LimitOrder> askList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getAsks());
-      if (rawRetObj.getBaseQty().doubleValue() > 0) {
-        bidList.add(adaptOrder(rawRetObj));
-      }
-      else {
-        askList.add(adaptOrder(rawRetObj));
-      }
-      cachedOrderBook = new OrderBook(new Date(), askList, bidList);
+      addCachedOrder(order);
     }
 
-    resultMap.put("generic", adaptOrder(rawRetObj));
+    resultMap.put("generic", order);
     resultMap.put("raw", rawRetObj);
 
     return resultMap;
   }
 
-  public Map<String, Object> adaptOrderClosed(String data) {
+  public Map<String, Object> adaptOrderClosed(String data) throws ExchangeException {
+
+    return adaptOrderClosed(readTree(data));
+  }
+
+  public Map<String, Object> adaptOrderClosed(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorOrder rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorOrder rawRetObj = bind(data, CoinfloorOrder.class);
 
     synchronized (cachedDataSynchronizationObject) {
-      List<LimitOrder> bidList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getBids());
-      List<LimitOrder> askList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getAsks());
-      if (rawRetObj.getBaseQty().doubleValue() > 0) {
-        for (int i = 0; i < bidList.size(); i++) {
-          if (bidList.get(i).getId().equals(String.valueOf(rawRetObj.getId()))) {
-            bidList.remove(i);
-            break;
-          }
-        }
-      }
-      else {
-        for (int i = 0; i < askList.size(); i++) {
-          if (askList.get(i).getId().equals(String.valueOf(rawRetObj.getId()))) {
-            askList.remove(i);
-            break;
-          }
-        }
-      }
-      cachedOrderBook = new OrderBook(new Date(), askList, bidList);
+      removeCachedOrder(rawRetObj.getId());
     }
 
     resultMap.put("generic", adaptOrder(rawRetObj));
@@ -382,51 +378,34 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptOrdersMatched(String data) {
+  public Map<String, Object> adaptOrdersMatched(String data) throws ExchangeException {
+
+    return adaptOrdersMatched(readTree(data));
+  }
+
+  public Map<String, Object> adaptOrdersMatched(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorOrder rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorOrder.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorOrder rawRetObj = bind(data, CoinfloorOrder.class);
 
     Trade trade;
 
     synchronized (cachedDataSynchronizationObject) {
-      List<LimitOrder> bidList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getBids());
-      List<LimitOrder> askList = (cachedOrderBook == null ? new ArrayList<LimitOrder>() : cachedOrderBook.getAsks());
       if (rawRetObj.getBidId() != 0) {
-        for (int i = 0; i < bidList.size(); i++) {
-          if (bidList.get(i).getId().equals(String.valueOf(rawRetObj.getBidId()))) {
-            bidList.remove(i);
-            break;
-          }
-        }
+        removeCachedOrder(rawRetObj.getBidId());
       }
       if (rawRetObj.getAskId() != 0) {
-        for (int i = 0; i < askList.size(); i++) {
-          if (askList.get(i).getId().equals(String.valueOf(rawRetObj.getAskId()))) {
-            askList.remove(i);
-            break;
-          }
-        }
+        removeCachedOrder(rawRetObj.getAskId());
       }
-      cachedOrderBook = new OrderBook(new Date(), askList, bidList);
 
       OrderType type = (rawRetObj.getBidId() > rawRetObj.getAskId() ? OrderType.BID : OrderType.ASK);
       BigDecimal limitPrice = rawRetObj.getPrice();
 
       trade =
-          new Trade(type, rawRetObj.getBaseQty(), new CurrencyPair(rawRetObj.getBase().toString(), rawRetObj.getCounter().toString()), limitPrice, new Date(), String.valueOf(rawRetObj.getId()), null);
+          new Trade(type, rawRetObj.getBaseQty(), CurrencyPair.of(rawRetObj.getBase().toString(), rawRetObj.getCounter().toString()), limitPrice, new Date(), String.valueOf(rawRetObj.getId()), null);
 
-      List<Trade> newTradesList = (cachedTrades == null ? new ArrayList<Trade>() : cachedTrades.getTrades());
-      newTradesList.add(trade);
-
-      Trades newCachedTrades = new Trades(newTradesList, TradeSortType.SortByID);
-      cachedTrades = newCachedTrades;
+      cachedTrades.add(trade);
     }
 
     resultMap.put("generic", trade);
@@ -435,16 +414,16 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
-  public Map<String, Object> adaptBalancesChanged(String data) {
+  public Map<String, Object> adaptBalancesChanged(String data) throws ExchangeException {
+
+    return adaptBalancesChanged(readTree(data));
+  }
+
+  public Map<String, Object> adaptBalancesChanged(JsonNode data) throws ExchangeException {
 
     Map<String, Object> resultMap = new HashMap<String, Object>();
 
-    CoinfloorAssetBalance rawRetObj;
-    try {
-      rawRetObj = streamObjectMapper.readValue(data, CoinfloorAssetBalance.class);
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    CoinfloorAssetBalance rawRetObj = bind(data, CoinfloorAssetBalance.class);
 
     List<Wallet> newWallets = new ArrayList<Wallet>();
     AccountInfo accountInfo;
@@ -481,6 +460,34 @@ public class CoinfloorAdapters {
     return resultMap;
   }
 
+  private void addCachedOrder(LimitOrder order) {
+
+    if (cachedOrderBook == null) {
+      cachedOrderBook = new OrderBook(null, new ArrayList<LimitOrder>(), new ArrayList<LimitOrder>());
+    }
+    LimitOrder replaced = cachedOrdersById.put(order.getId(), order);
+    if (replaced != null) {
+      cachedOrderBook.remove(replaced);
+    }
+    cachedOrderBook.add(order);
+  }
+
+  private void removeCachedOrder(int id) {
+
+    LimitOrder order = cachedOrdersById.remove(String.valueOf(id));
+    if (order != null) {
+      cachedOrderBook.remove(order);
+    }
+  }
+
+  private OrderBook snapshotCachedOrderBook() {
+
+    if (cachedOrderBook == null) {
+      cachedOrderBook = new OrderBook(null, new ArrayList<LimitOrder>(), new ArrayList<LimitOrder>());
+    }
+    return new OrderBook(new Date(), cachedOrderBook.getAsks(), cachedOrderBook.getBids());
+  }
+
   /**
    * Experimental: USE WITH CAUTION.
    * Adapters take every "BalancesUpdated" event, update local AccountInfo object with said new balance.
@@ -514,7 +521,7 @@ public class CoinfloorAdapters {
       if (cachedOrderBook == null) {
         throw new ExchangeException("watchOrders method has not been called yet!");
       }
-      return cachedOrderBook;
+      return snapshotCachedOrderBook();
     }
   }
 
@@ -531,10 +538,10 @@ public class CoinfloorAdapters {
   public Trades getCachedTrades() {
 
     synchronized (cachedDataSynchronizationObject) {
-      if (cachedTrades == null) {
+      if (cachedTrades.isEmpty()) {
         throw new ExchangeException("watchOrders method has not been called yet, or no trades have occurred!");
       }
-      return cachedTrades;
+      return new Trades(cachedTrades, TradeSortType.SortByID);
     }
   }
 
@@ -40,6 +40,7 @@ import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.util.encoders.Base64;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.xeiam.xchange.ExchangeException;
 
 /**
@@ -121,6 +122,16 @@ public class CoinfloorUtils {
     }
   }
 
+  public static void checkSuccess(JsonNode payload) {
+
+    JsonNode errorCode = payload.get("error_code");
+    if (errorCode != null) {
+      if (!errorCode.isInt() || errorCode.intValue() != 0) {
+        throw new ExchangeException("Server returned error " + errorCode + ": " + payload.path("error_msg").asText());
+      }
+    }
+  }
+
   public static CoinfloorCurrency currencyOf(String currency) {
 
     if (currency.equals("BTC")) {
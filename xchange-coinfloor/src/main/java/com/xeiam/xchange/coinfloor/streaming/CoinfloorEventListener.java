@@ -42,21 +42,21 @@
  */
 package com.xeiam.xchange.coinfloor.streaming;
 
-import java.io.IOException;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.coinfloor.CoinfloorAdapters;
 import com.xeiam.xchange.coinfloor.CoinfloorUtils;
 import com.xeiam.xchange.coinfloor.dto.streaming.CoinfloorExchangeEvent;
 import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
 import com.xeiam.xchange.service.streaming.ExchangeEventListener;
 import com.xeiam.xchange.service.streaming.ExchangeEventType;
 
@@ -66,20 +66,21 @@ import com.xeiam.xchange.service.streaming.ExchangeEventType;
 public class CoinfloorEventListener extends ExchangeEventListener {
 
   private static final Logger log = LoggerFactory.getLogger(CoinfloorEventListener.class);
-  private final BlockingQueue<ExchangeEvent> systemEventQueue;
-  private final BlockingQueue<ExchangeEvent> consumerEventQueue;
+  private final ExchangeEventBus systemEventBus;
+  private final ExchangeEventBus consumerEventBus;
   private final ObjectMapper streamObjectMapper;
   private final CoinfloorAdapters coinfloorAdapters = new CoinfloorAdapters();
 
   private String serverNonce;
 
   /**
-   * @param consumerEventQueue
+   * @param consumerEventBus
+   * @param systemEventBus
    */
-  public CoinfloorEventListener(BlockingQueue<ExchangeEvent> consumerEventQueue, BlockingQueue<ExchangeEvent> systemEventQueue) {
+  public CoinfloorEventListener(ExchangeEventBus consumerEventBus, ExchangeEventBus systemEventBus) {
 
-    this.consumerEventQueue = consumerEventQueue;
-    this.systemEventQueue = systemEventQueue;
+    this.consumerEventBus = consumerEventBus;
+    this.systemEventBus = systemEventBus;
     this.streamObjectMapper = new ObjectMapper();
     this.streamObjectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
   }
@@ -88,88 +89,84 @@ public class CoinfloorEventListener extends ExchangeEventListener {
   public void handleEvent(ExchangeEvent event) throws ExchangeException {
 
     log.debug("Received event: " + event.getData());
-    Map<String, Object> jsonData;
-    try {
-      jsonData = streamObjectMapper.readValue(event.getData(), new TypeReference<Map<String, Object>>() {
-      });
-    } catch (IOException e) {
-      throw new ExchangeException("JSON parse error", e);
-    }
+    JsonNode jsonData = CoinfloorAdapters.readTree(event.getData());
     CoinfloorUtils.checkSuccess(jsonData);
-    if (jsonData.containsKey("tag")) {
-      switch (((Integer) jsonData.get("tag") & (1 << 10) - 1)) {
+    if (jsonData.has("tag")) {
+      int tag = jsonData.get("tag").asInt();
+      switch (tag & (1 << 10) - 1) {
       case 1:
-        CoinfloorExchangeEvent authenticationEvent = new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.AUTHENTICATION, event.getData(), jsonData);
+        CoinfloorExchangeEvent authenticationEvent = new CoinfloorExchangeEvent(tag, ExchangeEventType.AUTHENTICATION, event.getData(), toMap(jsonData));
         addToEventQueue(authenticationEvent);
         break;
       case 101:
         CoinfloorExchangeEvent getBalancesEvent =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_WALLET, event.getData(), coinfloorAdapters.adaptBalances(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_WALLET, event.getData(), coinfloorAdapters.adaptBalances(jsonData));
         addToEventQueue(getBalancesEvent);
         break;
       case 102:
       case 103:
         CoinfloorExchangeEvent getTradeVolumeEvent =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_TRADE_VOLUME, event.getData(), coinfloorAdapters.adaptTradeVolume(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_TRADE_VOLUME, event.getData(), coinfloorAdapters.adaptTradeVolume(jsonData));
         addToEventQueue(getTradeVolumeEvent);
         break;
       case 201:
         CoinfloorExchangeEvent watchOrdersReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.SUBSCRIBE_ORDERS, event.getData(), coinfloorAdapters.adaptOrders(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.SUBSCRIBE_ORDERS, event.getData(), coinfloorAdapters.adaptOrders(jsonData));
         addToEventQueue(watchOrdersReturn);
         break;
       case 202:
         CoinfloorExchangeEvent watchTickerReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.SUBSCRIBE_TICKER, event.getData(), coinfloorAdapters.adaptTicker(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.SUBSCRIBE_TICKER, event.getData(), coinfloorAdapters.adaptTicker(jsonData));
         addToEventQueue(watchTickerReturn);
         break;
       case 301:
         CoinfloorExchangeEvent getOpenOrdersReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_ORDERS_LIST, event.getData(), coinfloorAdapters.adaptOpenOrders(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_ORDERS_LIST, event.getData(), coinfloorAdapters.adaptOpenOrders(jsonData));
         addToEventQueue(getOpenOrdersReturn);
         break;
       case 302:
         CoinfloorExchangeEvent placeOrderReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_ORDER, event.getData(), coinfloorAdapters.adaptPlaceOrder(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_ORDER, event.getData(), coinfloorAdapters.adaptPlaceOrder(jsonData));
         addToEventQueue(placeOrderReturn);
         break;
       case 303:
         CoinfloorExchangeEvent cancelOrderReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_ORDER_CANCELED, event.getData(), coinfloorAdapters.adaptCancelOrder(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_ORDER_CANCELED, event.getData(), coinfloorAdapters.adaptCancelOrder(jsonData));
         addToEventQueue(cancelOrderReturn);
         break;
       case 304:
         CoinfloorExchangeEvent estMarketOrderReturn =
-            new CoinfloorExchangeEvent((Integer) jsonData.get("tag"), ExchangeEventType.USER_MARKET_ORDER_EST, event.getData(), coinfloorAdapters.adaptEstimateMarketOrder(event.getData()));
+            new CoinfloorExchangeEvent(tag, ExchangeEventType.USER_MARKET_ORDER_EST, event.getData(), coinfloorAdapters.adaptEstimateMarketOrder(jsonData));
         addToEventQueue(estMarketOrderReturn);
         break;
       }
     }
-    else if (jsonData.containsKey("notice")) {
-      if (jsonData.get("notice").equals("Welcome")) {
-        CoinfloorExchangeEvent welcomeEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.WELCOME, event.getData(), jsonData);
+    else if (jsonData.has("notice")) {
+      String notice = jsonData.get("notice").asText();
+      if (notice.equals("Welcome")) {
+        CoinfloorExchangeEvent welcomeEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.WELCOME, event.getData(), toMap(jsonData));
         addToEventQueue(welcomeEvent);
 
-        serverNonce = (String) jsonData.get("nonce");
+        serverNonce = jsonData.path("nonce").textValue();
       }
-      else if (jsonData.get("notice").equals("BalanceChanged")) {
-        CoinfloorExchangeEvent balancesChangedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.USER_WALLET_UPDATE, event.getData(), coinfloorAdapters.adaptBalancesChanged(event.getData()));
+      else if (notice.equals("BalanceChanged")) {
+        CoinfloorExchangeEvent balancesChangedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.USER_WALLET_UPDATE, event.getData(), coinfloorAdapters.adaptBalancesChanged(jsonData));
         addToEventQueue(balancesChangedEvent);
       }
-      else if (jsonData.get("notice").equals("OrderOpened")) {
-        CoinfloorExchangeEvent orderOpenedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.ORDER_ADDED, event.getData(), coinfloorAdapters.adaptOrderOpened(event.getData()));
+      else if (notice.equals("OrderOpened")) {
+        CoinfloorExchangeEvent orderOpenedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.ORDER_ADDED, event.getData(), coinfloorAdapters.adaptOrderOpened(jsonData));
         addToEventQueue(orderOpenedEvent);
       }
-      else if (jsonData.get("notice").equals("OrdersMatched")) {
-        CoinfloorExchangeEvent tradeEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.TRADE, event.getData(), coinfloorAdapters.adaptOrdersMatched(event.getData()));
+      else if (notice.equals("OrdersMatched")) {
+        CoinfloorExchangeEvent tradeEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.TRADE, event.getData(), coinfloorAdapters.adaptOrdersMatched(jsonData));
         addToEventQueue(tradeEvent);
       }
-      else if (jsonData.get("notice").equals("OrderClosed")) {
-        CoinfloorExchangeEvent orderClosedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.ORDER_CANCELED, event.getData(), coinfloorAdapters.adaptOrderClosed(event.getData()));
+      else if (notice.equals("OrderClosed")) {
+        CoinfloorExchangeEvent orderClosedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.ORDER_CANCELED, event.getData(), coinfloorAdapters.adaptOrderClosed(jsonData));
         addToEventQueue(orderClosedEvent);
       }
-      else if (jsonData.get("notice").equals("TickerChanged")) {
-        CoinfloorExchangeEvent tickerChangedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.TICKER, event.getData(), coinfloorAdapters.adaptTickerUpdate(event.getData()));
+      else if (notice.equals("TickerChanged")) {
+        CoinfloorExchangeEvent tickerChangedEvent = new CoinfloorExchangeEvent(0, ExchangeEventType.TICKER, event.getData(), coinfloorAdapters.adaptTickerUpdate(jsonData));
         addToEventQueue(tickerChangedEvent);
       }
     }
@@ -188,16 +185,15 @@ public class CoinfloorEventListener extends ExchangeEventListener {
     return serverNonce;
   }
 
+  private Map<String, Object> toMap(JsonNode jsonData) {
+
+    return streamObjectMapper.convertValue(jsonData, new TypeReference<Map<String, Object>>() {
+    });
+  }
+
   private void addToEventQueue(CoinfloorExchangeEvent event) {
 
-    try {
-      consumerEventQueue.put(event);
-      systemEventQueue.put(event);
-      synchronized (systemEventQueue) {
-        systemEventQueue.notifyAll();
-      }
-    } catch (InterruptedException e) {
-      throw new ExchangeException("InterruptedException!", e);
-    }
+    consumerEventBus.publish(event);
+    systemEventBus.publish(event);
   }
 }
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +45,7 @@ import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Trades;
 import com.xeiam.xchange.dto.trade.MarketOrder;
 import com.xeiam.xchange.service.streaming.BaseWebSocketExchangeService;
-import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
 import com.xeiam.xchange.service.streaming.ExchangeEventType;
 import com.xeiam.xchange.service.streaming.StreamingExchangeService;
 
@@ -57,7 +58,7 @@ public class CoinfloorStreamingExchangeService extends BaseWebSocketExchangeServ
 
   private final CoinfloorStreamingConfiguration configuration;
   private final CoinfloorEventListener exchangeEventListener;
-  private final BlockingQueue<ExchangeEvent> systemEventQueue = new LinkedBlockingQueue<ExchangeEvent>();
+  private final ExchangeEventBus systemEventBus = new ExchangeEventBus();
   private final BlockingQueue<CoinfloorExchangeEvent> updateEventQueue = new LinkedBlockingQueue<CoinfloorExchangeEvent>();
 
   ObjectMapper jsonObjectMapper;
@@ -71,7 +72,7 @@ public class CoinfloorStreamingExchangeService extends BaseWebSocketExchangeServ
     super(exchangeSpecification, exchangeStreamingConfiguration);
 
     this.configuration = exchangeStreamingConfiguration;
-    this.exchangeEventListener = new CoinfloorEventListener(consumerEventQueue, systemEventQueue);
+    this.exchangeEventListener = new CoinfloorEventListener(consumerEventBus, systemEventBus);
 
     this.jsonObjectMapper = new ObjectMapper();
 
@@ -331,23 +332,12 @@ public class CoinfloorStreamingExchangeService extends BaseWebSocketExchangeServ
 
   public CoinfloorExchangeEvent getNextSystemEvent() throws InterruptedException {
 
-    CoinfloorExchangeEvent event = (CoinfloorExchangeEvent) systemEventQueue.take();
+    CoinfloorExchangeEvent event = (CoinfloorExchangeEvent) systemEventBus.take();
     return event;
   }
 
   public CoinfloorExchangeEvent checkNextSystemEvent() throws InterruptedException {
 
-    while (true) {
-      synchronized (systemEventQueue) {
-        if (systemEventQueue.isEmpty()) {
-          systemEventQueue.wait();
-        }
-      }
-      CoinfloorExchangeEvent event = (CoinfloorExchangeEvent) systemEventQueue.peek();
-      if (event == null) {
-        continue;
-      }
-      return event;
-    }
+    return (CoinfloorExchangeEvent) systemEventBus.peek(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
   }
 }
@@ -267,6 +267,28 @@ public class TestCoinfloorAdapters {
     Assert.assertEquals(OrderType.ASK, ((Trade) testObj.get("generic")).getType());
   }
 
+  @Test
+  public void testCachedOrderBookIsUpdatedIncrementally() throws IOException {
+
+    coinfloorAdapters.adaptOrders(readResource("src/test/resources/marketdata/example-orders-response.json"));
+    Assert.assertEquals(7, coinfloorAdapters.getCachedOrderBook().getBids().size());
+
+    // order 211118 is a resting bid in the snapshot
+    coinfloorAdapters.adaptOrderClosed(readResource("src/test/resources/marketdata/example-orderClosed-update.json"));
+    OrderBook orderBook = coinfloorAdapters.getCachedOrderBook();
+    Assert.assertEquals(6, orderBook.getBids().size());
+    Assert.assertEquals(7, orderBook.getAsks().size());
+    for (LimitOrder bid : orderBook.getBids()) {
+      Assert.assertFalse("211118".equals(bid.getId()));
+    }
+
+    coinfloorAdapters.adaptOrderOpened(readResource("src/test/resources/marketdata/example-orderOpened-update.json"));
+    Assert.assertEquals(7, coinfloorAdapters.getCachedOrderBook().getBids().size());
+
+    coinfloorAdapters.adaptOrdersMatched(readResource("src/test/resources/marketdata/example-ordersMatched-update.json"));
+    Assert.assertEquals(1, coinfloorAdapters.getCachedTrades().getTrades().size());
+  }
+
   @Test
   public void testAdaptBalancesChanged() throws IOException {
 
@@ -285,6 +307,19 @@ public class TestCoinfloorAdapters {
     Assert.assertEquals(BigDecimal.valueOf(990000, 2), ((AccountInfo) testObj.get("generic")).getBalance("GBP"));
   }
 
+  private String readResource(String path) throws IOException {
+
+    BufferedReader br = new BufferedReader(new FileReader(path));
+
+    String result = "", line;
+    while ((line = br.readLine()) != null) {
+      result += line.trim();
+    }
+
+    br.close();
+    return result;
+  }
+
   /**
    * Experimental: USE WITH CAUTION.
    * Adapters take every "BalancesUpdated" event, update local AccountInfo object with said new balance.
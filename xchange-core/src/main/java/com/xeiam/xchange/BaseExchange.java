@@ -67,6 +67,9 @@ public abstract class BaseExchange implements Exchange {
       if (exchangeSpecification.getHost() == null) {
         exchangeSpecification.setHost(defaultSpecification.getHost());
       }
+      if (exchangeSpecification.getRateLimitPolicy() == null) {
+        exchangeSpecification.setRateLimitPolicy(defaultSpecification.getRateLimitPolicy());
+      }
       if (exchangeSpecification.getExchangeSpecificParameters() == null || exchangeSpecification.getExchangeSpecificParameters().size() <= 0) {
         exchangeSpecification.setExchangeSpecificParameters(defaultSpecification.getExchangeSpecificParameters());
       }
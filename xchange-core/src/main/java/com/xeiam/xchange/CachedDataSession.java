@@ -34,7 +34,7 @@ public interface CachedDataSession {
   /**
    * Some exchanges cache data, and only refresh it at a certain rate.
    * 
-   * @return The maximum allowable refresh rate in seconds
+   * @return The maximum allowable refresh rate in milliseconds
    */
   public long getRefreshRate();
 
@@ -24,6 +24,10 @@ package com.xeiam.xchange;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.xeiam.xchange.service.metrics.MetricsRecorder;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy;
+import com.xeiam.xchange.service.polling.transport.RestTransport;
+
 /**
  * <p>
  * Specification to provide the following to {@link ExchangeFactory}:
@@ -61,6 +65,26 @@ public class ExchangeSpecification {
 
   private final String exchangeClassName;
 
+  private RateLimitPolicy rateLimitPolicy;
+
+  private String nonceFile;
+
+  private String metaDataFile;
+
+  private long metaDataRefreshInterval;
+
+  private int httpConnTimeout;
+
+  private int httpReadTimeout;
+
+  private int maxConcurrentRequests;
+
+  private RestTransport restTransport;
+
+  private String journalDirectory;
+
+  private MetricsRecorder metricsRecorder;
+
   /** arbitrary exchange params that can be set for unique cases */
   private Map<String, Object> exchangeSpecificParameters = new HashMap<String, Object>();
 
@@ -385,4 +409,206 @@ public class ExchangeSpecification {
     this.exchangeDescription = exchangeDescription;
   }
 
+  /**
+   * Get the call limit enforced before each request to the exchange.
+   * 
+   * @return the rate limit policy, or null if calls are not throttled
+   */
+  public RateLimitPolicy getRateLimitPolicy() {
+
+    return rateLimitPolicy;
+  }
+
+  /**
+   * Set the call limit enforced before each request to the exchange, shared by all its polling services.
+   * 
+   * @param rateLimitPolicy the rate limit policy, {@link RateLimitPolicy#UNLIMITED} to disable throttling, or null to use the exchange's default policy
+   */
+  public void setRateLimitPolicy(RateLimitPolicy rateLimitPolicy) {
+
+    this.rateLimitPolicy = rateLimitPolicy;
+  }
+
+  /**
+   * Get the file the last nonce reserved for the API key is persisted to.
+   * 
+   * @return the nonce file path, or null if nonces are only kept in memory
+   */
+  public String getNonceFile() {
+
+    return nonceFile;
+  }
+
+  /**
+   * Set a file to persist the last nonce reserved for the API key to, so a restarted process never reuses a nonce. Use one file per API key.
+   * 
+   * @param nonceFile the nonce file path, or null to keep nonces in memory only
+   */
+  public void setNonceFile(String nonceFile) {
+
+    this.nonceFile = nonceFile;
+  }
+
+  /**
+   * Get the file the exchange metadata (currency pairs, native codes, precision) is snapshotted to.
+   * 
+   * @return the metadata snapshot file path, or null if metadata is only kept in memory
+   */
+  public String getMetaDataFile() {
+
+    return metaDataFile;
+  }
+
+  /**
+   * Set a file to snapshot the exchange metadata to, so a restarted process can start without waiting for the metadata endpoints.
+   * 
+   * @param metaDataFile the metadata snapshot file path, or null to keep metadata in memory only
+   */
+  public void setMetaDataFile(String metaDataFile) {
+
+    this.metaDataFile = metaDataFile;
+  }
+
+  /**
+   * Get the interval at which the exchange metadata is reloaded in the background.
+   * 
+   * @return the refresh interval in milliseconds, 0 if metadata is loaded once
+   */
+  public long getMetaDataRefreshInterval() {
+
+    return metaDataRefreshInterval;
+  }
+
+  /**
+   * Set the interval at which the exchange metadata is reloaded in the background.
+   * 
+   * @param metaDataRefreshInterval the refresh interval in milliseconds, 0 to load metadata once
+   */
+  public void setMetaDataRefreshInterval(long metaDataRefreshInterval) {
+
+    this.metaDataRefreshInterval = metaDataRefreshInterval;
+  }
+
+  /**
+   * Get the timeout for opening a connection to the exchange's REST API.
+   * 
+   * @return the connect timeout in milliseconds, 0 for the transport's default
+   */
+  public int getHttpConnTimeout() {
+
+    return httpConnTimeout;
+  }
+
+  /**
+   * Set the timeout for opening a connection to the exchange's REST API.
+   * 
+   * @param httpConnTimeout the connect timeout in milliseconds, 0 for the transport's default
+   */
+  public void setHttpConnTimeout(int httpConnTimeout) {
+
+    this.httpConnTimeout = httpConnTimeout;
+  }
+
+  /**
+   * Get the timeout for reading a response from the exchange's REST API.
+   * 
+   * @return the read timeout in milliseconds, 0 for the transport's default
+   */
+  public int getHttpReadTimeout() {
+
+    return httpReadTimeout;
+  }
+
+  /**
+   * Set the timeout for reading a response from the exchange's REST API.
+   * 
+   * @param httpReadTimeout the read timeout in milliseconds, 0 for the transport's default
+   */
+  public void setHttpReadTimeout(int httpReadTimeout) {
+
+    this.httpReadTimeout = httpReadTimeout;
+  }
+
+  /**
+   * Get the maximum number of requests in flight to the exchange, shared by all its polling services.
+   * 
+   * @return the maximum number of concurrent requests, 0 if unlimited
+   */
+  public int getMaxConcurrentRequests() {
+
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * Set the maximum number of requests in flight to the exchange, shared by all its polling services. This also bounds the threads running
+   * asynchronous calls.
+   * 
+   * @param maxConcurrentRequests the maximum number of concurrent requests, 0 for no limit
+   */
+  public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  /**
+   * Get the transport that creates the REST API proxies of the polling services.
+   * 
+   * @return the transport, or null for the default rescu transport
+   */
+  public RestTransport getRestTransport() {
+
+    return restTransport;
+  }
+
+  /**
+   * Set the transport that creates the REST API proxies of the polling services, e.g. one backed by a different HTTP client.
+   * 
+   * @param restTransport the transport, or null for the default rescu transport
+   */
+  public void setRestTransport(RestTransport restTransport) {
+
+    this.restTransport = restTransport;
+  }
+
+  /**
+   * Get the directory the raw market data messages of the exchange are journaled to.
+   * 
+   * @return the journal directory path, or null if messages are not recorded
+   */
+  public String getJournalDirectory() {
+
+    return journalDirectory;
+  }
+
+  /**
+   * Set a directory to journal the raw market data messages of the exchange to, with their receive time, for replay in backtests.
+   * 
+   * @param journalDirectory the journal directory path, or null to not record messages
+   */
+  public void setJournalDirectory(String journalDirectory) {
+
+    this.journalDirectory = journalDirectory;
+  }
+
+  /**
+   * Get the recorder receiving the latencies, errors and event rates of the exchange's services.
+   * 
+   * @return the recorder, or null if nothing is measured
+   */
+  public MetricsRecorder getMetricsRecorder() {
+
+    return metricsRecorder;
+  }
+
+  /**
+   * Set a recorder to receive the latencies, errors and event rates of the exchange's services, e.g. an
+   * {@link com.xeiam.xchange.service.metrics.InMemoryMetricsRecorder} shared by several exchanges.
+   * 
+   * @param metricsRecorder the recorder, or null to measure nothing
+   */
+  public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+
+    this.metricsRecorder = metricsRecorder;
+  }
+
 }
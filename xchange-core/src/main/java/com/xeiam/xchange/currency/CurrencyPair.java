@@ -21,6 +21,11 @@
  */
 package com.xeiam.xchange.currency;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.xeiam.xchange.utils.Assert;
+
 /**
  * <p>
  * Value object to provide the following to API:
@@ -32,150 +37,159 @@ package com.xeiam.xchange.currency;
  * <p>
  * Symbol pairs are quoted, for example, as EUR/USD 1.25 such that 1 EUR can be purchased with 1.25 USD
  * </p>
+ * <p>
+ * Prefer {@link #of(String, String)} over the constructors in adapters: it returns a canonical shared instance, so hot paths don't allocate a new pair per
+ * message and map lookups keyed by pair can short-circuit on identity.
+ * </p>
  */
 public class CurrencyPair {
 
+  /** Canonical instances keyed by base, then counter, so a lookup needs no composite key allocation. Must be initialised before the constants below. */
+  private static final ConcurrentMap<String, ConcurrentMap<String, CurrencyPair>> INSTANCES = new ConcurrentHashMap<String, ConcurrentMap<String, CurrencyPair>>();
+
   // Provide some standard major symbols
-  public static final CurrencyPair EUR_USD = new CurrencyPair(Currencies.EUR);
-  public static final CurrencyPair GBP_USD = new CurrencyPair(Currencies.GBP);
-  public static final CurrencyPair USD_JPY = new CurrencyPair(Currencies.USD, Currencies.JPY);
-  public static final CurrencyPair JPY_USD = new CurrencyPair(Currencies.JPY, Currencies.USD);
-  public static final CurrencyPair USD_CHF = new CurrencyPair(Currencies.USD, Currencies.CHF);
-  public static final CurrencyPair USD_AUD = new CurrencyPair(Currencies.USD, Currencies.AUD);
-  public static final CurrencyPair USD_CAD = new CurrencyPair(Currencies.USD, Currencies.CAD);
-  public static final CurrencyPair USD_RUR = new CurrencyPair(Currencies.USD, Currencies.RUR);
-  public static final CurrencyPair EUR_RUR = new CurrencyPair(Currencies.EUR, Currencies.RUR);
-  public static final CurrencyPair USD_XRP = new CurrencyPair(Currencies.USD, Currencies.XRP);
-  public static final CurrencyPair EUR_XRP = new CurrencyPair(Currencies.EUR, Currencies.XRP);
-  public static final CurrencyPair USD_XVN = new CurrencyPair(Currencies.USD, Currencies.XVN);
-  public static final CurrencyPair EUR_XVN = new CurrencyPair(Currencies.EUR, Currencies.XVN);
-  public static final CurrencyPair KRW_XRP = new CurrencyPair(Currencies.KRW, Currencies.XRP);
+  public static final CurrencyPair EUR_USD = of(Currencies.EUR, Currencies.USD);
+  public static final CurrencyPair GBP_USD = of(Currencies.GBP, Currencies.USD);
+  public static final CurrencyPair USD_JPY = of(Currencies.USD, Currencies.JPY);
+  public static final CurrencyPair JPY_USD = of(Currencies.JPY, Currencies.USD);
+  public static final CurrencyPair USD_CHF = of(Currencies.USD, Currencies.CHF);
+  public static final CurrencyPair USD_AUD = of(Currencies.USD, Currencies.AUD);
+  public static final CurrencyPair USD_CAD = of(Currencies.USD, Currencies.CAD);
+  public static final CurrencyPair USD_RUR = of(Currencies.USD, Currencies.RUR);
+  public static final CurrencyPair EUR_RUR = of(Currencies.EUR, Currencies.RUR);
+  public static final CurrencyPair USD_XRP = of(Currencies.USD, Currencies.XRP);
+  public static final CurrencyPair EUR_XRP = of(Currencies.EUR, Currencies.XRP);
+  public static final CurrencyPair USD_XVN = of(Currencies.USD, Currencies.XVN);
+  public static final CurrencyPair EUR_XVN = of(Currencies.EUR, Currencies.XVN);
+  public static final CurrencyPair KRW_XRP = of(Currencies.KRW, Currencies.XRP);
 
   // Provide some courtesy BTC major symbols
-  public static final CurrencyPair BTC_USD = new CurrencyPair(Currencies.BTC);
-  public static final CurrencyPair BTC_GBP = new CurrencyPair(Currencies.BTC, Currencies.GBP);
-  public static final CurrencyPair BTC_EUR = new CurrencyPair(Currencies.BTC, Currencies.EUR);
-  public static final CurrencyPair BTC_JPY = new CurrencyPair(Currencies.BTC, Currencies.JPY);
-  public static final CurrencyPair BTC_CHF = new CurrencyPair(Currencies.BTC, Currencies.CHF);
-  public static final CurrencyPair BTC_AUD = new CurrencyPair(Currencies.BTC, Currencies.AUD);
-  public static final CurrencyPair BTC_CAD = new CurrencyPair(Currencies.BTC, Currencies.CAD);
-  public static final CurrencyPair BTC_CNY = new CurrencyPair(Currencies.BTC, Currencies.CNY);
-  public static final CurrencyPair BTC_DKK = new CurrencyPair(Currencies.BTC, Currencies.DKK);
-  public static final CurrencyPair BTC_HKD = new CurrencyPair(Currencies.BTC, Currencies.HKD);
-  public static final CurrencyPair BTC_NZD = new CurrencyPair(Currencies.BTC, Currencies.NZD);
-  public static final CurrencyPair BTC_PLN = new CurrencyPair(Currencies.BTC, Currencies.PLN);
-  public static final CurrencyPair BTC_RUB = new CurrencyPair(Currencies.BTC, Currencies.RUB);
-  public static final CurrencyPair BTC_SEK = new CurrencyPair(Currencies.BTC, Currencies.SEK);
-  public static final CurrencyPair BTC_SGD = new CurrencyPair(Currencies.BTC, Currencies.SGD);
-  public static final CurrencyPair BTC_NOK = new CurrencyPair(Currencies.BTC, Currencies.NOK);
-  public static final CurrencyPair BTC_THB = new CurrencyPair(Currencies.BTC, Currencies.THB);
-  public static final CurrencyPair BTC_RUR = new CurrencyPair(Currencies.BTC, Currencies.RUR);
-  public static final CurrencyPair BTC_ZAR = new CurrencyPair(Currencies.BTC, Currencies.ZAR);
-  public static final CurrencyPair BTC_BRL = new CurrencyPair(Currencies.BTC, Currencies.BRL);
-  public static final CurrencyPair BTC_CZK = new CurrencyPair(Currencies.BTC, Currencies.CZK);
-  public static final CurrencyPair BTC_ILS = new CurrencyPair(Currencies.BTC, Currencies.ILS);
-  public static final CurrencyPair BTC_KRW = new CurrencyPair(Currencies.BTC, Currencies.KRW);
-  public static final CurrencyPair BTC_LTC = new CurrencyPair(Currencies.BTC, Currencies.LTC);
-  public static final CurrencyPair BTC_XRP = new CurrencyPair(Currencies.BTC, Currencies.XRP);
-  public static final CurrencyPair BTC_NMC = new CurrencyPair(Currencies.BTC, Currencies.NMC);
-  public static final CurrencyPair BTC_XVN = new CurrencyPair(Currencies.BTC, Currencies.XVN);
-
-  public static final CurrencyPair XDC_BTC = new CurrencyPair(Currencies.XDC, Currencies.BTC);
-
-  public static final CurrencyPair LTC_USD = new CurrencyPair(Currencies.LTC, Currencies.USD);
-  public static final CurrencyPair LTC_KRW = new CurrencyPair(Currencies.LTC, Currencies.KRW);
-  public static final CurrencyPair LTC_CNY = new CurrencyPair(Currencies.LTC, Currencies.CNY);
-  public static final CurrencyPair LTC_RUR = new CurrencyPair(Currencies.LTC, Currencies.RUR);
-  public static final CurrencyPair LTC_EUR = new CurrencyPair(Currencies.LTC, Currencies.EUR);
-  public static final CurrencyPair LTC_BTC = new CurrencyPair(Currencies.LTC, Currencies.BTC);
-  public static final CurrencyPair LTC_XRP = new CurrencyPair(Currencies.LTC, Currencies.XRP);
-
-  public static final CurrencyPair NMC_USD = new CurrencyPair(Currencies.NMC, Currencies.USD);
-  public static final CurrencyPair NMC_CNY = new CurrencyPair(Currencies.NMC, Currencies.CNY);
-  public static final CurrencyPair NMC_EUR = new CurrencyPair(Currencies.NMC, Currencies.EUR);
-  public static final CurrencyPair NMC_KRW = new CurrencyPair(Currencies.NMC, Currencies.KRW);
-  public static final CurrencyPair NMC_BTC = new CurrencyPair(Currencies.NMC, Currencies.BTC);
-  public static final CurrencyPair NMC_LTC = new CurrencyPair(Currencies.NMC, Currencies.LTC);
-  public static final CurrencyPair NMC_XRP = new CurrencyPair(Currencies.NMC, Currencies.XRP);
-
-  public static final CurrencyPair NVC_USD = new CurrencyPair(Currencies.NVC, Currencies.USD);
-  public static final CurrencyPair NVC_BTC = new CurrencyPair(Currencies.NVC, Currencies.BTC);
-
-  public static final CurrencyPair TRC_BTC = new CurrencyPair(Currencies.TRC, Currencies.BTC);
-
-  public static final CurrencyPair PPC_USD = new CurrencyPair(Currencies.PPC, Currencies.USD);
-  public static final CurrencyPair PPC_BTC = new CurrencyPair(Currencies.PPC, Currencies.BTC);
-  public static final CurrencyPair PPC_LTC = new CurrencyPair(Currencies.PPC, Currencies.LTC);
-
-  public static final CurrencyPair FTC_USD = new CurrencyPair(Currencies.FTC, Currencies.USD);
-  public static final CurrencyPair FTC_CNY = new CurrencyPair(Currencies.FTC, Currencies.CNY);
-  public static final CurrencyPair FTC_BTC = new CurrencyPair(Currencies.FTC, Currencies.BTC);
-  public static final CurrencyPair FTC_LTC = new CurrencyPair(Currencies.FTC, Currencies.LTC);
-
-  public static final CurrencyPair XPM_USD = new CurrencyPair(Currencies.XPM, Currencies.USD);
-  public static final CurrencyPair XPM_CNY = new CurrencyPair(Currencies.XPM, Currencies.CNY);
-  public static final CurrencyPair XPM_BTC = new CurrencyPair(Currencies.XPM, Currencies.BTC);
-  public static final CurrencyPair XPM_LTC = new CurrencyPair(Currencies.XPM, Currencies.LTC);
-  public static final CurrencyPair XPM_PPC = new CurrencyPair(Currencies.XPM, Currencies.PPC);
-
-  public static final CurrencyPair XVN_XRP = new CurrencyPair(Currencies.XVN, Currencies.XRP);
+  public static final CurrencyPair BTC_USD = of(Currencies.BTC, Currencies.USD);
+  public static final CurrencyPair BTC_GBP = of(Currencies.BTC, Currencies.GBP);
+  public static final CurrencyPair BTC_EUR = of(Currencies.BTC, Currencies.EUR);
+  public static final CurrencyPair BTC_JPY = of(Currencies.BTC, Currencies.JPY);
+  public static final CurrencyPair BTC_CHF = of(Currencies.BTC, Currencies.CHF);
+  public static final CurrencyPair BTC_AUD = of(Currencies.BTC, Currencies.AUD);
+  public static final CurrencyPair BTC_CAD = of(Currencies.BTC, Currencies.CAD);
+  public static final CurrencyPair BTC_CNY = of(Currencies.BTC, Currencies.CNY);
+  public static final CurrencyPair BTC_DKK = of(Currencies.BTC, Currencies.DKK);
+  public static final CurrencyPair BTC_HKD = of(Currencies.BTC, Currencies.HKD);
+  public static final CurrencyPair BTC_NZD = of(Currencies.BTC, Currencies.NZD);
+  public static final CurrencyPair BTC_PLN = of(Currencies.BTC, Currencies.PLN);
+  public static final CurrencyPair BTC_RUB = of(Currencies.BTC, Currencies.RUB);
+  public static final CurrencyPair BTC_SEK = of(Currencies.BTC, Currencies.SEK);
+  public static final CurrencyPair BTC_SGD = of(Currencies.BTC, Currencies.SGD);
+  public static final CurrencyPair BTC_NOK = of(Currencies.BTC, Currencies.NOK);
+  public static final CurrencyPair BTC_THB = of(Currencies.BTC, Currencies.THB);
+  public static final CurrencyPair BTC_RUR = of(Currencies.BTC, Currencies.RUR);
+  public static final CurrencyPair BTC_ZAR = of(Currencies.BTC, Currencies.ZAR);
+  public static final CurrencyPair BTC_BRL = of(Currencies.BTC, Currencies.BRL);
+  public static final CurrencyPair BTC_CZK = of(Currencies.BTC, Currencies.CZK);
+  public static final CurrencyPair BTC_ILS = of(Currencies.BTC, Currencies.ILS);
+  public static final CurrencyPair BTC_KRW = of(Currencies.BTC, Currencies.KRW);
+  public static final CurrencyPair BTC_LTC = of(Currencies.BTC, Currencies.LTC);
+  public static final CurrencyPair BTC_XRP = of(Currencies.BTC, Currencies.XRP);
+  public static final CurrencyPair BTC_NMC = of(Currencies.BTC, Currencies.NMC);
+  public static final CurrencyPair BTC_XVN = of(Currencies.BTC, Currencies.XVN);
+
+  public static final CurrencyPair XDC_BTC = of(Currencies.XDC, Currencies.BTC);
+
+  public static final CurrencyPair LTC_USD = of(Currencies.LTC, Currencies.USD);
+  public static final CurrencyPair LTC_KRW = of(Currencies.LTC, Currencies.KRW);
+  public static final CurrencyPair LTC_CNY = of(Currencies.LTC, Currencies.CNY);
+  public static final CurrencyPair LTC_RUR = of(Currencies.LTC, Currencies.RUR);
+  public static final CurrencyPair LTC_EUR = of(Currencies.LTC, Currencies.EUR);
+  public static final CurrencyPair LTC_BTC = of(Currencies.LTC, Currencies.BTC);
+  public static final CurrencyPair LTC_XRP = of(Currencies.LTC, Currencies.XRP);
+
+  public static final CurrencyPair NMC_USD = of(Currencies.NMC, Currencies.USD);
+  public static final CurrencyPair NMC_CNY = of(Currencies.NMC, Currencies.CNY);
+  public static final CurrencyPair NMC_EUR = of(Currencies.NMC, Currencies.EUR);
+  public static final CurrencyPair NMC_KRW = of(Currencies.NMC, Currencies.KRW);
+  public static final CurrencyPair NMC_BTC = of(Currencies.NMC, Currencies.BTC);
+  public static final CurrencyPair NMC_LTC = of(Currencies.NMC, Currencies.LTC);
+  public static final CurrencyPair NMC_XRP = of(Currencies.NMC, Currencies.XRP);
+
+  public static final CurrencyPair NVC_USD = of(Currencies.NVC, Currencies.USD);
+  public static final CurrencyPair NVC_BTC = of(Currencies.NVC, Currencies.BTC);
+
+  public static final CurrencyPair TRC_BTC = of(Currencies.TRC, Currencies.BTC);
+
+  public static final CurrencyPair PPC_USD = of(Currencies.PPC, Currencies.USD);
+  public static final CurrencyPair PPC_BTC = of(Currencies.PPC, Currencies.BTC);
+  public static final CurrencyPair PPC_LTC = of(Currencies.PPC, Currencies.LTC);
+
+  public static final CurrencyPair FTC_USD = of(Currencies.FTC, Currencies.USD);
+  public static final CurrencyPair FTC_CNY = of(Currencies.FTC, Currencies.CNY);
+  public static final CurrencyPair FTC_BTC = of(Currencies.FTC, Currencies.BTC);
+  public static final CurrencyPair FTC_LTC = of(Currencies.FTC, Currencies.LTC);
+
+  public static final CurrencyPair XPM_USD = of(Currencies.XPM, Currencies.USD);
+  public static final CurrencyPair XPM_CNY = of(Currencies.XPM, Currencies.CNY);
+  public static final CurrencyPair XPM_BTC = of(Currencies.XPM, Currencies.BTC);
+  public static final CurrencyPair XPM_LTC = of(Currencies.XPM, Currencies.LTC);
+  public static final CurrencyPair XPM_PPC = of(Currencies.XPM, Currencies.PPC);
+
+  public static final CurrencyPair XVN_XRP = of(Currencies.XVN, Currencies.XRP);
 
   // start of extra ANX supported pair
   // BTC
-  public static final CurrencyPair BTC_XDC = new CurrencyPair(Currencies.BTC, Currencies.XDC);
-  public static final CurrencyPair BTC_PPC = new CurrencyPair(Currencies.BTC, Currencies.PPC);
+  public static final CurrencyPair BTC_XDC = of(Currencies.BTC, Currencies.XDC);
+  public static final CurrencyPair BTC_PPC = of(Currencies.BTC, Currencies.PPC);
 
   // LTC
-  public static final CurrencyPair LTC_HKD = new CurrencyPair(Currencies.LTC, Currencies.HKD);
-  public static final CurrencyPair LTC_XDC = new CurrencyPair(Currencies.LTC, Currencies.XDC);
-  public static final CurrencyPair LTC_NMC = new CurrencyPair(Currencies.LTC, Currencies.NMC);
-  public static final CurrencyPair LTC_PPC = new CurrencyPair(Currencies.LTC, Currencies.PPC);
+  public static final CurrencyPair LTC_HKD = of(Currencies.LTC, Currencies.HKD);
+  public static final CurrencyPair LTC_XDC = of(Currencies.LTC, Currencies.XDC);
+  public static final CurrencyPair LTC_NMC = of(Currencies.LTC, Currencies.NMC);
+  public static final CurrencyPair LTC_PPC = of(Currencies.LTC, Currencies.PPC);
 
   // DOGE
-  public static final CurrencyPair DOGE_HKD = new CurrencyPair(Currencies.DOGE, Currencies.HKD);
-  public static final CurrencyPair DOGE_BTC = new CurrencyPair(Currencies.DOGE, Currencies.BTC);
-  public static final CurrencyPair DOGE_LTC = new CurrencyPair(Currencies.DOGE, Currencies.LTC);
-  public static final CurrencyPair DOGE_NMC = new CurrencyPair(Currencies.DOGE, Currencies.NMC);
-  public static final CurrencyPair DOGE_PPC = new CurrencyPair(Currencies.DOGE, Currencies.PPC);
-  public static final CurrencyPair DOGE_USD = new CurrencyPair(Currencies.DOGE, Currencies.USD);
-
-  public static final CurrencyPair XDC_HKD = new CurrencyPair(Currencies.XDC, Currencies.HKD);
-  public static final CurrencyPair XDC_LTC = new CurrencyPair(Currencies.XDC, Currencies.LTC);
-  public static final CurrencyPair XDC_NMC = new CurrencyPair(Currencies.XDC, Currencies.NMC);
-  public static final CurrencyPair XDC_PPC = new CurrencyPair(Currencies.XDC, Currencies.PPC);
-  public static final CurrencyPair XDC_USD = new CurrencyPair(Currencies.XDC, Currencies.USD);
+  public static final CurrencyPair DOGE_HKD = of(Currencies.DOGE, Currencies.HKD);
+  public static final CurrencyPair DOGE_BTC = of(Currencies.DOGE, Currencies.BTC);
+  public static final CurrencyPair DOGE_LTC = of(Currencies.DOGE, Currencies.LTC);
+  public static final CurrencyPair DOGE_NMC = of(Currencies.DOGE, Currencies.NMC);
+  public static final CurrencyPair DOGE_PPC = of(Currencies.DOGE, Currencies.PPC);
+  public static final CurrencyPair DOGE_USD = of(Currencies.DOGE, Currencies.USD);
+
+  public static final CurrencyPair XDC_HKD = of(Currencies.XDC, Currencies.HKD);
+  public static final CurrencyPair XDC_LTC = of(Currencies.XDC, Currencies.LTC);
+  public static final CurrencyPair XDC_NMC = of(Currencies.XDC, Currencies.NMC);
+  public static final CurrencyPair XDC_PPC = of(Currencies.XDC, Currencies.PPC);
+  public static final CurrencyPair XDC_USD = of(Currencies.XDC, Currencies.USD);
 
   // NMC
-  public static final CurrencyPair NMC_HKD = new CurrencyPair(Currencies.NMC, Currencies.HKD);
-  public static final CurrencyPair NMC_XDC = new CurrencyPair(Currencies.NMC, Currencies.XDC);
-  public static final CurrencyPair NMC_PPC = new CurrencyPair(Currencies.NMC, Currencies.PPC);
+  public static final CurrencyPair NMC_HKD = of(Currencies.NMC, Currencies.HKD);
+  public static final CurrencyPair NMC_XDC = of(Currencies.NMC, Currencies.XDC);
+  public static final CurrencyPair NMC_PPC = of(Currencies.NMC, Currencies.PPC);
 
   // PPC
-  public static final CurrencyPair PPC_HKD = new CurrencyPair(Currencies.PPC, Currencies.HKD);
-  public static final CurrencyPair PPC_XDC = new CurrencyPair(Currencies.PPC, Currencies.XDC);
-  public static final CurrencyPair PPC_NMC = new CurrencyPair(Currencies.PPC, Currencies.NMC);
+  public static final CurrencyPair PPC_HKD = of(Currencies.PPC, Currencies.HKD);
+  public static final CurrencyPair PPC_XDC = of(Currencies.PPC, Currencies.XDC);
+  public static final CurrencyPair PPC_NMC = of(Currencies.PPC, Currencies.NMC);
   // end
 
   // not real currencies, but tradable commodities (GH/s)
-  public static final CurrencyPair GHs_BTC = new CurrencyPair(Currencies.GHs, Currencies.BTC);
-  public static final CurrencyPair GHs_NMC = new CurrencyPair(Currencies.GHs, Currencies.NMC);
+  public static final CurrencyPair GHs_BTC = of(Currencies.GHs, Currencies.BTC);
+  public static final CurrencyPair GHs_NMC = of(Currencies.GHs, Currencies.NMC);
 
-  public static final CurrencyPair CNC_BTC = new CurrencyPair(Currencies.CNC, Currencies.BTC);
+  public static final CurrencyPair CNC_BTC = of(Currencies.CNC, Currencies.BTC);
 
-  public static final CurrencyPair WDC_USD = new CurrencyPair(Currencies.WDC, Currencies.USD);
-  public static final CurrencyPair WDC_BTC = new CurrencyPair(Currencies.WDC, Currencies.BTC);
-  public static final CurrencyPair DVC_BTC = new CurrencyPair(Currencies.DVC, Currencies.BTC);
+  public static final CurrencyPair WDC_USD = of(Currencies.WDC, Currencies.USD);
+  public static final CurrencyPair WDC_BTC = of(Currencies.WDC, Currencies.BTC);
+  public static final CurrencyPair DVC_BTC = of(Currencies.DVC, Currencies.BTC);
 
-  public static final CurrencyPair DGC_BTC = new CurrencyPair(Currencies.DGC, Currencies.BTC);
+  public static final CurrencyPair DGC_BTC = of(Currencies.DGC, Currencies.BTC);
 
-  public static final CurrencyPair UTC_USD = new CurrencyPair(Currencies.UTC, Currencies.USD);
-  public static final CurrencyPair UTC_EUR = new CurrencyPair(Currencies.UTC, Currencies.EUR);
-  public static final CurrencyPair UTC_BTC = new CurrencyPair(Currencies.UTC, Currencies.BTC);
-  public static final CurrencyPair UTC_LTC = new CurrencyPair(Currencies.UTC, Currencies.LTC);
+  public static final CurrencyPair UTC_USD = of(Currencies.UTC, Currencies.USD);
+  public static final CurrencyPair UTC_EUR = of(Currencies.UTC, Currencies.EUR);
+  public static final CurrencyPair UTC_BTC = of(Currencies.UTC, Currencies.BTC);
+  public static final CurrencyPair UTC_LTC = of(Currencies.UTC, Currencies.LTC);
 
   public final String baseSymbol;
   public final String counterSymbol;
 
+  private final int hashCode;
+
   /**
    * <p>
    * Reduced constructor using the global reserve currency symbol (USD) as the default counter
@@ -201,6 +215,43 @@ public class CurrencyPair {
 
     this.baseSymbol = baseSymbol;
     this.counterSymbol = counterSymbol;
+    this.hashCode = computeHashCode(baseSymbol, counterSymbol);
+  }
+
+  /**
+   * <p>
+   * Returns the canonical instance for the given symbols, creating and registering it on first use
+   * </p>
+   * <p>
+   * The registry is never purged, so only pass symbols that name a real market (not arbitrary user input).
+   * </p>
+   * 
+   * @param baseSymbol The base symbol is what you're wanting to buy/sell
+   * @param counterSymbol The counter symbol is what currency you want to use to pay/receive for your purchase/sale.
+   * @return The shared CurrencyPair, equal to {@code new CurrencyPair(baseSymbol, counterSymbol)}
+   */
+  public static CurrencyPair of(String baseSymbol, String counterSymbol) {
+
+    Assert.notNull(baseSymbol, "baseSymbol cannot be null");
+    Assert.notNull(counterSymbol, "counterSymbol cannot be null");
+
+    ConcurrentMap<String, CurrencyPair> counters = INSTANCES.get(baseSymbol);
+    if (counters == null) {
+      ConcurrentMap<String, CurrencyPair> newCounters = new ConcurrentHashMap<String, CurrencyPair>();
+      counters = INSTANCES.putIfAbsent(baseSymbol, newCounters);
+      if (counters == null) {
+        counters = newCounters;
+      }
+    }
+    CurrencyPair currencyPair = counters.get(counterSymbol);
+    if (currencyPair == null) {
+      CurrencyPair newCurrencyPair = new CurrencyPair(baseSymbol, counterSymbol);
+      currencyPair = counters.putIfAbsent(counterSymbol, newCurrencyPair);
+      if (currencyPair == null) {
+        currencyPair = newCurrencyPair;
+      }
+    }
+    return currencyPair;
   }
 
   @Override
@@ -212,6 +263,11 @@ public class CurrencyPair {
   @Override
   public int hashCode() {
 
+    return hashCode;
+  }
+
+  private static int computeHashCode(String baseSymbol, String counterSymbol) {
+
     final int prime = 31;
     int result = 1;
     result = prime * result + ((baseSymbol == null) ? 0 : baseSymbol.hashCode());
@@ -232,6 +288,9 @@ public class CurrencyPair {
       return false;
     }
     CurrencyPair other = (CurrencyPair) obj;
+    if (hashCode != other.hashCode) {
+      return false;
+    }
     if (baseSymbol == null) {
       if (other.baseSymbol != null) {
         return false;
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.currency;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Bidirectional lookup table between canonical {@link CurrencyPair}s and an exchange's native market identifiers
+ * </p>
+ * <ul>
+ * <li>Native identifiers may be symbols (Kraken's XXBTZUSD, BTC-e's btc_usd) or numeric ids (Cryptsy's market ids)</li>
+ * <li>Both directions are plain hash lookups that don't allocate; pairs resolved from native identifiers are the canonical {@link CurrencyPair#of}
+ * instances</li>
+ * <li>With a {@link SymbolFormat}, pairs and identifiers missing from the table are converted on first use and remembered; with only a
+ * {@link SymbolParser}, just identifiers are</li>
+ * <li>Safe for concurrent use: adapters read it while the polling services register markets</li>
+ * </ul>
+ * 
+ * @param <N> The type of the native identifier
+ */
+public class CurrencyPairSymbolTable<N> {
+
+  /**
+   * Converts native identifiers of exchanges whose identifiers follow a rule to pairs
+   */
+  public interface SymbolParser<N> {
+
+    /**
+     * @return The pair, or null if the identifier can't be parsed
+     */
+    CurrencyPair parse(N nativeSymbol);
+  }
+
+  /**
+   * Converts between pairs and native identifiers of exchanges whose identifiers follow a rule in both directions
+   */
+  public interface SymbolFormat<N> extends SymbolParser<N> {
+
+    N format(CurrencyPair currencyPair);
+  }
+
+  private final ConcurrentMap<CurrencyPair, N> nativeSymbols = new ConcurrentHashMap<CurrencyPair, N>();
+  private final ConcurrentMap<N, CurrencyPair> currencyPairs = new ConcurrentHashMap<N, CurrencyPair>();
+  private final SymbolParser<N> symbolParser;
+  private final SymbolFormat<N> symbolFormat;
+
+  /**
+   * Constructor for a table holding only registered entries
+   */
+  public CurrencyPairSymbolTable() {
+
+    this.symbolParser = null;
+    this.symbolFormat = null;
+  }
+
+  /**
+   * Constructor for a table that parses identifiers that weren't registered, but only looks up pairs
+   * 
+   * @param symbolParser Used for identifiers that weren't registered
+   */
+  public CurrencyPairSymbolTable(SymbolParser<N> symbolParser) {
+
+    Assert.notNull(symbolParser, "symbolParser cannot be null");
+
+    this.symbolParser = symbolParser;
+    this.symbolFormat = null;
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param symbolFormat Used for pairs and identifiers that weren't registered
+   */
+  public CurrencyPairSymbolTable(SymbolFormat<N> symbolFormat) {
+
+    Assert.notNull(symbolFormat, "symbolFormat cannot be null");
+
+    this.symbolParser = symbolFormat;
+    this.symbolFormat = symbolFormat;
+  }
+
+  /**
+   * Registers a market, replacing any previous mapping of its pair or identifier
+   */
+  public void put(CurrencyPair currencyPair, N nativeSymbol) {
+
+    Assert.notNull(currencyPair, "currencyPair cannot be null");
+    Assert.notNull(nativeSymbol, "nativeSymbol cannot be null");
+
+    CurrencyPair canonicalPair = CurrencyPair.of(currencyPair.baseSymbol, currencyPair.counterSymbol);
+    currencyPairs.put(nativeSymbol, canonicalPair);
+    nativeSymbols.put(canonicalPair, nativeSymbol);
+  }
+
+  public void putAll(Map<N, CurrencyPair> markets) {
+
+    for (Entry<N, CurrencyPair> market : markets.entrySet()) {
+      put(market.getValue(), market.getKey());
+    }
+  }
+
+  /**
+   * @return The native identifier of the pair, or null if it is unknown and can't be formatted
+   */
+  public N getNativeSymbol(CurrencyPair currencyPair) {
+
+    N nativeSymbol = nativeSymbols.get(currencyPair);
+    if (nativeSymbol == null && symbolFormat != null) {
+      nativeSymbol = symbolFormat.format(currencyPair);
+      if (nativeSymbol != null) {
+        put(currencyPair, nativeSymbol);
+      }
+    }
+    return nativeSymbol;
+  }
+
+  /**
+   * @return The canonical pair of the native identifier, or null if it is unknown and can't be parsed
+   */
+  public CurrencyPair getCurrencyPair(N nativeSymbol) {
+
+    CurrencyPair currencyPair = currencyPairs.get(nativeSymbol);
+    if (currencyPair == null && symbolParser != null) {
+      currencyPair = symbolParser.parse(nativeSymbol);
+      if (currencyPair != null) {
+        put(currencyPair, nativeSymbol);
+        currencyPair = currencyPairs.get(nativeSymbol);
+      }
+    }
+    return currencyPair;
+  }
+
+  /**
+   * @return A live, unmodifiable view of the registered pairs
+   */
+  public Collection<CurrencyPair> getCurrencyPairs() {
+
+    return Collections.unmodifiableSet(nativeSymbols.keySet());
+  }
+
+  /**
+   * @return A live view of the registered pairs and their native identifiers, for code written against plain maps; {@link Map#put} registers a market,
+   *         removal is not supported
+   */
+  public Map<CurrencyPair, N> asNativeSymbolMap() {
+
+    return new MapView<CurrencyPair, N>(nativeSymbols) {
+
+      @Override
+      public N put(CurrencyPair currencyPair, N nativeSymbol) {
+
+        N previous = nativeSymbols.get(currencyPair);
+        CurrencyPairSymbolTable.this.put(currencyPair, nativeSymbol);
+        return previous;
+      }
+    };
+  }
+
+  /**
+   * @return A live view of the registered native identifiers and their pairs, for code written against plain maps; {@link Map#put} registers a
+   *         market, removal is not supported
+   */
+  public Map<N, CurrencyPair> asCurrencyPairMap() {
+
+    return new MapView<N, CurrencyPair>(currencyPairs) {
+
+      @Override
+      public CurrencyPair put(N nativeSymbol, CurrencyPair currencyPair) {
+
+        CurrencyPair previous = currencyPairs.get(nativeSymbol);
+        CurrencyPairSymbolTable.this.put(currencyPair, nativeSymbol);
+        return previous;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+
+    return "CurrencyPairSymbolTable [nativeSymbols=" + nativeSymbols + "]";
+  }
+
+  private abstract static class MapView<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> map;
+
+    private MapView(Map<K, V> map) {
+
+      this.map = map;
+    }
+
+    @Override
+    public V get(Object key) {
+
+      return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+
+      return map.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+
+      return Collections.unmodifiableMap(map).entrySet();
+    }
+  }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * Immutable fixed-point decimal made of a {@code long} mantissa and a decimal scale, i.e. the value is {@code mantissa * 10^-scale}
+ * </p>
+ * <p>
+ * This is an allocation-light alternative to {@link BigDecimal} for hot market data paths such as book building and spread calculations. Values can be parsed straight from the characters
+ * of a JSON token and are only converted to a {@link BigDecimal} when {@link #toBigDecimal()} is called. Arithmetic throws an {@link ArithmeticException} if the result does not fit in a
+ * {@code long} mantissa.
+ * </p>
+ */
+public final class FixedPoint implements Comparable<FixedPoint> {
+
+  public static final FixedPoint ZERO = new FixedPoint(0, 0);
+
+  private static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final long mantissa;
+  private final int scale;
+
+  /** Lazily created BigDecimal equivalent */
+  private BigDecimal bigDecimal;
+
+  private FixedPoint(long mantissa, int scale) {
+
+    this.mantissa = mantissa;
+    this.scale = scale;
+  }
+
+  /**
+   * @param mantissa the unscaled value
+   * @param scale the number of digits after the decimal point
+   * @return mantissa * 10^-scale
+   */
+  public static FixedPoint valueOf(long mantissa, int scale) {
+
+    if (scale < 0) {
+      return new FixedPoint(multiply(mantissa, powerOfTen(-scale)), 0);
+    }
+    return new FixedPoint(mantissa, scale);
+  }
+
+  /**
+   * @param value
+   * @return the equivalent FixedPoint
+   * @throws ArithmeticException if the unscaled value does not fit in a long
+   */
+  public static FixedPoint valueOf(BigDecimal value) {
+
+    if (value.scale() < 0) {
+      value = value.setScale(0);
+    }
+    return new FixedPoint(value.unscaledValue().longValueExact(), value.scale());
+  }
+
+  /**
+   * @param value a decimal number such as "-123.4500" or "1.5E-4"
+   * @return the parsed FixedPoint, keeping the scale of the text
+   * @throws NumberFormatException if the text is not a decimal number
+   * @throws ArithmeticException if the unscaled value does not fit in a long
+   */
+  public static FixedPoint parse(String value) {
+
+    return parse(value.toCharArray(), 0, value.length());
+  }
+
+  /**
+   * Parses a decimal number without creating intermediate objects, e.g. from {@code JsonParser.getTextCharacters()}
+   * 
+   * @param chars the buffer
+   * @param offset the first character of the number
+   * @param length the number of characters
+   * @return the parsed FixedPoint, keeping the scale of the text
+   * @throws NumberFormatException if the text is not a decimal number
+   * @throws ArithmeticException if the unscaled value does not fit in a long
+   */
+  public static FixedPoint parse(char[] chars, int offset, int length) {
+
+    int end = offset + length;
+    int i = offset;
+    boolean negative = false;
+    if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+      negative = chars[i] == '-';
+      i++;
+    }
+
+    long mantissa = 0;
+    int scale = 0;
+    int digits = 0;
+    boolean fraction = false;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c >= '0' && c <= '9') {
+        mantissa = add(multiply(mantissa, 10), c - '0');
+        digits++;
+        if (fraction) {
+          scale++;
+        }
+      }
+      else if (c == '.' && !fraction) {
+        fraction = true;
+      }
+      else if (c == 'e' || c == 'E') {
+        break;
+      }
+      else {
+        throw new NumberFormatException("Not a decimal number: " + new String(chars, offset, length));
+      }
+    }
+    if (digits == 0) {
+      throw new NumberFormatException("Not a decimal number: " + new String(chars, offset, length));
+    }
+
+    if (i < end) {
+      // exponent
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+        negativeExponent = chars[i] == '-';
+        i++;
+      }
+      if (i == end) {
+        throw new NumberFormatException("Not a decimal number: " + new String(chars, offset, length));
+      }
+      int exponent = 0;
+      for (; i < end; i++) {
+        char c = chars[i];
+        if (c < '0' || c > '9' || exponent > 1000) {
+          throw new NumberFormatException("Not a decimal number: " + new String(chars, offset, length));
+        }
+        exponent = exponent * 10 + (c - '0');
+      }
+      scale += negativeExponent ? exponent : -exponent;
+    }
+
+    return valueOf(negative ? -mantissa : mantissa, scale);
+  }
+
+  /**
+   * @return the unscaled value
+   */
+  public long getMantissa() {
+
+    return mantissa;
+  }
+
+  /**
+   * @return the number of digits after the decimal point
+   */
+  public int getScale() {
+
+    return scale;
+  }
+
+  public int signum() {
+
+    return mantissa > 0 ? 1 : (mantissa < 0 ? -1 : 0);
+  }
+
+  /**
+   * @param newScale
+   * @return this value with the given scale
+   * @throws ArithmeticException if reducing the scale would drop non-zero digits
+   */
+  public FixedPoint setScale(int newScale) {
+
+    if (newScale == scale) {
+      return this;
+    }
+    if (newScale > scale) {
+      return new FixedPoint(multiply(mantissa, powerOfTen(newScale - scale)), newScale);
+    }
+    long divisor = powerOfTen(scale - newScale);
+    if (mantissa % divisor != 0) {
+      throw new ArithmeticException("Rounding necessary");
+    }
+    return new FixedPoint(mantissa / divisor, newScale);
+  }
+
+  public FixedPoint add(FixedPoint augend) {
+
+    if (scale == augend.scale) {
+      return new FixedPoint(add(mantissa, augend.mantissa), scale);
+    }
+    int maxScale = Math.max(scale, augend.scale);
+    return new FixedPoint(add(setScale(maxScale).mantissa, augend.setScale(maxScale).mantissa), maxScale);
+  }
+
+  public FixedPoint subtract(FixedPoint subtrahend) {
+
+    return add(subtrahend.negate());
+  }
+
+  public FixedPoint multiply(FixedPoint multiplicand) {
+
+    return new FixedPoint(multiply(mantissa, multiplicand.mantissa), scale + multiplicand.scale);
+  }
+
+  public FixedPoint negate() {
+
+    if (mantissa == Long.MIN_VALUE) {
+      throw new ArithmeticException("long overflow");
+    }
+    return new FixedPoint(-mantissa, scale);
+  }
+
+  /**
+   * @return the equivalent BigDecimal, created on first use
+   */
+  public BigDecimal toBigDecimal() {
+
+    BigDecimal result = bigDecimal;
+    if (result == null) {
+      result = BigDecimal.valueOf(mantissa, scale);
+      bigDecimal = result;
+    }
+    return result;
+  }
+
+  public double doubleValue() {
+
+    if (scale < POWERS_OF_TEN.length && Math.abs(mantissa) < (1L << 53)) {
+      return mantissa / (double) POWERS_OF_TEN[scale];
+    }
+    return toBigDecimal().doubleValue();
+  }
+
+  @Override
+  public int compareTo(FixedPoint other) {
+
+    if (scale == other.scale) {
+      return mantissa < other.mantissa ? -1 : (mantissa == other.mantissa ? 0 : 1);
+    }
+    if (signum() != other.signum()) {
+      return signum() < other.signum() ? -1 : 1;
+    }
+    try {
+      int maxScale = Math.max(scale, other.scale);
+      long left = setScale(maxScale).mantissa;
+      long right = other.setScale(maxScale).mantissa;
+      return left < right ? -1 : (left == right ? 0 : 1);
+    } catch (ArithmeticException e) {
+      return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+  }
+
+  /**
+   * Like {@link #compareTo(FixedPoint)}, 1.50 and 1.5 are equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof FixedPoint)) {
+      return false;
+    }
+    return compareTo((FixedPoint) obj) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+
+    // hash the value with trailing zeros stripped so that it is consistent with equals
+    long m = mantissa;
+    int s = scale;
+    while (s > 0 && m % 10 == 0) {
+      m /= 10;
+      s--;
+    }
+    return 31 * (int) (m ^ (m >>> 32)) + s;
+  }
+
+  @Override
+  public String toString() {
+
+    return toBigDecimal().toString();
+  }
+
+  private static long powerOfTen(int exponent) {
+
+    if (exponent >= POWERS_OF_TEN.length) {
+      throw new ArithmeticException("long overflow");
+    }
+    return POWERS_OF_TEN[exponent];
+  }
+
+  private static long add(long a, long b) {
+
+    long result = a + b;
+    if (((a ^ result) & (b ^ result)) < 0) {
+      throw new ArithmeticException("long overflow");
+    }
+    return result;
+  }
+
+  private static long multiply(long a, long b) {
+
+    long result = a * b;
+    long absA = Math.abs(a);
+    long absB = Math.abs(b);
+    if ((absA | absB) >>> 31 != 0) {
+      if ((b != 0 && result / b != a) || (a == Long.MIN_VALUE && b == -1)) {
+        throw new ArithmeticException("long overflow");
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.marketdata;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+
+/**
+ * <p>
+ * Immutable OHLCV bar (candle) of the trades of one currency pair over one period
+ * </p>
+ */
+public final class Bar {
+
+  private final CurrencyPair currencyPair;
+  private final Date openTime;
+  private final long resolution;
+  private final BigDecimal open;
+  private final BigDecimal high;
+  private final BigDecimal low;
+  private final BigDecimal close;
+  private final BigDecimal volume;
+  private final BigDecimal vwap;
+  private final int tradeCount;
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPair The currency pair
+   * @param openTime The start of the period
+   * @param resolution The length of the period in milliseconds
+   * @param open The price of the first trade
+   * @param high The highest price
+   * @param low The lowest price
+   * @param close The price of the last trade
+   * @param volume The traded amount of the base currency
+   * @param vwap The volume weighted average price
+   * @param tradeCount The number of trades
+   */
+  public Bar(CurrencyPair currencyPair, Date openTime, long resolution, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+      BigDecimal volume, BigDecimal vwap, int tradeCount) {
+
+    this.currencyPair = currencyPair;
+    this.openTime = openTime;
+    this.resolution = resolution;
+    this.open = open;
+    this.high = high;
+    this.low = low;
+    this.close = close;
+    this.volume = volume;
+    this.vwap = vwap;
+    this.tradeCount = tradeCount;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  public Date getOpenTime() {
+
+    return openTime;
+  }
+
+  /**
+   * @return The length of the period in milliseconds
+   */
+  public long getResolution() {
+
+    return resolution;
+  }
+
+  public BigDecimal getOpen() {
+
+    return open;
+  }
+
+  public BigDecimal getHigh() {
+
+    return high;
+  }
+
+  public BigDecimal getLow() {
+
+    return low;
+  }
+
+  public BigDecimal getClose() {
+
+    return close;
+  }
+
+  public BigDecimal getVolume() {
+
+    return volume;
+  }
+
+  public BigDecimal getVwap() {
+
+    return vwap;
+  }
+
+  public int getTradeCount() {
+
+    return tradeCount;
+  }
+
+  @Override
+  public String toString() {
+
+    return "Bar [currencyPair=" + currencyPair + ", openTime=" + openTime + ", resolution=" + resolution + ", open=" + open + ", high=" + high + ", low="
+        + low + ", close=" + close + ", volume=" + volume + ", vwap=" + vwap + ", tradeCount=" + tradeCount + "]";
+  }
+
+}
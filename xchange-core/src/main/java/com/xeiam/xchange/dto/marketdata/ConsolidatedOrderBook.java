@@ -0,0 +1,341 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.marketdata;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * Order book of one currency pair merged across several exchanges ("sources"), kept current as each source's book changes
+ * </p>
+ * <p>
+ * Each side keeps the merged price levels in a {@link TreeMap} ordered best price first, each level holding the volume of every source quoting that
+ * price, plus every source's own levels. A new book from a source is diffed against that source's previous levels, so only the prices whose volume
+ * changed are touched: updating a source costs O(k log n) for k changed levels, and the other sources' levels are left alone. The best bid and offer
+ * are cached, so reading them is O(1); the volume at a price is O(log n).
+ * </p>
+ * <p>
+ * Orders returned by this book stand for one source's volume at one price and carry the source name as their id. All methods are thread safe; see
+ * {@link com.xeiam.xchange.service.ConsolidatedOrderBookFeed} to feed the book from polling or streaming services.
+ * </p>
+ */
+public final class ConsolidatedOrderBook {
+
+  private final CurrencyPair currencyPair;
+  private final Side asks = new Side(OrderType.ASK);
+  private final Side bids = new Side(OrderType.BID);
+  private final Map<String, Date> timestamps = new HashMap<String, Date>();
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPair The currency pair; updates for other pairs are ignored
+   */
+  public ConsolidatedOrderBook(CurrencyPair currencyPair) {
+
+    this.currencyPair = currencyPair;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  /**
+   * Replace a source's levels with those of a new book from it, touching only the prices whose volume changed
+   * 
+   * @param source The source name, e.g. the exchange name
+   * @param orderBook The source's whole book; orders at the same price are added up
+   */
+  public synchronized void update(String source, OrderBook orderBook) {
+
+    asks.replace(source, toLevels(orderBook.getAsks()));
+    bids.replace(source, toLevels(orderBook.getBids()));
+    timestamps.put(source, orderBook.getTimeStamp() == null ? new Date() : orderBook.getTimeStamp());
+  }
+
+  /**
+   * Set a source's volume at one price
+   * 
+   * @param source The source name
+   * @param orderBookUpdate The update, whose total volume is the source's new volume at the price; zero removes the level
+   */
+  public synchronized void update(String source, OrderBookUpdate orderBookUpdate) {
+
+    LimitOrder limitOrder = orderBookUpdate.getLimitOrder();
+    if (!currencyPair.equals(limitOrder.getCurrencyPair())) {
+      return;
+    }
+    getSide(limitOrder.getType()).set(source, limitOrder.getLimitPrice(), orderBookUpdate.getTotalVolume());
+    timestamps.put(source, limitOrder.getTimestamp() == null ? new Date() : limitOrder.getTimestamp());
+  }
+
+  /**
+   * Remove all levels of a source, e.g. when its feed is lost
+   * 
+   * @param source The source name
+   */
+  public synchronized void remove(String source) {
+
+    asks.replace(source, new TreeMap<BigDecimal, BigDecimal>());
+    bids.replace(source, new TreeMap<BigDecimal, BigDecimal>());
+    timestamps.remove(source);
+  }
+
+  /**
+   * @return The sources that have updated the book and not been removed since
+   */
+  public synchronized Set<String> getSources() {
+
+    return new HashSet<String>(timestamps.keySet());
+  }
+
+  /**
+   * @param source The source name
+   * @return The time of the source's last update, or null if it has none
+   */
+  public synchronized Date getTimeStamp(String source) {
+
+    return timestamps.get(source);
+  }
+
+  /**
+   * @return The lowest ask, with the volume of the source that has quoted its price the longest, or null if there are no asks
+   */
+  public synchronized LimitOrder getBestAsk() {
+
+    return asks.getBest();
+  }
+
+  /**
+   * @return The highest bid, with the volume of the source that has quoted its price the longest, or null if there are no bids
+   */
+  public synchronized LimitOrder getBestBid() {
+
+    return bids.getBest();
+  }
+
+  /**
+   * @param type ASK or BID
+   * @param price The price
+   * @return The volume at exactly that price across all sources, zero if there is none
+   */
+  public synchronized BigDecimal getVolume(OrderType type, BigDecimal price) {
+
+    Level level = getSide(type).levels.get(price);
+    return level == null ? BigDecimal.ZERO : level.total;
+  }
+
+  /**
+   * @param type ASK or BID
+   * @param price The price
+   * @return The volume of each source at exactly that price, in the order the sources quoted it
+   */
+  public synchronized Map<String, BigDecimal> getVolumes(OrderType type, BigDecimal price) {
+
+    Level level = getSide(type).levels.get(price);
+    return level == null ? Collections.<String, BigDecimal> emptyMap() : new LinkedHashMap<String, BigDecimal>(level.volumes);
+  }
+
+  /**
+   * @return A read-only list of the asks of all sources, lowest price first, one order per source and price
+   */
+  public synchronized List<LimitOrder> getAsks() {
+
+    return asks.asList();
+  }
+
+  /**
+   * @return A read-only list of the bids of all sources, highest price first, one order per source and price
+   */
+  public synchronized List<LimitOrder> getBids() {
+
+    return bids.asList();
+  }
+
+  private Side getSide(OrderType type) {
+
+    return type == OrderType.ASK ? asks : bids;
+  }
+
+  private TreeMap<BigDecimal, BigDecimal> toLevels(List<LimitOrder> orders) {
+
+    TreeMap<BigDecimal, BigDecimal> levels = new TreeMap<BigDecimal, BigDecimal>();
+    for (LimitOrder order : orders) {
+      if (!currencyPair.equals(order.getCurrencyPair())) {
+        continue;
+      }
+      BigDecimal volume = levels.get(order.getLimitPrice());
+      levels.put(order.getLimitPrice(), volume == null ? order.getTradableAmount() : volume.add(order.getTradableAmount()));
+    }
+    return levels;
+  }
+
+  @Override
+  public synchronized String toString() {
+
+    return "ConsolidatedOrderBook [currencyPair=" + currencyPair + ", sources=" + timestamps.keySet() + ", asks=" + asks.asList() + ", bids=" + bids.asList() + "]";
+  }
+
+  /**
+   * The volumes of all sources at one price
+   */
+  private static final class Level {
+
+    private final Map<String, BigDecimal> volumes = new LinkedHashMap<String, BigDecimal>(4);
+    private BigDecimal total = BigDecimal.ZERO;
+  }
+
+  private final class Side {
+
+    private final OrderType type;
+    private final TreeMap<BigDecimal, Level> levels;
+    private final Map<String, TreeMap<BigDecimal, BigDecimal>> sourceLevels = new HashMap<String, TreeMap<BigDecimal, BigDecimal>>();
+
+    private LimitOrder best;
+    private boolean bestValid;
+
+    /** Sorted read-only snapshot, null after a modification */
+    private List<LimitOrder> sortedView;
+
+    private Side(OrderType type) {
+
+      this.type = type;
+      this.levels = type == OrderType.BID ? new TreeMap<BigDecimal, Level>(Collections.reverseOrder()) : new TreeMap<BigDecimal, Level>();
+    }
+
+    /**
+     * Replace a source's levels, merging only the differences
+     */
+    private void replace(String source, TreeMap<BigDecimal, BigDecimal> newLevels) {
+
+      TreeMap<BigDecimal, BigDecimal> oldLevels = sourceLevels.get(source);
+      if (oldLevels != null) {
+        // copy the keys, set() modifies the source's map
+        for (BigDecimal price : new ArrayList<BigDecimal>(oldLevels.keySet())) {
+          if (!newLevels.containsKey(price)) {
+            set(source, price, BigDecimal.ZERO);
+          }
+        }
+      }
+      for (Map.Entry<BigDecimal, BigDecimal> level : newLevels.entrySet()) {
+        BigDecimal oldVolume = oldLevels == null ? null : oldLevels.get(level.getKey());
+        if (oldVolume == null || oldVolume.compareTo(level.getValue()) != 0) {
+          set(source, level.getKey(), level.getValue());
+        }
+      }
+    }
+
+    /**
+     * Set a source's volume at a price, removing the source from the level if the volume is zero
+     */
+    private void set(String source, BigDecimal price, BigDecimal volume) {
+
+      TreeMap<BigDecimal, BigDecimal> ownLevels = sourceLevels.get(source);
+      if (ownLevels == null) {
+        ownLevels = new TreeMap<BigDecimal, BigDecimal>();
+        sourceLevels.put(source, ownLevels);
+      }
+      BigDecimal oldVolume = volume.signum() == 0 ? ownLevels.remove(price) : ownLevels.put(price, volume);
+      if (ownLevels.isEmpty()) {
+        sourceLevels.remove(source);
+      }
+      if (oldVolume == null && volume.signum() == 0) {
+        return;
+      }
+
+      Level level = levels.get(price);
+      if (level == null) {
+        level = new Level();
+        levels.put(price, level);
+      }
+      if (volume.signum() == 0) {
+        level.volumes.remove(source);
+      }
+      else {
+        level.volumes.put(source, volume);
+      }
+      level.total = level.total.add(volume).subtract(oldVolume == null ? BigDecimal.ZERO : oldVolume);
+      if (level.volumes.isEmpty()) {
+        levels.remove(price);
+      }
+      changed();
+    }
+
+    private LimitOrder getBest() {
+
+      if (!bestValid) {
+        Map.Entry<BigDecimal, Level> first = levels.firstEntry();
+        if (first == null) {
+          best = null;
+        }
+        else {
+          Iterator<Map.Entry<String, BigDecimal>> sources = first.getValue().volumes.entrySet().iterator();
+          best = toLimitOrder(first.getKey(), sources.next());
+        }
+        bestValid = true;
+      }
+      return best;
+    }
+
+    private List<LimitOrder> asList() {
+
+      if (sortedView == null) {
+        List<LimitOrder> orders = new ArrayList<LimitOrder>(levels.size());
+        for (Map.Entry<BigDecimal, Level> level : levels.entrySet()) {
+          for (Map.Entry<String, BigDecimal> volume : level.getValue().volumes.entrySet()) {
+            orders.add(toLimitOrder(level.getKey(), volume));
+          }
+        }
+        sortedView = Collections.unmodifiableList(orders);
+      }
+      return sortedView;
+    }
+
+    private LimitOrder toLimitOrder(BigDecimal price, Map.Entry<String, BigDecimal> volume) {
+
+      return new LimitOrder(type, volume.getValue(), currencyPair, volume.getKey(), timestamps.get(volume.getKey()), price);
+    }
+
+    private void changed() {
+
+      sortedView = null;
+      bestValid = false;
+    }
+  }
+
+}
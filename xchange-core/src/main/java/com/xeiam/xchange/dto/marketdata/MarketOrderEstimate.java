@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.marketdata;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * Immutable estimate of how a market order would fill against an {@link OrderBook}, assuming the book does not change
+ * </p>
+ */
+public final class MarketOrderEstimate {
+
+  private final BigDecimal filledAmount;
+  private final BigDecimal total;
+  private final BigDecimal averagePrice;
+  private final BigDecimal worstPrice;
+
+  /**
+   * Constructor
+   * 
+   * @param filledAmount The amount of the base currency filled, less than the order's amount if the book is too thin
+   * @param total The amount of the counter currency paid or received
+   * @param averagePrice The volume weighted average fill price, null if nothing fills
+   * @param worstPrice The price of the last level reached, null if nothing fills
+   */
+  public MarketOrderEstimate(BigDecimal filledAmount, BigDecimal total, BigDecimal averagePrice, BigDecimal worstPrice) {
+
+    this.filledAmount = filledAmount;
+    this.total = total;
+    this.averagePrice = averagePrice;
+    this.worstPrice = worstPrice;
+  }
+
+  public BigDecimal getFilledAmount() {
+
+    return filledAmount;
+  }
+
+  public BigDecimal getTotal() {
+
+    return total;
+  }
+
+  public BigDecimal getAveragePrice() {
+
+    return averagePrice;
+  }
+
+  public BigDecimal getWorstPrice() {
+
+    return worstPrice;
+  }
+
+  @Override
+  public String toString() {
+
+    return "MarketOrderEstimate [filledAmount=" + filledAmount + ", total=" + total + ", averagePrice=" + averagePrice + ", worstPrice=" + worstPrice + "]";
+  }
+
+}
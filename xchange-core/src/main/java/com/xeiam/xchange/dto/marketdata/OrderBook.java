@@ -22,23 +22,33 @@
 package com.xeiam.xchange.dto.marketdata;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
 
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.Order.OrderType;
 import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.dto.trade.MarketOrder;
+import com.xeiam.xchange.utils.Assert;
 
 /**
+ * <p>
  * DTO representing the exchange order book
+ * </p>
+ * <p>
+ * Each side is indexed by limit price, so applying an update is O(log n) instead of a scan and re-sort of the whole side. {@link #getAsks()} and {@link #getBids()} return read-only sorted
+ * lists; use the update methods to modify the book.
+ * </p>
+ * <p>
+ * The fill estimates below walk the opposite side of the book: a BID (buy) takes the asks and an ASK (sell) takes the bids. They are answered from
+ * cumulative depth sums by binary search, and assume the book does not change while the order executes.
+ * </p>
  */
 public final class OrderBook {
 
   private Date timeStamp;
-  private final List<LimitOrder> asks;
-  private final List<LimitOrder> bids;
+  private final OrderBookSide asks;
+  private final OrderBookSide bids;
 
   /**
    * Constructor
@@ -52,8 +62,14 @@ public final class OrderBook {
   public OrderBook(Date timeStamp, List<LimitOrder> asks, List<LimitOrder> bids) {
 
     this.timeStamp = timeStamp;
-    this.asks = asks;
-    this.bids = bids;
+    this.asks = new OrderBookSide(OrderType.ASK);
+    this.bids = new OrderBookSide(OrderType.BID);
+    for (LimitOrder ask : asks) {
+      this.asks.add(ask);
+    }
+    for (LimitOrder bid : bids) {
+      this.bids.add(bid);
+    }
   }
 
   public Date getTimeStamp() {
@@ -61,110 +77,161 @@ public final class OrderBook {
     return timeStamp;
   }
 
+  /**
+   * @return A read-only list of the ASK orders, lowest price first
+   */
   public List<LimitOrder> getAsks() {
 
-    Collections.sort(asks);
-    return asks;
+    return asks.asList();
   }
 
+  /**
+   * @return A read-only list of the BID orders, highest price first
+   */
   public List<LimitOrder> getBids() {
 
-    Collections.sort(bids);
-    return bids;
+    return bids.asList();
+  }
+
+  /**
+   * @return The lowest ASK order, or null if there are no asks
+   */
+  public LimitOrder getBestAsk() {
+
+    return asks.getBest();
+  }
+
+  /**
+   * @return The highest BID order, or null if there are no bids
+   */
+  public LimitOrder getBestBid() {
+
+    return bids.getBest();
   }
 
   /**
    * Given a new LimitOrder, it will replace and old matching limit order in
-   * the orderbook or simply get added. Finally, it is sorted. The timeStamp may be updated as well.
+   * the orderbook or simply get added. The timeStamp may be updated as well.
    * 
    * @param limitOrder the new LimitOrder
    */
   public void update(LimitOrder limitOrder) {
 
-    if (limitOrder.getType().equals(OrderType.ASK)) {
-
-      Iterator<LimitOrder> it = asks.iterator();
-      while (it.hasNext()) {
-        LimitOrder order = it.next();
-        if (order.getLimitPrice().compareTo(limitOrder.getLimitPrice()) == 0) { // they
-                                                                                // are
-                                                                                // equal.
-                                                                                // found
-                                                                                // it!
-          it.remove();
-          break;
-        }
-      }
-      asks.add(limitOrder); // just add it
-      Collections.sort(asks); // finally sort
+    getSide(limitOrder.getType()).replace(limitOrder);
+    updateDate(limitOrder.getTimestamp());
+  }
 
-    }
-    else {
+  /**
+   * Adds the order behind any existing orders at the same limit price, for books that list individual orders rather than price levels. The
+   * timeStamp may be updated as well.
+   * 
+   * @param limitOrder the new LimitOrder
+   */
+  public void add(LimitOrder limitOrder) {
 
-      Iterator<LimitOrder> it = bids.iterator();
-      while (it.hasNext()) {
-        LimitOrder order = it.next();
-        if (order.getLimitPrice().compareTo(limitOrder.getLimitPrice()) == 0) { // they
-                                                                                // are
-                                                                                // equal.
-                                                                                // found
-                                                                                // it!
-          it.remove();
-          break;
-        }
-      }
-      bids.add(limitOrder); // just add it
-      Collections.sort(bids); // finally sort
-    }
+    getSide(limitOrder.getType()).add(limitOrder);
     updateDate(limitOrder.getTimestamp());
   }
 
+  /**
+   * Removes the order with the same type, limit price and id as the given one
+   * 
+   * @param limitOrder the LimitOrder to remove
+   * @return true if the order was in the book
+   */
+  public boolean remove(LimitOrder limitOrder) {
+
+    return getSide(limitOrder.getType()).remove(limitOrder.getLimitPrice(), limitOrder.getId()) != null;
+  }
+
   /**
    * Given an OrderBookUpdate, it will replace and old matching limit order in
-   * the orderbook or simply get added. Finally, it is sorted.The timeStamp may be updated as well.
+   * the orderbook or simply get added. A zero total volume removes the order. The timeStamp may be updated as well.
    * 
    * @param orderBookUpdate the new OrderBookUpdate
    */
   public void update(OrderBookUpdate orderBookUpdate) {
 
-    // First, we need to remove orders with the same limit price
-    Iterator<LimitOrder> it;
-    if (orderBookUpdate.getLimitOrder().getType() == OrderType.ASK) {
-      it = this.asks.iterator();
+    LimitOrder limitOrder = orderBookUpdate.getLimitOrder();
+    OrderBookSide side = getSide(limitOrder.getType());
+
+    if (orderBookUpdate.getTotalVolume().compareTo(BigDecimal.ZERO) == 0) {
+      side.remove(limitOrder.getLimitPrice());
     }
     else {
-      it = this.bids.iterator();
-    }
-    while (it.hasNext()) {
-      LimitOrder order = it.next();
-      if (order.getLimitPrice().compareTo(orderBookUpdate.getLimitOrder().getLimitPrice()) == 0) { // they are equal. found it!
-        it.remove();
-        break;
-      }
+      // replace the order at this price with one carrying the updated amount
+      OrderType type = limitOrder.getType();
+      BigDecimal tradeableAmount = orderBookUpdate.getTotalVolume();
+      CurrencyPair currencyPair = limitOrder.getCurrencyPair();
+      String id = limitOrder.getId();
+      Date date = limitOrder.getTimestamp();
+      BigDecimal limit = limitOrder.getLimitPrice();
+      side.replace(new LimitOrder(type, tradeableAmount, currencyPair, id, date, limit));
     }
+    updateDate(limitOrder.getTimestamp());
+  }
 
-    // If volume is not zero we need to add a new limit order with the
-    // updated amount
-    if (orderBookUpdate.getTotalVolume().compareTo(BigDecimal.ZERO) != 0) {
+  /**
+   * Estimates the fill of a market order against this book, like an exchange's "estimate market order" call
+   * 
+   * @param orderType BID to buy from the asks, ASK to sell to the bids
+   * @param amount The amount of the base currency to fill
+   * @return The estimate; the filled amount is less than requested if the book is too thin
+   */
+  public MarketOrderEstimate estimateMarketOrder(OrderType orderType, BigDecimal amount) {
 
-      OrderType type = orderBookUpdate.getLimitOrder().getType();
-      BigDecimal tradeableAmount = orderBookUpdate.getTotalVolume();
-      CurrencyPair currencyPair = orderBookUpdate.getLimitOrder().getCurrencyPair();
-      String id = orderBookUpdate.getLimitOrder().getId();
-      Date date = orderBookUpdate.getLimitOrder().getTimestamp();
-      BigDecimal limit = orderBookUpdate.getLimitOrder().getLimitPrice();
-      LimitOrder updatedOrder = new LimitOrder(type, tradeableAmount, currencyPair, id, date, limit);
-
-      if (orderBookUpdate.getLimitOrder().getType() == OrderType.ASK) {
-        asks.add(updatedOrder);
-        Collections.sort(asks);
-      }
-      else {
-        bids.add(updatedOrder);
-        Collections.sort(bids);
-      }
+    Assert.notNull(orderType, "orderType cannot be null");
+    Assert.isTrue(amount != null && amount.signum() > 0, "amount must be positive");
+    return getOppositeSide(orderType).estimate(amount);
+  }
+
+  /**
+   * @param marketOrder The market order to estimate
+   * @return The estimate; the filled amount is less than requested if the book is too thin
+   */
+  public MarketOrderEstimate estimateMarketOrder(MarketOrder marketOrder) {
+
+    return estimateMarketOrder(marketOrder.getType(), marketOrder.getTradableAmount());
+  }
+
+  /**
+   * @param orderType BID to buy from the asks, ASK to sell to the bids
+   * @param amount The amount of the base currency to fill
+   * @return The worst price reached when filling the whole amount, or null if the book is too thin
+   */
+  public BigDecimal getPriceToFill(OrderType orderType, BigDecimal amount) {
+
+    MarketOrderEstimate estimate = estimateMarketOrder(orderType, amount);
+    return estimate.getFilledAmount().compareTo(amount) < 0 ? null : estimate.getWorstPrice();
+  }
+
+  /**
+   * @param orderType BID to buy from the asks, ASK to sell to the bids
+   * @param basisPoints The allowed slippage from the best price, in hundredths of a percent
+   * @return The amount of the base currency that can be filled within that slippage, zero if the side is empty
+   */
+  public BigDecimal getAmountWithin(OrderType orderType, BigDecimal basisPoints) {
+
+    Assert.notNull(orderType, "orderType cannot be null");
+    Assert.isTrue(basisPoints != null && basisPoints.signum() >= 0, "basisPoints cannot be negative");
+    OrderBookSide side = getOppositeSide(orderType);
+    LimitOrder best = side.getBest();
+    if (best == null) {
+      return BigDecimal.ZERO;
     }
-    updateDate(orderBookUpdate.getLimitOrder().getTimestamp());
+    BigDecimal slippage = best.getLimitPrice().multiply(basisPoints).movePointLeft(4);
+    BigDecimal limitPrice = orderType == OrderType.BID ? best.getLimitPrice().add(slippage) : best.getLimitPrice().subtract(slippage);
+    return side.amountUpTo(limitPrice);
+  }
+
+  private OrderBookSide getOppositeSide(OrderType orderType) {
+
+    return orderType == OrderType.BID ? asks : bids;
+  }
+
+  private OrderBookSide getSide(OrderType orderType) {
+
+    return orderType == OrderType.ASK ? asks : bids;
   }
 
   private void updateDate(Date updateDate) {
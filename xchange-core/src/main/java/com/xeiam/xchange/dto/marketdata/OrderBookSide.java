@@ -0,0 +1,328 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.marketdata;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * One side (asks or bids) of an {@link OrderBook}, keyed by limit price
+ * </p>
+ * <p>
+ * Price levels are kept in a {@link TreeMap} ordered best price first, so inserting, replacing or removing a level is O(log n) and the best order is cached for O(1) access. Orders sharing
+ * the same limit price are kept in arrival order within their level. The sorted list returned by {@link #asList()} is a read-only snapshot that is only rebuilt after the side has changed.
+ * </p>
+ * <p>
+ * Fill estimates are answered from prefix sums of the amount and notional of the levels, best price first, by binary search in O(log n). The sums are
+ * rebuilt in O(n) on the first estimate after a change: inserting or removing a level shifts the sums of every worse level anyway, and a book is
+ * usually queried more often than it changes.
+ * </p>
+ */
+final class OrderBookSide {
+
+  private final TreeMap<BigDecimal, List<LimitOrder>> levels;
+
+  private int size;
+
+  private LimitOrder best;
+
+  /** Sorted read-only snapshot, null after a modification */
+  private List<LimitOrder> sortedView;
+
+  /** Prefix sums by level, null after a modification */
+  private DepthIndex depthIndex;
+
+  /**
+   * Constructor
+   * 
+   * @param orderType ASK sides are sorted by ascending price, BID sides by descending price
+   */
+  OrderBookSide(OrderType orderType) {
+
+    this.levels = orderType == OrderType.BID ? new TreeMap<BigDecimal, List<LimitOrder>>(Collections.reverseOrder()) : new TreeMap<BigDecimal, List<LimitOrder>>();
+  }
+
+  /**
+   * Adds an order behind any existing orders at the same limit price
+   * 
+   * @param limitOrder
+   */
+  void add(LimitOrder limitOrder) {
+
+    List<LimitOrder> level = levels.get(limitOrder.getLimitPrice());
+    if (level == null) {
+      level = new ArrayList<LimitOrder>(1);
+      levels.put(limitOrder.getLimitPrice(), level);
+    }
+    level.add(limitOrder);
+    size++;
+    changed();
+  }
+
+  /**
+   * Replaces the first order with the same limit price (if any) with the given order
+   * 
+   * @param limitOrder
+   */
+  void replace(LimitOrder limitOrder) {
+
+    List<LimitOrder> level = levels.get(limitOrder.getLimitPrice());
+    if (level == null) {
+      add(limitOrder);
+    }
+    else {
+      level.remove(0);
+      level.add(limitOrder);
+      changed();
+    }
+  }
+
+  /**
+   * Removes the first order at the given limit price
+   * 
+   * @param limitPrice
+   * @return the removed order or null if there was no order at that price
+   */
+  LimitOrder remove(BigDecimal limitPrice) {
+
+    List<LimitOrder> level = levels.get(limitPrice);
+    if (level == null) {
+      return null;
+    }
+    LimitOrder removed = level.remove(0);
+    if (level.isEmpty()) {
+      levels.remove(limitPrice);
+    }
+    size--;
+    changed();
+    return removed;
+  }
+
+  /**
+   * Removes the order with the given id at the given limit price
+   * 
+   * @param limitPrice
+   * @param id
+   * @return the removed order or null if there was no such order
+   */
+  LimitOrder remove(BigDecimal limitPrice, String id) {
+
+    List<LimitOrder> level = levels.get(limitPrice);
+    if (level == null) {
+      return null;
+    }
+    for (int i = 0; i < level.size(); i++) {
+      LimitOrder order = level.get(i);
+      if (id == null ? order.getId() == null : id.equals(order.getId())) {
+        level.remove(i);
+        if (level.isEmpty()) {
+          levels.remove(limitPrice);
+        }
+        size--;
+        changed();
+        return order;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the order at the best price, or null if the side is empty
+   */
+  LimitOrder getBest() {
+
+    return best;
+  }
+
+  int size() {
+
+    return size;
+  }
+
+  /**
+   * @return a read-only list of all orders, best price first
+   */
+  List<LimitOrder> asList() {
+
+    if (sortedView == null) {
+      List<LimitOrder> orders = new ArrayList<LimitOrder>(size);
+      for (List<LimitOrder> level : levels.values()) {
+        orders.addAll(level);
+      }
+      sortedView = Collections.unmodifiableList(orders);
+    }
+    return sortedView;
+  }
+
+  /**
+   * @param amount The amount to fill, positive
+   * @return The estimate of a market order taking that amount from this side
+   */
+  MarketOrderEstimate estimate(BigDecimal amount) {
+
+    DepthIndex index = getDepthIndex();
+    int levelCount = index.prices.length;
+    if (levelCount == 0) {
+      return new MarketOrderEstimate(BigDecimal.ZERO, BigDecimal.ZERO, null, null);
+    }
+
+    int level = index.levelFilling(amount);
+    BigDecimal filled;
+    BigDecimal total;
+    if (level == levelCount) {
+      // the whole side is not enough; the last level reached is the last one holding any amount
+      level = levelCount - 1;
+      while (level > 0 && index.amounts[level].compareTo(index.amounts[level - 1]) == 0) {
+        level--;
+      }
+      filled = index.amounts[level];
+      if (filled.signum() == 0) {
+        // only orders of zero amount
+        return new MarketOrderEstimate(BigDecimal.ZERO, BigDecimal.ZERO, null, null);
+      }
+      total = index.notionals[level];
+    }
+    else {
+      BigDecimal amountBefore = level == 0 ? BigDecimal.ZERO : index.amounts[level - 1];
+      BigDecimal notionalBefore = level == 0 ? BigDecimal.ZERO : index.notionals[level - 1];
+      filled = amount;
+      total = notionalBefore.add(amount.subtract(amountBefore).multiply(index.prices[level]));
+    }
+    return new MarketOrderEstimate(filled, total, total.divide(filled, MathContext.DECIMAL64), index.prices[level]);
+  }
+
+  /**
+   * @param limitPrice The limit price
+   * @return The amount of all orders at the limit price or better
+   */
+  BigDecimal amountUpTo(BigDecimal limitPrice) {
+
+    DepthIndex index = getDepthIndex();
+    int levels = index.levelsUpTo(limitPrice);
+    return levels == 0 ? BigDecimal.ZERO : index.amounts[levels - 1];
+  }
+
+  private DepthIndex getDepthIndex() {
+
+    if (depthIndex == null) {
+      depthIndex = new DepthIndex(levels);
+    }
+    return depthIndex;
+  }
+
+  private void changed() {
+
+    sortedView = null;
+    depthIndex = null;
+    Map.Entry<BigDecimal, List<LimitOrder>> first = levels.firstEntry();
+    best = first == null ? null : first.getValue().get(0);
+  }
+
+  @Override
+  public String toString() {
+
+    return asList().toString();
+  }
+
+  /**
+   * Cumulative amount and notional (amount times price) of the levels of a side, best price first
+   */
+  private static final class DepthIndex {
+
+    private final BigDecimal[] prices;
+    private final BigDecimal[] amounts;
+    private final BigDecimal[] notionals;
+    private final boolean ascending;
+
+    private DepthIndex(TreeMap<BigDecimal, List<LimitOrder>> levels) {
+
+      prices = new BigDecimal[levels.size()];
+      amounts = new BigDecimal[levels.size()];
+      notionals = new BigDecimal[levels.size()];
+      ascending = levels.comparator() == null;
+
+      BigDecimal amount = BigDecimal.ZERO;
+      BigDecimal notional = BigDecimal.ZERO;
+      int i = 0;
+      for (Map.Entry<BigDecimal, List<LimitOrder>> level : levels.entrySet()) {
+        BigDecimal levelAmount = BigDecimal.ZERO;
+        for (LimitOrder order : level.getValue()) {
+          levelAmount = levelAmount.add(order.getTradableAmount());
+        }
+        amount = amount.add(levelAmount);
+        notional = notional.add(levelAmount.multiply(level.getKey()));
+        prices[i] = level.getKey();
+        amounts[i] = amount;
+        notionals[i] = notional;
+        i++;
+      }
+    }
+
+    /**
+     * @return The first level whose cumulative amount reaches the given amount, or the number of levels if none does
+     */
+    private int levelFilling(BigDecimal amount) {
+
+      int low = 0;
+      int high = amounts.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (amounts[mid].compareTo(amount) < 0) {
+          low = mid + 1;
+        }
+        else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * @return The number of levels at the limit price or better
+     */
+    private int levelsUpTo(BigDecimal limitPrice) {
+
+      int low = 0;
+      int high = prices.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        int comparison = prices[mid].compareTo(limitPrice);
+        if (ascending ? comparison <= 0 : comparison >= 0) {
+          low = mid + 1;
+        }
+        else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.marketdata;
+
+import java.util.Date;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.FixedPoint;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * Immutable data object representing a (price, amount) level of an order book in {@link FixedPoint} form
+ * </p>
+ * <p>
+ * Adapters can populate these directly from JSON (see {@link com.xeiam.xchange.utils.jackson.PriceLevelDeserializer}) and callers only pay for a conversion to {@link LimitOrder} when
+ * they ask for it.
+ * </p>
+ */
+public final class PriceLevel {
+
+  private final FixedPoint price;
+  private final FixedPoint amount;
+
+  /**
+   * Constructor
+   * 
+   * @param price the limit price
+   * @param amount the amount available at that price
+   */
+  public PriceLevel(FixedPoint price, FixedPoint amount) {
+
+    this.price = price;
+    this.amount = amount;
+  }
+
+  public FixedPoint getPrice() {
+
+    return price;
+  }
+
+  public FixedPoint getAmount() {
+
+    return amount;
+  }
+
+  /**
+   * @param orderType BID or ASK
+   * @param currencyPair the currency pair of the order book
+   * @param timestamp the order timestamp, may be null
+   * @return the equivalent LimitOrder
+   */
+  public LimitOrder toLimitOrder(OrderType orderType, CurrencyPair currencyPair, Date timestamp) {
+
+    return new LimitOrder(orderType, amount.toBigDecimal(), currencyPair, "", timestamp, price.toBigDecimal());
+  }
+
+  @Override
+  public String toString() {
+
+    return "PriceLevel [price=" + price + ", amount=" + amount + "]";
+  }
+}
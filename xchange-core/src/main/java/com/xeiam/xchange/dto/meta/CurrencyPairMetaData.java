@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.meta;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * Trading rules and exchange-native naming of a currency pair
+ * </p>
+ */
+public final class CurrencyPairMetaData {
+
+  private final String nativeSymbol;
+  private final Integer priceScale;
+  private final BigDecimal minimumAmount;
+
+  /**
+   * Constructor
+   * 
+   * @param nativeSymbol The exchange's own name of the pair (e.g. "XXBTZUSD"), null if unknown
+   * @param priceScale The number of decimals prices are quoted with, null if unknown
+   * @param minimumAmount The smallest tradable amount, null if unknown
+   */
+  public CurrencyPairMetaData(String nativeSymbol, Integer priceScale, BigDecimal minimumAmount) {
+
+    this.nativeSymbol = nativeSymbol;
+    this.priceScale = priceScale;
+    this.minimumAmount = minimumAmount;
+  }
+
+  public String getNativeSymbol() {
+
+    return nativeSymbol;
+  }
+
+  public Integer getPriceScale() {
+
+    return priceScale;
+  }
+
+  public BigDecimal getMinimumAmount() {
+
+    return minimumAmount;
+  }
+
+  @Override
+  public String toString() {
+
+    return "CurrencyPairMetaData [nativeSymbol=" + nativeSymbol + ", priceScale=" + priceScale + ", minimumAmount=" + minimumAmount + "]";
+  }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.dto.meta;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+
+/**
+ * <p>
+ * Static description of an exchange, as loaded from its metadata endpoints
+ * </p>
+ * <ul>
+ * <li>The tradable currency pairs, with their native symbols, price precision and minimum amounts</li>
+ * <li>The exchange-native code of every currency (e.g. "XXBT" for BTC)</li>
+ * </ul>
+ */
+public final class ExchangeMetaData {
+
+  private final Map<CurrencyPair, CurrencyPairMetaData> currencyPairs;
+  private final Map<String, String> nativeCurrencies;
+  private final long timestamp;
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPairs The metadata of every tradable pair
+   * @param nativeCurrencies The exchange-native code by currency code, may be empty if the exchange uses the standard codes
+   * @param timestamp When the metadata was loaded from the exchange, in milliseconds from the Java epoch
+   */
+  public ExchangeMetaData(Map<CurrencyPair, CurrencyPairMetaData> currencyPairs, Map<String, String> nativeCurrencies, long timestamp) {
+
+    this.currencyPairs = Collections.unmodifiableMap(new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>(currencyPairs));
+    this.nativeCurrencies = Collections.unmodifiableMap(new LinkedHashMap<String, String>(nativeCurrencies));
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * @return The tradable currency pairs
+   */
+  public Set<CurrencyPair> getCurrencyPairs() {
+
+    return currencyPairs.keySet();
+  }
+
+  /**
+   * @return The metadata of every tradable pair
+   */
+  public Map<CurrencyPair, CurrencyPairMetaData> getCurrencyPairMetaData() {
+
+    return currencyPairs;
+  }
+
+  /**
+   * @param currencyPair
+   * @return The metadata of the pair, null if the exchange does not trade it
+   */
+  public CurrencyPairMetaData getCurrencyPairMetaData(CurrencyPair currencyPair) {
+
+    return currencyPairs.get(currencyPair);
+  }
+
+  /**
+   * @return The exchange-native code by currency code
+   */
+  public Map<String, String> getNativeCurrencies() {
+
+    return nativeCurrencies;
+  }
+
+  /**
+   * @param currency The currency code (e.g. BTC)
+   * @return The exchange-native code of the currency, null if the exchange does not know it
+   */
+  public String getNativeCurrency(String currency) {
+
+    return nativeCurrencies.get(currency);
+  }
+
+  public long getTimestamp() {
+
+    return timestamp;
+  }
+
+  @Override
+  public String toString() {
+
+    return "ExchangeMetaData [currencyPairs=" + currencyPairs + ", nativeCurrencies=" + nativeCurrencies + ", timestamp=" + timestamp + "]";
+  }
+
+}
@@ -0,0 +1,450 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Bar;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.service.polling.IncrementalTradeFeed;
+import com.xeiam.xchange.service.polling.MarketDataAggregator;
+import com.xeiam.xchange.service.polling.MarketDataListener;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Aggregates the trades of one exchange into OHLCV {@link Bar}s at several resolutions per currency pair, and derives a synthetic {@link Ticker} from
+ * them
+ * </p>
+ * <ul>
+ * <li>Trades are passed to {@link #onTrade(Trade)}, or arrive as a {@link MarketDataListener} of a {@link MarketDataAggregator} polling trades, or through
+ * {@link #getStreamingListener()} from an exchange's event bus</li>
+ * <li>Bars are aligned on the epoch (UTC) and kept per resolution in a ring of preallocated slots, so a trade updates each resolution in O(1); a bar
+ * older than the ring is overwritten by newer ones and a trade falling into it is dropped</li>
+ * <li>Trades may arrive out of order within the ring: open and close follow the trade timestamps, not the arrival order</li>
+ * </ul>
+ * <p>
+ * Polled trade lists usually overlap from one poll to the next, so trades are deduplicated on their id (or their fields if they have none) over the
+ * last {@link #DEDUPLICATION_WINDOW} trades of each pair, like {@link IncrementalTradeFeed} does.
+ * </p>
+ * <p>
+ * Bars, tickers and trade ids are only meaningful per venue, so each exchange needs its own aggregator. As a {@link MarketDataListener} the aggregator
+ * takes the exchange of the first subscription it hears from and rejects the others; with a {@link MarketDataAggregator} polling several exchanges,
+ * pass each exchange's aggregator to {@link MarketDataAggregator#submit} rather than one to {@link MarketDataAggregator#pollAll}.
+ * </p>
+ */
+public class BarAggregator implements MarketDataListener {
+
+  public static final long SECOND = 1000L;
+  public static final long MINUTE = 60 * SECOND;
+  public static final long HOUR = 60 * MINUTE;
+  public static final long DAY = 24 * HOUR;
+
+  /** 1s, 1m, 5m, 15m, 1h and 1d */
+  public static final long[] DEFAULT_RESOLUTIONS = { SECOND, MINUTE, 5 * MINUTE, 15 * MINUTE, HOUR, DAY };
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  static final int DEDUPLICATION_WINDOW = 1000;
+
+  private final long[] resolutions;
+  private final int capacity;
+  private final ConcurrentMap<CurrencyPair, PairBars> pairs = new ConcurrentHashMap<CurrencyPair, PairBars>();
+  private final AtomicReference<Exchange> exchange = new AtomicReference<Exchange>();
+
+  /**
+   * Constructor keeping the last {@link #DEFAULT_CAPACITY} bars of each of the {@link #DEFAULT_RESOLUTIONS}
+   */
+  public BarAggregator() {
+
+    this(DEFAULT_CAPACITY, DEFAULT_RESOLUTIONS);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param capacity The number of bars kept per pair and resolution
+   * @param resolutions The bar lengths in milliseconds
+   */
+  public BarAggregator(int capacity, long... resolutions) {
+
+    Assert.isTrue(capacity > 0, "capacity must be positive");
+    Assert.isTrue(resolutions.length > 0, "at least one resolution is required");
+    for (long resolution : resolutions) {
+      Assert.isTrue(resolution > 0, "resolutions must be positive");
+    }
+    this.capacity = capacity;
+    this.resolutions = resolutions.clone();
+  }
+
+  /**
+   * Adds a trade to the bars of its currency pair; a trade without a timestamp is taken as happening now
+   * 
+   * @param trade The trade
+   */
+  public void onTrade(Trade trade) {
+
+    getPairBars(trade.getCurrencyPair()).add(trade);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the subscription is for another exchange than the earlier ones
+   */
+  @Override
+  public void onMarketData(MarketDataSubscription subscription, Object marketData) {
+
+    Exchange source = subscription.getExchange();
+    if (!exchange.compareAndSet(null, source) && exchange.get() != source) {
+      throw new IllegalArgumentException("This aggregator holds the trades of " + exchange.get() + ", not of " + source);
+    }
+    accept(marketData);
+  }
+
+  @Override
+  public void onError(MarketDataSubscription subscription, Throwable cause) {
+
+    // a failed poll only delays trades
+  }
+
+  /**
+   * @return A listener to register with an exchange's event bus, adding events whose payload is a {@link Trade}, {@link Trades} or a list of trades
+   */
+  public ExchangeEventListener getStreamingListener() {
+
+    return new ExchangeEventListener() {
+
+      @Override
+      public void handleEvent(ExchangeEvent event) {
+
+        accept(event.getPayload());
+      }
+    };
+  }
+
+  /**
+   * @param currencyPair The currency pair
+   * @param resolution One of the resolutions of this aggregator
+   * @param count The maximum number of bars
+   * @return The most recent bars having trades, oldest first
+   */
+  public List<Bar> getBars(CurrencyPair currencyPair, long resolution, int count) {
+
+    PairBars pairBars = pairs.get(currencyPair);
+    if (pairBars == null) {
+      return Collections.emptyList();
+    }
+    return pairBars.getBars(indexOf(resolution), count);
+  }
+
+  /**
+   * @param currencyPair The currency pair
+   * @param resolution One of the resolutions of this aggregator
+   * @return The bar of the latest trade at that resolution, or null if no trade was seen
+   */
+  public Bar getLastBar(CurrencyPair currencyPair, long resolution) {
+
+    List<Bar> bars = getBars(currencyPair, resolution, 1);
+    return bars.isEmpty() ? null : bars.get(0);
+  }
+
+  /**
+   * Derives a ticker for exchanges whose ticker endpoint is slow or rate limited: the last price and timestamp are those of the latest trade, the
+   * high, low and volume those of the latest bar of the coarsest resolution (the UTC day by default). Trades carry no bid or ask, so both are null.
+   * 
+   * @param currencyPair The currency pair
+   * @return The ticker, or null if no trade was seen
+   */
+  public Ticker getTicker(CurrencyPair currencyPair) {
+
+    PairBars pairBars = pairs.get(currencyPair);
+    return pairBars == null ? null : pairBars.getTicker(coarsestIndex());
+  }
+
+  public long[] getResolutions() {
+
+    return resolutions.clone();
+  }
+
+  private void accept(Object payload) {
+
+    if (payload instanceof Trade) {
+      onTrade((Trade) payload);
+    }
+    else if (payload instanceof Trades) {
+      for (Trade trade : ((Trades) payload).getTrades()) {
+        onTrade(trade);
+      }
+    }
+    else if (payload instanceof List) {
+      for (Object element : (List<?>) payload) {
+        if (element instanceof Trade) {
+          onTrade((Trade) element);
+        }
+      }
+    }
+  }
+
+  private PairBars getPairBars(CurrencyPair currencyPair) {
+
+    PairBars pairBars = pairs.get(currencyPair);
+    if (pairBars == null) {
+      PairBars newPairBars = new PairBars(currencyPair);
+      pairBars = pairs.putIfAbsent(currencyPair, newPairBars);
+      if (pairBars == null) {
+        pairBars = newPairBars;
+      }
+    }
+    return pairBars;
+  }
+
+  private int indexOf(long resolution) {
+
+    for (int i = 0; i < resolutions.length; i++) {
+      if (resolutions[i] == resolution) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown resolution " + resolution);
+  }
+
+  private int coarsestIndex() {
+
+    int coarsest = 0;
+    for (int i = 1; i < resolutions.length; i++) {
+      if (resolutions[i] > resolutions[coarsest]) {
+        coarsest = i;
+      }
+    }
+    return coarsest;
+  }
+
+  private static String keyOf(Trade trade) {
+
+    if (trade.getId() != null) {
+      return trade.getId();
+    }
+    return trade.getTimestamp() + "/" + trade.getType() + "/" + trade.getPrice() + "/" + trade.getTradableAmount();
+  }
+
+  /**
+   * The bars of one currency pair, guarded by its own monitor
+   */
+  private final class PairBars {
+
+    private final CurrencyPair currencyPair;
+    private final BarRing[] rings;
+    private final Map<String, Boolean> recentTrades = new LinkedHashMap<String, Boolean>() {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+
+        return size() > DEDUPLICATION_WINDOW;
+      }
+    };
+
+    private BigDecimal last;
+    private long lastTime = Long.MIN_VALUE;
+
+    private PairBars(CurrencyPair currencyPair) {
+
+      this.currencyPair = currencyPair;
+      this.rings = new BarRing[resolutions.length];
+      for (int i = 0; i < resolutions.length; i++) {
+        rings[i] = new BarRing(resolutions[i], capacity);
+      }
+    }
+
+    private synchronized void add(Trade trade) {
+
+      if (recentTrades.put(keyOf(trade), Boolean.TRUE) != null) {
+        return;
+      }
+      long time = trade.getTimestamp() == null ? System.currentTimeMillis() : trade.getTimestamp().getTime();
+      for (BarRing ring : rings) {
+        ring.add(time, trade.getPrice(), trade.getTradableAmount());
+      }
+      if (time >= lastTime) {
+        lastTime = time;
+        last = trade.getPrice();
+      }
+    }
+
+    private synchronized List<Bar> getBars(int resolutionIndex, int count) {
+
+      return rings[resolutionIndex].getBars(currencyPair, count);
+    }
+
+    private synchronized Ticker getTicker(int resolutionIndex) {
+
+      if (last == null) {
+        return null;
+      }
+      TickerBuilder builder = TickerBuilder.newInstance().withCurrencyPair(currencyPair).withLast(last).withTimestamp(new Date(lastTime));
+      List<Bar> bars = rings[resolutionIndex].getBars(currencyPair, 1);
+      if (!bars.isEmpty()) {
+        Bar bar = bars.get(0);
+        builder.withHigh(bar.getHigh()).withLow(bar.getLow()).withVolume(bar.getVolume());
+      }
+      return builder.build();
+    }
+  }
+
+  /**
+   * Ring of the bars of one resolution; the slot of a bar is its period number modulo the capacity
+   */
+  private static final class BarRing {
+
+    private final long resolution;
+    private final long[] openTimes;
+    private final long[] firstTimes;
+    private final long[] lastTimes;
+    private final BigDecimal[] opens;
+    private final BigDecimal[] highs;
+    private final BigDecimal[] lows;
+    private final BigDecimal[] closes;
+    private final BigDecimal[] volumes;
+    private final BigDecimal[] notionals;
+    private final int[] tradeCounts;
+
+    /** Open time of the most recent bar, Long.MIN_VALUE while empty */
+    private long latestOpenTime = Long.MIN_VALUE;
+
+    private BarRing(long resolution, int capacity) {
+
+      this.resolution = resolution;
+      openTimes = new long[capacity];
+      firstTimes = new long[capacity];
+      lastTimes = new long[capacity];
+      opens = new BigDecimal[capacity];
+      highs = new BigDecimal[capacity];
+      lows = new BigDecimal[capacity];
+      closes = new BigDecimal[capacity];
+      volumes = new BigDecimal[capacity];
+      notionals = new BigDecimal[capacity];
+      tradeCounts = new int[capacity];
+      Arrays.fill(openTimes, Long.MIN_VALUE);
+    }
+
+    private void add(long time, BigDecimal price, BigDecimal amount) {
+
+      long period = floorDiv(time, resolution);
+      long openTime = period * resolution;
+      int slot = slotOf(period);
+
+      if (openTimes[slot] != openTime) {
+        if (openTimes[slot] > openTime || latestOpenTime - openTime >= resolution * openTimes.length) {
+          // older than the ring
+          return;
+        }
+        openTimes[slot] = openTime;
+        firstTimes[slot] = time;
+        lastTimes[slot] = time;
+        opens[slot] = price;
+        highs[slot] = price;
+        lows[slot] = price;
+        closes[slot] = price;
+        volumes[slot] = amount;
+        notionals[slot] = amount.multiply(price);
+        tradeCounts[slot] = 1;
+      }
+      else {
+        if (time < firstTimes[slot]) {
+          firstTimes[slot] = time;
+          opens[slot] = price;
+        }
+        if (time >= lastTimes[slot]) {
+          lastTimes[slot] = time;
+          closes[slot] = price;
+        }
+        if (price.compareTo(highs[slot]) > 0) {
+          highs[slot] = price;
+        }
+        if (price.compareTo(lows[slot]) < 0) {
+          lows[slot] = price;
+        }
+        volumes[slot] = volumes[slot].add(amount);
+        notionals[slot] = notionals[slot].add(amount.multiply(price));
+        tradeCounts[slot]++;
+      }
+      if (openTime > latestOpenTime) {
+        latestOpenTime = openTime;
+      }
+    }
+
+    private List<Bar> getBars(CurrencyPair currencyPair, int count) {
+
+      List<Bar> bars = new ArrayList<Bar>(Math.min(count, openTimes.length));
+      if (latestOpenTime == Long.MIN_VALUE) {
+        return bars;
+      }
+      long latestPeriod = latestOpenTime / resolution;
+      for (int i = 0; i < openTimes.length && bars.size() < count; i++) {
+        long period = latestPeriod - i;
+        int slot = slotOf(period);
+        if (openTimes[slot] == period * resolution) {
+          bars.add(toBar(currencyPair, slot));
+        }
+      }
+      Collections.reverse(bars);
+      return bars;
+    }
+
+    private Bar toBar(CurrencyPair currencyPair, int slot) {
+
+      BigDecimal vwap = volumes[slot].signum() == 0 ? closes[slot] : notionals[slot].divide(volumes[slot], MathContext.DECIMAL64);
+      return new Bar(currencyPair, new Date(openTimes[slot]), resolution, opens[slot], highs[slot], lows[slot], closes[slot], volumes[slot], vwap,
+          tradeCounts[slot]);
+    }
+
+    private int slotOf(long period) {
+
+      long slot = period % openTimes.length;
+      return (int) (slot < 0 ? slot + openTimes.length : slot);
+    }
+
+    private static long floorDiv(long x, long y) {
+
+      long quotient = x / y;
+      return (x % y != 0 && (x < 0) != (y < 0)) ? quotient - 1 : quotient;
+    }
+  }
+
+}
@@ -22,6 +22,16 @@
 package com.xeiam.xchange.service;
 
 import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.service.journal.JournalingProxy;
+import com.xeiam.xchange.service.journal.MarketDataJournal;
+import com.xeiam.xchange.service.metrics.ExchangeMetrics;
+import com.xeiam.xchange.service.metrics.MetricsProxy;
+import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitedProxy;
+import com.xeiam.xchange.service.polling.ratelimit.RequestScheduler;
+import com.xeiam.xchange.service.polling.transport.RequestExecutor;
+import com.xeiam.xchange.service.polling.transport.RescuRestTransport;
+import com.xeiam.xchange.service.polling.transport.RestTransport;
 import com.xeiam.xchange.utils.Assert;
 
 /**
@@ -30,6 +40,10 @@ import com.xeiam.xchange.utils.Assert;
  * </p>
  * <ul>
  * <li>Provision of standard specification parsing</li>
+ * <li>Throttling of requests according to the exchange's rate limit policy</li>
+ * <li>Creation of REST proxies through the exchange's transport, with its timeouts and concurrent request limit</li>
+ * <li>Recording of market data responses to the exchange's market data journal, if it has one</li>
+ * <li>Measurement of calls, if the exchange has a metrics recorder</li>
  * </ul>
  */
 public abstract class BaseExchangeService {
@@ -39,6 +53,26 @@ public abstract class BaseExchangeService {
    */
   protected final ExchangeSpecification exchangeSpecification;
 
+  /**
+   * The scheduler shared by all services of the exchange, null if the exchange declares no rate limit policy
+   */
+  protected final RequestScheduler requestScheduler;
+
+  /**
+   * The executor shared by all services of the exchange, limiting concurrent requests and running asynchronous calls
+   */
+  protected final RequestExecutor requestExecutor;
+
+  /**
+   * The journal shared by all services of the exchange, null if messages are not recorded
+   */
+  protected final MarketDataJournal journal;
+
+  /**
+   * The metrics of the exchange, disabled if it has no metrics recorder
+   */
+  protected final ExchangeMetrics metrics;
+
   /**
    * Constructor Initialize common properties from the exchange specification
    * 
@@ -49,6 +83,72 @@ public abstract class BaseExchangeService {
     Assert.notNull(exchangeSpecification, "exchangeSpecification cannot be null");
 
     this.exchangeSpecification = exchangeSpecification;
+    this.requestScheduler = RequestScheduler.getInstance(exchangeSpecification);
+    this.requestExecutor = RequestExecutor.getInstance(exchangeSpecification);
+    this.journal = MarketDataJournal.getInstance(exchangeSpecification);
+    this.metrics = ExchangeMetrics.of(exchangeSpecification);
+  }
+
+  /**
+   * @return The scheduler throttling this service's requests, e.g. to inspect wait times, or null if requests are not throttled
+   */
+  public RequestScheduler getRequestScheduler() {
+
+    return requestScheduler;
+  }
+
+  /**
+   * @return The executor limiting this service's concurrent requests, also usable to make asynchronous calls
+   */
+  public RequestExecutor getRequestExecutor() {
+
+    return requestExecutor;
+  }
+
+  /**
+   * Make every call to a rescu proxy wait for a permit from the exchange's {@link RequestScheduler}
+   * 
+   * @param type The rescu interface
+   * @param proxy The proxy created by the RestProxyFactory
+   * @return The rate limited proxy, or the given proxy if the exchange declares no rate limit policy
+   */
+  protected <T> T rateLimited(Class<T> type, T proxy) {
+
+    return RateLimitedProxy.wrap(type, proxy, requestScheduler);
+  }
+
+  /**
+   * Whether the responses of the proxies this service creates are recorded to the exchange's journal. Only market data services are journaled by
+   * default, so that balances, orders and other account data never end up in a journal file.
+   * 
+   * @return true to journal this service's responses
+   */
+  protected boolean isJournaled() {
+
+    return this instanceof PollingMarketDataService;
+  }
+
+  /**
+   * Create a proxy of a REST interface through the exchange's {@link RestTransport}, limited to the exchange's concurrent requests and rate limit,
+   * recording responses to the exchange's journal if this service {@link #isJournaled() is journaled} and measuring calls
+   * 
+   * @param type The REST interface
+   * @param baseUrl The base URL of the API
+   * @return The proxy
+   */
+  protected <T> T createProxy(Class<T> type, String baseUrl) {
+
+    RestTransport restTransport = exchangeSpecification.getRestTransport();
+    if (restTransport == null) {
+      restTransport = RescuRestTransport.INSTANCE;
+    }
+    // rate limit outermost, so a call doesn't hold a connection permit while waiting for a rate permit
+    // measured innermost, so waiting for permits doesn't count as network time
+    T proxy = MetricsProxy.wrap(type, restTransport.createProxy(type, baseUrl, exchangeSpecification), metrics);
+    if (isJournaled()) {
+      proxy = JournalingProxy.wrap(type, proxy, journal);
+    }
+    return rateLimited(type, requestExecutor.limit(type, proxy));
   }
 
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.dto.marketdata.ConsolidatedOrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.service.polling.MarketDataAggregator;
+import com.xeiam.xchange.service.polling.MarketDataListener;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+/**
+ * <p>
+ * Feeds a {@link ConsolidatedOrderBook} from the polling and streaming services of several exchanges, each exchange being a source named after its
+ * exchange name:
+ * </p>
+ * <ul>
+ * <li>As a {@link MarketDataListener} of a {@link MarketDataAggregator}, every polled {@link OrderBook} of the book's currency pair replaces the
+ * exchange's levels</li>
+ * <li>{@link #getStreamingListener(Exchange)} returns a listener for an exchange's event bus, applying events whose payload is an {@link OrderBook}, an
+ * {@link OrderBookUpdate} or a list of them</li>
+ * </ul>
+ * <p>
+ * A source whose poll fails, or whose stream disconnects or drops events ({@link ExchangeEventType#GAP}), is removed from the book rather than left
+ * quoting stale prices; it is added back by its next full book. Until then the updates it streams are ignored, as they would only rebuild part of
+ * its levels. A stream {@link ExchangeEventType#ERROR} is transient (e.g. one message that could not be parsed) and is only logged.
+ * </p>
+ */
+public class ConsolidatedOrderBookFeed implements MarketDataListener {
+
+  private final Logger log = LoggerFactory.getLogger(ConsolidatedOrderBookFeed.class);
+
+  private final ConsolidatedOrderBook orderBook;
+
+  /**
+   * Constructor
+   * 
+   * @param orderBook The book to feed
+   */
+  public ConsolidatedOrderBookFeed(ConsolidatedOrderBook orderBook) {
+
+    this.orderBook = orderBook;
+  }
+
+  public ConsolidatedOrderBook getOrderBook() {
+
+    return orderBook;
+  }
+
+  /**
+   * @return The source name of an exchange in the consolidated book
+   */
+  public static String getSource(Exchange exchange) {
+
+    return exchange.getExchangeSpecification().getExchangeName();
+  }
+
+  @Override
+  public void onMarketData(MarketDataSubscription subscription, Object marketData) {
+
+    if (marketData instanceof OrderBook && orderBook.getCurrencyPair().equals(subscription.getCurrencyPair())) {
+      orderBook.update(getSource(subscription.getExchange()), (OrderBook) marketData);
+    }
+  }
+
+  @Override
+  public void onError(MarketDataSubscription subscription, Throwable cause) {
+
+    if (orderBook.getCurrencyPair().equals(subscription.getCurrencyPair())) {
+      String source = getSource(subscription.getExchange());
+      log.warn("Removing {} from the consolidated {} book after a failed poll: {}", source, orderBook.getCurrencyPair(), cause.toString());
+      orderBook.remove(source);
+    }
+  }
+
+  /**
+   * @param exchange The exchange whose streaming events the listener will receive
+   * @return A listener to register with the exchange's event bus
+   */
+  public ExchangeEventListener getStreamingListener(Exchange exchange) {
+
+    final String source = getSource(exchange);
+    return new ExchangeEventListener() {
+
+      /** Set once the source was removed, until its next full book */
+      private volatile boolean awaitingBook;
+
+      @Override
+      public void handleEvent(ExchangeEvent event) {
+
+        if (event.getEventType() == ExchangeEventType.DISCONNECT || event.getEventType() == ExchangeEventType.GAP) {
+          log.warn("Removing {} from the consolidated {} book after a stream {}", source, orderBook.getCurrencyPair(), event.getEventType());
+          awaitingBook = true;
+          orderBook.remove(source);
+        }
+        else if (event.getEventType() == ExchangeEventType.ERROR) {
+          log.warn("Stream error from {}: {}", source, event.getData());
+        }
+        else if (event.getPayload() instanceof OrderBook) {
+          OrderBook book = (OrderBook) event.getPayload();
+          // a book for another pair would wipe this source's levels
+          if (isForPair(book)) {
+            orderBook.update(source, book);
+            awaitingBook = false;
+          }
+        }
+        else if (!awaitingBook) {
+          applyUpdates(source, event.getPayload());
+        }
+      }
+    };
+  }
+
+  private void applyUpdates(String source, Object payload) {
+
+    if (payload instanceof OrderBookUpdate) {
+      orderBook.update(source, (OrderBookUpdate) payload);
+    }
+    else if (payload instanceof List) {
+      for (Object element : (List<?>) payload) {
+        if (element instanceof OrderBookUpdate) {
+          orderBook.update(source, (OrderBookUpdate) element);
+        }
+      }
+    }
+  }
+
+  private boolean isForPair(OrderBook book) {
+
+    if (book.getBestAsk() != null) {
+      return orderBook.getCurrencyPair().equals(book.getBestAsk().getCurrencyPair());
+    }
+    if (book.getBestBid() != null) {
+      return orderBook.getCurrencyPair().equals(book.getBestBid().getCurrencyPair());
+    }
+    return false;
+  }
+
+}
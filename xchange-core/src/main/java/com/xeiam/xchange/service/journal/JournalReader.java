@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+/**
+ * <p>
+ * Reads the records of a {@link MarketDataJournal} directory in the order they were written
+ * </p>
+ * <p>
+ * Reading stops at the last complete record, so the journal of a running or crashed process can be read too. Not thread safe.
+ * </p>
+ */
+public class JournalReader {
+
+  private static final ExchangeEventType[] EVENT_TYPES = ExchangeEventType.values();
+
+  private final File[] segments;
+  private int segmentIndex = -1;
+  private MappedByteBuffer segment;
+
+  /**
+   * Constructor
+   * 
+   * @param directory The journal directory
+   */
+  public JournalReader(File directory) {
+
+    this.segments = MarketDataJournal.listSegments(directory);
+  }
+
+  /**
+   * @return The next record, or null if there are no more
+   */
+  public JournalRecord next() {
+
+    while (true) {
+      if (segment != null && segment.remaining() >= MarketDataJournal.HEADER_SIZE) {
+        int start = segment.position();
+        int length = segment.getInt(start);
+        if (length > 0) {
+          return readRecord(start, length);
+        }
+      }
+      // end of the data written to this segment
+      if (segmentIndex + 1 >= segments.length) {
+        return null;
+      }
+      segment = mapSegment(segments[++segmentIndex]);
+    }
+  }
+
+  private JournalRecord readRecord(int start, int length) {
+
+    long timestamp = segment.getLong(start + 4);
+    ExchangeEventType eventType = EVENT_TYPES[segment.get(start + 12)];
+    int channelLength = segment.getShort(start + 13);
+
+    byte[] bytes = new byte[length - MarketDataJournal.HEADER_SIZE];
+    segment.position(start + MarketDataJournal.HEADER_SIZE);
+    segment.get(bytes);
+
+    String channel = new String(bytes, 0, channelLength, MarketDataJournal.UTF8);
+    String data = new String(bytes, channelLength, bytes.length - channelLength, MarketDataJournal.UTF8);
+    return new JournalRecord(timestamp, eventType, channel, data);
+  }
+
+  private static MappedByteBuffer mapSegment(File file) {
+
+    try {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try {
+        return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+      } finally {
+        randomAccessFile.close();
+      }
+    } catch (IOException e) {
+      throw new ExchangeException("Could not map journal segment " + file, e);
+    }
+  }
+
+}
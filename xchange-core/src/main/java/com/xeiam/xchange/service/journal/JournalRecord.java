@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+/**
+ * <p>
+ * A message captured by a {@link MarketDataJournal}
+ * </p>
+ */
+public final class JournalRecord {
+
+  private final long timestamp;
+  private final ExchangeEventType eventType;
+  private final String channel;
+  private final String data;
+
+  /**
+   * Constructor
+   * 
+   * @param timestamp The time the message was received, in milliseconds from the Java epoch
+   * @param eventType The type of the event the message was delivered as
+   * @param channel Where the message came from, e.g. a Pusher channel or a REST method, empty for a plain websocket message
+   * @param data The raw message
+   */
+  public JournalRecord(long timestamp, ExchangeEventType eventType, String channel, String data) {
+
+    this.timestamp = timestamp;
+    this.eventType = eventType;
+    this.channel = channel;
+    this.data = data;
+  }
+
+  public long getTimestamp() {
+
+    return timestamp;
+  }
+
+  public ExchangeEventType getEventType() {
+
+    return eventType;
+  }
+
+  public String getChannel() {
+
+    return channel;
+  }
+
+  public String getData() {
+
+    return data;
+  }
+
+  @Override
+  public String toString() {
+
+    return "JournalRecord [timestamp=" + timestamp + ", eventType=" + eventType + ", channel=" + channel + ", data=" + data + "]";
+  }
+
+}
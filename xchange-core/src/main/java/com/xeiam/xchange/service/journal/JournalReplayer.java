@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+
+/**
+ * <p>
+ * Feeds the records of a {@link MarketDataJournal} to an {@link ExchangeEventListener}, as the streaming services deliver live messages
+ * </p>
+ * <ul>
+ * <li>Each record becomes a {@link DefaultExchangeEvent} of the recorded type and data, with the {@link JournalRecord} as payload</li>
+ * <li>At a speed of 1 the records are spaced as they were received, at 10 ten times faster; at 0 they are delivered as fast as the listener takes
+ * them</li>
+ * </ul>
+ */
+public class JournalReplayer {
+
+  private final File directory;
+  private final double speed;
+
+  /**
+   * Constructor
+   * 
+   * @param directory The journal directory
+   * @param speed The replay speed relative to the recording, 0 for no delays
+   */
+  public JournalReplayer(File directory, double speed) {
+
+    this.directory = directory;
+    this.speed = speed;
+  }
+
+  /**
+   * Replay the whole journal on the calling thread
+   * 
+   * @param listener Receives one event per record
+   * @return The number of records replayed
+   * @throws InterruptedException if interrupted while waiting for the next record's time
+   */
+  public long replay(ExchangeEventListener listener) throws InterruptedException {
+
+    JournalReader reader = new JournalReader(directory);
+    long count = 0;
+    long firstTimestamp = 0;
+    long startNanos = System.nanoTime();
+    for (JournalRecord record = reader.next(); record != null; record = reader.next()) {
+      if (count == 0) {
+        firstTimestamp = record.getTimestamp();
+      }
+      else if (speed > 0) {
+        long dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(record.getTimestamp() - firstTimestamp) / speed);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+          TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      listener.handleEvent(toEvent(record));
+      count++;
+    }
+    return count;
+  }
+
+  private static ExchangeEvent toEvent(JournalRecord record) {
+
+    return new DefaultExchangeEvent(record.getEventType(), record.getData(), record);
+  }
+
+}
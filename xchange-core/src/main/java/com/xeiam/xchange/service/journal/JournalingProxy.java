@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+/**
+ * <p>
+ * Wraps a REST proxy so that every response is recorded to a {@link MarketDataJournal}, as a {@link ExchangeEventType#MESSAGE} whose channel is
+ * <code>Interface.method</code>
+ * </p>
+ * <p>
+ * The REST client hands back bound DTOs rather than the response body, so the recorded message is the DTO serialized back to JSON: equivalent data,
+ * though not necessarily byte for byte what the exchange sent. Responses that don't serialize or can't be recorded are skipped: recording never changes
+ * the result of a call.
+ * </p>
+ */
+public final class JournalingProxy implements InvocationHandler {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final Logger log = LoggerFactory.getLogger(JournalingProxy.class);
+
+  private final Object target;
+  private final String channelPrefix;
+  private final MarketDataJournal journal;
+
+  private JournalingProxy(Class<?> type, Object target, MarketDataJournal journal) {
+
+    this.target = target;
+    this.channelPrefix = type.getSimpleName() + ".";
+    this.journal = journal;
+  }
+
+  /**
+   * @param type The REST interface
+   * @param target The REST proxy
+   * @param journal The journal to record to, may be null
+   * @return A recording view of the target, or the target itself if the journal is null
+   */
+  public static <T> T wrap(Class<T> type, T target, MarketDataJournal journal) {
+
+    if (journal == null) {
+      return target;
+    }
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new JournalingProxy(type, target, journal)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+    Object result;
+    try {
+      result = method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+
+    if (result != null && method.getDeclaringClass() != Object.class) {
+      String data;
+      try {
+        data = OBJECT_MAPPER.writeValueAsString(result);
+      } catch (JsonProcessingException e) {
+        log.debug("Not journaling the response of {}: {}", method.getName(), e.toString());
+        return result;
+      } catch (RuntimeException e) {
+        log.debug("Not journaling the response of {}: {}", method.getName(), e.toString());
+        return result;
+      }
+      journal.tryAppend(ExchangeEventType.MESSAGE, channelPrefix + method.getName(), data);
+    }
+    return result;
+  }
+
+}
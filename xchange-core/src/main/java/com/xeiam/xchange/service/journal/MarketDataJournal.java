@@ -0,0 +1,529 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Append-only binary journal of raw market data messages, with their receive time, written to memory-mapped segment files
+ * </p>
+ * <ul>
+ * <li>Appending encodes the message straight into the mapped segment: no system call, no copy to an intermediate array, no waiting for the disk</li>
+ * <li>Segments are pre-allocated to a fixed size, and the next one is created and mapped in the background while the current one fills up</li>
+ * <li>A full segment is forced to the disk in the background too. Should the next segment not be mapped yet when the current one fills up, records are
+ * held in memory until it is, rather than making the writer wait</li>
+ * <li>Appends are serialized, but are meant to come from one thread at a time (a connection's network thread); another writer would briefly wait</li>
+ * <li>Each record's length is written last, so a crash leaves the journal readable up to the last complete record</li>
+ * <li>Services record through {@link #tryAppend}, which logs and counts a record that can't be written instead of failing the message or call it
+ * came with</li>
+ * </ul>
+ * <p>
+ * Read journals with a {@link JournalReader}, or replay them with a {@link JournalReplayer}. If the specification names a
+ * {@link ExchangeSpecification#getJournalDirectory() journal directory}, the streaming and market data polling services of the exchange record to the
+ * journal obtained through {@link #getInstance(ExchangeSpecification)}; account and trade services don't. Journals are shared per directory, since
+ * two journals appending to one directory would overwrite each other's segments.
+ * </p>
+ */
+public class MarketDataJournal {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  /** record length (int), timestamp (long), event type (byte), channel length (short) */
+  static final int HEADER_SIZE = 15;
+  /** a record length of zero marks the end of the data; this marks the end of a segment that has no room left */
+  static final int END_OF_SEGMENT = -1;
+  static final String SEGMENT_SUFFIX = ".journal";
+  static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /** keyed by canonical directory path */
+  private static final ConcurrentMap<String, MarketDataJournal> JOURNALS = new ConcurrentHashMap<String, MarketDataJournal>();
+
+  private final Logger log = LoggerFactory.getLogger(MarketDataJournal.class);
+
+  private final File directory;
+  private final int segmentSize;
+  private final CharsetEncoder encoder = UTF8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private int segmentIndex;
+  /** null between a segment filling up and the next one being mapped */
+  private MappedByteBuffer segment;
+  private Future<?> preparation;
+  private MappedByteBuffer preparedSegment;
+  private ExchangeException preparationError;
+  private final Queue<PendingRecord> pending = new ArrayDeque<PendingRecord>();
+  private boolean closed;
+  private final AtomicLong failedAppends = new AtomicLong();
+
+  /**
+   * Constructor, starting a new segment after any already in the directory
+   * 
+   * @param directory The directory holding the segment files, created if missing
+   * @param segmentSize The size of each segment file in bytes, which bounds the size of a record
+   */
+  public MarketDataJournal(File directory, int segmentSize) {
+
+    Assert.notNull(directory, "directory cannot be null");
+    Assert.isTrue(segmentSize > HEADER_SIZE, "segmentSize is too small");
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new ExchangeException("Could not create journal directory " + directory);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+
+    File[] existing = listSegments(directory);
+    segmentIndex = existing.length == 0 ? 0 : segmentIndex(existing[existing.length - 1]) + 1;
+    segment = mapSegment(segmentIndex);
+    prepareSegment(segmentIndex + 1);
+  }
+
+  /**
+   * Get the journal shared by all services recording to the journal directory of the specification. A closed journal is no longer shared: the next
+   * call opens a new one, starting a new segment.
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @return The shared journal, or null if the specification names no journal directory
+   */
+  public static MarketDataJournal getInstance(ExchangeSpecification exchangeSpecification) {
+
+    String journalDirectory = exchangeSpecification.getJournalDirectory();
+    if (journalDirectory == null) {
+      return null;
+    }
+
+    File directory = new File(journalDirectory);
+    String key = registryKey(directory);
+    MarketDataJournal journal = JOURNALS.get(key);
+    if (journal == null) {
+      synchronized (JOURNALS) {
+        journal = JOURNALS.get(key);
+        if (journal == null) {
+          journal = new MarketDataJournal(directory, DEFAULT_SEGMENT_SIZE);
+          JOURNALS.put(key, journal);
+        }
+      }
+    }
+    return journal;
+  }
+
+  /**
+   * Record a message received now
+   * 
+   * @see #append(long, ExchangeEventType, String, String)
+   */
+  public void append(ExchangeEventType eventType, String channel, String data) {
+
+    append(System.currentTimeMillis(), eventType, channel, data);
+  }
+
+  /**
+   * Record a message
+   * 
+   * @param timestamp The time the message was received, in milliseconds from the Java epoch
+   * @param eventType The type of the event the message is delivered as
+   * @param channel Where the message came from, e.g. a Pusher channel or a REST method, may be null
+   * @param data The raw message
+   */
+  public synchronized void append(long timestamp, ExchangeEventType eventType, String channel, String data) {
+
+    if (closed) {
+      throw new ExchangeException("Journal " + directory + " is closed");
+    }
+
+    drainPending();
+    if (!pending.isEmpty() || !write(timestamp, eventType, channel, data)) {
+      pending.add(new PendingRecord(timestamp, eventType, channel, data));
+    }
+  }
+
+  /**
+   * Record a message received now, if possible: recording is best effort and must not change the outcome of the call or message being recorded
+   * 
+   * @return false if the record could not be written, e.g. because it is larger than a segment or the journal is closed; the failure is logged and
+   *         counted in {@link #getFailedAppends()}
+   * @see #append(long, ExchangeEventType, String, String)
+   */
+  public boolean tryAppend(ExchangeEventType eventType, String channel, String data) {
+
+    try {
+      append(System.currentTimeMillis(), eventType, channel, data);
+      return true;
+    } catch (RuntimeException e) {
+      // the first failure is worth a warning, a closed journal would otherwise log every message
+      if (failedAppends.getAndIncrement() == 0) {
+        log.warn("Failed to journal a message from {} to {}", channel, directory, e);
+      }
+      else {
+        log.debug("Failed to journal a message from {} to {}: {}", channel, directory, e.toString());
+      }
+      return false;
+    }
+  }
+
+  /**
+   * @return The number of records {@link #tryAppend} could not write
+   */
+  public long getFailedAppends() {
+
+    return failedAppends.get();
+  }
+
+  /**
+   * Write the mapped segments to the disk, e.g. before handing the journal to another process
+   */
+  public void force() {
+
+    synchronized (this) {
+      if (segment != null) {
+        segment.force();
+      }
+    }
+    awaitBackgroundTasks();
+  }
+
+  /**
+   * Write the records held in memory, force the journal to the disk and stop recording
+   */
+  public void close() {
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      while (!pending.isEmpty()) {
+        if (preparedSegment == null && preparationError == null) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeException("Interrupted before writing " + pending.size() + " journal records", e);
+          }
+        }
+        drainPending();
+      }
+      if (segment != null) {
+        segment.force();
+      }
+      preparation.cancel(false);
+    }
+    // waits for the segments forced in the background, and for the preparation unless it was cancelled
+    awaitBackgroundTasks();
+    synchronized (this) {
+      preparedSegment = null;
+    }
+    // the pre-allocated segment holds no records
+    segmentFile(segmentIndex + 1).delete();
+    // only now, so that a journal opened on the same directory can't map the segment deleted above
+    JOURNALS.remove(registryKey(directory), this);
+  }
+
+  public File getDirectory() {
+
+    return directory;
+  }
+
+  private static String registryKey(File directory) {
+
+    try {
+      return directory.getCanonicalPath();
+    } catch (IOException e) {
+      return directory.getAbsolutePath();
+    }
+  }
+
+  /**
+   * @return false if the record was not written because the next segment is not mapped yet
+   */
+  private boolean write(long timestamp, ExchangeEventType eventType, String channel, String data) {
+
+    if (segment == null && !installPreparedSegment()) {
+      return false;
+    }
+
+    int start = segment.position();
+    int channelLength = encodeRecord(start, channel, data);
+    if (channelLength < 0) {
+      Assert.isTrue(start > 0, "record is larger than a journal segment");
+      segment.position(start);
+      if (segment.remaining() >= 4) {
+        segment.putInt(start, END_OF_SEGMENT);
+      }
+      retireSegment();
+      if (!installPreparedSegment()) {
+        return false;
+      }
+      start = 0;
+      channelLength = encodeRecord(start, channel, data);
+      Assert.isTrue(channelLength >= 0, "record is larger than a journal segment");
+    }
+
+    segment.putLong(start + 4, timestamp);
+    segment.put(start + 12, (byte) eventType.ordinal());
+    segment.putShort(start + 13, (short) channelLength);
+    // the length goes last: until then, readers see the end of the data
+    segment.putInt(start, segment.position() - start);
+    return true;
+  }
+
+  private void drainPending() {
+
+    while (!pending.isEmpty()) {
+      PendingRecord record = pending.peek();
+      boolean written = false;
+      try {
+        written = write(record.timestamp, record.eventType, record.channel, record.data);
+      } finally {
+        // a record that can't be written at all must not hold up the ones behind it
+        if (written || segment != null) {
+          pending.remove();
+        }
+      }
+      if (!written) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return The length of the encoded channel, or -1 if the record doesn't fit in the rest of the segment
+   */
+  private int encodeRecord(int start, String channel, String data) {
+
+    if (segment.capacity() - start < HEADER_SIZE) {
+      return -1;
+    }
+    segment.position(start + HEADER_SIZE);
+    if (channel != null && !encode(channel)) {
+      return -1;
+    }
+    int channelLength = segment.position() - start - HEADER_SIZE;
+    Assert.isTrue(channelLength <= Short.MAX_VALUE, "channel name is too long");
+    if (!encode(data)) {
+      return -1;
+    }
+    return channelLength;
+  }
+
+  private boolean encode(String value) {
+
+    encoder.reset();
+    CharBuffer chars = CharBuffer.wrap(value);
+    CoderResult result = encoder.encode(chars, segment, true);
+    if (result.isOverflow()) {
+      return false;
+    }
+    return !encoder.flush(segment).isOverflow();
+  }
+
+  /**
+   * Hand the full segment to the background thread to be forced to the disk
+   */
+  private void retireSegment() {
+
+    final MappedByteBuffer full = segment;
+    segment = null;
+    Preallocator.EXECUTOR.execute(new Runnable() {
+
+      @Override
+      public void run() {
+
+        full.force();
+      }
+    });
+  }
+
+  /**
+   * Switch to the segment mapped in the background, if it is ready, and start mapping the one after it
+   * 
+   * @return false if the segment is not mapped yet
+   */
+  private boolean installPreparedSegment() {
+
+    if (preparationError != null) {
+      ExchangeException error = preparationError;
+      preparationError = null;
+      prepareSegment(segmentIndex + 1);
+      throw error;
+    }
+    if (preparedSegment == null) {
+      return false;
+    }
+    segment = preparedSegment;
+    preparedSegment = null;
+    segmentIndex++;
+    prepareSegment(segmentIndex + 1);
+    return true;
+  }
+
+  private void prepareSegment(final int index) {
+
+    preparation = Preallocator.EXECUTOR.submit(new Runnable() {
+
+      @Override
+      public void run() {
+
+        try {
+          segmentPrepared(mapSegment(index), null);
+        } catch (ExchangeException e) {
+          segmentPrepared(null, e);
+        }
+      }
+    });
+  }
+
+  private synchronized void segmentPrepared(MappedByteBuffer mapped, ExchangeException error) {
+
+    preparedSegment = mapped;
+    preparationError = error;
+    notifyAll();
+    // write what arrived while no segment was mapped, rather than waiting for the next append
+    if (!closed && segment == null && error == null) {
+      drainPending();
+    }
+  }
+
+  private void awaitBackgroundTasks() {
+
+    try {
+      Preallocator.EXECUTOR.submit(new Runnable() {
+
+        @Override
+        public void run() {
+
+        }
+      }).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new ExchangeException("Could not write journal " + directory, e.getCause());
+    }
+  }
+
+  private MappedByteBuffer mapSegment(int index) {
+
+    File file = segmentFile(index);
+    try {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      try {
+        randomAccessFile.setLength(segmentSize);
+        return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      } finally {
+        randomAccessFile.close();
+      }
+    } catch (IOException e) {
+      throw new ExchangeException("Could not map journal segment " + file, e);
+    }
+  }
+
+  private File segmentFile(int index) {
+
+    return new File(directory, String.format("%08d", index) + SEGMENT_SUFFIX);
+  }
+
+  /**
+   * @return The segment files of the directory, in the order they were written
+   */
+  static File[] listSegments(File directory) {
+
+    File[] segments = directory.listFiles(new FilenameFilter() {
+
+      @Override
+      public boolean accept(File dir, String name) {
+
+        return name.endsWith(SEGMENT_SUFFIX);
+      }
+    });
+    if (segments == null) {
+      return new File[0];
+    }
+    Arrays.sort(segments);
+    return segments;
+  }
+
+  private static int segmentIndex(File segmentFile) {
+
+    String name = segmentFile.getName();
+    return Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private static final class PendingRecord {
+
+    private final long timestamp;
+    private final ExchangeEventType eventType;
+    private final String channel;
+    private final String data;
+
+    private PendingRecord(long timestamp, ExchangeEventType eventType, String channel, String data) {
+
+      this.timestamp = timestamp;
+      this.eventType = eventType;
+      this.channel = channel;
+      this.data = data;
+    }
+  }
+
+  private static final class Preallocator {
+
+    static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, "xchange-journal-preallocator");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+}
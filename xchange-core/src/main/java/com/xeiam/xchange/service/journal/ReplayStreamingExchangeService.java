@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.journal;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.java_websocket.WebSocket.READYSTATE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+
+/**
+ * <p>
+ * A {@link StreamingExchangeService} whose events come from a {@link MarketDataJournal} instead of a live connection, for backtests and offline
+ * profiling
+ * </p>
+ * <p>
+ * {@link #connect()} starts replaying on a background thread. Unlike a live service it never drops events: the replay waits while the consumer is
+ * {@value #QUEUE_CAPACITY} events behind, so runs are deterministic. The socket reads as open until the journal is exhausted. Sent messages are
+ * ignored.
+ * </p>
+ */
+public class ReplayStreamingExchangeService implements StreamingExchangeService {
+
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private final Logger log = LoggerFactory.getLogger(ReplayStreamingExchangeService.class);
+
+  private final JournalReplayer replayer;
+  private final BlockingQueue<ExchangeEvent> events = new ArrayBlockingQueue<ExchangeEvent>(QUEUE_CAPACITY);
+
+  private volatile READYSTATE readyState = READYSTATE.NOT_YET_CONNECTED;
+  private Thread replayThread;
+
+  /**
+   * Constructor
+   * 
+   * @param directory The journal directory
+   * @param speed The replay speed relative to the recording, 0 for no delays
+   */
+  public ReplayStreamingExchangeService(File directory, double speed) {
+
+    this.replayer = new JournalReplayer(directory, speed);
+  }
+
+  @Override
+  public synchronized void connect() {
+
+    if (replayThread != null) {
+      throw new ExchangeException("Replay already started");
+    }
+    readyState = READYSTATE.OPEN;
+    replayThread = new Thread(new Runnable() {
+
+      @Override
+      public void run() {
+
+        try {
+          long count = replayer.replay(new ExchangeEventListener() {
+
+            @Override
+            public void handleEvent(ExchangeEvent event) {
+
+              try {
+                events.put(event);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          });
+          log.debug("Replayed {} records", count);
+        } catch (InterruptedException e) {
+          log.debug("Replay stopped");
+        } finally {
+          readyState = READYSTATE.CLOSED;
+        }
+      }
+    }, "xchange-journal-replay");
+    replayThread.setDaemon(true);
+    replayThread.start();
+  }
+
+  @Override
+  public synchronized void disconnect() {
+
+    if (replayThread != null) {
+      replayThread.interrupt();
+    }
+  }
+
+  @Override
+  public ExchangeEvent getNextEvent() throws InterruptedException {
+
+    return events.take();
+  }
+
+  @Override
+  public void send(String msg) {
+
+    log.debug("Ignoring message sent during replay: {}", msg);
+  }
+
+  @Override
+  public READYSTATE getWebSocketStatus() {
+
+    return readyState;
+  }
+
+}
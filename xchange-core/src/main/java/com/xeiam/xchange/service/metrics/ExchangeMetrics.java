@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+
+/**
+ * <p>
+ * The {@link MetricsRecorder} of one exchange, as used by its services. Every method is a no-op when the exchange has no recorder, without even
+ * reading the clock, so instrumented code needs no checks of its own:
+ * </p>
+ * 
+ * <pre>
+ * long start = metrics.start();
+ * OrderBook orderBook = KrakenAdapters.adaptOrderBook(krakenDepth, currencyPair);
+ * metrics.stop(&quot;getOrderBook&quot;, Phase.ADAPTATION, start);
+ * </pre>
+ */
+public final class ExchangeMetrics {
+
+  public static final ExchangeMetrics DISABLED = new ExchangeMetrics(null, null);
+
+  private final MetricsRecorder recorder;
+  private final String exchange;
+
+  private ExchangeMetrics(MetricsRecorder recorder, String exchange) {
+
+    this.recorder = recorder;
+    this.exchange = exchange;
+  }
+
+  /**
+   * @param exchangeSpecification The exchange specification
+   * @return The metrics of the exchange, named after its exchange name, or {@link #DISABLED} if the specification has no recorder
+   */
+  public static ExchangeMetrics of(ExchangeSpecification exchangeSpecification) {
+
+    MetricsRecorder recorder = exchangeSpecification.getMetricsRecorder();
+    if (recorder == null) {
+      return DISABLED;
+    }
+    String exchange = exchangeSpecification.getExchangeName();
+    if (exchange == null) {
+      String className = exchangeSpecification.getExchangeClassName();
+      exchange = className.substring(className.lastIndexOf('.') + 1);
+    }
+    return new ExchangeMetrics(recorder, exchange);
+  }
+
+  public boolean isEnabled() {
+
+    return recorder != null;
+  }
+
+  public String getExchange() {
+
+    return exchange;
+  }
+
+  /**
+   * @return The start time to pass to {@link #stop(String, Phase, long)}
+   */
+  public long start() {
+
+    return recorder == null ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Record the time since a {@link #start()}
+   */
+  public void stop(String operation, Phase phase, long start) {
+
+    if (recorder != null) {
+      recorder.recordLatency(exchange, operation, phase, System.nanoTime() - start);
+    }
+  }
+
+  public void error(String operation) {
+
+    if (recorder != null) {
+      recorder.recordError(exchange, operation);
+    }
+  }
+
+  public void retry(String operation) {
+
+    if (recorder != null) {
+      recorder.recordRetry(exchange, operation);
+    }
+  }
+
+  /**
+   * Record the events published to a bus, per event type, and the depth of its queue after each one
+   * 
+   * @param eventBus The bus
+   * @param queue The queue name to record the depth under
+   */
+  public void instrument(final ExchangeEventBus eventBus, final String queue) {
+
+    if (recorder != null) {
+      eventBus.addListener(new ExchangeEventListener() {
+
+        @Override
+        public void handleEvent(ExchangeEvent event) {
+
+          recorder.recordEvent(exchange, event.getEventType().name());
+          recorder.recordQueueDepth(exchange, queue, eventBus.size());
+        }
+      });
+    }
+  }
+
+}
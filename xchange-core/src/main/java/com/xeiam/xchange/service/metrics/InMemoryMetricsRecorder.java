@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xeiam.xchange.service.metrics.MetricsSnapshot.LatencyStats;
+import com.xeiam.xchange.service.metrics.MetricsSnapshot.OperationMetrics;
+
+/**
+ * <p>
+ * Default {@link MetricsRecorder}, keeping counters and {@link LatencyHistogram}s in memory. Recording looks up the exchange and the name in two
+ * concurrent maps and updates atomics, so it neither locks nor allocates once a name has been seen. One recorder can be shared by any number of
+ * exchanges; {@link #getSnapshot()} reads all of them.
+ * </p>
+ */
+public class InMemoryMetricsRecorder implements MetricsRecorder {
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Stats>> exchanges = new ConcurrentHashMap<String, ConcurrentMap<String, Stats>>();
+
+  private volatile long startNanos = System.nanoTime();
+
+  @Override
+  public void recordLatency(String exchange, String operation, Phase phase, long nanos) {
+
+    getStats(exchange, operation).latencies[phase.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void recordError(String exchange, String operation) {
+
+    getStats(exchange, operation).errors.incrementAndGet();
+  }
+
+  @Override
+  public void recordRetry(String exchange, String operation) {
+
+    getStats(exchange, operation).retries.incrementAndGet();
+  }
+
+  @Override
+  public void recordQueueDepth(String exchange, String queue, long depth) {
+
+    Stats stats = getStats(exchange, queue);
+    stats.queueDepth.set(depth);
+    long max;
+    while (depth > (max = stats.maxQueueDepth.get()) && !stats.maxQueueDepth.compareAndSet(max, depth)) {
+      // retry
+    }
+  }
+
+  @Override
+  public void recordEvent(String exchange, String stream) {
+
+    getStats(exchange, stream).events.incrementAndGet();
+  }
+
+  /**
+   * @return The measurements since the recorder was created or last reset
+   */
+  public MetricsSnapshot getSnapshot() {
+
+    long interval = System.nanoTime() - startNanos;
+    double seconds = Math.max(interval, 1) / 1e9;
+
+    List<OperationMetrics> operations = new ArrayList<OperationMetrics>();
+    for (Map.Entry<String, ConcurrentMap<String, Stats>> exchange : exchanges.entrySet()) {
+      for (Map.Entry<String, Stats> operation : exchange.getValue().entrySet()) {
+        Stats stats = operation.getValue();
+        Map<Phase, LatencyStats> latencies = new EnumMap<Phase, LatencyStats>(Phase.class);
+        for (Phase phase : Phase.values()) {
+          LatencyStats latency = stats.latencies[phase.ordinal()].snapshot();
+          if (latency != null) {
+            latencies.put(phase, latency);
+          }
+        }
+        long events = stats.events.get();
+        operations.add(new OperationMetrics(exchange.getKey(), operation.getKey(), latencies, stats.errors.get(), stats.retries.get(), events, events / seconds,
+            stats.queueDepth.get(), stats.maxQueueDepth.get()));
+      }
+    }
+    return new MetricsSnapshot(interval, operations);
+  }
+
+  /**
+   * Discard all measurements. Measurements recorded concurrently may be lost.
+   */
+  public void reset() {
+
+    exchanges.clear();
+    startNanos = System.nanoTime();
+  }
+
+  private Stats getStats(String exchange, String name) {
+
+    ConcurrentMap<String, Stats> operations = exchanges.get(exchange);
+    if (operations == null) {
+      ConcurrentMap<String, Stats> newOperations = new ConcurrentHashMap<String, Stats>();
+      operations = exchanges.putIfAbsent(exchange, newOperations);
+      if (operations == null) {
+        operations = newOperations;
+      }
+    }
+    Stats stats = operations.get(name);
+    if (stats == null) {
+      Stats newStats = new Stats();
+      stats = operations.putIfAbsent(name, newStats);
+      if (stats == null) {
+        stats = newStats;
+      }
+    }
+    return stats;
+  }
+
+  private static final class Stats {
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Phase.values().length];
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    private Stats() {
+
+      for (int i = 0; i < latencies.length; i++) {
+        latencies[i] = new LatencyHistogram();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.xeiam.xchange.service.metrics.MetricsSnapshot.LatencyStats;
+
+/**
+ * <p>
+ * Lock-free histogram of latencies in nanoseconds, with log-linear buckets: values are bucketed by their highest set bit and the
+ * {@value #SUB_BUCKET_BITS} bits below it, so percentiles are within 1/{@value #SUB_BUCKETS} of the recorded values over the whole range of a long
+ * with a fixed 4 KB of counters. Recording is a few atomic increments and never allocates.
+ * </p>
+ */
+final class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 3;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  void record(long nanos) {
+
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(index(value));
+    count.incrementAndGet();
+    total.addAndGet(value);
+    long currentMax;
+    while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+      // retry
+    }
+  }
+
+  long getCount() {
+
+    return count.get();
+  }
+
+  /**
+   * @return The statistics, or null if nothing was recorded. Values recorded while this runs may be partly included.
+   */
+  LatencyStats snapshot() {
+
+    long n = count.get();
+    if (n == 0) {
+      return null;
+    }
+    long maxValue = max.get();
+    return new LatencyStats(n, total.get() / n, percentile(n, 0.5, maxValue), percentile(n, 0.9, maxValue), percentile(n, 0.99, maxValue), maxValue);
+  }
+
+  private long percentile(long n, double fraction, long maxValue) {
+
+    long rank = Math.max(1, (long) Math.ceil(fraction * n));
+    long cumulative = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      cumulative += counts.get(i);
+      if (cumulative >= rank) {
+        return Math.min(lowerBound(i + 1) - 1, maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  static int index(long value) {
+
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowerBound(int index) {
+
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    if (exponent > 62) {
+      return Long.MAX_VALUE;
+    }
+    long subBucket = index % SUB_BUCKETS;
+    return (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+  }
+
+}
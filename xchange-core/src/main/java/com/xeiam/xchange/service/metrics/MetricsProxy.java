@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
+
+/**
+ * <p>
+ * Wraps a REST proxy so that the latency of every call is recorded as its {@link Phase#NETWORK} phase, and every failed call as an error, under the name
+ * of the invoked interface method
+ * </p>
+ */
+public final class MetricsProxy implements InvocationHandler {
+
+  private final Object target;
+  private final ExchangeMetrics metrics;
+
+  private MetricsProxy(Object target, ExchangeMetrics metrics) {
+
+    this.target = target;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @param type The REST interface
+   * @param target The REST proxy
+   * @param metrics The metrics of the exchange
+   * @return A measured view of the target, or the target itself if the metrics are disabled
+   */
+  public static <T> T wrap(Class<T> type, T target, ExchangeMetrics metrics) {
+
+    if (!metrics.isEnabled()) {
+      return target;
+    }
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new MetricsProxy(target, metrics)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+    if (method.getDeclaringClass() == Object.class) {
+      return method.invoke(target, args);
+    }
+
+    String operation = method.getName();
+    long start = metrics.start();
+    try {
+      Object result = method.invoke(target, args);
+      metrics.stop(operation, Phase.NETWORK, start);
+      return result;
+    } catch (InvocationTargetException e) {
+      metrics.error(operation);
+      throw e.getCause();
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+/**
+ * <p>
+ * Service provider interface receiving measurements of the calls and streams of exchanges, set with
+ * {@link com.xeiam.xchange.ExchangeSpecification#setMetricsRecorder(MetricsRecorder)}. Nothing is measured for exchanges without a recorder.
+ * </p>
+ * <p>
+ * Recorders are called inline on the request and websocket threads, so implementations must be thread safe and cheap; {@link InMemoryMetricsRecorder}
+ * is the default implementation, and an adapter to a metrics library can be plugged in instead. Exchange names are those of the exchange
+ * specifications; operation, stream and queue names are constants, so implementations may key on them without copying.
+ * </p>
+ */
+public interface MetricsRecorder {
+
+  /**
+   * The part of a call a latency was measured for
+   */
+  enum Phase {
+
+    /** A REST request until its response is bound to the raw DTOs, including the JSON binding done by the REST client */
+    NETWORK,
+
+    /** Parsing of a message by XChange itself, e.g. a streaming message */
+    DESERIALIZATION,
+
+    /** Conversion of the raw DTOs to the generic XChange DTOs */
+    ADAPTATION
+  }
+
+  /**
+   * @param exchange The exchange name
+   * @param operation The operation, e.g. the REST method name
+   * @param phase The phase measured
+   * @param nanos The time taken, in nanoseconds
+   */
+  void recordLatency(String exchange, String operation, Phase phase, long nanos);
+
+  /**
+   * Count a failed call
+   */
+  void recordError(String exchange, String operation);
+
+  /**
+   * Count a retried call or reconnection
+   */
+  void recordRetry(String exchange, String operation);
+
+  /**
+   * @param exchange The exchange name
+   * @param queue The queue name
+   * @param depth The number of elements in the queue at this time
+   */
+  void recordQueueDepth(String exchange, String queue, long depth);
+
+  /**
+   * Count an event received on a stream
+   * 
+   * @param exchange The exchange name
+   * @param stream The stream, e.g. the event type
+   */
+  void recordEvent(String exchange, String stream);
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
+
+/**
+ * <p>
+ * Immutable view of the measurements taken by an {@link InMemoryMetricsRecorder}, one {@link OperationMetrics} per exchange and operation, stream or
+ * queue name
+ * </p>
+ */
+public final class MetricsSnapshot {
+
+  private final long intervalNanos;
+  private final List<OperationMetrics> operations;
+
+  /**
+   * Constructor
+   * 
+   * @param intervalNanos The time over which the measurements were taken
+   * @param operations The measurements per exchange and name
+   */
+  public MetricsSnapshot(long intervalNanos, List<OperationMetrics> operations) {
+
+    this.intervalNanos = intervalNanos;
+    this.operations = Collections.unmodifiableList(operations);
+  }
+
+  /**
+   * @return The time over which the measurements were taken, in nanoseconds
+   */
+  public long getIntervalNanos() {
+
+    return intervalNanos;
+  }
+
+  public List<OperationMetrics> getOperations() {
+
+    return operations;
+  }
+
+  /**
+   * @return The measurements of the exchange's operation, stream or queue, or null if there are none
+   */
+  public OperationMetrics getOperation(String exchange, String name) {
+
+    for (OperationMetrics operation : operations) {
+      if (operation.getExchange().equals(exchange) && operation.getName().equals(name)) {
+        return operation;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+
+    StringBuilder sb = new StringBuilder("MetricsSnapshot [intervalNanos=").append(intervalNanos);
+    for (OperationMetrics operation : operations) {
+      sb.append("\n  ").append(operation);
+    }
+    return sb.append("]").toString();
+  }
+
+  /**
+   * The measurements of one operation, stream or queue of an exchange
+   */
+  public static final class OperationMetrics {
+
+    private final String exchange;
+    private final String name;
+    private final Map<Phase, LatencyStats> latencies;
+    private final long errors;
+    private final long retries;
+    private final long events;
+    private final double eventRate;
+    private final long queueDepth;
+    private final long maxQueueDepth;
+
+    /**
+     * Constructor
+     * 
+     * @param exchange The exchange name
+     * @param name The operation, stream or queue name
+     * @param latencies The latency statistics of the phases measured
+     * @param errors The number of failed calls
+     * @param retries The number of retries
+     * @param events The number of events received
+     * @param eventRate The events per second over the snapshot's interval
+     * @param queueDepth The last queue depth recorded
+     * @param maxQueueDepth The largest queue depth recorded
+     */
+    public OperationMetrics(String exchange, String name, Map<Phase, LatencyStats> latencies, long errors, long retries, long events, double eventRate, long queueDepth,
+        long maxQueueDepth) {
+
+      this.exchange = exchange;
+      this.name = name;
+      this.latencies = Collections.unmodifiableMap(latencies);
+      this.errors = errors;
+      this.retries = retries;
+      this.events = events;
+      this.eventRate = eventRate;
+      this.queueDepth = queueDepth;
+      this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public String getExchange() {
+
+      return exchange;
+    }
+
+    public String getName() {
+
+      return name;
+    }
+
+    /**
+     * @return The latency statistics of the phases measured, without entries for phases never measured
+     */
+    public Map<Phase, LatencyStats> getLatencies() {
+
+      return latencies;
+    }
+
+    /**
+     * @return The latency statistics of the phase, or null if it was never measured
+     */
+    public LatencyStats getLatency(Phase phase) {
+
+      return latencies.get(phase);
+    }
+
+    public long getErrors() {
+
+      return errors;
+    }
+
+    public long getRetries() {
+
+      return retries;
+    }
+
+    public long getEvents() {
+
+      return events;
+    }
+
+    /**
+     * @return The events per second over the snapshot's interval
+     */
+    public double getEventRate() {
+
+      return eventRate;
+    }
+
+    public long getQueueDepth() {
+
+      return queueDepth;
+    }
+
+    public long getMaxQueueDepth() {
+
+      return maxQueueDepth;
+    }
+
+    @Override
+    public String toString() {
+
+      return "OperationMetrics [exchange=" + exchange + ", name=" + name + ", latencies=" + latencies + ", errors=" + errors + ", retries=" + retries + ", events="
+          + events + ", eventRate=" + eventRate + ", queueDepth=" + queueDepth + ", maxQueueDepth=" + maxQueueDepth + "]";
+    }
+  }
+
+  /**
+   * Latency statistics of one phase, in nanoseconds. Percentiles are the upper bounds of histogram buckets, within 1/8 of the recorded values.
+   */
+  public static final class LatencyStats {
+
+    private final long count;
+    private final long mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    public LatencyStats(long count, long mean, long p50, long p90, long p99, long max) {
+
+      this.count = count;
+      this.mean = mean;
+      this.p50 = p50;
+      this.p90 = p90;
+      this.p99 = p99;
+      this.max = max;
+    }
+
+    public long getCount() {
+
+      return count;
+    }
+
+    public long getMean() {
+
+      return mean;
+    }
+
+    public long getP50() {
+
+      return p50;
+    }
+
+    public long getP90() {
+
+      return p90;
+    }
+
+    public long getP99() {
+
+      return p99;
+    }
+
+    public long getMax() {
+
+      return max;
+    }
+
+    @Override
+    public String toString() {
+
+      return "LatencyStats [count=" + count + ", mean=" + mean + ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", max=" + max + "]";
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.service.polling.transport.RequestExecutor;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Asynchronous view of a {@link PollingMarketDataService}: each call returns at once with a {@link Future} of the result
+ * </p>
+ * <p>
+ * The calls run on the exchange's {@link RequestExecutor}, so their number in flight stays within the exchange's concurrent request limit however many
+ * are submitted. Exceptions thrown by the service are reported through {@link Future#get()}.
+ * </p>
+ */
+public class AsyncPollingMarketDataService {
+
+  private final PollingMarketDataService marketDataService;
+  private final RequestExecutor requestExecutor;
+
+  /**
+   * Constructor using the exchange's market data service and shared executor
+   * 
+   * @param exchange
+   */
+  public AsyncPollingMarketDataService(Exchange exchange) {
+
+    this(exchange.getPollingMarketDataService(), RequestExecutor.getInstance(exchange.getExchangeSpecification()));
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param marketDataService The service to call
+   * @param requestExecutor The executor to run the calls on
+   */
+  public AsyncPollingMarketDataService(PollingMarketDataService marketDataService, RequestExecutor requestExecutor) {
+
+    Assert.notNull(marketDataService, "marketDataService cannot be null");
+    Assert.notNull(requestExecutor, "requestExecutor cannot be null");
+
+    this.marketDataService = marketDataService;
+    this.requestExecutor = requestExecutor;
+  }
+
+  /**
+   * @see PollingMarketDataService#getTicker(CurrencyPair, Object...)
+   */
+  public Future<Ticker> getTicker(final CurrencyPair currencyPair, final Object... args) {
+
+    return requestExecutor.submit(new Callable<Ticker>() {
+
+      @Override
+      public Ticker call() throws Exception {
+
+        return marketDataService.getTicker(currencyPair, args);
+      }
+    });
+  }
+
+  /**
+   * @see PollingMarketDataService#getOrderBook(CurrencyPair, Object...)
+   */
+  public Future<OrderBook> getOrderBook(final CurrencyPair currencyPair, final Object... args) {
+
+    return requestExecutor.submit(new Callable<OrderBook>() {
+
+      @Override
+      public OrderBook call() throws Exception {
+
+        return marketDataService.getOrderBook(currencyPair, args);
+      }
+    });
+  }
+
+  /**
+   * @see PollingMarketDataService#getTrades(CurrencyPair, Object...)
+   */
+  public Future<Trades> getTrades(final CurrencyPair currencyPair, final Object... args) {
+
+    return requestExecutor.submit(new Callable<Trades>() {
+
+      @Override
+      public Trades call() throws Exception {
+
+        return marketDataService.getTrades(currencyPair, args);
+      }
+    });
+  }
+
+  public PollingMarketDataService getMarketDataService() {
+
+    return marketDataService;
+  }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.NotAvailableFromExchangeException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+
+/**
+ * <p>
+ * Fetches market data of many currency pairs from any exchange
+ * </p>
+ * <ul>
+ * <li>One round trip if the market data service is a {@link BulkPollingMarketDataService} with a batch endpoint for the data</li>
+ * <li>Otherwise one call per pair, made in parallel on the given executor, or one after the other if the executor is null</li>
+ * </ul>
+ */
+public final class BulkMarketData {
+
+  /**
+   * private Constructor
+   */
+  private BulkMarketData() {
+
+  }
+
+  /**
+   * @param marketDataService
+   * @param currencyPairs
+   * @param executorService runs the single-pair calls if the service has no batch endpoint, may be null
+   * @param args Optional arguments. Exchange-specific
+   * @return The tickers by currency pair, in the order requested
+   * @throws IOException
+   */
+  public static Map<CurrencyPair, Ticker> getTickers(PollingMarketDataService marketDataService, Collection<CurrencyPair> currencyPairs,
+      ExecutorService executorService, Object... args) throws IOException {
+
+    if (marketDataService instanceof BulkPollingMarketDataService) {
+      try {
+        return ((BulkPollingMarketDataService) marketDataService).getTickers(currencyPairs, args);
+      } catch (NotAvailableFromExchangeException e) {
+        // no batch ticker endpoint
+      }
+    }
+    return fetchEach(marketDataService, MarketDataType.TICKER, currencyPairs, executorService, args);
+  }
+
+  /**
+   * @param marketDataService
+   * @param currencyPairs
+   * @param executorService runs the single-pair calls if the service has no batch endpoint, may be null
+   * @param args Optional arguments. Exchange-specific
+   * @return The order books by currency pair, in the order requested
+   * @throws IOException
+   */
+  public static Map<CurrencyPair, OrderBook> getOrderBooks(PollingMarketDataService marketDataService, Collection<CurrencyPair> currencyPairs,
+      ExecutorService executorService, Object... args) throws IOException {
+
+    if (marketDataService instanceof BulkPollingMarketDataService) {
+      try {
+        return ((BulkPollingMarketDataService) marketDataService).getOrderBooks(currencyPairs, args);
+      } catch (NotAvailableFromExchangeException e) {
+        // no batch depth endpoint
+      }
+    }
+    return fetchEach(marketDataService, MarketDataType.ORDER_BOOK, currencyPairs, executorService, args);
+  }
+
+  /**
+   * Makes one single-pair call per currency pair, for exchanges without a batch endpoint
+   * 
+   * @param marketDataService
+   * @param marketDataType TICKER or ORDER_BOOK
+   * @param currencyPairs
+   * @param executorService runs the calls in parallel, may be null to make them one after the other
+   * @param args Optional arguments. Exchange-specific
+   * @return The results by currency pair, in the order requested
+   * @throws IOException
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Map<CurrencyPair, T> fetchEach(final PollingMarketDataService marketDataService, final MarketDataType marketDataType,
+      Collection<CurrencyPair> currencyPairs, ExecutorService executorService, final Object... args) throws IOException {
+
+    Map<CurrencyPair, T> results = new LinkedHashMap<CurrencyPair, T>();
+    if (executorService == null) {
+      for (CurrencyPair currencyPair : currencyPairs) {
+        results.put(currencyPair, (T) marketDataType.fetch(marketDataService, currencyPair, args));
+      }
+      return results;
+    }
+
+    Map<CurrencyPair, Future<Object>> futures = new LinkedHashMap<CurrencyPair, Future<Object>>();
+    for (final CurrencyPair currencyPair : currencyPairs) {
+      futures.put(currencyPair, executorService.submit(new Callable<Object>() {
+
+        @Override
+        public Object call() throws Exception {
+
+          return marketDataType.fetch(marketDataService, currencyPair, args);
+        }
+      }));
+    }
+    try {
+      for (Map.Entry<CurrencyPair, Future<Object>> future : futures.entrySet()) {
+        results.put(future.getKey(), (T) future.getValue().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExchangeException("Interrupted while fetching " + marketDataType, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ExchangeException("Fetching " + marketDataType + " failed", cause);
+    } finally {
+      for (Future<Object> future : futures.values()) {
+        future.cancel(true);
+      }
+    }
+    return results;
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.NotAvailableFromExchangeException;
+import com.xeiam.xchange.NotYetImplementedForExchangeException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+
+/**
+ * <p>
+ * Optional extension of {@link PollingMarketDataService} for exchanges with batch endpoints returning many currency pairs per request
+ * </p>
+ * <p>
+ * Use {@link BulkMarketData} to fetch many pairs from any exchange; it calls these methods when the service implements them, and falls back to
+ * single-pair calls otherwise. An exchange with a batch endpoint for only one kind of data throws {@link NotAvailableFromExchangeException} from the
+ * other method, so that the single-pair calls are made in parallel on the caller's executor.
+ * </p>
+ * <p>
+ * A pair missing from the exchange's response is reported with an {@link ExchangeException}.
+ * </p>
+ */
+public interface BulkPollingMarketDataService extends PollingMarketDataService {
+
+  /**
+   * <p>
+   * Get the tickers of many currency pairs, in as few requests as the exchange allows
+   * </p>
+   * 
+   * @param currencyPairs The currency pairs (e.g. BTC/USD, LTC/BTC)
+   * @param args Optional arguments. Exchange-specific, as for {@link #getTicker(CurrencyPair, Object...)}
+   * @return The tickers by currency pair, in the order requested
+   * @throws ExchangeException - Indication that the exchange reported some kind of error with the request or response
+   * @throws NotAvailableFromExchangeException - Indication that the exchange does not support the requested function or data
+   * @throws NotYetImplementedForExchangeException - Indication that the exchange supports the requested function or data, but it has not yet been implemented
+   * @throws IOException - Indication that a networking error occurred while fetching JSON data
+   */
+  Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws ExchangeException, NotAvailableFromExchangeException,
+      NotYetImplementedForExchangeException, IOException;
+
+  /**
+   * <p>
+   * Get the order books of many currency pairs, in as few requests as the exchange allows
+   * </p>
+   * 
+   * @param currencyPairs The currency pairs (e.g. BTC/USD, LTC/BTC)
+   * @param args Optional arguments. Exchange-specific, as for {@link #getOrderBook(CurrencyPair, Object...)}
+   * @return The order books by currency pair, in the order requested
+   * @throws ExchangeException - Indication that the exchange reported some kind of error with the request or response
+   * @throws NotAvailableFromExchangeException - Indication that the exchange does not support the requested function or data
+   * @throws NotYetImplementedForExchangeException - Indication that the exchange supports the requested function or data, but it has not yet been implemented
+   * @throws IOException - Indication that a networking error occurred while fetching JSON data
+   */
+  Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) throws ExchangeException, NotAvailableFromExchangeException,
+      NotYetImplementedForExchangeException, IOException;
+
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xeiam.xchange.CachedDataSession;
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Decorator around any {@link PollingMarketDataService} to provide the following:
+ * </p>
+ * <ul>
+ * <li>Caching of tickers, order books and trades per currency pair and arguments, with a time to live per {@link MarketDataType}</li>
+ * <li>Coalescing of concurrent misses: while a call is in flight, other threads asking for the same data wait for its result instead of making their own
+ * call</li>
+ * <li>A bound on the number of cached entries, evicting the least recently used</li>
+ * <li>Hit, miss and eviction counters</li>
+ * </ul>
+ * <p>
+ * Failed calls are not cached. Cached DTOs are shared between callers and must not be modified.
+ * </p>
+ */
+public class CachingPollingMarketDataService implements PollingMarketDataService, CachedDataSession {
+
+  private final PollingMarketDataService marketDataService;
+  private final Map<MarketDataType, Long> timeToLiveNanos = new EnumMap<MarketDataType, Long>(MarketDataType.class);
+
+  private final Map<CacheKey, CacheEntry> cache;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Constructor using the refresh rate of a {@link CachedDataSession} as the time to live of all market data types
+   * 
+   * @param marketDataService The service to decorate, must implement {@link CachedDataSession}
+   * @param maxEntries The maximum number of cached entries
+   */
+  public CachingPollingMarketDataService(PollingMarketDataService marketDataService, int maxEntries) {
+
+    this(marketDataService, refreshRateOf(marketDataService), maxEntries);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param marketDataService The service to decorate
+   * @param timeToLiveMillis The time to live of all market data types
+   * @param maxEntries The maximum number of cached entries
+   */
+  public CachingPollingMarketDataService(PollingMarketDataService marketDataService, long timeToLiveMillis, int maxEntries) {
+
+    this(marketDataService, timeToLiveMillis, timeToLiveMillis, timeToLiveMillis, maxEntries);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param marketDataService The service to decorate
+   * @param tickerTimeToLiveMillis The time to live of tickers, 0 to only coalesce concurrent calls
+   * @param orderBookTimeToLiveMillis The time to live of order books, 0 to only coalesce concurrent calls
+   * @param tradesTimeToLiveMillis The time to live of trades, 0 to only coalesce concurrent calls
+   * @param maxEntries The maximum number of cached entries
+   */
+  public CachingPollingMarketDataService(PollingMarketDataService marketDataService, long tickerTimeToLiveMillis, long orderBookTimeToLiveMillis, long tradesTimeToLiveMillis,
+      final int maxEntries) {
+
+    Assert.notNull(marketDataService, "marketDataService cannot be null");
+    Assert.isTrue(tickerTimeToLiveMillis >= 0 && orderBookTimeToLiveMillis >= 0 && tradesTimeToLiveMillis >= 0, "time to live cannot be negative");
+    Assert.isTrue(maxEntries > 0, "maxEntries must be positive");
+
+    this.marketDataService = marketDataService;
+    this.timeToLiveNanos.put(MarketDataType.TICKER, TimeUnit.MILLISECONDS.toNanos(tickerTimeToLiveMillis));
+    this.timeToLiveNanos.put(MarketDataType.ORDER_BOOK, TimeUnit.MILLISECONDS.toNanos(orderBookTimeToLiveMillis));
+    this.timeToLiveNanos.put(MarketDataType.TRADES, TimeUnit.MILLISECONDS.toNanos(tradesTimeToLiveMillis));
+    this.cache = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+
+        if (size() > maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  private static long refreshRateOf(PollingMarketDataService marketDataService) {
+
+    Assert.isTrue(marketDataService instanceof CachedDataSession, "marketDataService must implement CachedDataSession to derive a time to live");
+    return ((CachedDataSession) marketDataService).getRefreshRate();
+  }
+
+  @Override
+  public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    return (Ticker) get(MarketDataType.TICKER, currencyPair, args);
+  }
+
+  @Override
+  public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    return (OrderBook) get(MarketDataType.ORDER_BOOK, currencyPair, args);
+  }
+
+  @Override
+  public Trades getTrades(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    return (Trades) get(MarketDataType.TRADES, currencyPair, args);
+  }
+
+  @Override
+  public Collection<CurrencyPair> getExchangeSymbols() throws IOException {
+
+    return marketDataService.getExchangeSymbols();
+  }
+
+  /**
+   * @return The shortest time to live in milliseconds
+   */
+  @Override
+  public long getRefreshRate() {
+
+    long min = Long.MAX_VALUE;
+    for (Long nanos : timeToLiveNanos.values()) {
+      min = Math.min(min, nanos);
+    }
+    return TimeUnit.NANOSECONDS.toMillis(min);
+  }
+
+  /**
+   * @return The decorated service
+   */
+  public PollingMarketDataService getMarketDataService() {
+
+    return marketDataService;
+  }
+
+  /**
+   * @return The number of calls answered from the cache or by joining a call already in flight
+   */
+  public long getHitCount() {
+
+    return hits.get();
+  }
+
+  /**
+   * @return The number of calls passed on to the decorated service
+   */
+  public long getMissCount() {
+
+    return misses.get();
+  }
+
+  /**
+   * @return The number of entries removed to respect the size bound
+   */
+  public long getEvictionCount() {
+
+    return evictions.get();
+  }
+
+  /**
+   * @return The number of cached entries, including calls in flight
+   */
+  public int size() {
+
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Discard all cached entries; calls in flight complete normally
+   */
+  public void invalidateAll() {
+
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  private Object get(final MarketDataType marketDataType, final CurrencyPair currencyPair, final Object... args) throws IOException {
+
+    CacheKey key = new CacheKey(marketDataType, currencyPair, args);
+    CacheEntry entry;
+    boolean owner = false;
+    synchronized (cache) {
+      entry = cache.get(key);
+      if (entry == null || entry.isExpired(System.nanoTime())) {
+        entry = new CacheEntry(new Callable<Object>() {
+
+          @Override
+          public Object call() throws IOException {
+
+            return marketDataType.fetch(marketDataService, currencyPair, args);
+          }
+        }, timeToLiveNanos.get(marketDataType));
+        cache.put(key, entry);
+        owner = true;
+      }
+    }
+
+    if (owner) {
+      misses.incrementAndGet();
+      entry.run();
+    }
+    else {
+      hits.incrementAndGet();
+    }
+
+    try {
+      return entry.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExchangeException("Interrupted while waiting for " + marketDataType + " " + currencyPair, e);
+    } catch (ExecutionException e) {
+      if (owner) {
+        synchronized (cache) {
+          if (cache.get(key) == entry) {
+            cache.remove(key);
+          }
+        }
+      }
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExchangeException("Failed to get " + marketDataType + " " + currencyPair, cause);
+    }
+  }
+
+  private static final class CacheKey {
+
+    private final MarketDataType marketDataType;
+    private final CurrencyPair currencyPair;
+    private final Object[] args;
+
+    private CacheKey(MarketDataType marketDataType, CurrencyPair currencyPair, Object[] args) {
+
+      this.marketDataType = marketDataType;
+      this.currencyPair = currencyPair;
+      this.args = args == null ? new Object[0] : args;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return marketDataType == other.marketDataType && (currencyPair == null ? other.currencyPair == null : currencyPair.equals(other.currencyPair))
+          && Arrays.deepEquals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+
+      int result = marketDataType.hashCode();
+      result = 31 * result + (currencyPair == null ? 0 : currencyPair.hashCode());
+      result = 31 * result + Arrays.deepHashCode(args);
+      return result;
+    }
+  }
+
+  /**
+   * A call that is in flight or done; the time to live starts when it completes
+   */
+  private static final class CacheEntry extends FutureTask<Object> {
+
+    private final long timeToLiveNanos;
+    private long expiresAtNanos;
+    private volatile boolean completed;
+
+    private CacheEntry(Callable<Object> callable, long timeToLiveNanos) {
+
+      super(callable);
+      this.timeToLiveNanos = timeToLiveNanos;
+    }
+
+    @Override
+    protected void done() {
+
+      expiresAtNanos = System.nanoTime() + timeToLiveNanos;
+      completed = true;
+    }
+
+    private boolean isExpired(long nowNanos) {
+
+      return completed && nowNanos - expiresAtNanos >= 0;
+    }
+  }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Trade tape of one currency pair of one exchange, fetched incrementally
+ * </p>
+ * <ul>
+ * <li>Passes the exchange's resume cursor (see {@link TradeCursor}) to getTrades, so each poll downloads only trades newer than the last one seen</li>
+ * <li>Drops trades already returned by an earlier poll, as cursors are often inclusive or coarse (e.g. whole seconds)</li>
+ * </ul>
+ * <p>
+ * Polls are serialized; a feed can be resumed across restarts by saving {@link #getPosition()} and restoring it with {@link #setPosition(Object)}.
+ * </p>
+ */
+public class IncrementalTradeFeed {
+
+  private static final int DEFAULT_DEDUPLICATION_WINDOW = 1000;
+
+  private final PollingMarketDataService marketDataService;
+  private final CurrencyPair currencyPair;
+  private final TradeCursor tradeCursor;
+
+  private final Map<String, Boolean> recentTrades;
+  private Object position;
+
+  /**
+   * Constructor
+   * 
+   * @param marketDataService The exchange's market data service
+   * @param currencyPair The currency pair to follow
+   * @param tradeCursor How the exchange resumes its trade tape
+   */
+  public IncrementalTradeFeed(PollingMarketDataService marketDataService, CurrencyPair currencyPair, TradeCursor tradeCursor) {
+
+    this(marketDataService, currencyPair, tradeCursor, DEFAULT_DEDUPLICATION_WINDOW);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param marketDataService The exchange's market data service
+   * @param currencyPair The currency pair to follow
+   * @param tradeCursor How the exchange resumes its trade tape
+   * @param deduplicationWindow The number of most recent trades remembered to drop duplicates, at least the number of trades one poll returns
+   */
+  public IncrementalTradeFeed(PollingMarketDataService marketDataService, CurrencyPair currencyPair, TradeCursor tradeCursor, final int deduplicationWindow) {
+
+    Assert.notNull(marketDataService, "marketDataService cannot be null");
+    Assert.notNull(currencyPair, "currencyPair cannot be null");
+    Assert.notNull(tradeCursor, "tradeCursor cannot be null");
+    Assert.isTrue(deduplicationWindow > 0, "deduplicationWindow must be positive");
+
+    this.marketDataService = marketDataService;
+    this.currencyPair = currencyPair;
+    this.tradeCursor = tradeCursor;
+    this.recentTrades = new LinkedHashMap<String, Boolean>() {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+
+        return size() > deduplicationWindow;
+      }
+    };
+  }
+
+  /**
+   * Fetches the trades that happened since the previous poll
+   * 
+   * @return The new trades, in the order and with the lastID the exchange returned them with
+   * @throws IOException
+   */
+  public synchronized Trades poll() throws IOException {
+
+    Trades trades = marketDataService.getTrades(currencyPair, tradeCursor.toArgs(position));
+
+    List<Trade> newTrades = new ArrayList<Trade>();
+    for (Trade trade : trades.getTrades()) {
+      if (recentTrades.put(keyOf(trade), Boolean.TRUE) == null) {
+        newTrades.add(trade);
+      }
+    }
+
+    Object newPosition = tradeCursor.advance(position, trades);
+    if (newPosition != null) {
+      position = newPosition;
+    }
+
+    return new Trades(newTrades, trades.getlastID(), trades.getTradeSortType());
+  }
+
+  /**
+   * @return The cursor position the next poll will resume from, null if it will fetch the whole recent tape
+   */
+  public synchronized Object getPosition() {
+
+    return position;
+  }
+
+  /**
+   * @param position A cursor position saved from {@link #getPosition()}, or null to fetch the whole recent tape
+   */
+  public synchronized void setPosition(Object position) {
+
+    this.position = position;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  public TradeCursor getTradeCursor() {
+
+    return tradeCursor;
+  }
+
+  private static String keyOf(Trade trade) {
+
+    if (trade.getId() != null) {
+      return trade.getId();
+    }
+    return trade.getTimestamp() + "/" + trade.getType() + "/" + trade.getPrice() + "/" + trade.getTradableAmount();
+  }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Streams the trade tapes of many (exchange, currency pair) subscriptions
+ * </p>
+ * <ul>
+ * <li>Polls an {@link IncrementalTradeFeed} per subscription at a fixed delay, so only new trades are downloaded</li>
+ * <li>Delivers each non-empty batch of new trades to a {@link MarketDataListener} as {@link MarketDataType#TRADES} market data</li>
+ * </ul>
+ */
+public class IncrementalTradePoller {
+
+  private final Logger log = LoggerFactory.getLogger(IncrementalTradePoller.class);
+
+  private final ScheduledExecutorService scheduler;
+  private final boolean ownsScheduler;
+
+  private final ConcurrentMap<MarketDataSubscription, ScheduledFuture<?>> polls = new ConcurrentHashMap<MarketDataSubscription, ScheduledFuture<?>>();
+
+  /**
+   * Constructor creating a scheduler, released by {@link #shutdown()}
+   * 
+   * @param threads the number of polling threads
+   */
+  public IncrementalTradePoller(int threads) {
+
+    this(Executors.newScheduledThreadPool(threads), true);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param scheduler the scheduler to poll on. It is not shut down by {@link #shutdown()}.
+   */
+  public IncrementalTradePoller(ScheduledExecutorService scheduler) {
+
+    this(scheduler, false);
+  }
+
+  private IncrementalTradePoller(ScheduledExecutorService scheduler, boolean ownsScheduler) {
+
+    Assert.notNull(scheduler, "scheduler cannot be null");
+
+    this.scheduler = scheduler;
+    this.ownsScheduler = ownsScheduler;
+  }
+
+  /**
+   * Starts following the trade tape of a currency pair, replacing any earlier subscription to it
+   * 
+   * @param exchange
+   * @param currencyPair
+   * @param tradeCursor How the exchange resumes its trade tape
+   * @param delay the delay between the end of a poll and the start of the next
+   * @param unit the unit of the delay
+   * @param listener notified of every batch of new trades and of every failed poll
+   * @return the feed, e.g. to save its cursor position
+   */
+  public IncrementalTradeFeed subscribe(Exchange exchange, CurrencyPair currencyPair, TradeCursor tradeCursor, long delay, TimeUnit unit, MarketDataListener listener) {
+
+    Assert.notNull(listener, "listener cannot be null");
+
+    MarketDataSubscription subscription = new MarketDataSubscription(exchange, currencyPair, MarketDataType.TRADES);
+    IncrementalTradeFeed feed = new IncrementalTradeFeed(exchange.getPollingMarketDataService(), currencyPair, tradeCursor);
+    ScheduledFuture<?> poll = scheduler.scheduleWithFixedDelay(new PollTask(subscription, feed, listener), 0, delay, unit);
+
+    ScheduledFuture<?> replaced = polls.put(subscription, poll);
+    if (replaced != null) {
+      replaced.cancel(false);
+    }
+    return feed;
+  }
+
+  /**
+   * Stops following the trade tape of a currency pair
+   * 
+   * @param exchange
+   * @param currencyPair
+   */
+  public void unsubscribe(Exchange exchange, CurrencyPair currencyPair) {
+
+    ScheduledFuture<?> poll = polls.remove(new MarketDataSubscription(exchange, currencyPair, MarketDataType.TRADES));
+    if (poll != null) {
+      poll.cancel(false);
+    }
+  }
+
+  /**
+   * Stops all subscriptions, and shuts down the scheduler if it was created by this poller
+   */
+  public void shutdown() {
+
+    for (ScheduledFuture<?> poll : polls.values()) {
+      poll.cancel(false);
+    }
+    polls.clear();
+    if (ownsScheduler) {
+      scheduler.shutdown();
+    }
+  }
+
+  private final class PollTask implements Runnable {
+
+    private final MarketDataSubscription subscription;
+    private final IncrementalTradeFeed feed;
+    private final MarketDataListener listener;
+
+    PollTask(MarketDataSubscription subscription, IncrementalTradeFeed feed, MarketDataListener listener) {
+
+      this.subscription = subscription;
+      this.feed = feed;
+      this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+
+      try {
+        Trades trades;
+        try {
+          trades = feed.poll();
+        } catch (Exception e) {
+          log.debug("Polling {} failed", subscription, e);
+          listener.onError(subscription, e);
+          return;
+        }
+        if (!trades.getTrades().isEmpty()) {
+          listener.onMarketData(subscription, trades);
+        }
+      } catch (RuntimeException e) {
+        // a failing listener must not cancel the periodic poll
+        log.error("MarketDataListener failed for {}", subscription, e);
+      }
+    }
+  }
+
+}
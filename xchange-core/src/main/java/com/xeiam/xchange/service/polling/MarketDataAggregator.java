@@ -0,0 +1,316 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Polls market data from many exchanges concurrently
+ * </p>
+ * <ul>
+ * <li>Fans {@link MarketDataSubscription}s out over a bounded {@link ExecutorService}</li>
+ * <li>Limits the number of in-flight calls per {@link Exchange}; excess calls queue without occupying a worker thread</li>
+ * <li>Delivers results through {@link Future}s and/or a {@link MarketDataListener}</li>
+ * </ul>
+ * <p>
+ * Calls go through each exchange's own {@link Exchange#getPollingMarketDataService()}, so every module works unchanged.
+ * </p>
+ */
+public class MarketDataAggregator {
+
+  private final Logger log = LoggerFactory.getLogger(MarketDataAggregator.class);
+
+  private final ExecutorService executorService;
+  private final boolean ownsExecutorService;
+  private final int defaultMaxConcurrentCalls;
+
+  private final Set<MarketDataSubscription> subscriptions = new CopyOnWriteArraySet<MarketDataSubscription>();
+  private final Map<Exchange, ExchangeLane> lanes = new IdentityHashMap<Exchange, ExchangeLane>();
+
+  /**
+   * Constructor creating a fixed size worker pool, released by {@link #shutdown()}
+   * 
+   * @param threads the number of worker threads
+   * @param maxConcurrentCallsPerExchange the default number of calls allowed in flight per exchange
+   */
+  public MarketDataAggregator(int threads, int maxConcurrentCallsPerExchange) {
+
+    this(Executors.newFixedThreadPool(threads), maxConcurrentCallsPerExchange, true);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param executorService the executor to run the calls on. It is not shut down by {@link #shutdown()}.
+   * @param maxConcurrentCallsPerExchange the default number of calls allowed in flight per exchange
+   */
+  public MarketDataAggregator(ExecutorService executorService, int maxConcurrentCallsPerExchange) {
+
+    this(executorService, maxConcurrentCallsPerExchange, false);
+  }
+
+  private MarketDataAggregator(ExecutorService executorService, int maxConcurrentCallsPerExchange, boolean ownsExecutorService) {
+
+    Assert.notNull(executorService, "executorService cannot be null");
+    Assert.isTrue(maxConcurrentCallsPerExchange > 0, "maxConcurrentCallsPerExchange must be positive");
+
+    this.executorService = executorService;
+    this.defaultMaxConcurrentCalls = maxConcurrentCallsPerExchange;
+    this.ownsExecutorService = ownsExecutorService;
+  }
+
+  /**
+   * Overrides the default concurrency limit for one exchange
+   * 
+   * @param exchange
+   * @param maxConcurrentCalls the number of calls allowed in flight for this exchange
+   */
+  public void setMaxConcurrentCalls(Exchange exchange, int maxConcurrentCalls) {
+
+    Assert.isTrue(maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+    getLane(exchange).setMaxConcurrentCalls(maxConcurrentCalls);
+  }
+
+  public void subscribe(Exchange exchange, CurrencyPair currencyPair, MarketDataType marketDataType) {
+
+    subscribe(new MarketDataSubscription(exchange, currencyPair, marketDataType));
+  }
+
+  public void subscribe(MarketDataSubscription subscription) {
+
+    subscriptions.add(subscription);
+  }
+
+  public void unsubscribe(MarketDataSubscription subscription) {
+
+    subscriptions.remove(subscription);
+  }
+
+  /**
+   * @return a read-only view of the current subscriptions
+   */
+  public Set<MarketDataSubscription> getSubscriptions() {
+
+    return Collections.unmodifiableSet(subscriptions);
+  }
+
+  /**
+   * Polls every subscription once
+   * 
+   * @param listener notified as each result arrives, may be null
+   * @return a future per subscription, in subscription order
+   */
+  public Map<MarketDataSubscription, Future<Object>> pollAll(MarketDataListener listener) {
+
+    Map<MarketDataSubscription, Future<Object>> futures = new LinkedHashMap<MarketDataSubscription, Future<Object>>();
+    for (MarketDataSubscription subscription : subscriptions) {
+      futures.put(subscription, submit(subscription, listener));
+    }
+    return futures;
+  }
+
+  /**
+   * Schedules a single call
+   * 
+   * @param subscription what to fetch
+   * @param listener notified when the result arrives, may be null
+   * @return a future holding the Ticker, OrderBook or Trades; it fails with a {@link RejectedExecutionException} if the executor no longer accepts
+   *         calls
+   */
+  public Future<Object> submit(MarketDataSubscription subscription, MarketDataListener listener) {
+
+    ExchangeLane lane = getLane(subscription.getExchange());
+    MarketDataTask task = new MarketDataTask(subscription, listener, lane);
+    lane.execute(task);
+    return task;
+  }
+
+  /**
+   * Shuts down the worker pool if it was created by this aggregator
+   */
+  public void shutdown() {
+
+    if (ownsExecutorService) {
+      executorService.shutdown();
+    }
+  }
+
+  private ExchangeLane getLane(Exchange exchange) {
+
+    synchronized (lanes) {
+      ExchangeLane lane = lanes.get(exchange);
+      if (lane == null) {
+        lane = new ExchangeLane(defaultMaxConcurrentCalls);
+        lanes.put(exchange, lane);
+      }
+      return lane;
+    }
+  }
+
+  /**
+   * Per-exchange admission control: at most maxConcurrentCalls tasks are handed to the executor, the rest wait in a queue
+   */
+  private final class ExchangeLane {
+
+    private final Queue<MarketDataTask> pending = new LinkedList<MarketDataTask>();
+    private int maxConcurrentCalls;
+    private int running;
+
+    ExchangeLane(int maxConcurrentCalls) {
+
+      this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    synchronized void setMaxConcurrentCalls(int maxConcurrentCalls) {
+
+      this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    void execute(MarketDataTask task) {
+
+      synchronized (this) {
+        if (running >= maxConcurrentCalls) {
+          pending.add(task);
+          return;
+        }
+        running++;
+      }
+      dispatch(task);
+    }
+
+    void release() {
+
+      MarketDataTask next;
+      synchronized (this) {
+        next = running <= maxConcurrentCalls ? pending.poll() : null;
+        if (next == null) {
+          running--;
+        }
+      }
+      if (next != null) {
+        dispatch(next);
+      }
+    }
+
+    /**
+     * Hands a task to the executor. Once the executor is shut down, the task and the queued ones are failed rather than left for ever incomplete.
+     */
+    private void dispatch(MarketDataTask task) {
+
+      try {
+        executorService.execute(task);
+      } catch (RejectedExecutionException e) {
+        Queue<MarketDataTask> rejected;
+        synchronized (this) {
+          running--;
+          rejected = new LinkedList<MarketDataTask>(pending);
+          pending.clear();
+        }
+        task.reject(e);
+        for (MarketDataTask queued : rejected) {
+          queued.reject(e);
+        }
+      }
+    }
+  }
+
+  private final class MarketDataTask extends FutureTask<Object> {
+
+    private final MarketDataSubscription subscription;
+    private final MarketDataListener listener;
+    private final ExchangeLane lane;
+
+    MarketDataTask(final MarketDataSubscription subscription, MarketDataListener listener, ExchangeLane lane) {
+
+      super(new Callable<Object>() {
+
+        @Override
+        public Object call() throws Exception {
+
+          PollingMarketDataService marketDataService = subscription.getExchange().getPollingMarketDataService();
+          return subscription.getMarketDataType().fetch(marketDataService, subscription.getCurrencyPair());
+        }
+      });
+      this.subscription = subscription;
+      this.listener = listener;
+      this.lane = lane;
+    }
+
+    void reject(RejectedExecutionException e) {
+
+      setException(e);
+    }
+
+    @Override
+    public void run() {
+
+      try {
+        super.run();
+      } finally {
+        lane.release();
+      }
+    }
+
+    @Override
+    protected void done() {
+
+      if (listener == null || isCancelled()) {
+        return;
+      }
+      try {
+        listener.onMarketData(subscription, get());
+      } catch (ExecutionException e) {
+        log.debug("Polling {} failed", subscription, e.getCause());
+        listener.onError(subscription, e.getCause());
+      } catch (CancellationException e) {
+        // cancelled concurrently, nothing to deliver
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        log.error("MarketDataListener failed for {}", subscription, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+/**
+ * <p>
+ * Callback interface for {@link MarketDataAggregator} results
+ * </p>
+ * <p>
+ * Methods are invoked on the aggregator's worker threads, so implementations must be thread safe and should return quickly.
+ * </p>
+ */
+public interface MarketDataListener {
+
+  /**
+   * @param subscription the subscription that was polled
+   * @param marketData the Ticker, OrderBook or Trades returned by the exchange, depending on {@link MarketDataSubscription#getMarketDataType()}
+   */
+  void onMarketData(MarketDataSubscription subscription, Object marketData);
+
+  /**
+   * @param subscription the subscription that was polled
+   * @param cause the exception thrown by the market data service
+   */
+  void onError(MarketDataSubscription subscription, Throwable cause);
+}
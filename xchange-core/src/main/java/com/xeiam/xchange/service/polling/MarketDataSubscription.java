@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * Immutable (Exchange, CurrencyPair, MarketDataType) tuple identifying one call made by a {@link MarketDataAggregator}
+ */
+public final class MarketDataSubscription {
+
+  private final Exchange exchange;
+  private final CurrencyPair currencyPair;
+  private final MarketDataType marketDataType;
+
+  /**
+   * Constructor
+   * 
+   * @param exchange the exchange whose polling market data service is called
+   * @param currencyPair
+   * @param marketDataType
+   */
+  public MarketDataSubscription(Exchange exchange, CurrencyPair currencyPair, MarketDataType marketDataType) {
+
+    Assert.notNull(exchange, "exchange cannot be null");
+    Assert.notNull(currencyPair, "currencyPair cannot be null");
+    Assert.notNull(marketDataType, "marketDataType cannot be null");
+
+    this.exchange = exchange;
+    this.currencyPair = currencyPair;
+    this.marketDataType = marketDataType;
+  }
+
+  public Exchange getExchange() {
+
+    return exchange;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  public MarketDataType getMarketDataType() {
+
+    return marketDataType;
+  }
+
+  @Override
+  public int hashCode() {
+
+    int hash = 7;
+    hash = 31 * hash + System.identityHashCode(exchange);
+    hash = 31 * hash + currencyPair.hashCode();
+    hash = 31 * hash + marketDataType.hashCode();
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    MarketDataSubscription other = (MarketDataSubscription) obj;
+    return exchange == other.exchange && currencyPair.equals(other.currencyPair) && marketDataType == other.marketDataType;
+  }
+
+  @Override
+  public String toString() {
+
+    return "MarketDataSubscription [exchange=" + exchange.getExchangeSpecification().getExchangeName() + ", currencyPair=" + currencyPair + ", marketDataType=" + marketDataType + "]";
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.IOException;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+
+/**
+ * <p>
+ * Enum to provide the following to {@link MarketDataAggregator} and {@link CachingPollingMarketDataService}:
+ * </p>
+ * <ul>
+ * <li>Selection of the {@link PollingMarketDataService} call to make for a subscription</li>
+ * </ul>
+ */
+public enum MarketDataType {
+
+  /**
+   * {@link PollingMarketDataService#getTicker(CurrencyPair, Object...)}
+   */
+  TICKER {
+
+    @Override
+    public Object fetch(PollingMarketDataService marketDataService, CurrencyPair currencyPair, Object... args) throws IOException {
+
+      return marketDataService.getTicker(currencyPair, args);
+    }
+  },
+
+  /**
+   * {@link PollingMarketDataService#getOrderBook(CurrencyPair, Object...)}
+   */
+  ORDER_BOOK {
+
+    @Override
+    public Object fetch(PollingMarketDataService marketDataService, CurrencyPair currencyPair, Object... args) throws IOException {
+
+      return marketDataService.getOrderBook(currencyPair, args);
+    }
+  },
+
+  /**
+   * {@link PollingMarketDataService#getTrades(CurrencyPair, Object...)}
+   */
+  TRADES {
+
+    @Override
+    public Object fetch(PollingMarketDataService marketDataService, CurrencyPair currencyPair, Object... args) throws IOException {
+
+      return marketDataService.getTrades(currencyPair, args);
+    }
+  };
+
+  /**
+   * Makes the blocking call for this type of market data
+   * 
+   * @param marketDataService
+   * @param currencyPair
+   * @param args exchange specific arguments passed through to the service
+   * @return the Ticker, OrderBook or Trades
+   */
+  public abstract Object fetch(PollingMarketDataService marketDataService, CurrencyPair currencyPair, Object... args) throws IOException;
+}
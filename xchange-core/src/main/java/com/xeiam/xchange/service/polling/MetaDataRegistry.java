@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.meta.CurrencyPairMetaData;
+import com.xeiam.xchange.dto.meta.ExchangeMetaData;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Holds the {@link ExchangeMetaData} of an exchange, shared by all its services
+ * </p>
+ * <ul>
+ * <li>Loaded once through a {@link MetaDataLoader}, on first use</li>
+ * <li>Optionally snapshotted to {@link ExchangeSpecification#getMetaDataFile()}; a process finding a snapshot starts from it without a blocking
+ * round trip, and reloads the metadata in the background</li>
+ * <li>Optionally reloaded in the background every {@link ExchangeSpecification#getMetaDataRefreshInterval()} milliseconds</li>
+ * </ul>
+ * <p>
+ * Registries are shared by the services of one exchange instance through {@link #getInstance(ExchangeSpecification, MetaDataLoader)}. They are keyed
+ * by the identity of the {@link ExchangeSpecification} the services were created from rather than by exchange class, since the loader calls the
+ * exchange with that specification's proxy settings and credentials. A registry, and its background refresh, goes away with the services holding it.
+ * </p>
+ */
+public class MetaDataRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(MetaDataRegistry.class);
+
+  /** ExchangeSpecification doesn't override equals, so this is keyed by identity; the values are weak so they don't hold on to their keys */
+  private static final Map<ExchangeSpecification, WeakReference<MetaDataRegistry>> REGISTRIES = new WeakHashMap<ExchangeSpecification, WeakReference<MetaDataRegistry>>();
+
+  private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper();
+
+  private final MetaDataLoader loader;
+  private final File snapshotFile;
+
+  private final Object loadLock = new Object();
+  private volatile ExchangeMetaData metaData;
+
+  /**
+   * Constructor, reads the snapshot if there is one
+   * 
+   * @param loader Loads the metadata from the exchange
+   * @param snapshotFile The file to snapshot the metadata to, or null to keep it in memory only
+   */
+  public MetaDataRegistry(MetaDataLoader loader, File snapshotFile) {
+
+    Assert.notNull(loader, "loader cannot be null");
+
+    this.loader = loader;
+    this.snapshotFile = snapshotFile;
+    if (snapshotFile != null && snapshotFile.exists()) {
+      try {
+        this.metaData = readSnapshot(snapshotFile);
+      } catch (IOException e) {
+        log.warn("Ignoring unreadable metadata snapshot {}", snapshotFile, e);
+      }
+    }
+  }
+
+  /**
+   * Get the registry shared by all services created from the given specification, i.e. by all services of one exchange instance
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @param loader Loads the metadata from the exchange, used if the registry does not exist yet
+   * @return The shared registry
+   */
+  public static MetaDataRegistry getInstance(ExchangeSpecification exchangeSpecification, MetaDataLoader loader) {
+
+    MetaDataRegistry created;
+    synchronized (REGISTRIES) {
+      WeakReference<MetaDataRegistry> existing = REGISTRIES.get(exchangeSpecification);
+      MetaDataRegistry registry = existing == null ? null : existing.get();
+      if (registry != null) {
+        return registry;
+      }
+      String metaDataFile = exchangeSpecification.getMetaDataFile();
+      created = new MetaDataRegistry(loader, metaDataFile == null ? null : new File(metaDataFile));
+      REGISTRIES.put(exchangeSpecification, new WeakReference<MetaDataRegistry>(created));
+    }
+
+    if (created.metaData != null) {
+      // started from a snapshot, which may be stale
+      Refresher.EXECUTOR.execute(new RefreshTask(created));
+    }
+    long refreshInterval = exchangeSpecification.getMetaDataRefreshInterval();
+    if (refreshInterval > 0) {
+      RefreshTask refreshTask = new RefreshTask(created);
+      refreshTask.schedule = Refresher.EXECUTOR.scheduleWithFixedDelay(refreshTask, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+    return created;
+  }
+
+  /**
+   * @return The metadata, loaded from the exchange if neither an earlier load nor a snapshot is available
+   * @throws IOException
+   */
+  public ExchangeMetaData getMetaData() throws IOException {
+
+    ExchangeMetaData current = metaData;
+    if (current != null) {
+      return current;
+    }
+    synchronized (loadLock) {
+      if (metaData == null) {
+        refresh();
+      }
+      return metaData;
+    }
+  }
+
+  /**
+   * Loads the metadata from the exchange, and snapshots it if a snapshot file is configured
+   * 
+   * @return The fresh metadata
+   * @throws IOException
+   */
+  public ExchangeMetaData refresh() throws IOException {
+
+    ExchangeMetaData loaded = loader.load();
+    metaData = loaded;
+    if (snapshotFile != null) {
+      try {
+        writeSnapshot(loaded, snapshotFile);
+      } catch (IOException e) {
+        log.warn("Could not write metadata snapshot {}", snapshotFile, e);
+      }
+    }
+    return loaded;
+  }
+
+  static ExchangeMetaData readSnapshot(File file) throws IOException {
+
+    JsonNode root = SNAPSHOT_MAPPER.readTree(file);
+
+    Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>();
+    for (JsonNode pair : root.path("currencyPairs")) {
+      JsonNode priceScale = pair.path("priceScale");
+      JsonNode minimumAmount = pair.path("minimumAmount");
+      currencyPairs.put(new CurrencyPair(pair.path("base").textValue(), pair.path("counter").textValue()), new CurrencyPairMetaData(pair.path("nativeSymbol")
+          .textValue(), priceScale.isNumber() ? priceScale.intValue() : null, minimumAmount.isNumber() ? minimumAmount.decimalValue() : null));
+    }
+
+    Map<String, String> nativeCurrencies = new LinkedHashMap<String, String>();
+    Iterator<Map.Entry<String, JsonNode>> currencies = root.path("nativeCurrencies").fields();
+    while (currencies.hasNext()) {
+      Map.Entry<String, JsonNode> currency = currencies.next();
+      nativeCurrencies.put(currency.getKey(), currency.getValue().textValue());
+    }
+
+    return new ExchangeMetaData(currencyPairs, nativeCurrencies, root.path("timestamp").longValue());
+  }
+
+  static void writeSnapshot(ExchangeMetaData metaData, File file) throws IOException {
+
+    ObjectNode root = SNAPSHOT_MAPPER.createObjectNode();
+    root.put("timestamp", metaData.getTimestamp());
+    for (Map.Entry<CurrencyPair, CurrencyPairMetaData> entry : metaData.getCurrencyPairMetaData().entrySet()) {
+      ObjectNode pair = root.withArray("currencyPairs").addObject();
+      pair.put("base", entry.getKey().baseSymbol);
+      pair.put("counter", entry.getKey().counterSymbol);
+      pair.put("nativeSymbol", entry.getValue().getNativeSymbol());
+      pair.put("priceScale", entry.getValue().getPriceScale());
+      pair.put("minimumAmount", entry.getValue().getMinimumAmount());
+    }
+    ObjectNode nativeCurrencies = root.putObject("nativeCurrencies");
+    for (Map.Entry<String, String> entry : metaData.getNativeCurrencies().entrySet()) {
+      nativeCurrencies.put(entry.getKey(), entry.getValue());
+    }
+
+    // write aside and rename, so a crash never leaves a truncated snapshot
+    File tmp = new File(file.getPath() + ".tmp");
+    SNAPSHOT_MAPPER.writeValue(tmp, root);
+    if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+      throw new IOException("Could not replace " + file);
+    }
+  }
+
+  /**
+   * Holds its registry weakly, so that a scheduled refresh doesn't keep it alive once no service uses it
+   */
+  private static final class RefreshTask implements Runnable {
+
+    private final WeakReference<MetaDataRegistry> registry;
+    private volatile ScheduledFuture<?> schedule;
+
+    private RefreshTask(MetaDataRegistry registry) {
+
+      this.registry = new WeakReference<MetaDataRegistry>(registry);
+    }
+
+    @Override
+    public void run() {
+
+      MetaDataRegistry target = registry.get();
+      if (target == null) {
+        if (schedule != null) {
+          schedule.cancel(false);
+        }
+        return;
+      }
+      try {
+        target.refresh();
+      } catch (Exception e) {
+        log.warn("Background metadata refresh failed, keeping the previous metadata", e);
+      }
+    }
+  }
+
+  /**
+   * Lazily created daemon thread shared by all registries
+   */
+  private static final class Refresher {
+
+    static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, "xchange-metadata-refresh");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+
+/**
+ * <p>
+ * Lock-free source of strictly increasing nonces for signing requests. Each nonce is the current time in the exchange's nonce resolution, or the last
+ * nonce plus one if the clock has not moved on, claimed with a compare-and-set so concurrent callers never get the same value.
+ * </p>
+ * <p>
+ * Exchanges check nonces per API key, so the trade and account services of an exchange share one manager per key, obtained through
+ * {@link #getInstance(ExchangeSpecification, long, long)}. If the specification names a {@link ExchangeSpecification#getNonceFile() nonce file}, the
+ * manager reserves one second of nonces at a time and records the reservation in that file through a memory mapping, so a restarted process resumes
+ * above any nonce it may already have used. The mapping survives a process crash but not necessarily a power loss.
+ * </p>
+ */
+public class NonceManager {
+
+  private static final ConcurrentMap<String, NonceManager> MANAGERS = new ConcurrentHashMap<String, NonceManager>();
+
+  private final long epochMillis;
+  private final long ticksPerSecond;
+
+  private final AtomicLong lastNonce;
+
+  private final MappedByteBuffer store;
+  private volatile long reservedNonce;
+
+  /**
+   * Constructor, for nonces kept in memory only
+   * 
+   * @param epochMillis The time in milliseconds from the Java epoch at which nonces start from zero
+   * @param ticksPerSecond The nonce resolution, e.g. 1000 for millisecond nonces
+   */
+  public NonceManager(long epochMillis, long ticksPerSecond) {
+
+    this(epochMillis, ticksPerSecond, null);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param epochMillis The time in milliseconds from the Java epoch at which nonces start from zero
+   * @param ticksPerSecond The nonce resolution, e.g. 1000 for millisecond nonces
+   * @param storeFile The file to persist reserved nonces to, or null to keep nonces in memory only
+   */
+  public NonceManager(long epochMillis, long ticksPerSecond, File storeFile) {
+
+    if (ticksPerSecond <= 0) {
+      throw new IllegalArgumentException("ticksPerSecond must be positive");
+    }
+
+    this.epochMillis = epochMillis;
+    this.ticksPerSecond = ticksPerSecond;
+
+    long initial = currentTick() - 1;
+    if (storeFile == null) {
+      this.store = null;
+    }
+    else {
+      this.store = map(storeFile);
+      initial = Math.max(initial, store.getLong(0));
+    }
+    this.reservedNonce = initial;
+    this.lastNonce = new AtomicLong(initial);
+  }
+
+  /**
+   * Get the manager shared by all services signing with the API key of the specification
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @param epochMillis The time in milliseconds from the Java epoch at which the exchange's nonces start from zero
+   * @param ticksPerSecond The exchange's nonce resolution, e.g. 1000 for millisecond nonces
+   * @return The shared manager
+   */
+  public static NonceManager getInstance(ExchangeSpecification exchangeSpecification, long epochMillis, long ticksPerSecond) {
+
+    String key = exchangeSpecification.getExchangeClassName() + "/" + exchangeSpecification.getApiKey();
+    NonceManager manager = MANAGERS.get(key);
+    if (manager == null) {
+      String nonceFile = exchangeSpecification.getNonceFile();
+      NonceManager created = new NonceManager(epochMillis, ticksPerSecond, nonceFile == null ? null : new File(nonceFile));
+      manager = MANAGERS.putIfAbsent(key, created);
+      if (manager == null) {
+        manager = created;
+      }
+    }
+    return manager;
+  }
+
+  /**
+   * @return A nonce greater than any previously returned by this manager
+   */
+  public long next() {
+
+    while (true) {
+      long last = lastNonce.get();
+      long next = Math.max(last + 1, currentTick());
+      if (lastNonce.compareAndSet(last, next)) {
+        if (store != null && next > reservedNonce) {
+          reserve(next);
+        }
+        return next;
+      }
+    }
+  }
+
+  /**
+   * @return The last nonce returned by this manager
+   */
+  public long last() {
+
+    return lastNonce.get();
+  }
+
+  private long currentTick() {
+
+    return (System.currentTimeMillis() - epochMillis) * ticksPerSecond / 1000;
+  }
+
+  private synchronized void reserve(long nonce) {
+
+    if (nonce > reservedNonce) {
+      long reserved = nonce + ticksPerSecond;
+      store.putLong(0, reserved);
+      reservedNonce = reserved;
+    }
+  }
+
+  private static MappedByteBuffer map(File storeFile) {
+
+    try {
+      RandomAccessFile file = new RandomAccessFile(storeFile, "rw");
+      try {
+        return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 8);
+      } finally {
+        file.close();
+      }
+    } catch (IOException e) {
+      throw new ExchangeException("Could not map nonce file " + storeFile, e);
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling;
+
+import java.util.Date;
+
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+
+/**
+ * <p>
+ * How an exchange resumes its trade tape, i.e. what to pass as the single extra argument of
+ * {@link PollingMarketDataService#getTrades(com.xeiam.xchange.currency.CurrencyPair, Object...)} to get only trades newer than the ones already seen
+ * </p>
+ * <ul>
+ * <li>{@link #LAST_ID}: Kraken</li>
+ * <li>{@link #TRADE_ID}: BTCChina, ItBit, Justcoin</li>
+ * <li>{@link #TIMESTAMP}: Bitfinex</li>
+ * <li>{@link #NONE}: exchanges without a cursor, e.g. Bitstamp</li>
+ * </ul>
+ */
+public enum TradeCursor {
+
+  /**
+   * The Long returned by {@link Trades#getlastID()}, falling back to {@link #TRADE_ID} if the exchange does not set it
+   */
+  LAST_ID {
+
+    @Override
+    public Object advance(Object position, Trades trades) {
+
+      if (trades.getlastID() != 0) {
+        return trades.getlastID();
+      }
+      return TRADE_ID.advance(position, trades);
+    }
+  },
+
+  /**
+   * The highest numeric trade id seen, as a Long
+   */
+  TRADE_ID {
+
+    @Override
+    public Object advance(Object position, Trades trades) {
+
+      Long last = (Long) position;
+      for (Trade trade : trades.getTrades()) {
+        try {
+          long id = Long.parseLong(trade.getId());
+          if (last == null || id > last) {
+            last = id;
+          }
+        } catch (NumberFormatException e) {
+          // not a numeric id, cannot be used as a cursor
+        }
+      }
+      return last;
+    }
+  },
+
+  /**
+   * The latest trade timestamp seen, as a Date
+   */
+  TIMESTAMP {
+
+    @Override
+    public Object advance(Object position, Trades trades) {
+
+      Date last = (Date) position;
+      for (Trade trade : trades.getTrades()) {
+        if (trade.getTimestamp() != null && (last == null || trade.getTimestamp().after(last))) {
+          last = trade.getTimestamp();
+        }
+      }
+      return last;
+    }
+  },
+
+  /**
+   * No cursor, the whole recent tape is fetched on every poll
+   */
+  NONE {
+
+    @Override
+    public Object advance(Object position, Trades trades) {
+
+      return null;
+    }
+  };
+
+  /**
+   * @param position The cursor position, null before the first poll
+   * @return The arguments to pass to getTrades
+   */
+  public Object[] toArgs(Object position) {
+
+    return position == null ? new Object[0] : new Object[] { position };
+  }
+
+  /**
+   * Moves the cursor past a batch of fetched trades
+   * 
+   * @param position The cursor position the batch was fetched with, null on the first poll
+   * @param trades The fetched trades
+   * @return The new cursor position, null if the tape cannot be resumed
+   */
+  public abstract Object advance(Object position, Trades trades);
+
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.ratelimit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Immutable description of an exchange's call limit, enforced by a {@link RequestScheduler}:
+ * </p>
+ * <ul>
+ * <li>a token bucket refilled at <code>callsPerSecond</code> and holding at most <code>burst</code> tokens</li>
+ * <li>a weight per endpoint (the rescu interface method name), i.e. the number of tokens one call costs; 1 unless declared otherwise, 0 for calls that
+ * are not counted</li>
+ * <li>a {@link RequestPriority} per endpoint; {@link RequestPriority#MARKET_DATA} unless declared otherwise</li>
+ * </ul>
+ * <p>
+ * {@link #UNLIMITED} turns throttling off for an exchange that declares a default policy.
+ * </p>
+ */
+public final class RateLimitPolicy {
+
+  /** A policy that never throttles, no scheduler is created for it */
+  public static final RateLimitPolicy UNLIMITED = new RateLimitPolicy(Double.POSITIVE_INFINITY, Integer.MAX_VALUE, new HashMap<String, Integer>(),
+      new HashMap<String, RequestPriority>());
+
+  private final double callsPerSecond;
+  private final int burst;
+  private final Map<String, Integer> weights;
+  private final Map<String, RequestPriority> priorities;
+
+  private RateLimitPolicy(double callsPerSecond, int burst, Map<String, Integer> weights, Map<String, RequestPriority> priorities) {
+
+    this.callsPerSecond = callsPerSecond;
+    this.burst = burst;
+    this.weights = Collections.unmodifiableMap(weights);
+    this.priorities = Collections.unmodifiableMap(priorities);
+  }
+
+  /**
+   * @return The steady state number of tokens added to the bucket per second
+   */
+  public double getCallsPerSecond() {
+
+    return callsPerSecond;
+  }
+
+  /**
+   * @return The capacity of the bucket, i.e. how many calls may be made back to back after an idle period
+   */
+  public int getBurst() {
+
+    return burst;
+  }
+
+  /**
+   * @param endpoint The endpoint (rescu interface method) name
+   * @return The number of tokens a call to the endpoint costs
+   */
+  public int getWeight(String endpoint) {
+
+    Integer weight = weights.get(endpoint);
+    return weight == null ? 1 : weight;
+  }
+
+  /**
+   * @param endpoint The endpoint (rescu interface method) name
+   * @return The priority of a call to the endpoint
+   */
+  public RequestPriority getPriority(String endpoint) {
+
+    RequestPriority priority = priorities.get(endpoint);
+    return priority == null ? RequestPriority.MARKET_DATA : priority;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RateLimitPolicy that = (RateLimitPolicy) o;
+    return Double.compare(callsPerSecond, that.callsPerSecond) == 0 && burst == that.burst && weights.equals(that.weights) && priorities.equals(that.priorities);
+  }
+
+  @Override
+  public int hashCode() {
+
+    long bits = Double.doubleToLongBits(callsPerSecond);
+    int result = (int) (bits ^ (bits >>> 32));
+    result = 31 * result + burst;
+    result = 31 * result + weights.hashCode();
+    result = 31 * result + priorities.hashCode();
+    return result;
+  }
+
+  @Override
+  public String toString() {
+
+    return "RateLimitPolicy [callsPerSecond=" + callsPerSecond + ", burst=" + burst + ", weights=" + weights + ", priorities=" + priorities + "]";
+  }
+
+  public static class RateLimitPolicyBuilder {
+
+    private final double callsPerSecond;
+    private final int burst;
+    private final Map<String, Integer> weights = new HashMap<String, Integer>();
+    private final Map<String, RequestPriority> priorities = new HashMap<String, RequestPriority>();
+
+    private RateLimitPolicyBuilder(double callsPerSecond, int burst) {
+
+      Assert.isTrue(callsPerSecond > 0, "callsPerSecond must be positive");
+      Assert.isTrue(burst > 0, "burst must be positive");
+
+      this.callsPerSecond = callsPerSecond;
+      this.burst = burst;
+    }
+
+    /**
+     * @param callsPerSecond The steady state call rate
+     * @param burst The number of calls that may be made back to back after an idle period
+     * @return A new instance of the builder
+     */
+    public static RateLimitPolicyBuilder newInstance(double callsPerSecond, int burst) {
+
+      return new RateLimitPolicyBuilder(callsPerSecond, burst);
+    }
+
+    public RateLimitPolicyBuilder withWeight(String endpoint, int weight) {
+
+      Assert.notNull(endpoint, "endpoint cannot be null");
+      Assert.isTrue(weight >= 0 && weight <= burst, "weight must be between 0 and the burst size");
+      this.weights.put(endpoint, weight);
+      return this;
+    }
+
+    public RateLimitPolicyBuilder withPriority(String endpoint, RequestPriority priority) {
+
+      Assert.notNull(endpoint, "endpoint cannot be null");
+      Assert.notNull(priority, "priority cannot be null");
+      this.priorities.put(endpoint, priority);
+      return this;
+    }
+
+    public RateLimitPolicy build() {
+
+      return new RateLimitPolicy(callsPerSecond, burst, new HashMap<String, Integer>(weights), new HashMap<String, RequestPriority>(priorities));
+    }
+  }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.ratelimit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.ExchangeException;
+
+/**
+ * <p>
+ * Wraps a rescu proxy so that every call to it first acquires a permit from a {@link RequestScheduler}. The endpoint name passed to the scheduler is the
+ * name of the invoked interface method.
+ * </p>
+ */
+public final class RateLimitedProxy implements InvocationHandler {
+
+  private final Logger log = LoggerFactory.getLogger(RateLimitedProxy.class);
+
+  private final Object target;
+  private final RequestScheduler scheduler;
+
+  private RateLimitedProxy(Object target, RequestScheduler scheduler) {
+
+    this.target = target;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * @param type The rescu interface
+   * @param target The rescu proxy
+   * @param scheduler The scheduler to acquire permits from, may be null
+   * @return A rate limited view of the target, or the target itself if the scheduler is null
+   */
+  public static <T> T wrap(Class<T> type, T target, RequestScheduler scheduler) {
+
+    if (scheduler == null) {
+      return target;
+    }
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new RateLimitedProxy(target, scheduler)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+    if (method.getDeclaringClass() != Object.class) {
+      try {
+        long waited = scheduler.acquire(method.getName());
+        if (waited > 0 && log.isDebugEnabled()) {
+          log.debug("Waited " + TimeUnit.NANOSECONDS.toMillis(waited) + " ms for a permit to call " + method.getName());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ExchangeException("Interrupted while waiting for a permit to call " + method.getName(), e);
+      }
+    }
+
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.ratelimit;
+
+/**
+ * <p>
+ * Scheduling priority of a request waiting for a rate limit permit. Authenticated calls ({@link #TRADE} and {@link #ACCOUNT}) are served before
+ * market data polls, so order placement and cancellation are never stuck behind a backlog of polls.
+ * </p>
+ * <p>
+ * Authenticated calls carry a nonce that is generated before they wait for a permit, and exchanges such as Kraken and BTC-e reject a nonce lower than
+ * the last one they saw. Authenticated calls are therefore never reordered among themselves: they are released strictly in arrival order.
+ * </p>
+ */
+public enum RequestPriority {
+
+  /** Placing and cancelling orders */
+  TRADE,
+
+  /** Balances, open orders, trade history and other authenticated queries */
+  ACCOUNT,
+
+  /** Public ticker, depth and trade polls */
+  MARKET_DATA;
+
+  /**
+   * @return true for calls that carry a nonce, which must keep their arrival order
+   */
+  public boolean isAuthenticated() {
+
+    return this != MARKET_DATA;
+  }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.ratelimit;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Token bucket rate limiter with a priority queue in front of it. Callers block in {@link #acquire} until the bucket holds enough tokens for the call
+ * and no call served before it is waiting: authenticated calls are served before market data, and within each of the two classes in arrival order
+ * (see {@link RequestPriority}).
+ * </p>
+ * <p>
+ * Exchanges limit calls per API key rather than per service, so the market data, trade and account services of an exchange share one scheduler per
+ * key, obtained through {@link #getInstance(ExchangeSpecification)}.
+ * </p>
+ */
+public class RequestScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(RequestScheduler.class);
+
+  private static final ConcurrentMap<String, RequestScheduler> SCHEDULERS = new ConcurrentHashMap<String, RequestScheduler>();
+
+  private final RateLimitPolicy policy;
+
+  private final PriorityQueue<Ticket> queue = new PriorityQueue<Ticket>();
+  private long sequence;
+
+  private double tokens;
+  private long lastRefillNanos;
+
+  private final long[] counts = new long[RequestPriority.values().length];
+  private final long[] totalWaitNanos = new long[RequestPriority.values().length];
+  private final long[] maxWaitNanos = new long[RequestPriority.values().length];
+
+  /**
+   * Constructor, the bucket starts full
+   * 
+   * @param policy The rate limit policy to enforce
+   */
+  public RequestScheduler(RateLimitPolicy policy) {
+
+    Assert.notNull(policy, "policy cannot be null");
+
+    this.policy = policy;
+    this.tokens = policy.getBurst();
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /**
+   * Get the scheduler shared by all services calling with the API key of the specification. The first specification seen for a key sets the policy;
+   * a live scheduler is never replaced, as services built before would keep calling through it.
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @return The shared scheduler, or null if the specification declares no {@link RateLimitPolicy} or {@link RateLimitPolicy#UNLIMITED}
+   */
+  public static RequestScheduler getInstance(ExchangeSpecification exchangeSpecification) {
+
+    RateLimitPolicy policy = exchangeSpecification.getRateLimitPolicy();
+    if (policy == null || policy == RateLimitPolicy.UNLIMITED) {
+      return null;
+    }
+
+    String key = exchangeSpecification.getExchangeClassName() + "/" + exchangeSpecification.getApiKey();
+    RequestScheduler scheduler = SCHEDULERS.get(key);
+    if (scheduler == null) {
+      RequestScheduler created = new RequestScheduler(policy);
+      scheduler = SCHEDULERS.putIfAbsent(key, created);
+      if (scheduler == null) {
+        return created;
+      }
+    }
+    if (!scheduler.policy.equals(policy)) {
+      log.warn("Ignoring {} for {}, calls are already scheduled by {}", policy, exchangeSpecification.getExchangeClassName(), scheduler.policy);
+    }
+    return scheduler;
+  }
+
+  public RateLimitPolicy getPolicy() {
+
+    return policy;
+  }
+
+  /**
+   * Block until a call to the given endpoint may be made, using the weight and priority declared by the policy
+   * 
+   * @param endpoint The endpoint (rescu interface method) name
+   * @return The time waited in nanoseconds
+   * @throws InterruptedException if interrupted while waiting, in which case no tokens are consumed
+   */
+  public long acquire(String endpoint) throws InterruptedException {
+
+    return acquire(policy.getWeight(endpoint), policy.getPriority(endpoint));
+  }
+
+  /**
+   * Block until the bucket holds <code>weight</code> tokens and no call of higher priority is waiting, then consume the tokens
+   * 
+   * @param weight The number of tokens the call costs, at most the burst size of the policy
+   * @param priority The priority of the call
+   * @return The time waited in nanoseconds
+   * @throws InterruptedException if interrupted while waiting, in which case no tokens are consumed
+   */
+  public synchronized long acquire(int weight, RequestPriority priority) throws InterruptedException {
+
+    Assert.isTrue(weight >= 0 && weight <= policy.getBurst(), "weight must be between 0 and the burst size");
+    Assert.notNull(priority, "priority cannot be null");
+
+    long start = System.nanoTime();
+    // an uncounted authenticated call still queues, so that it cannot overtake an earlier nonce
+    if (weight > 0 || priority.isAuthenticated()) {
+      Ticket ticket = new Ticket(priority, sequence++);
+      queue.add(ticket);
+      try {
+        while (true) {
+          if (queue.peek() != ticket) {
+            wait();
+            continue;
+          }
+          refill();
+          if (tokens >= weight) {
+            break;
+          }
+          long refillNanos = (long) Math.ceil((weight - tokens) / policy.getCallsPerSecond() * 1e9);
+          TimeUnit.NANOSECONDS.timedWait(this, refillNanos);
+        }
+        tokens -= weight;
+      } finally {
+        queue.remove(ticket);
+        notifyAll();
+      }
+    }
+
+    long waited = System.nanoTime() - start;
+    int i = priority.ordinal();
+    counts[i]++;
+    totalWaitNanos[i] += waited;
+    if (waited > maxWaitNanos[i]) {
+      maxWaitNanos[i] = waited;
+    }
+    return waited;
+  }
+
+  /**
+   * @param priority The priority
+   * @return How long calls of the given priority have waited so far
+   */
+  public synchronized WaitStatistics getWaitStatistics(RequestPriority priority) {
+
+    int i = priority.ordinal();
+    return new WaitStatistics(priority, counts[i], totalWaitNanos[i], maxWaitNanos[i]);
+  }
+
+  /**
+   * @return The number of calls currently waiting for a permit
+   */
+  public synchronized int getQueueLength() {
+
+    return queue.size();
+  }
+
+  private void refill() {
+
+    long now = System.nanoTime();
+    tokens = Math.min(policy.getBurst(), tokens + (now - lastRefillNanos) / 1e9 * policy.getCallsPerSecond());
+    lastRefillNanos = now;
+  }
+
+  private static final class Ticket implements Comparable<Ticket> {
+
+    private final RequestPriority priority;
+    private final long sequence;
+
+    private Ticket(RequestPriority priority, long sequence) {
+
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(Ticket other) {
+
+      if (priority.isAuthenticated() != other.priority.isAuthenticated()) {
+        return priority.isAuthenticated() ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Immutable snapshot of how long calls of one {@link RequestPriority} waited for a rate limit permit, useful for tuning poll rates.
+ * </p>
+ */
+public final class WaitStatistics {
+
+  private final RequestPriority priority;
+  private final long count;
+  private final long totalWaitNanos;
+  private final long maxWaitNanos;
+
+  /**
+   * Constructor
+   * 
+   * @param priority The priority the statistics apply to
+   * @param count The number of permits granted
+   * @param totalWaitNanos The summed wait time of all granted permits
+   * @param maxWaitNanos The longest single wait
+   */
+  public WaitStatistics(RequestPriority priority, long count, long totalWaitNanos, long maxWaitNanos) {
+
+    this.priority = priority;
+    this.count = count;
+    this.totalWaitNanos = totalWaitNanos;
+    this.maxWaitNanos = maxWaitNanos;
+  }
+
+  public RequestPriority getPriority() {
+
+    return priority;
+  }
+
+  public long getCount() {
+
+    return count;
+  }
+
+  public long getTotalWaitMillis() {
+
+    return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos);
+  }
+
+  public long getMaxWaitMillis() {
+
+    return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+  }
+
+  public double getAverageWaitMillis() {
+
+    return count == 0 ? 0 : totalWaitNanos / 1e6 / count;
+  }
+
+  @Override
+  public String toString() {
+
+    return "WaitStatistics [priority=" + priority + ", count=" + count + ", totalWaitMillis=" + getTotalWaitMillis() + ", maxWaitMillis=" + getMaxWaitMillis() + "]";
+  }
+
+}
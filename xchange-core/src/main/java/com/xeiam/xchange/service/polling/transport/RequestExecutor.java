@@ -0,0 +1,213 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.transport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Bounds the requests in flight to an exchange and runs asynchronous calls to it
+ * </p>
+ * <ul>
+ * <li>Proxies passed through {@link #limit} wait for one of {@link ExchangeSpecification#getMaxConcurrentRequests()} permits before each call</li>
+ * <li>{@link #submit} runs calls on a pool of daemon threads no larger than that limit, so a few threads serve any number of pending calls</li>
+ * </ul>
+ * <p>
+ * Like the {@link com.xeiam.xchange.service.polling.ratelimit.RequestScheduler}, one executor is shared by all services of an exchange calling with
+ * the same API key, obtained through {@link #getInstance(ExchangeSpecification)}.
+ * </p>
+ */
+public class RequestExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(RequestExecutor.class);
+
+  private static final ConcurrentMap<String, RequestExecutor> EXECUTORS = new ConcurrentHashMap<String, RequestExecutor>();
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private final int maxConcurrentRequests;
+  private final Semaphore permits;
+  private final String name;
+
+  private volatile ExecutorService executorService;
+
+  /**
+   * Constructor
+   * 
+   * @param name Used to name the threads
+   * @param maxConcurrentRequests The maximum number of requests in flight, 0 for no limit
+   */
+  public RequestExecutor(String name, int maxConcurrentRequests) {
+
+    Assert.isTrue(maxConcurrentRequests >= 0, "maxConcurrentRequests cannot be negative");
+
+    this.name = name;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.permits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests, true) : null;
+  }
+
+  /**
+   * Get the executor shared by all services calling with the API key of the specification. The first specification seen for a key sets the limit; a
+   * live executor is never replaced, as services built before would keep their own permits and bypass the limit.
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @return The shared executor
+   */
+  public static RequestExecutor getInstance(ExchangeSpecification exchangeSpecification) {
+
+    String className = exchangeSpecification.getExchangeClassName();
+    String key = className + "/" + exchangeSpecification.getApiKey();
+    int maxConcurrentRequests = exchangeSpecification.getMaxConcurrentRequests();
+    RequestExecutor executor = EXECUTORS.get(key);
+    if (executor == null) {
+      RequestExecutor created = new RequestExecutor(className.substring(className.lastIndexOf('.') + 1), maxConcurrentRequests);
+      executor = EXECUTORS.putIfAbsent(key, created);
+      if (executor == null) {
+        return created;
+      }
+    }
+    if (executor.maxConcurrentRequests != maxConcurrentRequests) {
+      log.warn("Ignoring maxConcurrentRequests={} for {}, requests are already limited to {}", maxConcurrentRequests, className,
+          executor.maxConcurrentRequests);
+    }
+    return executor;
+  }
+
+  public int getMaxConcurrentRequests() {
+
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * @param type The REST interface
+   * @param target The proxy created by the {@link RestTransport}
+   * @return A view of the target that holds a permit for the duration of each call, or the target itself if requests are not limited
+   */
+  public <T> T limit(Class<T> type, final T target) {
+
+    if (permits == null) {
+      return target;
+    }
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        boolean limited = method.getDeclaringClass() != Object.class;
+        if (limited) {
+          try {
+            permits.acquire();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeException("Interrupted while waiting for a connection to call " + method.getName(), e);
+          }
+        }
+        try {
+          return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        } finally {
+          if (limited) {
+            permits.release();
+          }
+        }
+      }
+    }));
+  }
+
+  /**
+   * Run a call asynchronously
+   * 
+   * @param call Typically a call to a polling service
+   * @return The pending result
+   */
+  public <T> Future<T> submit(Callable<T> call) {
+
+    return getExecutorService().submit(call);
+  }
+
+  /**
+   * @return The pool running the asynchronous calls, e.g. for {@link com.xeiam.xchange.service.polling.BulkMarketData}. Don't shut it down, it is
+   *         shared.
+   */
+  public ExecutorService getExecutorService() {
+
+    ExecutorService result = executorService;
+    if (result == null) {
+      synchronized (this) {
+        result = executorService;
+        if (result == null) {
+          result = createExecutorService();
+          executorService = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private ExecutorService createExecutorService() {
+
+    ThreadFactory threadFactory = new ThreadFactory() {
+
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, name + "-request-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+
+    if (maxConcurrentRequests > 0) {
+      ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    }
+    return new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threadFactory);
+  }
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.transport;
+
+import si.mazi.rescu.ClientConfig;
+import si.mazi.rescu.RestProxyFactory;
+
+import com.xeiam.xchange.ExchangeSpecification;
+
+/**
+ * <p>
+ * The default {@link RestTransport}, creating rescu proxies
+ * </p>
+ * <p>
+ * rescu makes its requests through {@link java.net.HttpURLConnection}, which keeps idle connections alive and reuses them for later requests to the
+ * same host. The size of that pool is set JVM-wide by the <code>http.maxConnections</code> system property (5 per host by default).
+ * </p>
+ */
+public class RescuRestTransport implements RestTransport {
+
+  public static final RescuRestTransport INSTANCE = new RescuRestTransport();
+
+  @Override
+  public <T> T createProxy(Class<T> restInterface, String baseUrl, ExchangeSpecification exchangeSpecification) {
+
+    ClientConfig clientConfig = new ClientConfig();
+    if (exchangeSpecification.getHttpConnTimeout() > 0) {
+      clientConfig.setHttpConnTimeout(exchangeSpecification.getHttpConnTimeout());
+    }
+    if (exchangeSpecification.getHttpReadTimeout() > 0) {
+      clientConfig.setHttpReadTimeout(exchangeSpecification.getHttpReadTimeout());
+    }
+
+    return RestProxyFactory.createProxy(restInterface, baseUrl, clientConfig);
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.polling.transport;
+
+import com.xeiam.xchange.ExchangeSpecification;
+
+/**
+ * <p>
+ * Creates the client-side proxies of an exchange's REST API interfaces
+ * </p>
+ * <p>
+ * The default {@link RescuRestTransport} uses rescu; set a different implementation with {@link ExchangeSpecification#setRestTransport} to use another
+ * HTTP client. Implementations must honour the connect and read timeouts of the specification, and must be safe to share between exchanges.
+ * </p>
+ */
+public interface RestTransport {
+
+  /**
+   * @param restInterface The JAX-RS annotated interface describing the API
+   * @param baseUrl The base URL of the API
+   * @param exchangeSpecification The specification of the exchange, for the HTTP settings
+   * @return A proxy implementing the interface by making HTTP requests
+   */
+  <T> T createProxy(Class<T> restInterface, String baseUrl, ExchangeSpecification exchangeSpecification);
+
+}
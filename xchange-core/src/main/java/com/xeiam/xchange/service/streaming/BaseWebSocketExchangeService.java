@@ -24,10 +24,7 @@ package com.xeiam.xchange.service.streaming;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.java_websocket.WebSocket.READYSTATE;
@@ -52,13 +49,13 @@ import com.xeiam.xchange.utils.Assert;
 public abstract class BaseWebSocketExchangeService extends BaseExchangeService implements StreamingExchangeService {
 
   private final Logger log = LoggerFactory.getLogger(BaseWebSocketExchangeService.class);
-  private final Timer timer = new Timer();
+  private ScheduledFuture<?> keepAlive;
   private final ExchangeStreamingConfiguration exchangeStreamingConfiguration;
 
   /**
-   * The event queue for the consumer
+   * The event bus for the consumer
    */
-  protected final BlockingQueue<ExchangeEvent> consumerEventQueue = new LinkedBlockingQueue<ExchangeEvent>();
+  protected final ExchangeEventBus consumerEventBus;
 
   protected ReconnectService reconnectService;
 
@@ -74,9 +71,24 @@ public abstract class BaseWebSocketExchangeService extends BaseExchangeService i
    */
   public BaseWebSocketExchangeService(ExchangeSpecification exchangeSpecification, ExchangeStreamingConfiguration exchangeStreamingConfiguration) {
 
+    this(exchangeSpecification, exchangeStreamingConfiguration, new ExchangeEventBus());
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification The {@link ExchangeSpecification}
+   * @param exchangeStreamingConfiguration The {@link ExchangeStreamingConfiguration}
+   * @param consumerEventBus The event bus handing events to the consumer, e.g. sized or with a {@link WaitStrategy} for the application's latency needs
+   */
+  public BaseWebSocketExchangeService(ExchangeSpecification exchangeSpecification, ExchangeStreamingConfiguration exchangeStreamingConfiguration, ExchangeEventBus consumerEventBus) {
+
     super(exchangeSpecification);
+    Assert.notNull(consumerEventBus, "consumerEventBus cannot be null");
     this.exchangeStreamingConfiguration = exchangeStreamingConfiguration;
-    reconnectService = new ReconnectService(this, exchangeStreamingConfiguration);
+    this.consumerEventBus = consumerEventBus;
+    metrics.instrument(consumerEventBus, "consumerEventBus");
+    reconnectService = new ReconnectService(this, exchangeStreamingConfiguration, metrics);
   }
 
   protected synchronized void internalConnect(URI uri, ExchangeEventListener exchangeEventListener, Map<String, String> headers) {
@@ -88,14 +100,18 @@ public abstract class BaseWebSocketExchangeService extends BaseExchangeService i
 
     try {
       log.debug("Attempting to open a websocket against {}", uri);
-      this.exchangeEventProducer = new WebSocketEventProducer(uri.toString(), exchangeEventListener, headers, reconnectService);
+      this.exchangeEventProducer = new WebSocketEventProducer(uri.toString(), exchangeEventListener, headers, reconnectService, journal);
       exchangeEventProducer.connect();
     } catch (URISyntaxException e) {
       throw new ExchangeException("Failed to open websocket!", e);
     }
 
     if (exchangeStreamingConfiguration.keepAlive()) {
-      timer.schedule(new KeepAliveTask(), 15000, 15000);
+      // a reconnect must not add a second ping task
+      if (keepAlive != null) {
+        keepAlive.cancel(false);
+      }
+      keepAlive = StreamingScheduler.INSTANCE.scheduleAtFixedRate(new KeepAliveTask(), 15000, 15000, TimeUnit.MILLISECONDS);
     }
   }
 
@@ -111,19 +127,29 @@ public abstract class BaseWebSocketExchangeService extends BaseExchangeService i
   @Override
   public ExchangeEvent getNextEvent() throws InterruptedException {
 
-    ExchangeEvent event = consumerEventQueue.take();
+    ExchangeEvent event = consumerEventBus.take();
     return event;
   }
 
-  public synchronized ExchangeEvent checkNextEvent() throws InterruptedException {
+  /**
+   * Get the next event without taking it, waiting up to 100 ms for one to arrive
+   * 
+   * @return The event, or null if none arrived
+   */
+  public ExchangeEvent checkNextEvent() throws InterruptedException {
 
-    if (consumerEventQueue.isEmpty()) {
-      TimeUnit.MILLISECONDS.sleep(100);
-    }
-    ExchangeEvent event = consumerEventQueue.peek();
+    ExchangeEvent event = consumerEventBus.peek(100, TimeUnit.MILLISECONDS);
     return event;
   }
 
+  /**
+   * @return The event bus, e.g. to register an {@link ExchangeEventListener} called directly for every event
+   */
+  public ExchangeEventBus getConsumerEventBus() {
+
+    return consumerEventBus;
+  }
+
   @Override
   public void send(String msg) {
 
@@ -135,7 +161,7 @@ public abstract class BaseWebSocketExchangeService extends BaseExchangeService i
     return exchangeEventProducer.getConnection().getReadyState();
   }
 
-  class KeepAliveTask extends TimerTask {
+  class KeepAliveTask implements Runnable {
 
     @Override
     public void run() {
@@ -143,7 +169,12 @@ public abstract class BaseWebSocketExchangeService extends BaseExchangeService i
       // log.debug("Keep-Alive ping sent.");
       FramedataImpl1 frame = new FramedataImpl1(Opcode.PING);
       frame.setFin(true);
-      exchangeEventProducer.getConnection().sendFrame(frame);
+      try {
+        exchangeEventProducer.getConnection().sendFrame(frame);
+      } catch (RuntimeException e) {
+        // not connected; keep the task scheduled, the ReconnectService restores the connection
+        log.debug("Keep-Alive ping failed: {}", e.toString());
+      }
     }
   }
 }
@@ -0,0 +1,329 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.streaming;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Single producer, multiple consumer event bus backed by a pre-allocated ring buffer, to provide the following to streaming services:
+ * </p>
+ * <ul>
+ * <li>Hand-off of events from the websocket thread to consumers without locks or per-event allocation</li>
+ * <li>Queue semantics for consumers: each event is taken by exactly one consumer, waiting according to a {@link WaitStrategy}</li>
+ * <li>Direct callbacks: registered {@link ExchangeEventListener}s receive every event on the producer thread as it is published</li>
+ * </ul>
+ * <p>
+ * {@link #publish(ExchangeEvent)} must only be called from one thread at a time. It never blocks, so a slow or absent consumer cannot stall the
+ * connection. When the buffer is full, the market data waiting in it (tickers, trades, depth updates, raw messages and trade lag) is dropped and
+ * counted, and a {@link ExchangeEventType#GAP} event takes the place of the last dropped event. Connection, subscription and account events are kept,
+ * unless the buffer holds nothing else; then the oldest of them are dropped too, and also reported by the gap event.
+ * </p>
+ */
+public class ExchangeEventBus {
+
+  public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+  /** Market data, dropped when consumers fall behind */
+  private static final Set<ExchangeEventType> DROPPABLE = EnumSet.of(ExchangeEventType.TICKER, ExchangeEventType.TRADE, ExchangeEventType.DEPTH,
+      ExchangeEventType.MESSAGE, ExchangeEventType.TRADE_LAG);
+
+  private final Logger log = LoggerFactory.getLogger(ExchangeEventBus.class);
+
+  private final AtomicReferenceArray<ExchangeEvent> buffer;
+  private final int mask;
+  private final WaitStrategy waitStrategy;
+
+  /** Sequence of the last published event */
+  private final AtomicLong cursor = new AtomicLong(-1);
+
+  /** Sequence of the next event to be consumed; only ever advanced by CAS */
+  private final AtomicLong next = new AtomicLong(0);
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final List<ExchangeEventListener> listeners = new CopyOnWriteArrayList<ExchangeEventListener>();
+
+  /**
+   * Constructor using the {@link #DEFAULT_BUFFER_SIZE} and the {@link WaitStrategy#PARK} strategy
+   */
+  public ExchangeEventBus() {
+
+    this(DEFAULT_BUFFER_SIZE, WaitStrategy.PARK);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param bufferSize The capacity of the ring buffer, a power of two of at least 4
+   * @param waitStrategy What consumers do while waiting for an event
+   */
+  public ExchangeEventBus(int bufferSize, WaitStrategy waitStrategy) {
+
+    Assert.isTrue(bufferSize >= 4 && Integer.bitCount(bufferSize) == 1, "bufferSize must be a power of two of at least 4");
+    Assert.notNull(waitStrategy, "waitStrategy cannot be null");
+
+    this.buffer = new AtomicReferenceArray<ExchangeEvent>(bufferSize);
+    this.mask = bufferSize - 1;
+    this.waitStrategy = waitStrategy;
+  }
+
+  /**
+   * Publish an event to consumers and notify listeners. Must not be called concurrently.
+   * 
+   * @param event The event
+   */
+  public void publish(ExchangeEvent event) {
+
+    Assert.notNull(event, "event cannot be null");
+
+    if (cursor.get() + 1 - next.get() >= buffer.length()) {
+      makeRoom();
+    }
+    append(event);
+
+    for (ExchangeEventListener listener : listeners) {
+      try {
+        listener.handleEvent(event);
+      } catch (RuntimeException e) {
+        log.error("Listener failed to handle event " + event.getEventType(), e);
+      }
+    }
+  }
+
+  private void append(ExchangeEvent event) {
+
+    long sequence = cursor.get() + 1;
+    buffer.set((int) sequence & mask, event);
+    cursor.lazySet(sequence);
+  }
+
+  /**
+   * Take the waiting events back, as a consumer would, and put back those that must not be dropped with a gap event where market data was dropped
+   */
+  private void makeRoom() {
+
+    List<ExchangeEvent> kept = new ArrayList<ExchangeEvent>();
+    int gapIndex = 0;
+    long droppedNow = 0;
+    long droppedEarlier = 0;
+    ExchangeEvent event;
+    while ((event = poll()) != null) {
+      if (event.getEventType() == ExchangeEventType.GAP) {
+        // merge with the gap event still waiting
+        droppedEarlier += (Long) event.getPayload();
+        gapIndex = kept.size();
+      }
+      else if (DROPPABLE.contains(event.getEventType())) {
+        droppedNow++;
+        gapIndex = kept.size();
+      }
+      else {
+        kept.add(event);
+      }
+    }
+    // leave room for the gap event and the event being published
+    while (kept.size() > buffer.length() - 2) {
+      kept.remove(0);
+      droppedNow++;
+      gapIndex = Math.max(0, gapIndex - 1);
+    }
+    if (droppedNow + droppedEarlier == 0) {
+      // consumers took the backlog meanwhile
+      for (ExchangeEvent keptEvent : kept) {
+        append(keptEvent);
+      }
+      return;
+    }
+
+    if (droppedNow > 0) {
+      dropped.addAndGet(droppedNow);
+      log.warn("Consumers fell behind, dropped {} events", droppedNow);
+    }
+    for (int i = 0; i < gapIndex; i++) {
+      append(kept.get(i));
+    }
+    append(new DefaultExchangeEvent(ExchangeEventType.GAP, null, droppedNow + droppedEarlier));
+    for (int i = gapIndex; i < kept.size(); i++) {
+      append(kept.get(i));
+    }
+  }
+
+  /**
+   * Take the next event, waiting until one is published
+   * 
+   * @return The event
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public ExchangeEvent take() throws InterruptedException {
+
+    int counter = 0;
+    while (true) {
+      long sequence = next.get();
+      if (sequence <= cursor.get()) {
+        ExchangeEvent event = claim(sequence);
+        if (event != null) {
+          return event;
+        }
+        continue;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      counter = waitStrategy.idle(counter);
+    }
+  }
+
+  /**
+   * Take the next event if one is available
+   * 
+   * @return The event, or null if none is available
+   */
+  public ExchangeEvent poll() {
+
+    while (true) {
+      long sequence = next.get();
+      if (sequence > cursor.get()) {
+        return null;
+      }
+      ExchangeEvent event = claim(sequence);
+      if (event != null) {
+        return event;
+      }
+    }
+  }
+
+  /**
+   * @return The published event of the sequence, or null if another consumer took it first
+   */
+  private ExchangeEvent claim(long sequence) {
+
+    int index = (int) sequence & mask;
+    ExchangeEvent event = buffer.get(index);
+    if (!next.compareAndSet(sequence, sequence + 1)) {
+      return null;
+    }
+    // release the reference, unless the producer already reused the slot
+    buffer.compareAndSet(index, event, null);
+    return event;
+  }
+
+  /**
+   * Get the next event without taking it
+   * 
+   * @return The event, or null if none is available
+   */
+  public ExchangeEvent peek() {
+
+    while (true) {
+      long sequence = next.get();
+      if (sequence > cursor.get()) {
+        return null;
+      }
+      ExchangeEvent event = buffer.get((int) sequence & mask);
+      if (next.get() == sequence) {
+        return event;
+      }
+    }
+  }
+
+  /**
+   * Get the next event without taking it, waiting until one is published or the timeout expires
+   * 
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return The event, or null if none was published in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public ExchangeEvent peek(long timeout, TimeUnit unit) throws InterruptedException {
+
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    int counter = 0;
+    while (true) {
+      ExchangeEvent event = peek();
+      if (event != null) {
+        return event;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        return null;
+      }
+      counter = waitStrategy.idle(counter);
+    }
+  }
+
+  /**
+   * @param listener A listener to call with every event published from now on, on the producer thread
+   */
+  public void addListener(ExchangeEventListener listener) {
+
+    Assert.notNull(listener, "listener cannot be null");
+    listeners.add(listener);
+  }
+
+  public void removeListener(ExchangeEventListener listener) {
+
+    listeners.remove(listener);
+  }
+
+  /**
+   * @return The number of events waiting to be taken
+   */
+  public int size() {
+
+    long size = cursor.get() + 1 - next.get();
+    return (int) Math.max(0, size);
+  }
+
+  public boolean isEmpty() {
+
+    return size() == 0;
+  }
+
+  /**
+   * @return The number of events dropped because the buffer was full, the total of the {@link ExchangeEventType#GAP} events published
+   */
+  public long getDroppedCount() {
+
+    return dropped.get();
+  }
+
+  public WaitStrategy getWaitStrategy() {
+
+    return waitStrategy;
+  }
+
+}
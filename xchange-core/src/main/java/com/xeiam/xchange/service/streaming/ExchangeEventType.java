@@ -169,5 +169,11 @@ public enum ExchangeEventType {
   /**
    * A message with data about an estimated market order
    */
-  USER_MARKET_ORDER_EST
+  USER_MARKET_ORDER_EST,
+
+  /**
+   * Issued by an {@link ExchangeEventBus} where it dropped market data because its consumers fell behind; state built incrementally from earlier events,
+   * such as an order book, must be rebuilt. The payload is the number of events dropped.
+   */
+  GAP
 }
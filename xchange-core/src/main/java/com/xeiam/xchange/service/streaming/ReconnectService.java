@@ -21,28 +21,50 @@
  */
 package com.xeiam.xchange.service.streaming;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.java_websocket.WebSocket.READYSTATE;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.xeiam.xchange.service.metrics.ExchangeMetrics;
+
 /**
+ * <p>
+ * Watches a streaming connection and reconnects it when it fails
+ * </p>
+ * <ul>
+ * <li>{@link #intercept} only records the time of each event in a volatile field, so the websocket thread neither allocates nor touches a timer queue</li>
+ * <li>A periodic check on the {@link StreamingScheduler} thread shared by all connections reconnects if nothing arrived for
+ * {@link ExchangeStreamingConfiguration#getTimeoutInMs()} and the socket is not open</li>
+ * <li>After an error or disconnect, the reconnect is scheduled rather than slept for, waiting {@link ExchangeStreamingConfiguration#getReconnectWaitTimeInMs()}
+ * doubled for every failed attempt, up to {@link #MAX_BACKOFF_MULTIPLIER} times that wait</li>
+ * </ul>
+ * 
  * @author alexnugent
  */
 public class ReconnectService {
 
+  /** The longest reconnect delay, as a multiple of the configured wait time */
+  public static final int MAX_BACKOFF_MULTIPLIER = 32;
+
   private final Logger log = LoggerFactory.getLogger(ReconnectService.class);
 
   private final ExchangeStreamingConfiguration exchangeStreamingConfiguration;
 
   private final StreamingExchangeService streamingExchangeService;
 
-  private int numConnectionAttempts = 0;
+  private volatile long lastEventNanos;
+
+  private volatile int numConnectionAttempts = 0;
+
+  private final AtomicBoolean reconnectPending = new AtomicBoolean();
+
+  private volatile ScheduledFuture<?> livenessCheck;
 
-  Timer timer = new Timer();
-  TimerTask reconnectTask = new ReconnectTask();
+  private final ExchangeMetrics metrics;
 
   /**
    * Constructor
@@ -51,28 +73,60 @@ public class ReconnectService {
    */
   public ReconnectService(StreamingExchangeService streamingExchangeService, ExchangeStreamingConfiguration exchangeStreamingConfiguration) {
 
+    this(streamingExchangeService, exchangeStreamingConfiguration, ExchangeMetrics.DISABLED);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param streamingExchangeService
+   * @param exchangeStreamingConfiguration
+   * @param metrics The metrics to count reconnections in, as retries of "reconnect"
+   */
+  public ReconnectService(StreamingExchangeService streamingExchangeService, ExchangeStreamingConfiguration exchangeStreamingConfiguration, ExchangeMetrics metrics) {
+
     this.streamingExchangeService = streamingExchangeService;
     this.exchangeStreamingConfiguration = exchangeStreamingConfiguration;
+    this.metrics = metrics;
   }
 
   public void intercept(ExchangeEvent exchangeEvent) {
 
-    reconnectTask.cancel();
-    reconnectTask = new ReconnectTask();
-    timer.schedule(reconnectTask, exchangeStreamingConfiguration.getTimeoutInMs());
+    lastEventNanos = System.nanoTime();
+    if (livenessCheck == null) {
+      startLivenessCheck();
+    }
 
     if (exchangeEvent.getEventType() == ExchangeEventType.ERROR || exchangeEvent.getEventType() == ExchangeEventType.DISCONNECT) {
-      try {
-        Thread.sleep(exchangeStreamingConfiguration.getReconnectWaitTimeInMs());
-      } catch (InterruptedException e) {
-        e.printStackTrace();
-      }
-      reconnect();
+      scheduleReconnect();
     }
     else if (exchangeEvent.getEventType() == ExchangeEventType.CONNECT) {
       numConnectionAttempts = 0;
     }
+  }
+
+  /**
+   * @return The delay before the next reconnect attempt, in milliseconds
+   */
+  long getReconnectDelay() {
+
+    int multiplier = 1 << Math.min(numConnectionAttempts, Integer.numberOfTrailingZeros(MAX_BACKOFF_MULTIPLIER));
+    return (long) exchangeStreamingConfiguration.getReconnectWaitTimeInMs() * multiplier;
+  }
+
+  private synchronized void startLivenessCheck() {
+
+    if (livenessCheck == null) {
+      long timeout = exchangeStreamingConfiguration.getTimeoutInMs();
+      livenessCheck = StreamingScheduler.INSTANCE.scheduleWithFixedDelay(new LivenessCheck(), timeout, Math.max(1, timeout / 2), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void scheduleReconnect() {
 
+    if (reconnectPending.compareAndSet(false, true)) {
+      StreamingScheduler.INSTANCE.schedule(new ReconnectTask(), getReconnectDelay(), TimeUnit.MILLISECONDS);
+    }
   }
 
   private void reconnect() {
@@ -82,29 +136,52 @@ public class ReconnectService {
 
       if (numConnectionAttempts >= exchangeStreamingConfiguration.getMaxReconnectAttempts()) {
         log.debug("Terminating reconnection attempts.");
+        livenessCheck.cancel(false);
         streamingExchangeService.disconnect();
-        Thread.currentThread().interrupt();
         return;
       }
+      metrics.retry("reconnect");
       streamingExchangeService.disconnect();
       streamingExchangeService.connect();
       numConnectionAttempts++;
     }
   }
 
-  class ReconnectTask extends TimerTask {
+  private class ReconnectTask implements Runnable {
 
     @Override
     public void run() {
 
-      // log.debug("ReconnectTask called; result: " + (streamingExchangeService.getWebSocketStatus().equals(READYSTATE.OPEN) ? "Connection still alive" : "Connection dead - reconnecting"));
-      if (!streamingExchangeService.getWebSocketStatus().equals(READYSTATE.OPEN)) {
-        log.debug("Time out!");
-        timer.purge();
+      try {
         reconnect();
+      } catch (RuntimeException e) {
+        log.warn("Reconnect failed", e);
+      } finally {
+        reconnectPending.set(false);
+      }
+    }
+  }
+
+  private class LivenessCheck implements Runnable {
+
+    @Override
+    public void run() {
+
+      long now = System.nanoTime();
+      if (now - lastEventNanos < TimeUnit.MILLISECONDS.toNanos(exchangeStreamingConfiguration.getTimeoutInMs())) {
+        return;
+      }
+      // wait a full timeout before the next check, as after an event
+      lastEventNanos = now;
+      try {
+        if (!streamingExchangeService.getWebSocketStatus().equals(READYSTATE.OPEN)) {
+          log.debug("Time out!");
+          scheduleReconnect();
+        }
+      } catch (RuntimeException e) {
+        // a failing check must not cancel the periodic task
+        log.warn("Liveness check failed", e);
       }
-      timer.purge();
-      timer.schedule(new ReconnectTask(), exchangeStreamingConfiguration.getTimeoutInMs());
     }
   }
 
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.streaming;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Enum to provide the following to {@link ExchangeEventBus} consumers:
+ * </p>
+ * <ul>
+ * <li>Choice of what a consumer does while no event is available, trading CPU usage for latency</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+
+  /**
+   * Spin on the CPU; lowest latency, one core per waiting consumer
+   */
+  BUSY_SPIN {
+
+    @Override
+    int idle(int counter) {
+
+      return counter + 1;
+    }
+  },
+
+  /**
+   * Spin briefly, then yield the CPU to other threads between checks
+   */
+  YIELD {
+
+    @Override
+    int idle(int counter) {
+
+      if (counter >= SPIN_TRIES) {
+        Thread.yield();
+      }
+      return counter + 1;
+    }
+  },
+
+  /**
+   * Spin and yield briefly, then park for {@value #PARK_NANOS} ns between checks; latency stays in the tens of microseconds while idle consumers use
+   * almost no CPU
+   */
+  PARK {
+
+    @Override
+    int idle(int counter) {
+
+      if (counter >= SPIN_TRIES + YIELD_TRIES) {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+      else if (counter >= SPIN_TRIES) {
+        Thread.yield();
+      }
+      return counter + 1;
+    }
+  };
+
+  static final int SPIN_TRIES = 100;
+  static final int YIELD_TRIES = 100;
+  static final long PARK_NANOS = 50000L;
+
+  /**
+   * Called repeatedly while a consumer waits
+   * 
+   * @param counter The number of times the consumer has idled since it started waiting
+   * @return The counter to pass in on the next call
+   */
+  abstract int idle(int counter);
+
+}
@@ -38,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.service.journal.MarketDataJournal;
 
 /**
  * @author timmolter
@@ -50,6 +51,7 @@ public class WebSocketEventProducer extends WebSocketClient {
 
   private final ExchangeEventListener exchangeEventListener;
   private final ReconnectService reconnectService;
+  private final MarketDataJournal journal;
 
   /**
    * Constructor
@@ -61,10 +63,26 @@ public class WebSocketEventProducer extends WebSocketClient {
    */
   public WebSocketEventProducer(String url, ExchangeEventListener exchangeEventListener, Map<String, String> headers, ReconnectService reconnectService) throws URISyntaxException {
 
+    this(url, exchangeEventListener, headers, reconnectService, null);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param url
+   * @param exchangeEventListener
+   * @param headers
+   * @param reconnectService
+   * @param journal Records every message received, may be null
+   * @throws URISyntaxException
+   */
+  public WebSocketEventProducer(String url, ExchangeEventListener exchangeEventListener, Map<String, String> headers, ReconnectService reconnectService,
+      MarketDataJournal journal) throws URISyntaxException {
+
     super(new URI(url), new Draft_17(), headers, 0);
     this.exchangeEventListener = exchangeEventListener;
     this.reconnectService = reconnectService;
-
+    this.journal = journal;
   }
 
   @Override
@@ -90,6 +108,9 @@ public class WebSocketEventProducer extends WebSocketClient {
   public void onMessage(String message) {
 
     logger.debug(message);
+    if (journal != null) {
+      journal.tryAppend(ExchangeEventType.MESSAGE, null, message);
+    }
     ExchangeEvent exchangeEvent = new DefaultExchangeEvent(ExchangeEventType.MESSAGE, message);
 
     if (reconnectService != null) { // logic here to intercept errors and reconnect..
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.tradestore;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Trade;
+
+/**
+ * <p>
+ * Cursor over the trades of a {@link TradeStore} series within a time range, reading the columns in place
+ * </p>
+ * <p>
+ * Call {@link #next()} to move to the next trade, then read its fields with the getters: nothing is allocated unless {@link #getPrice()},
+ * {@link #getAmount()} or {@link #toTrade()} is called. Segments whose time range misses the scanned range are skipped without being read, and a
+ * segment whose trades were appended in time order is entered by binary search. Trades are returned in the order they were appended. Not thread safe.
+ * </p>
+ */
+public final class TradeScanner {
+
+  /** The id of a trade stored without one, or whose id is not numeric */
+  public static final long NO_ID = Long.MIN_VALUE;
+
+  private final CurrencyPair currencyPair;
+  private final File[] segmentFiles;
+  private final long from;
+  private final long to;
+
+  private int segmentIndex = -1;
+  private TradeSegment segment;
+  private int count;
+  private int row;
+
+  /**
+   * @param from The first time included, in milliseconds from the Java epoch
+   * @param to The first time excluded
+   */
+  TradeScanner(CurrencyPair currencyPair, File[] segmentFiles, long from, long to) {
+
+    this.currencyPair = currencyPair;
+    this.segmentFiles = segmentFiles;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * @return true if the cursor moved to another trade, false at the end of the range
+   */
+  public boolean next() {
+
+    while (true) {
+      if (segment != null) {
+        while (++row < count) {
+          long timestamp = segment.getTimestamp(row);
+          if (timestamp >= from && timestamp < to) {
+            return true;
+          }
+          if (timestamp >= to && segment.isSorted()) {
+            break;
+          }
+        }
+      }
+      if (!nextSegment()) {
+        return false;
+      }
+    }
+  }
+
+  private boolean nextSegment() {
+
+    while (++segmentIndex < segmentFiles.length) {
+      TradeSegment candidate = TradeSegment.openForReading(segmentFiles[segmentIndex]);
+      int rows = candidate.getCount();
+      if (rows == 0 || candidate.getMaxTime() < from || candidate.getMinTime() >= to) {
+        continue;
+      }
+      segment = candidate;
+      count = rows;
+      row = (candidate.isSorted() ? candidate.firstRowNotBefore(from, rows) : 0) - 1;
+      return true;
+    }
+    segment = null;
+    return false;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  /**
+   * @return The trade time in milliseconds from the Java epoch
+   */
+  public long getTimestamp() {
+
+    return segment.getTimestamp(row);
+  }
+
+  /**
+   * @return The unscaled price, see {@link #getPriceScale()}
+   */
+  public long getPriceMantissa() {
+
+    return segment.getPriceMantissa(row);
+  }
+
+  public int getPriceScale() {
+
+    return segment.getPriceScale(row);
+  }
+
+  /**
+   * @return The unscaled amount, see {@link #getAmountScale()}
+   */
+  public long getAmountMantissa() {
+
+    return segment.getAmountMantissa(row);
+  }
+
+  public int getAmountScale() {
+
+    return segment.getAmountScale(row);
+  }
+
+  public BigDecimal getPrice() {
+
+    return BigDecimal.valueOf(getPriceMantissa(), getPriceScale());
+  }
+
+  public BigDecimal getAmount() {
+
+    return BigDecimal.valueOf(getAmountMantissa(), getAmountScale());
+  }
+
+  /**
+   * @return The side, or null if the trade was stored without one
+   */
+  public OrderType getType() {
+
+    byte side = segment.getSide(row);
+    return side == TradeSegment.NO_SIDE ? null : side == TradeSegment.BID ? OrderType.BID : OrderType.ASK;
+  }
+
+  /**
+   * @return The numeric id, or {@link #NO_ID}
+   */
+  public long getId() {
+
+    return segment.getId(row);
+  }
+
+  /**
+   * @return The current trade as a {@link Trade}
+   */
+  public Trade toTrade() {
+
+    long id = getId();
+    return new Trade(getType(), getAmount(), currencyPair, getPrice(), new Date(getTimestamp()), id == NO_ID ? null : String.valueOf(id));
+  }
+
+}
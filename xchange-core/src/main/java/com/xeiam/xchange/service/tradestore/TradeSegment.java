@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.tradestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.xeiam.xchange.ExchangeException;
+
+/**
+ * <p>
+ * One memory-mapped segment file of a trade series, holding a fixed number of rows column by column:
+ * </p>
+ * <ul>
+ * <li>a header: magic number, row capacity, row count, minimum and maximum timestamp, and whether the timestamps are in order</li>
+ * <li>then the columns: timestamps, price mantissas, amount mantissas and ids as longs; price scales, amount scales and sides as bytes</li>
+ * </ul>
+ * <p>
+ * The row count is written after the row's columns, so readers never see a partially written row.
+ * </p>
+ */
+final class TradeSegment {
+
+  static final String SUFFIX = ".trades";
+
+  static final byte BID = 0;
+  static final byte ASK = 1;
+  static final byte NO_SIDE = -1;
+
+  private static final int MAGIC = 0x58545344;
+  private static final int CAPACITY_OFFSET = 4;
+  private static final int COUNT_OFFSET = 8;
+  private static final int SORTED_OFFSET = 12;
+  private static final int MIN_TIME_OFFSET = 16;
+  private static final int MAX_TIME_OFFSET = 24;
+  private static final int HEADER_SIZE = 32;
+  /** 4 long columns and 3 byte columns */
+  private static final int ROW_SIZE = 4 * 8 + 3;
+
+  private final File file;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+
+  private final int priceOffset;
+  private final int amountOffset;
+  private final int idOffset;
+  private final int priceScaleOffset;
+  private final int amountScaleOffset;
+  private final int sideOffset;
+
+  private TradeSegment(File file, MappedByteBuffer buffer, int capacity) {
+
+    this.file = file;
+    this.buffer = buffer;
+    this.capacity = capacity;
+    priceOffset = HEADER_SIZE + capacity * 8;
+    amountOffset = priceOffset + capacity * 8;
+    idOffset = amountOffset + capacity * 8;
+    priceScaleOffset = idOffset + capacity * 8;
+    amountScaleOffset = priceScaleOffset + capacity;
+    sideOffset = amountScaleOffset + capacity;
+  }
+
+  /**
+   * Creates, or opens if it exists, a segment to append to
+   */
+  static TradeSegment openForWriting(File file, int capacity) {
+
+    boolean exists = file.length() > 0;
+    long size = exists ? file.length() : HEADER_SIZE + (long) capacity * ROW_SIZE;
+    if (size > Integer.MAX_VALUE) {
+      throw new ExchangeException("Trade segment of " + capacity + " rows is too large to map");
+    }
+    MappedByteBuffer buffer = map(file, "rw", FileChannel.MapMode.READ_WRITE, size);
+    if (exists) {
+      return open(file, buffer);
+    }
+    buffer.putInt(CAPACITY_OFFSET, capacity);
+    buffer.putInt(SORTED_OFFSET, 1);
+    buffer.putLong(MIN_TIME_OFFSET, Long.MAX_VALUE);
+    buffer.putLong(MAX_TIME_OFFSET, Long.MIN_VALUE);
+    buffer.putInt(0, MAGIC);
+    return new TradeSegment(file, buffer, capacity);
+  }
+
+  static TradeSegment openForReading(File file) {
+
+    return open(file, map(file, "r", FileChannel.MapMode.READ_ONLY, file.length()));
+  }
+
+  private static TradeSegment open(File file, MappedByteBuffer buffer) {
+
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new ExchangeException(file + " is not a trade segment");
+    }
+    return new TradeSegment(file, buffer, buffer.getInt(CAPACITY_OFFSET));
+  }
+
+  private static MappedByteBuffer map(File file, String mode, FileChannel.MapMode mapMode, long size) {
+
+    try {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, mode);
+      try {
+        if (mapMode == FileChannel.MapMode.READ_WRITE) {
+          randomAccessFile.setLength(size);
+        }
+        return randomAccessFile.getChannel().map(mapMode, 0, size);
+      } finally {
+        randomAccessFile.close();
+      }
+    } catch (IOException e) {
+      throw new ExchangeException("Could not map trade segment " + file, e);
+    }
+  }
+
+  /**
+   * @return false if the segment is full
+   */
+  boolean append(long timestamp, long priceMantissa, int priceScale, long amountMantissa, int amountScale, byte side, long id) {
+
+    int row = getCount();
+    if (row == capacity) {
+      return false;
+    }
+    buffer.putLong(HEADER_SIZE + row * 8, timestamp);
+    buffer.putLong(priceOffset + row * 8, priceMantissa);
+    buffer.putLong(amountOffset + row * 8, amountMantissa);
+    buffer.putLong(idOffset + row * 8, id);
+    buffer.put(priceScaleOffset + row, (byte) priceScale);
+    buffer.put(amountScaleOffset + row, (byte) amountScale);
+    buffer.put(sideOffset + row, side);
+
+    if (timestamp < getMaxTime()) {
+      buffer.putInt(SORTED_OFFSET, 0);
+    }
+    if (timestamp < getMinTime()) {
+      buffer.putLong(MIN_TIME_OFFSET, timestamp);
+    }
+    if (timestamp > getMaxTime()) {
+      buffer.putLong(MAX_TIME_OFFSET, timestamp);
+    }
+    buffer.putInt(COUNT_OFFSET, row + 1);
+    return true;
+  }
+
+  /**
+   * @return The first row whose timestamp is not before the given time, assuming the rows are in time order
+   */
+  int firstRowNotBefore(long time, int count) {
+
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (getTimestamp(mid) < time) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  void force() {
+
+    buffer.force();
+  }
+
+  File getFile() {
+
+    return file;
+  }
+
+  int getCount() {
+
+    return buffer.getInt(COUNT_OFFSET);
+  }
+
+  boolean isSorted() {
+
+    return buffer.getInt(SORTED_OFFSET) != 0;
+  }
+
+  long getMinTime() {
+
+    return buffer.getLong(MIN_TIME_OFFSET);
+  }
+
+  long getMaxTime() {
+
+    return buffer.getLong(MAX_TIME_OFFSET);
+  }
+
+  long getTimestamp(int row) {
+
+    return buffer.getLong(HEADER_SIZE + row * 8);
+  }
+
+  long getPriceMantissa(int row) {
+
+    return buffer.getLong(priceOffset + row * 8);
+  }
+
+  long getAmountMantissa(int row) {
+
+    return buffer.getLong(amountOffset + row * 8);
+  }
+
+  long getId(int row) {
+
+    return buffer.getLong(idOffset + row * 8);
+  }
+
+  int getPriceScale(int row) {
+
+    return buffer.get(priceScaleOffset + row);
+  }
+
+  int getAmountScale(int row) {
+
+    return buffer.get(amountScaleOffset + row);
+  }
+
+  byte getSide(int row) {
+
+    return buffer.get(sideOffset + row);
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.tradestore;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.dto.FixedPoint;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Trade;
+
+/**
+ * The segment files of one (exchange, currency pair) directory, appended to in order
+ */
+final class TradeSeries {
+
+  private final File directory;
+  private final int segmentRows;
+
+  private int segmentIndex;
+  private TradeSegment segment;
+
+  /**
+   * Constructor, resuming the last segment of the directory if it has room left
+   */
+  TradeSeries(File directory, int segmentRows) {
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new ExchangeException("Could not create trade store directory " + directory);
+    }
+    this.directory = directory;
+    this.segmentRows = segmentRows;
+
+    File[] existing = listSegments(directory);
+    segmentIndex = existing.length == 0 ? 0 : existing.length - 1;
+    segment = TradeSegment.openForWriting(segmentFile(directory, segmentIndex), segmentRows);
+  }
+
+  synchronized void append(Trade trade) {
+
+    FixedPoint price = FixedPoint.valueOf(trade.getPrice());
+    FixedPoint amount = FixedPoint.valueOf(trade.getTradableAmount());
+    long timestamp = trade.getTimestamp() == null ? System.currentTimeMillis() : trade.getTimestamp().getTime();
+    byte side = trade.getType() == null ? TradeSegment.NO_SIDE : trade.getType() == OrderType.BID ? TradeSegment.BID : TradeSegment.ASK;
+    long id = toId(trade.getId());
+
+    while (!segment.append(timestamp, price.getMantissa(), price.getScale(), amount.getMantissa(), amount.getScale(), side, id)) {
+      segment.force();
+      segmentIndex++;
+      segment = TradeSegment.openForWriting(segmentFile(directory, segmentIndex), segmentRows);
+    }
+  }
+
+  synchronized void force() {
+
+    segment.force();
+  }
+
+  /**
+   * @return The id as a long, or {@link TradeScanner#NO_ID} if the trade has none or it is not numeric
+   */
+  static long toId(String id) {
+
+    if (id == null || id.length() == 0 || id.length() > 18) {
+      return TradeScanner.NO_ID;
+    }
+    long value = 0;
+    for (int i = 0; i < id.length(); i++) {
+      char c = id.charAt(i);
+      if (c < '0' || c > '9') {
+        return TradeScanner.NO_ID;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  static File segmentFile(File directory, int index) {
+
+    return new File(directory, String.format("%08d", index) + TradeSegment.SUFFIX);
+  }
+
+  /**
+   * @return The segment files of the directory, in the order they were written
+   */
+  static File[] listSegments(File directory) {
+
+    File[] segments = directory.listFiles(new FilenameFilter() {
+
+      @Override
+      public boolean accept(File dir, String name) {
+
+        return name.endsWith(TradeSegment.SUFFIX);
+      }
+    });
+    if (segments == null) {
+      return new File[0];
+    }
+    Arrays.sort(segments);
+    return segments;
+  }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.service.tradestore;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.utils.Assert;
+
+/**
+ * <p>
+ * Trade history kept off the Java heap, in columnar memory-mapped segment files, one directory per exchange and currency pair
+ * </p>
+ * <ul>
+ * <li>Each trade takes 35 bytes in the mapped file and nothing on the heap: timestamp, price and amount as long mantissas with a byte scale (see
+ * {@link com.xeiam.xchange.dto.FixedPoint}), side as a byte and id as a long</li>
+ * <li>Only numeric ids fit in a long; other ids (e.g. UUIDs) are not stored</li>
+ * <li>{@link #scan(String, CurrencyPair, long, long)} reads a time range in place; {@link #getTrades(String, CurrencyPair, long, long)} builds
+ * {@link Trades} from it when objects are needed, e.g. for charting</li>
+ * <li>Appends to a series are serialized; a store reopened on the same directory resumes each series where it stopped</li>
+ * </ul>
+ * <p>
+ * Prices and amounts must fit in a long mantissa, which is the case of the decimals exchanges return. Feed the store with new trades only, e.g. from an
+ * {@link com.xeiam.xchange.service.polling.IncrementalTradeFeed}: it does not deduplicate.
+ * </p>
+ */
+public class TradeStore {
+
+  public static final int DEFAULT_SEGMENT_ROWS = 1024 * 1024;
+
+  private final File directory;
+  private final int segmentRows;
+  private final ConcurrentMap<String, TradeSeries> series = new ConcurrentHashMap<String, TradeSeries>();
+
+  /**
+   * Constructor with segments of {@link #DEFAULT_SEGMENT_ROWS} trades
+   * 
+   * @param directory The root directory, created if missing
+   */
+  public TradeStore(File directory) {
+
+    this(directory, DEFAULT_SEGMENT_ROWS);
+  }
+
+  /**
+   * Constructor
+   * 
+   * @param directory The root directory, created if missing
+   * @param segmentRows The number of trades per segment file
+   */
+  public TradeStore(File directory, int segmentRows) {
+
+    Assert.notNull(directory, "directory cannot be null");
+    Assert.isTrue(segmentRows > 0, "segmentRows must be positive");
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new ExchangeException("Could not create trade store directory " + directory);
+    }
+    this.directory = directory;
+    this.segmentRows = segmentRows;
+  }
+
+  /**
+   * @param exchangeName The exchange the trade happened on
+   * @param trade The trade, which must have a currency pair
+   */
+  public void append(String exchangeName, Trade trade) {
+
+    Assert.notNull(trade.getCurrencyPair(), "trade has no currency pair");
+    getSeries(exchangeName, trade.getCurrencyPair()).append(trade);
+  }
+
+  /**
+   * @param exchangeName The exchange the trades happened on
+   * @param trades The trades
+   */
+  public void append(String exchangeName, Trades trades) {
+
+    for (Trade trade : trades.getTrades()) {
+      append(exchangeName, trade);
+    }
+  }
+
+  /**
+   * @param exchangeName The exchange
+   * @param currencyPair The currency pair
+   * @param from The first time included, in milliseconds from the Java epoch
+   * @param to The first time excluded
+   * @return A cursor over the trades of the range, including those appended so far, in the order they were appended, which is not chronological
+   *         where trades arrived out of order
+   */
+  public TradeScanner scan(String exchangeName, CurrencyPair currencyPair, long from, long to) {
+
+    return new TradeScanner(currencyPair, TradeSeries.listSegments(seriesDirectory(exchangeName, currencyPair)), from, to);
+  }
+
+  /**
+   * @see #scan(String, CurrencyPair, long, long)
+   * @return The trades of the range, sorted by timestamp; trades of the same millisecond keep the order they were appended in
+   */
+  public Trades getTrades(String exchangeName, CurrencyPair currencyPair, long from, long to) {
+
+    List<Trade> trades = new ArrayList<Trade>();
+    TradeScanner scanner = scan(exchangeName, currencyPair, from, to);
+    while (scanner.next()) {
+      trades.add(scanner.toTrade());
+    }
+    // scanned in append order; the Trades constructor sorts them (stably) by timestamp
+    return new Trades(trades, TradeSortType.SortByTimestamp);
+  }
+
+  /**
+   * Write the mapped segments being appended to the disk
+   */
+  public void force() {
+
+    for (TradeSeries tradeSeries : series.values()) {
+      tradeSeries.force();
+    }
+  }
+
+  public File getDirectory() {
+
+    return directory;
+  }
+
+  private TradeSeries getSeries(String exchangeName, CurrencyPair currencyPair) {
+
+    String key = exchangeName + '/' + currencyPair;
+    TradeSeries tradeSeries = series.get(key);
+    if (tradeSeries == null) {
+      synchronized (series) {
+        tradeSeries = series.get(key);
+        if (tradeSeries == null) {
+          tradeSeries = new TradeSeries(seriesDirectory(exchangeName, currencyPair), segmentRows);
+          series.put(key, tradeSeries);
+        }
+      }
+    }
+    return tradeSeries;
+  }
+
+  private File seriesDirectory(String exchangeName, CurrencyPair currencyPair) {
+
+    Assert.notNull(exchangeName, "exchangeName cannot be null");
+    return new File(new File(directory, exchangeName), currencyPair.baseSymbol + "_" + currencyPair.counterSymbol);
+  }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.utils.jackson;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+
+/**
+ * <p>
+ * Reads order book levels straight from a Jackson token stream into {@link LimitOrder}s, without building an intermediate
+ * <code>List&lt;List&lt;BigDecimal&gt;&gt;</code> or DTO tree. Levels past a given maximum are skipped without being parsed into numbers.
+ * </p>
+ * <p>
+ * All methods expect the parser to be positioned on the first token of the value to read, and leave it on the last token of that value.
+ * </p>
+ */
+public final class DepthStreamReader {
+
+  /**
+   * Read every level
+   */
+  public static final int ALL_LEVELS = Integer.MAX_VALUE;
+
+  private DepthStreamReader() {
+
+  }
+
+  /**
+   * Read an object with "asks" and "bids" arrays of [price, amount, ...] levels; other fields are skipped
+   * 
+   * @param jp The parser, on START_OBJECT
+   * @param currencyPair The currency pair of the orders
+   * @param maxLevels The number of levels to keep per side
+   * @param withTimestamps Whether a third element of each level is its timestamp in seconds
+   * @return The order book
+   */
+  public static OrderBook readOrderBook(JsonParser jp, CurrencyPair currencyPair, int maxLevels, boolean withTimestamps) throws IOException {
+
+    expect(jp, JsonToken.START_OBJECT);
+    List<LimitOrder> asks = new ArrayList<LimitOrder>();
+    List<LimitOrder> bids = new ArrayList<LimitOrder>();
+    while (jp.nextToken() == JsonToken.FIELD_NAME) {
+      String field = jp.getCurrentName();
+      jp.nextToken();
+      if ("asks".equals(field)) {
+        asks = readLevels(jp, OrderType.ASK, currencyPair, maxLevels, withTimestamps);
+      }
+      else if ("bids".equals(field)) {
+        bids = readLevels(jp, OrderType.BID, currencyPair, maxLevels, withTimestamps);
+      }
+      else {
+        jp.skipChildren();
+      }
+    }
+    return new OrderBook(null, asks, bids);
+  }
+
+  /**
+   * Read an array of [price, amount, ...] levels
+   * 
+   * @param jp The parser, on START_ARRAY (or VALUE_NULL, giving an empty list)
+   * @param orderType The side of the levels
+   * @param currencyPair The currency pair of the orders
+   * @param maxLevels The number of levels to keep
+   * @param withTimestamps Whether a third element of each level is its timestamp in seconds
+   * @return The orders in the order they were listed
+   */
+  public static List<LimitOrder> readLevels(JsonParser jp, OrderType orderType, CurrencyPair currencyPair, int maxLevels, boolean withTimestamps) throws IOException {
+
+    if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+      return new ArrayList<LimitOrder>();
+    }
+    expect(jp, JsonToken.START_ARRAY);
+    List<LimitOrder> orders = new ArrayList<LimitOrder>();
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      if (orders.size() >= maxLevels) {
+        jp.skipChildren();
+        continue;
+      }
+      expect(jp, JsonToken.START_ARRAY);
+      jp.nextToken();
+      BigDecimal price = readDecimal(jp);
+      jp.nextToken();
+      BigDecimal amount = readDecimal(jp);
+      Date timestamp = null;
+      JsonToken token = jp.nextToken();
+      if (withTimestamps && token != JsonToken.END_ARRAY) {
+        timestamp = new Date(readDecimal(jp).longValue() * 1000);
+        token = jp.nextToken();
+      }
+      for (; token != JsonToken.END_ARRAY && token != null; token = jp.nextToken()) {
+        jp.skipChildren();
+      }
+      orders.add(new LimitOrder(orderType, amount, currencyPair, "", timestamp, price));
+    }
+    return orders;
+  }
+
+  /**
+   * Read an array of level objects, e.g. {"price": "1.2", "quantity": "3", "total": "3.6"}
+   * 
+   * @param jp The parser, on START_ARRAY (or VALUE_NULL, giving an empty list)
+   * @param orderType The side of the levels
+   * @param currencyPair The currency pair of the orders
+   * @param priceField The name of the price field
+   * @param amountField The name of the amount field
+   * @param maxLevels The number of levels to keep
+   * @return The orders in the order they were listed
+   */
+  public static List<LimitOrder> readLevelObjects(JsonParser jp, OrderType orderType, CurrencyPair currencyPair, String priceField, String amountField, int maxLevels)
+      throws IOException {
+
+    if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+      return new ArrayList<LimitOrder>();
+    }
+    expect(jp, JsonToken.START_ARRAY);
+    List<LimitOrder> orders = new ArrayList<LimitOrder>();
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      if (orders.size() >= maxLevels) {
+        jp.skipChildren();
+        continue;
+      }
+      expect(jp, JsonToken.START_OBJECT);
+      BigDecimal price = null;
+      BigDecimal amount = null;
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        String field = jp.getCurrentName();
+        jp.nextToken();
+        if (priceField.equals(field)) {
+          price = readDecimal(jp);
+        }
+        else if (amountField.equals(field)) {
+          amount = readDecimal(jp);
+        }
+        else {
+          jp.skipChildren();
+        }
+      }
+      orders.add(new LimitOrder(orderType, amount, currencyPair, "", null, price));
+    }
+    return orders;
+  }
+
+  /**
+   * Read a decimal given either as a JSON number or as a string
+   * 
+   * @param jp The parser, on the value
+   * @return The decimal
+   */
+  public static BigDecimal readDecimal(JsonParser jp) throws IOException {
+
+    JsonToken token = jp.getCurrentToken();
+    if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+      return jp.getDecimalValue();
+    }
+    if (token == JsonToken.VALUE_STRING) {
+      try {
+        return new BigDecimal(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+      } catch (NumberFormatException e) {
+        throw new InvalidFormatException("Not a decimal: " + jp.getText(), jp.getText(), BigDecimal.class);
+      }
+    }
+    throw new InvalidFormatException("Expected a decimal but got " + token, jp.getText(), BigDecimal.class);
+  }
+
+  private static void expect(JsonParser jp, JsonToken expected) throws IOException {
+
+    if (jp.getCurrentToken() != expected) {
+      throw new InvalidFormatException("Expected " + expected + " but got " + jp.getCurrentToken(), jp.getText(), OrderBook.class);
+    }
+  }
+
+}
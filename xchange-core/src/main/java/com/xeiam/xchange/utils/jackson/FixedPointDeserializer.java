@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.utils.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.xeiam.xchange.dto.FixedPoint;
+
+/**
+ * Deserializes a JSON number or numeric string into a {@link FixedPoint} straight from the parser's character buffer, without an intermediate String or BigDecimal
+ */
+public class FixedPointDeserializer extends JsonDeserializer<FixedPoint> {
+
+  @Override
+  public FixedPoint deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+    return parse(jp, ctxt);
+  }
+
+  /**
+   * Parses the current token of the given parser
+   * 
+   * @param jp positioned on a number or string token
+   * @param ctxt
+   * @return the parsed value
+   */
+  public static FixedPoint parse(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+    JsonToken token = jp.getCurrentToken();
+    if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+      throw new InvalidFormatException("Expected a number or numeric string but got " + token, jp.getText(), FixedPoint.class);
+    }
+    try {
+      return FixedPoint.parse(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+    } catch (NumberFormatException e) {
+      throw new InvalidFormatException("Error parsing as fixed point", jp.getText(), FixedPoint.class);
+    } catch (ArithmeticException e) {
+      throw new InvalidFormatException("Too many digits for a fixed point", jp.getText(), FixedPoint.class);
+    }
+  }
+}
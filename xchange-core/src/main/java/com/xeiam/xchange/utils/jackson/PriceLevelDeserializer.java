@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.utils.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.xeiam.xchange.dto.FixedPoint;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
+
+/**
+ * Deserializes a JSON array of the form [price, amount, ...] into a {@link PriceLevel}. Any elements after the amount (e.g. a timestamp) are skipped.
+ */
+public class PriceLevelDeserializer extends JsonDeserializer<PriceLevel> {
+
+  @Override
+  public PriceLevel deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+    if (!jp.isExpectedStartArrayToken()) {
+      throw new InvalidFormatException("Expected a [price, amount] array but got " + jp.getCurrentToken(), jp.getText(), PriceLevel.class);
+    }
+    jp.nextToken();
+    FixedPoint price = FixedPointDeserializer.parse(jp, ctxt);
+    jp.nextToken();
+    FixedPoint amount = FixedPointDeserializer.parse(jp, ctxt);
+    for (JsonToken token = jp.nextToken(); token != JsonToken.END_ARRAY && token != null; token = jp.nextToken()) {
+      jp.skipChildren();
+    }
+    return new PriceLevel(price, amount);
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Bar;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.service.BarAggregator;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.polling.MarketDataType;
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.utils.DummyExchange;
+
+public class BarAggregatorTest {
+
+  private static Trade trade(String id, long time, String amount, String price) {
+
+    return new Trade(OrderType.BID, new BigDecimal(amount), CurrencyPair.BTC_USD, new BigDecimal(price), new Date(time), id);
+  }
+
+  @Test
+  public void testAggregatesBars() {
+
+    BarAggregator aggregator = new BarAggregator(10, BarAggregator.MINUTE, BarAggregator.HOUR);
+    aggregator.onTrade(trade("1", 0, "1", "100"));
+    aggregator.onTrade(trade("2", 30000, "3", "104"));
+    // out of order: older than trade 2, so not the close
+    aggregator.onTrade(trade("3", 20000, "1", "96"));
+    aggregator.onTrade(trade("4", 61000, "2", "101"));
+
+    List<Bar> minutes = aggregator.getBars(CurrencyPair.BTC_USD, BarAggregator.MINUTE, 10);
+    assertThat(minutes).hasSize(2);
+    Bar first = minutes.get(0);
+    assertThat(first.getOpenTime()).isEqualTo(new Date(0));
+    assertThat(first.getOpen()).isEqualTo(new BigDecimal("100"));
+    assertThat(first.getHigh()).isEqualTo(new BigDecimal("104"));
+    assertThat(first.getLow()).isEqualTo(new BigDecimal("96"));
+    assertThat(first.getClose()).isEqualTo(new BigDecimal("104"));
+    assertThat(first.getVolume()).isEqualTo(new BigDecimal("5"));
+    assertThat(first.getVwap()).isEqualTo(new BigDecimal("101.6"));
+    assertThat(first.getTradeCount()).isEqualTo(3);
+    assertThat(minutes.get(1).getOpenTime()).isEqualTo(new Date(BarAggregator.MINUTE));
+
+    Bar hour = aggregator.getLastBar(CurrencyPair.BTC_USD, BarAggregator.HOUR);
+    assertThat(hour.getTradeCount()).isEqualTo(4);
+    assertThat(hour.getClose()).isEqualTo(new BigDecimal("101"));
+    assertThat(aggregator.getBars(CurrencyPair.BTC_USD, BarAggregator.MINUTE, 1).get(0).getOpenTime()).isEqualTo(new Date(BarAggregator.MINUTE));
+  }
+
+  @Test
+  public void testDropsTradesOlderThanTheRing() {
+
+    BarAggregator aggregator = new BarAggregator(3, BarAggregator.MINUTE);
+    aggregator.onTrade(trade("1", 0, "1", "100"));
+    aggregator.onTrade(trade("2", 5 * BarAggregator.MINUTE, "1", "110"));
+    aggregator.onTrade(trade("3", 30000, "1", "90"));
+
+    List<Bar> bars = aggregator.getBars(CurrencyPair.BTC_USD, BarAggregator.MINUTE, 10);
+    assertThat(bars).hasSize(1);
+    assertThat(bars.get(0).getClose()).isEqualTo(new BigDecimal("110"));
+  }
+
+  @Test
+  public void testDeduplicatesPolledTradesAndDerivesTicker() {
+
+    BarAggregator aggregator = new BarAggregator(10, BarAggregator.MINUTE, BarAggregator.DAY);
+    MarketDataSubscription subscription = new MarketDataSubscription(new DummyExchange(null), CurrencyPair.BTC_USD, MarketDataType.TRADES);
+    aggregator.onMarketData(subscription, new Trades(Arrays.asList(trade("1", 1000, "1", "100"), trade("2", 2000, "2", "102")), TradeSortType.SortByID));
+    aggregator.onMarketData(subscription, new Trades(Arrays.asList(trade("2", 2000, "2", "102"), trade("3", 3000, "1", "99")), TradeSortType.SortByID));
+    aggregator.getStreamingListener().handleEvent(new DefaultExchangeEvent(ExchangeEventType.TRADE, null, trade("4", 4000, "1", "101")));
+
+    assertThat(aggregator.getLastBar(CurrencyPair.BTC_USD, BarAggregator.MINUTE).getTradeCount()).isEqualTo(4);
+
+    Ticker ticker = aggregator.getTicker(CurrencyPair.BTC_USD);
+    assertThat(ticker.getLast()).isEqualTo(new BigDecimal("101"));
+    assertThat(ticker.getHigh()).isEqualTo(new BigDecimal("102"));
+    assertThat(ticker.getLow()).isEqualTo(new BigDecimal("99"));
+    assertThat(ticker.getVolume()).isEqualTo(new BigDecimal("5"));
+    assertThat(ticker.getTimestamp()).isEqualTo(new Date(4000));
+    assertThat(aggregator.getTicker(CurrencyPair.LTC_USD)).isNull();
+  }
+
+  @Test
+  public void testRejectsTradesOfAnotherExchange() {
+
+    BarAggregator aggregator = new BarAggregator(10, BarAggregator.MINUTE);
+    aggregator.onMarketData(new MarketDataSubscription(new DummyExchange(null), CurrencyPair.BTC_USD, MarketDataType.TRADES),
+        new Trades(Arrays.asList(trade("123", 1000, "1", "100")), TradeSortType.SortByID));
+    try {
+      // the same trade id on another venue is another trade, and must not go into the same bars either
+      aggregator.onMarketData(new MarketDataSubscription(new DummyExchange(null), CurrencyPair.BTC_USD, MarketDataType.TRADES),
+          new Trades(Arrays.asList(trade("123", 2000, "5", "90")), TradeSortType.SortByID));
+      fail("expected the trades of a second exchange to be rejected");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    assertThat(aggregator.getLastBar(CurrencyPair.BTC_USD, BarAggregator.MINUTE).getTradeCount()).isEqualTo(1);
+  }
+
+}
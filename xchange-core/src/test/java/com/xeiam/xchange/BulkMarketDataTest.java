@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.service.polling.BulkMarketData;
+import com.xeiam.xchange.service.polling.BulkPollingMarketDataService;
+import com.xeiam.xchange.service.polling.MarketDataType;
+import com.xeiam.xchange.utils.DummyMarketDataService;
+
+public class BulkMarketDataTest {
+
+  private static final List<CurrencyPair> PAIRS = Arrays.asList(CurrencyPair.BTC_USD, CurrencyPair.LTC_BTC, CurrencyPair.BTC_EUR);
+
+  private static class DummyBulkMarketDataService extends DummyMarketDataService implements BulkPollingMarketDataService {
+
+    private int bulkCalls;
+
+    DummyBulkMarketDataService() {
+
+      super(0);
+    }
+
+    @Override
+    public Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+      bulkCalls++;
+      return BulkMarketData.fetchEach(new DummyMarketDataService(0), MarketDataType.TICKER, currencyPairs, null);
+    }
+
+    @Override
+    public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+      bulkCalls++;
+      return BulkMarketData.fetchEach(new DummyMarketDataService(0), MarketDataType.ORDER_BOOK, currencyPairs, null);
+    }
+  }
+
+  @Test
+  public void testBatchEndpointUsedWhenAvailable() throws Exception {
+
+    DummyBulkMarketDataService service = new DummyBulkMarketDataService();
+
+    Map<CurrencyPair, Ticker> tickers = BulkMarketData.getTickers(service, PAIRS, null);
+    BulkMarketData.getOrderBooks(service, PAIRS, null);
+
+    assertThat(new ArrayList<CurrencyPair>(tickers.keySet())).isEqualTo(PAIRS);
+    assertThat(service.bulkCalls).isEqualTo(2);
+    assertThat(service.getCalls()).isEqualTo(0);
+  }
+
+  @Test
+  public void testFallbackWithoutBatchDepthEndpoint() throws Exception {
+
+    DummyBulkMarketDataService service = new DummyBulkMarketDataService() {
+
+      @Override
+      public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) {
+
+        throw new NotAvailableFromExchangeException();
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(PAIRS.size());
+    try {
+      Map<CurrencyPair, OrderBook> orderBooks = BulkMarketData.getOrderBooks(service, PAIRS, executor);
+
+      assertThat(new ArrayList<CurrencyPair>(orderBooks.keySet())).isEqualTo(PAIRS);
+      assertThat(service.getCalls()).isEqualTo(3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelFallback() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(100);
+    ExecutorService executor = Executors.newFixedThreadPool(PAIRS.size());
+    try {
+      Map<CurrencyPair, Ticker> tickers = BulkMarketData.getTickers(service, PAIRS, executor);
+
+      assertThat(new ArrayList<CurrencyPair>(tickers.keySet())).isEqualTo(PAIRS);
+      for (CurrencyPair currencyPair : PAIRS) {
+        assertThat(tickers.get(currencyPair).getCurrencyPair()).isEqualTo(currencyPair);
+      }
+      assertThat(service.getCalls()).isEqualTo(3);
+      assertThat(service.getMaxInFlight()).isEqualTo(3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailureOfOnePairPropagates() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0) {
+
+      @Override
+      public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) throws IOException {
+
+        if (currencyPair.equals(CurrencyPair.LTC_BTC)) {
+          throw new IOException("timeout");
+        }
+        return super.getOrderBook(currencyPair, args);
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      BulkMarketData.getOrderBooks(service, PAIRS, executor);
+      fail("expected IOException");
+    } catch (IOException e) {
+      assertThat(e.getMessage()).isEqualTo("timeout");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
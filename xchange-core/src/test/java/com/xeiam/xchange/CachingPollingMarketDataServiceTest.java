@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.service.polling.CachingPollingMarketDataService;
+import com.xeiam.xchange.utils.DummyMarketDataService;
+
+public class CachingPollingMarketDataServiceTest {
+
+  @Test
+  public void testHitWithinTimeToLive() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0);
+    CachingPollingMarketDataService cache = new CachingPollingMarketDataService(service, 60000, 10);
+
+    Ticker first = cache.getTicker(CurrencyPair.BTC_USD);
+    Ticker second = cache.getTicker(CurrencyPair.BTC_USD);
+    cache.getTicker(CurrencyPair.BTC_EUR);
+    cache.getOrderBook(CurrencyPair.BTC_USD);
+
+    assertThat(second).isSameAs(first);
+    assertThat(service.getCalls()).isEqualTo(3);
+    assertThat(cache.getHitCount()).isEqualTo(1L);
+    assertThat(cache.getMissCount()).isEqualTo(3L);
+  }
+
+  @Test
+  public void testExpiry() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0);
+    CachingPollingMarketDataService cache = new CachingPollingMarketDataService(service, 20, 60000, 60000, 10);
+
+    cache.getTicker(CurrencyPair.BTC_USD);
+    Thread.sleep(40);
+    cache.getTicker(CurrencyPair.BTC_USD);
+
+    assertThat(service.getCalls()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConcurrentMissesCoalesced() throws Exception {
+
+    final DummyMarketDataService service = new DummyMarketDataService(100);
+    final CachingPollingMarketDataService cache = new CachingPollingMarketDataService(service, 0, 10);
+
+    ExecutorService executor = Executors.newFixedThreadPool(50);
+    try {
+      List<Future<Ticker>> futures = new ArrayList<Future<Ticker>>();
+      for (int i = 0; i < 50; i++) {
+        futures.add(executor.submit(new Callable<Ticker>() {
+
+          @Override
+          public Ticker call() throws Exception {
+
+            return cache.getTicker(CurrencyPair.BTC_USD);
+          }
+        }));
+      }
+      Ticker ticker = futures.get(0).get();
+      for (Future<Ticker> future : futures) {
+        assertThat(future.get()).isSameAs(ticker);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(service.getCalls()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1L);
+    assertThat(cache.getHitCount()).isEqualTo(49L);
+  }
+
+  @Test
+  public void testSizeBound() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0);
+    CachingPollingMarketDataService cache = new CachingPollingMarketDataService(service, 60000, 2);
+
+    cache.getTicker(CurrencyPair.BTC_USD);
+    cache.getTicker(CurrencyPair.BTC_EUR);
+    cache.getTicker(CurrencyPair.BTC_USD);
+    cache.getTicker(CurrencyPair.BTC_GBP); // evicts BTC/EUR, the least recently used
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictionCount()).isEqualTo(1L);
+
+    cache.getTicker(CurrencyPair.BTC_USD);
+    assertThat(service.getCalls()).isEqualTo(3);
+    cache.getTicker(CurrencyPair.BTC_EUR);
+    assertThat(service.getCalls()).isEqualTo(4);
+  }
+
+  @Test
+  public void testFailuresNotCached() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0) {
+
+      @Override
+      public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
+
+        Ticker ticker = super.getTicker(currencyPair, args);
+        if (getCalls() == 1) {
+          throw new IOException("timeout");
+        }
+        return ticker;
+      }
+    };
+    CachingPollingMarketDataService cache = new CachingPollingMarketDataService(service, 60000, 10);
+
+    try {
+      cache.getTicker(CurrencyPair.BTC_USD);
+      fail("expected IOException");
+    } catch (IOException e) {
+      assertThat(e.getMessage()).isEqualTo("timeout");
+    }
+    assertThat(cache.getTicker(CurrencyPair.BTC_USD)).isNotNull();
+    assertThat(service.getCalls()).isEqualTo(2);
+  }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.ConsolidatedOrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.service.ConsolidatedOrderBookFeed;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.polling.MarketDataType;
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.utils.DummyExchange;
+
+public class ConsolidatedOrderBookTest {
+
+  private static LimitOrder order(OrderType type, String amount, String price) {
+
+    return new LimitOrder(type, new BigDecimal(amount), CurrencyPair.BTC_USD, "", null, new BigDecimal(price));
+  }
+
+  private static OrderBook book(LimitOrder... orders) {
+
+    List<LimitOrder> asks = new ArrayList<LimitOrder>();
+    List<LimitOrder> bids = new ArrayList<LimitOrder>();
+    for (LimitOrder order : orders) {
+      (order.getType() == OrderType.ASK ? asks : bids).add(order);
+    }
+    return new OrderBook(null, asks, bids);
+  }
+
+  private static OrderBookUpdate update(OrderType type, String price, String totalVolume) {
+
+    return new OrderBookUpdate(type, new BigDecimal(totalVolume), CurrencyPair.BTC_USD, new BigDecimal(price), null, new BigDecimal(totalVolume));
+  }
+
+  @Test
+  public void testMergesSources() {
+
+    ConsolidatedOrderBook consolidated = new ConsolidatedOrderBook(CurrencyPair.BTC_USD);
+    consolidated.update("Bitstamp", book(order(OrderType.ASK, "1", "101"), order(OrderType.ASK, "2", "102"), order(OrderType.BID, "1", "99")));
+    consolidated.update("Kraken", book(order(OrderType.ASK, "3", "101.0"), order(OrderType.ASK, "0.5", "100.5"), order(OrderType.BID, "1", "99.5"),
+        order(OrderType.BID, "2", "99.5")));
+
+    assertThat(consolidated.getSources()).containsOnly("Bitstamp", "Kraken");
+    assertThat(consolidated.getBestAsk().getId()).isEqualTo("Kraken");
+    assertThat(consolidated.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("100.5"));
+    assertThat(consolidated.getBestBid().getId()).isEqualTo("Kraken");
+    assertThat(consolidated.getBestBid().getTradableAmount()).isEqualTo(new BigDecimal("3"));
+
+    // same price at both venues, Bitstamp first as it quoted it first
+    assertThat(consolidated.getVolume(OrderType.ASK, new BigDecimal("101"))).isEqualTo(new BigDecimal("4"));
+    assertThat(new ArrayList<String>(consolidated.getVolumes(OrderType.ASK, new BigDecimal("101")).keySet())).isEqualTo(Arrays.asList("Bitstamp", "Kraken"));
+
+    List<LimitOrder> asks = consolidated.getAsks();
+    assertThat(asks).hasSize(4);
+    assertThat(asks.get(0).getLimitPrice()).isEqualTo(new BigDecimal("100.5"));
+    assertThat(asks.get(1).getId()).isEqualTo("Bitstamp");
+    assertThat(asks.get(2).getId()).isEqualTo("Kraken");
+    assertThat(asks.get(3).getLimitPrice()).isEqualTo(new BigDecimal("102"));
+  }
+
+  @Test
+  public void testIncrementalUpdatesTouchOnlyTheirSource() {
+
+    ConsolidatedOrderBook consolidated = new ConsolidatedOrderBook(CurrencyPair.BTC_USD);
+    consolidated.update("Bitstamp", book(order(OrderType.ASK, "1", "101"), order(OrderType.BID, "1", "99")));
+    consolidated.update("Kraken", book(order(OrderType.ASK, "3", "101"), order(OrderType.BID, "2", "98")));
+
+    // a new Kraken book drops its 101 ask and adds a 100 ask
+    consolidated.update("Kraken", book(order(OrderType.ASK, "1", "100"), order(OrderType.BID, "2", "98")));
+    assertThat(consolidated.getVolume(OrderType.ASK, new BigDecimal("101"))).isEqualTo(new BigDecimal("1"));
+    assertThat(consolidated.getBestAsk().getId()).isEqualTo("Kraken");
+
+    consolidated.update("Kraken", update(OrderType.ASK, "100", "0"));
+    assertThat(consolidated.getBestAsk().getId()).isEqualTo("Bitstamp");
+    consolidated.update("Kraken", update(OrderType.BID, "99", "5"));
+    assertThat(consolidated.getVolume(OrderType.BID, new BigDecimal("99"))).isEqualTo(new BigDecimal("6"));
+
+    consolidated.remove("Bitstamp");
+    assertThat(consolidated.getSources()).containsOnly("Kraken");
+    assertThat(consolidated.getBestAsk()).isNull();
+    assertThat(consolidated.getBestBid().getTradableAmount()).isEqualTo(new BigDecimal("5"));
+    assertThat(consolidated.getBids()).hasSize(2);
+  }
+
+  @Test
+  public void testFeed() {
+
+    ConsolidatedOrderBook consolidated = new ConsolidatedOrderBook(CurrencyPair.BTC_USD);
+    ConsolidatedOrderBookFeed feed = new ConsolidatedOrderBookFeed(consolidated);
+
+    DummyExchange polled = new DummyExchange(null);
+    polled.getExchangeSpecification().setExchangeName("Polled");
+    MarketDataSubscription subscription = new MarketDataSubscription(polled, CurrencyPair.BTC_USD, MarketDataType.ORDER_BOOK);
+    feed.onMarketData(subscription, book(order(OrderType.ASK, "1", "101")));
+
+    DummyExchange streamed = new DummyExchange(null);
+    streamed.getExchangeSpecification().setExchangeName("Streamed");
+    ExchangeEventListener listener = feed.getStreamingListener(streamed);
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.DEPTH, null, Arrays.asList(update(OrderType.ASK, "100", "2"), update(OrderType.BID, "99", "1"))));
+
+    assertThat(consolidated.getBestAsk().getId()).isEqualTo("Streamed");
+    assertThat(consolidated.getAsks()).hasSize(2);
+
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.ERROR, "unparseable"));
+    assertThat(consolidated.getSources()).hasSize(2);
+
+    feed.onError(subscription, new RuntimeException("timeout"));
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.DISCONNECT, null));
+    assertThat(consolidated.getSources()).isEmpty();
+    assertThat(consolidated.getAsks()).isEmpty();
+
+    // updates can't rebuild the book of a removed source, its next full book does
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.DEPTH, null, update(OrderType.ASK, "100", "2")));
+    assertThat(consolidated.getSources()).isEmpty();
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.SUBSCRIBE_ORDERS, null, book(order(OrderType.ASK, "1", "102"))));
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.DEPTH, null, update(OrderType.ASK, "100", "2")));
+    assertThat(consolidated.getAsks()).hasSize(2);
+
+    listener.handleEvent(new DefaultExchangeEvent(ExchangeEventType.GAP, null, 3L));
+    assertThat(consolidated.getSources()).isEmpty();
+  }
+
+}
@@ -25,7 +25,11 @@ import static org.fest.assertions.api.Assertions.assertThat;
 
 import org.junit.Test;
 
+import com.xeiam.xchange.currency.Currencies;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable.SymbolFormat;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable.SymbolParser;
 
 public class CurrencyPairTest {
 
@@ -77,4 +81,74 @@ public class CurrencyPairTest {
 
   }
 
+  @Test
+  public void testOfReturnsCanonicalInstances() {
+
+    assertThat(CurrencyPair.of(Currencies.BTC, Currencies.USD)).isSameAs(CurrencyPair.BTC_USD);
+    assertThat(CurrencyPair.of("FOO", "BAR")).isSameAs(CurrencyPair.of(new String("FOO"), new String("BAR")));
+    assertThat(CurrencyPair.of("FOO", "BAR")).isEqualTo(new CurrencyPair("FOO", "BAR"));
+    assertThat(CurrencyPair.of("FOO", "BAR").hashCode()).isEqualTo(new CurrencyPair("FOO", "BAR").hashCode());
+    assertThat(CurrencyPair.of("FOO", "BAR")).isNotEqualTo(CurrencyPair.of("BAR", "FOO"));
+  }
+
+  @Test
+  public void testSymbolTable() {
+
+    CurrencyPairSymbolTable<Integer> marketIds = new CurrencyPairSymbolTable<Integer>();
+    marketIds.put(new CurrencyPair("LTC", "BTC"), 3);
+
+    assertThat(marketIds.getNativeSymbol(CurrencyPair.LTC_BTC)).isEqualTo(3);
+    assertThat(marketIds.getCurrencyPair(3)).isSameAs(CurrencyPair.LTC_BTC);
+    assertThat(marketIds.getNativeSymbol(CurrencyPair.BTC_USD)).isNull();
+    assertThat(marketIds.getCurrencyPair(4)).isNull();
+
+    marketIds.asCurrencyPairMap().put(4, new CurrencyPair("FTC", "LTC"));
+    assertThat(marketIds.getNativeSymbol(CurrencyPair.of("FTC", "LTC"))).isEqualTo(4);
+    assertThat(marketIds.asNativeSymbolMap().get(CurrencyPair.LTC_BTC)).isEqualTo(3);
+    assertThat(marketIds.asNativeSymbolMap()).hasSize(marketIds.getCurrencyPairs().size());
+  }
+
+  @Test
+  public void testSymbolTableWithFormat() {
+
+    CurrencyPairSymbolTable<String> symbols = new CurrencyPairSymbolTable<String>(new SymbolFormat<String>() {
+
+      @Override
+      public String format(CurrencyPair currencyPair) {
+
+        return currencyPair.baseSymbol.toLowerCase() + "_" + currencyPair.counterSymbol.toLowerCase();
+      }
+
+      @Override
+      public CurrencyPair parse(String nativeSymbol) {
+
+        String[] currencies = nativeSymbol.split("_");
+        return currencies.length == 2 ? CurrencyPair.of(currencies[0].toUpperCase(), currencies[1].toUpperCase()) : null;
+      }
+    });
+
+    assertThat(symbols.getNativeSymbol(CurrencyPair.BTC_EUR)).isEqualTo("btc_eur");
+    assertThat(symbols.getCurrencyPair("btc_eur")).isSameAs(CurrencyPair.BTC_EUR);
+    assertThat(symbols.getCurrencyPair("ltc_usd")).isSameAs(CurrencyPair.LTC_USD);
+    assertThat(symbols.getCurrencyPair("invalid")).isNull();
+    assertThat(symbols.getCurrencyPairs()).hasSize(2);
+  }
+
+  @Test
+  public void testSymbolTableWithParser() {
+
+    CurrencyPairSymbolTable<String> symbols = new CurrencyPairSymbolTable<String>(new SymbolParser<String>() {
+
+      @Override
+      public CurrencyPair parse(String nativeSymbol) {
+
+        return CurrencyPair.of(nativeSymbol.substring(0, 3), nativeSymbol.substring(3));
+      }
+    });
+
+    assertThat(symbols.getNativeSymbol(CurrencyPair.BTC_EUR)).isNull();
+    assertThat(symbols.getCurrencyPair("BTCEUR")).isSameAs(CurrencyPair.BTC_EUR);
+    assertThat(symbols.getNativeSymbol(CurrencyPair.BTC_EUR)).isEqualTo("BTCEUR");
+  }
+
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.utils.jackson.DepthStreamReader;
+
+public class DepthStreamReaderTest {
+
+  @Test
+  public void testReadOrderBook() throws IOException {
+
+    JsonParser jp = parser("{\"timestamp\": 1, \"bids\": [[\"9.5\", 2, 1391825343], [9.75, \"1\"]], \"asks\": [[10, 3]], \"extra\": {\"a\": [1]}}");
+
+    OrderBook orderBook = DepthStreamReader.readOrderBook(jp, CurrencyPair.BTC_USD, DepthStreamReader.ALL_LEVELS, true);
+
+    assertThat(jp.getCurrentToken()).isEqualTo(JsonToken.END_OBJECT);
+    assertThat(orderBook.getBids().size()).isEqualTo(2);
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("9.75"));
+    assertThat(orderBook.getBestBid().getTimestamp()).isNull();
+    LimitOrder bid = orderBook.getBids().get(1);
+    assertThat(bid.getTradableAmount()).isEqualTo(new BigDecimal("2"));
+    assertThat(bid.getTimestamp()).isEqualTo(new Date(1391825343000L));
+    assertThat(bid.getCurrencyPair()).isEqualTo(CurrencyPair.BTC_USD);
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("10"));
+  }
+
+  @Test
+  public void testMaxLevelsSkipsRest() throws IOException {
+
+    JsonParser jp = parser("[[\"1\", \"1\", \"x\", [0]], [\"2\", \"1\"], [\"3\", \"1\"]] ");
+
+    List<LimitOrder> asks = DepthStreamReader.readLevels(jp, OrderType.ASK, CurrencyPair.BTC_USD, 2, false);
+
+    assertThat(asks.size()).isEqualTo(2);
+    assertThat(asks.get(1).getLimitPrice()).isEqualTo(new BigDecimal("2"));
+    assertThat(jp.getCurrentToken()).isEqualTo(JsonToken.END_ARRAY);
+    assertThat(jp.nextToken()).isNull();
+  }
+
+  @Test
+  public void testReadLevelObjects() throws IOException {
+
+    JsonParser jp = parser("[{\"price\": \"0.5\", \"total\": \"1\", \"quantity\": \"2\"}, {\"quantity\": 4, \"price\": 0.25}]");
+
+    List<LimitOrder> bids = DepthStreamReader.readLevelObjects(jp, OrderType.BID, CurrencyPair.LTC_BTC, "price", "quantity", DepthStreamReader.ALL_LEVELS);
+
+    assertThat(bids.size()).isEqualTo(2);
+    assertThat(bids.get(0).getLimitPrice()).isEqualTo(new BigDecimal("0.5"));
+    assertThat(bids.get(0).getTradableAmount()).isEqualTo(new BigDecimal("2"));
+    assertThat(bids.get(1).getTradableAmount()).isEqualTo(new BigDecimal("4"));
+  }
+
+  @Test
+  public void testNullSide() throws IOException {
+
+    assertThat(DepthStreamReader.readLevels(parser("null"), OrderType.BID, CurrencyPair.BTC_USD, 10, false).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testRejectsNonDecimal() throws IOException {
+
+    try {
+      DepthStreamReader.readLevels(parser("[[\"abc\", \"1\"]]"), OrderType.BID, CurrencyPair.BTC_USD, 10, false);
+      fail("Expected InvalidFormatException");
+    } catch (InvalidFormatException e) {
+      // expected
+    }
+  }
+
+  private static JsonParser parser(String json) throws IOException {
+
+    JsonParser jp = new JsonFactory().createParser(json);
+    jp.nextToken();
+    return jp;
+  }
+}
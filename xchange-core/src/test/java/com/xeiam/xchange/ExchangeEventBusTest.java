@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.WaitStrategy;
+
+public class ExchangeEventBusTest {
+
+  @Test
+  public void testQueueSemantics() throws Exception {
+
+    ExchangeEventBus bus = new ExchangeEventBus(4, WaitStrategy.BUSY_SPIN);
+    assertThat(bus.poll()).isNull();
+    assertThat(bus.peek()).isNull();
+
+    bus.publish(event("1"));
+    bus.publish(event("2"));
+
+    assertThat(bus.size()).isEqualTo(2);
+    assertThat(bus.peek().getData()).isEqualTo("1");
+    assertThat(bus.take().getData()).isEqualTo("1");
+    assertThat(bus.poll().getData()).isEqualTo("2");
+    assertThat(bus.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testMarketDataReplacedByGapWhenFull() throws Exception {
+
+    ExchangeEventBus bus = new ExchangeEventBus(4, WaitStrategy.YIELD);
+    bus.publish(new DefaultExchangeEvent(ExchangeEventType.CONNECT, null));
+    for (int i = 0; i < 4; i++) {
+      bus.publish(event(String.valueOf(i)));
+    }
+
+    assertThat(bus.size()).isEqualTo(3);
+    assertThat(bus.getDroppedCount()).isEqualTo(3L);
+    assertThat(bus.take().getEventType()).isEqualTo(ExchangeEventType.CONNECT);
+    ExchangeEvent gap = bus.take();
+    assertThat(gap.getEventType()).isEqualTo(ExchangeEventType.GAP);
+    assertThat(gap.getPayload()).isEqualTo(3L);
+    assertThat(bus.take().getData()).isEqualTo("3");
+  }
+
+  @Test
+  public void testGapsMergedAndControlEventsKept() throws Exception {
+
+    ExchangeEventBus bus = new ExchangeEventBus(4, WaitStrategy.YIELD);
+    for (int i = 0; i < 5; i++) {
+      bus.publish(event(String.valueOf(i)));
+    }
+    bus.publish(new DefaultExchangeEvent(ExchangeEventType.DISCONNECT, null));
+    bus.publish(event("5"));
+    bus.publish(event("6"));
+
+    assertThat(bus.getDroppedCount()).isEqualTo(6L);
+    assertThat(bus.take().getEventType()).isEqualTo(ExchangeEventType.DISCONNECT);
+    ExchangeEvent gap = bus.take();
+    assertThat(gap.getEventType()).isEqualTo(ExchangeEventType.GAP);
+    assertThat(gap.getPayload()).isEqualTo(6L);
+    assertThat(bus.take().getData()).isEqualTo("6");
+    assertThat(bus.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testPeekTimesOut() throws Exception {
+
+    ExchangeEventBus bus = new ExchangeEventBus(4, WaitStrategy.PARK);
+    assertThat(bus.peek(10, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  public void testListenersCalledDirectly() {
+
+    ExchangeEventBus bus = new ExchangeEventBus(4, WaitStrategy.PARK);
+    final List<String> received = new ArrayList<String>();
+    bus.addListener(new ExchangeEventListener() {
+
+      @Override
+      public void handleEvent(ExchangeEvent event) {
+
+        received.add(event.getData());
+      }
+    });
+
+    bus.publish(event("1"));
+    bus.publish(event("2"));
+
+    assertThat(received).isEqualTo(Arrays.asList("1", "2"));
+  }
+
+  @Test
+  public void testEachEventTakenOnceByConcurrentConsumers() throws Exception {
+
+    final int events = 100000;
+    final int consumers = 4;
+    final ExchangeEventBus bus = new ExchangeEventBus(1024, WaitStrategy.YIELD);
+    final List<Integer> taken = Collections.synchronizedList(new ArrayList<Integer>());
+    final CountDownLatch done = new CountDownLatch(events);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < consumers; i++) {
+      Thread thread = new Thread(new Runnable() {
+
+        @Override
+        public void run() {
+
+          try {
+            while (true) {
+              taken.add(Integer.valueOf(bus.take().getData()));
+              done.countDown();
+            }
+          } catch (InterruptedException e) {
+            // stop
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (int i = 0; i < events; i++) {
+      while (bus.size() > 512) {
+        Thread.yield();
+      }
+      bus.publish(event(String.valueOf(i)));
+    }
+
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+
+    assertThat(bus.getDroppedCount()).isEqualTo(0L);
+    assertThat(taken.size()).isEqualTo(events);
+    List<Integer> sorted = new ArrayList<Integer>(taken);
+    Collections.sort(sorted);
+    for (int i = 0; i < events; i++) {
+      assertThat(sorted.get(i)).isEqualTo(i);
+    }
+  }
+
+  private static ExchangeEvent event(String data) {
+
+    return new DefaultExchangeEvent(ExchangeEventType.TRADE, data);
+  }
+
+}
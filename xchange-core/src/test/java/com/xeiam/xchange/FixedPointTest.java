@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.dto.FixedPoint;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
+import com.xeiam.xchange.utils.jackson.PriceLevelDeserializer;
+
+public class FixedPointTest {
+
+  @Test
+  public void testParse() {
+
+    FixedPoint value = FixedPoint.parse("-123.4500");
+    assertThat(value.getMantissa()).isEqualTo(-1234500L);
+    assertThat(value.getScale()).isEqualTo(4);
+    assertThat(value.toBigDecimal()).isEqualTo(new BigDecimal("-123.4500"));
+
+    assertThat(FixedPoint.parse("1.5E-4").toBigDecimal()).isEqualTo(new BigDecimal("0.00015"));
+    assertThat(FixedPoint.parse("15e2").toBigDecimal()).isEqualTo(new BigDecimal("1500"));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testParseInvalid() {
+
+    FixedPoint.parse("12a.3");
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testParseOverflow() {
+
+    FixedPoint.parse("123456789012345678901234567890");
+  }
+
+  @Test
+  public void testCompareAcrossScales() {
+
+    assertThat(FixedPoint.parse("1.50").compareTo(FixedPoint.parse("1.5"))).isEqualTo(0);
+    assertThat(FixedPoint.parse("1.50")).isEqualTo(FixedPoint.parse("1.5"));
+    assertThat(FixedPoint.parse("1.50").hashCode()).isEqualTo(FixedPoint.parse("1.5").hashCode());
+    assertThat(FixedPoint.parse("1.49999").compareTo(FixedPoint.parse("1.5"))).isEqualTo(-1);
+    assertThat(FixedPoint.parse("-2").compareTo(FixedPoint.parse("1.5"))).isEqualTo(-1);
+  }
+
+  @Test
+  public void testArithmetic() {
+
+    FixedPoint ask = FixedPoint.parse("601.25");
+    FixedPoint bid = FixedPoint.parse("600.5");
+
+    assertThat(ask.subtract(bid).toBigDecimal()).isEqualTo(new BigDecimal("0.75"));
+    assertThat(ask.add(bid).toBigDecimal()).isEqualTo(new BigDecimal("1201.75"));
+    assertThat(ask.multiply(FixedPoint.parse("0.1")).toBigDecimal()).isEqualTo(new BigDecimal("60.125"));
+    assertThat(bid.setScale(3).getMantissa()).isEqualTo(600500L);
+  }
+
+  @Test
+  public void testDeserializePriceLevels() throws Exception {
+
+    String json = "{\"bids\": [[\"601.25\", \"1.5\", 1402415281], [602, 0.00012345]]}";
+    Levels levels = new ObjectMapper().readValue(json, Levels.class);
+
+    assertThat(levels.bids.size()).isEqualTo(2);
+    assertThat(levels.bids.get(0).getPrice()).isEqualTo(FixedPoint.parse("601.25"));
+    assertThat(levels.bids.get(0).getAmount()).isEqualTo(FixedPoint.parse("1.5"));
+    assertThat(levels.bids.get(1).getPrice().toBigDecimal()).isEqualTo(new BigDecimal("602"));
+    assertThat(levels.bids.get(1).getAmount().toBigDecimal()).isEqualTo(new BigDecimal("0.00012345"));
+  }
+
+  static class Levels {
+
+    @JsonProperty("bids")
+    @JsonDeserialize(contentUsing = PriceLevelDeserializer.class)
+    List<PriceLevel> bids;
+  }
+}
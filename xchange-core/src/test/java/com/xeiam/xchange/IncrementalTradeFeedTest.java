@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.service.polling.IncrementalTradeFeed;
+import com.xeiam.xchange.service.polling.IncrementalTradePoller;
+import com.xeiam.xchange.service.polling.MarketDataListener;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.polling.TradeCursor;
+import com.xeiam.xchange.utils.DummyExchange;
+import com.xeiam.xchange.utils.DummyMarketDataService;
+
+public class IncrementalTradeFeedTest {
+
+  /**
+   * A tape of trades with ids 1..size, one per second, returning trades with id >= since like an inclusive cursor
+   */
+  private static class TapeMarketDataService extends DummyMarketDataService {
+
+    private final List<Object[]> requests = new ArrayList<Object[]>();
+    private int size;
+
+    TapeMarketDataService(int size) {
+
+      super(0);
+      this.size = size;
+    }
+
+    @Override
+    public Trades getTrades(CurrencyPair currencyPair, Object... args) throws IOException {
+
+      super.getTrades(currencyPair, args);
+      requests.add(args);
+      long since = args.length == 0 ? 1 : (Long) args[0];
+      List<Trade> trades = new ArrayList<Trade>();
+      for (long id = Math.max(since, size - 4); id <= size; id++) {
+        trades.add(new Trade(OrderType.BID, BigDecimal.ONE, currencyPair, BigDecimal.TEN, new Date(id * 1000), String.valueOf(id)));
+      }
+      return new Trades(trades, TradeSortType.SortByTimestamp);
+    }
+  }
+
+  @Test
+  public void testOnlyNewTradesAreReturned() throws Exception {
+
+    TapeMarketDataService service = new TapeMarketDataService(10);
+    IncrementalTradeFeed feed = new IncrementalTradeFeed(service, CurrencyPair.BTC_USD, TradeCursor.TRADE_ID);
+
+    assertThat(ids(feed.poll())).isEqualTo(Arrays.asList("6", "7", "8", "9", "10"));
+    assertThat(feed.getPosition()).isEqualTo(10L);
+
+    assertThat(feed.poll().getTrades()).isEmpty();
+
+    service.size = 12;
+    assertThat(ids(feed.poll())).isEqualTo(Arrays.asList("11", "12"));
+
+    assertThat(service.requests.get(0)).isEmpty();
+    assertThat(Arrays.asList(service.requests.get(1))).isEqualTo(Arrays.<Object> asList(10L));
+    assertThat(Arrays.asList(service.requests.get(2))).isEqualTo(Arrays.<Object> asList(10L));
+    assertThat(feed.getPosition()).isEqualTo(12L);
+  }
+
+  @Test
+  public void testResumeFromSavedPosition() throws Exception {
+
+    TapeMarketDataService service = new TapeMarketDataService(20);
+    IncrementalTradeFeed feed = new IncrementalTradeFeed(service, CurrencyPair.BTC_USD, TradeCursor.TRADE_ID);
+    feed.setPosition(19L);
+
+    assertThat(ids(feed.poll())).isEqualTo(Arrays.asList("19", "20"));
+    assertThat(Arrays.asList(service.requests.get(0))).isEqualTo(Arrays.<Object> asList(19L));
+  }
+
+  @Test
+  public void testCursorPositions() {
+
+    List<Trade> list = new ArrayList<Trade>();
+    list.add(new Trade(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, BigDecimal.TEN, new Date(5000), "7"));
+    list.add(new Trade(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, BigDecimal.TEN, new Date(9000), "5"));
+    Trades trades = new Trades(list, TradeSortType.SortByID);
+
+    assertThat(TradeCursor.TRADE_ID.advance(null, trades)).isEqualTo(7L);
+    assertThat(TradeCursor.TRADE_ID.advance(8L, trades)).isEqualTo(8L);
+    assertThat(TradeCursor.TIMESTAMP.advance(null, trades)).isEqualTo(new Date(9000));
+    assertThat(TradeCursor.LAST_ID.advance(null, trades)).isEqualTo(7L);
+    assertThat(TradeCursor.LAST_ID.advance(null, new Trades(list, 1234L, TradeSortType.SortByID))).isEqualTo(1234L);
+    assertThat(TradeCursor.NONE.advance(null, trades)).isNull();
+    assertThat(TradeCursor.NONE.toArgs(null)).isEmpty();
+  }
+
+  @Test
+  public void testPollerStreamsNewTrades() throws Exception {
+
+    final TapeMarketDataService service = new TapeMarketDataService(3);
+    final BlockingQueue<Trades> received = new LinkedBlockingQueue<Trades>();
+    IncrementalTradePoller poller = new IncrementalTradePoller(1);
+    try {
+      poller.subscribe(new DummyExchange(service), CurrencyPair.BTC_USD, TradeCursor.TRADE_ID, 10, TimeUnit.MILLISECONDS, new MarketDataListener() {
+
+        @Override
+        public void onMarketData(MarketDataSubscription subscription, Object marketData) {
+
+          received.add((Trades) marketData);
+          service.size++;
+        }
+
+        @Override
+        public void onError(MarketDataSubscription subscription, Throwable cause) {
+
+        }
+      });
+
+      assertThat(ids(received.poll(5, TimeUnit.SECONDS))).isEqualTo(Arrays.asList("1", "2", "3"));
+      assertThat(ids(received.poll(5, TimeUnit.SECONDS))).isEqualTo(Arrays.asList("4"));
+      assertThat(ids(received.poll(5, TimeUnit.SECONDS))).isEqualTo(Arrays.asList("5"));
+    } finally {
+      poller.shutdown();
+    }
+  }
+
+  private static List<String> ids(Trades trades) {
+
+    List<String> ids = new ArrayList<String>();
+    for (Trade trade : trades.getTrades()) {
+      ids.add(trade.getId());
+    }
+    return ids;
+  }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.service.polling.MarketDataAggregator;
+import com.xeiam.xchange.service.polling.MarketDataListener;
+import com.xeiam.xchange.service.polling.MarketDataSubscription;
+import com.xeiam.xchange.service.polling.MarketDataType;
+import com.xeiam.xchange.utils.DummyExchange;
+import com.xeiam.xchange.utils.DummyMarketDataService;
+
+public class MarketDataAggregatorTest {
+
+  private MarketDataAggregator aggregator;
+
+  @Before
+  public void setUp() {
+
+    aggregator = new MarketDataAggregator(8, 2);
+  }
+
+  @After
+  public void tearDown() {
+
+    aggregator.shutdown();
+  }
+
+  @Test
+  public void testPollAllFutures() throws Exception {
+
+    DummyMarketDataService service = new DummyMarketDataService(0);
+    Exchange exchange = new DummyExchange(service);
+    aggregator.subscribe(exchange, CurrencyPair.BTC_USD, MarketDataType.TICKER);
+    aggregator.subscribe(exchange, CurrencyPair.BTC_USD, MarketDataType.ORDER_BOOK);
+    aggregator.subscribe(exchange, CurrencyPair.BTC_USD, MarketDataType.TICKER); // duplicate
+
+    Map<MarketDataSubscription, Future<Object>> futures = aggregator.pollAll(null);
+
+    assertThat(futures.size()).isEqualTo(2);
+    assertThat(futures.get(new MarketDataSubscription(exchange, CurrencyPair.BTC_USD, MarketDataType.TICKER)).get(5, TimeUnit.SECONDS)).isInstanceOf(Ticker.class);
+    assertThat(futures.get(new MarketDataSubscription(exchange, CurrencyPair.BTC_USD, MarketDataType.ORDER_BOOK)).get(5, TimeUnit.SECONDS)).isInstanceOf(OrderBook.class);
+    assertThat(service.getCalls()).isEqualTo(2);
+  }
+
+  @Test
+  public void testPerExchangeConcurrencyLimit() throws Exception {
+
+    DummyMarketDataService slowService = new DummyMarketDataService(20);
+    DummyMarketDataService otherService = new DummyMarketDataService(20);
+    Exchange slowExchange = new DummyExchange(slowService);
+    Exchange otherExchange = new DummyExchange(otherService);
+    aggregator.setMaxConcurrentCalls(otherExchange, 4);
+
+    CurrencyPair[] pairs = { CurrencyPair.BTC_USD, CurrencyPair.BTC_EUR, CurrencyPair.BTC_GBP, CurrencyPair.BTC_JPY, CurrencyPair.BTC_CHF, CurrencyPair.BTC_AUD };
+    for (CurrencyPair pair : pairs) {
+      aggregator.subscribe(slowExchange, pair, MarketDataType.TICKER);
+      aggregator.subscribe(otherExchange, pair, MarketDataType.TICKER);
+    }
+
+    final CountDownLatch latch = new CountDownLatch(2 * pairs.length);
+    final AtomicInteger errors = new AtomicInteger();
+    aggregator.pollAll(new MarketDataListener() {
+
+      @Override
+      public void onMarketData(MarketDataSubscription subscription, Object marketData) {
+
+        latch.countDown();
+      }
+
+      @Override
+      public void onError(MarketDataSubscription subscription, Throwable cause) {
+
+        errors.incrementAndGet();
+        latch.countDown();
+      }
+    });
+
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(errors.get()).isEqualTo(0);
+    assertThat(slowService.getCalls()).isEqualTo(pairs.length);
+    assertThat(slowService.getMaxInFlight()).isLessThanOrEqualTo(2);
+    assertThat(otherService.getMaxInFlight()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  public void testQueuedCallsFailAfterShutdown() throws Exception {
+
+    MarketDataAggregator single = new MarketDataAggregator(1, 1);
+    Exchange exchange = new DummyExchange(new DummyMarketDataService(50));
+    Future<Object> running = single.submit(new MarketDataSubscription(exchange, CurrencyPair.BTC_USD, MarketDataType.TICKER), null);
+    Future<Object> queued = single.submit(new MarketDataSubscription(exchange, CurrencyPair.BTC_EUR, MarketDataType.TICKER), null);
+    Future<Object> last = single.submit(new MarketDataSubscription(exchange, CurrencyPair.BTC_GBP, MarketDataType.TICKER), null);
+    single.shutdown();
+
+    assertThat(running.get(5, TimeUnit.SECONDS)).isInstanceOf(Ticker.class);
+    for (Future<Object> future : new Future[] { queued, last }) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail("expected the queued call to be rejected");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+      }
+    }
+    Future<Object> late = single.submit(new MarketDataSubscription(exchange, CurrencyPair.BTC_JPY, MarketDataType.TICKER), null);
+    assertThat(late.isDone()).isTrue();
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.xeiam.xchange.service.journal.JournalReader;
+import com.xeiam.xchange.service.journal.JournalRecord;
+import com.xeiam.xchange.service.journal.JournalReplayer;
+import com.xeiam.xchange.service.journal.MarketDataJournal;
+import com.xeiam.xchange.service.journal.ReplayStreamingExchangeService;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+public class MarketDataJournalTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws Exception {
+
+    directory = File.createTempFile("xchange-journal", "");
+    directory.delete();
+    directory.mkdirs();
+  }
+
+  @After
+  public void tearDown() {
+
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  private void write(int count) {
+
+    MarketDataJournal journal = new MarketDataJournal(directory, 256);
+    for (int i = 0; i < count; i++) {
+      journal.append(1000L + i, ExchangeEventType.TRADE, "live_trades", "{\"id\":" + i + ",\"price\":\"123.45\"}");
+    }
+    journal.close();
+  }
+
+  @Test
+  public void testSharedPerDirectoryUntilClosed() throws Exception {
+
+    File otherDirectory = File.createTempFile("xchange-journal", "");
+    otherDirectory.delete();
+    ExchangeSpecification one = new ExchangeSpecification("com.example.SomeExchange");
+    one.setJournalDirectory(directory.getPath());
+    ExchangeSpecification sameDirectory = new ExchangeSpecification("com.example.OtherExchange");
+    sameDirectory.setJournalDirectory(new File(directory, ".").getPath());
+    ExchangeSpecification other = new ExchangeSpecification("com.example.SomeExchange");
+    other.setJournalDirectory(otherDirectory.getPath());
+
+    MarketDataJournal journal = MarketDataJournal.getInstance(one);
+    MarketDataJournal otherJournal = MarketDataJournal.getInstance(other);
+    try {
+      assertThat(MarketDataJournal.getInstance(sameDirectory)).isSameAs(journal);
+      assertThat(otherJournal).isNotSameAs(journal);
+      assertThat(otherJournal.getDirectory()).isEqualTo(otherDirectory);
+
+      journal.close();
+      MarketDataJournal reopened = MarketDataJournal.getInstance(one);
+      assertThat(reopened).isNotSameAs(journal);
+      reopened.append(ExchangeEventType.TRADE, "live_trades", "{}");
+      reopened.close();
+    } finally {
+      otherJournal.close();
+      for (File file : otherDirectory.listFiles()) {
+        file.delete();
+      }
+      otherDirectory.delete();
+    }
+  }
+
+  @Test
+  public void testTryAppendCountsRecordsThatCannotBeWritten() {
+
+    MarketDataJournal journal = new MarketDataJournal(directory, 256);
+    char[] large = new char[300];
+    Arrays.fill(large, 'x');
+
+    assertThat(journal.tryAppend(ExchangeEventType.TRADE, "live_trades", new String(large))).isFalse();
+    assertThat(journal.tryAppend(ExchangeEventType.TRADE, "live_trades", "{}")).isTrue();
+    journal.close();
+    assertThat(journal.tryAppend(ExchangeEventType.TRADE, "live_trades", "{}")).isFalse();
+    assertThat(journal.getFailedAppends()).isEqualTo(2L);
+
+    assertThat(new JournalReader(directory).next().getData()).isEqualTo("{}");
+  }
+
+  @Test
+  public void testRecordsReadBackInOrderAcrossSegments() {
+
+    write(50);
+
+    assertThat(directory.listFiles().length).isGreaterThan(1);
+
+    JournalReader reader = new JournalReader(directory);
+    int count = 0;
+    JournalRecord record;
+    while ((record = reader.next()) != null) {
+      assertThat(record.getTimestamp()).isEqualTo(1000L + count);
+      assertThat(record.getEventType()).isEqualTo(ExchangeEventType.TRADE);
+      assertThat(record.getChannel()).isEqualTo("live_trades");
+      assertThat(record.getData()).isEqualTo("{\"id\":" + count + ",\"price\":\"123.45\"}");
+      count++;
+    }
+    assertThat(count).isEqualTo(50);
+  }
+
+  @Test
+  public void testRecordsOutpacingSegmentPreallocationAreKept() {
+
+    // a few records per segment, so appends keep catching up with the background mapping and get held in memory
+    write(2000);
+
+    JournalReader reader = new JournalReader(directory);
+    int count = 0;
+    JournalRecord record;
+    while ((record = reader.next()) != null) {
+      assertThat(record.getTimestamp()).isEqualTo(1000L + count);
+      count++;
+    }
+    assertThat(count).isEqualTo(2000);
+  }
+
+  @Test
+  public void testReplayDeliversEveryRecord() throws Exception {
+
+    write(20);
+
+    final List<ExchangeEvent> events = new ArrayList<ExchangeEvent>();
+    long replayed = new JournalReplayer(directory, 0).replay(new ExchangeEventListener() {
+
+      @Override
+      public void handleEvent(ExchangeEvent event) {
+
+        events.add(event);
+      }
+    });
+
+    assertThat(replayed).isEqualTo(20L);
+    assertThat(events).hasSize(20);
+    assertThat(events.get(0).getData()).isEqualTo("{\"id\":0,\"price\":\"123.45\"}");
+    assertThat(((JournalRecord) events.get(19).getPayload()).getTimestamp()).isEqualTo(1019L);
+  }
+
+  @Test
+  public void testReplayStreamingService() throws Exception {
+
+    write(5);
+
+    ReplayStreamingExchangeService service = new ReplayStreamingExchangeService(directory, 0);
+    service.connect();
+    for (int i = 0; i < 5; i++) {
+      ExchangeEvent event = service.getNextEvent();
+      assertThat(event.getEventType()).isEqualTo(ExchangeEventType.TRADE);
+      assertThat(event.getData()).isEqualTo("{\"id\":" + i + ",\"price\":\"123.45\"}");
+    }
+    service.disconnect();
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.meta.CurrencyPairMetaData;
+import com.xeiam.xchange.dto.meta.ExchangeMetaData;
+import com.xeiam.xchange.service.polling.MetaDataLoader;
+import com.xeiam.xchange.service.polling.MetaDataRegistry;
+
+public class MetaDataRegistryTest {
+
+  private static class CountingLoader implements MetaDataLoader {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    @Override
+    public ExchangeMetaData load() throws IOException {
+
+      loads.incrementAndGet();
+      Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>();
+      currencyPairs.put(CurrencyPair.BTC_USD, new CurrencyPairMetaData("XXBTZUSD", 5, new BigDecimal("0.01")));
+      currencyPairs.put(CurrencyPair.LTC_BTC, new CurrencyPairMetaData("XLTCXXBT", null, null));
+      Map<String, String> nativeCurrencies = new HashMap<String, String>();
+      nativeCurrencies.put("BTC", "XXBT");
+      nativeCurrencies.put("USD", "ZUSD");
+      ExchangeMetaData metaData = new ExchangeMetaData(currencyPairs, nativeCurrencies, 1400000000000L);
+      loaded.countDown();
+      return metaData;
+    }
+  }
+
+  @Test
+  public void testLoadedOnceAndShared() throws Exception {
+
+    CountingLoader loader = new CountingLoader();
+    ExchangeSpecification spec = new ExchangeSpecification("com.example.MetaDataTestExchange");
+
+    MetaDataRegistry registry = MetaDataRegistry.getInstance(spec, loader);
+    assertThat(MetaDataRegistry.getInstance(spec, new CountingLoader())).isSameAs(registry);
+
+    assertThat(registry.getMetaData().getCurrencyPairs()).contains(CurrencyPair.BTC_USD, CurrencyPair.LTC_BTC);
+    assertThat(registry.getMetaData().getNativeCurrency("BTC")).isEqualTo("XXBT");
+    assertThat(loader.loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testNotSharedBetweenExchangeInstances() throws Exception {
+
+    ExchangeSpecification one = new ExchangeSpecification("com.example.MetaDataTestExchange");
+    ExchangeSpecification two = new ExchangeSpecification("com.example.MetaDataTestExchange");
+    two.setApiKey("another account");
+
+    CountingLoader loader = new CountingLoader();
+    MetaDataRegistry registry = MetaDataRegistry.getInstance(two, loader);
+    assertThat(registry).isNotSameAs(MetaDataRegistry.getInstance(one, new CountingLoader()));
+
+    registry.getMetaData();
+    assertThat(loader.loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testColdStartFromSnapshot() throws Exception {
+
+    File file = File.createTempFile("metadata", ".json");
+    file.delete();
+    file.deleteOnExit();
+
+    CountingLoader first = new CountingLoader();
+    new MetaDataRegistry(first, file).getMetaData();
+    assertThat(file.exists()).isTrue();
+
+    CountingLoader second = new CountingLoader();
+    ExchangeMetaData metaData = new MetaDataRegistry(second, file).getMetaData();
+    assertThat(second.loads.get()).isEqualTo(0);
+
+    assertThat(metaData.getTimestamp()).isEqualTo(1400000000000L);
+    assertThat(metaData.getCurrencyPairs()).contains(CurrencyPair.BTC_USD, CurrencyPair.LTC_BTC);
+    CurrencyPairMetaData btcUsd = metaData.getCurrencyPairMetaData(CurrencyPair.BTC_USD);
+    assertThat(btcUsd.getNativeSymbol()).isEqualTo("XXBTZUSD");
+    assertThat(btcUsd.getPriceScale()).isEqualTo(5);
+    assertThat(btcUsd.getMinimumAmount()).isEqualTo(new BigDecimal("0.01"));
+    assertThat(metaData.getCurrencyPairMetaData(CurrencyPair.LTC_BTC).getPriceScale()).isNull();
+    assertThat(metaData.getNativeCurrency("USD")).isEqualTo("ZUSD");
+  }
+
+  @Test
+  public void testSnapshotRefreshedInBackground() throws Exception {
+
+    File file = File.createTempFile("metadata", ".json");
+    file.delete();
+    file.deleteOnExit();
+    new MetaDataRegistry(new CountingLoader(), file).getMetaData();
+
+    ExchangeSpecification spec = new ExchangeSpecification("com.example.SnapshotTestExchange");
+    spec.setMetaDataFile(file.getPath());
+    CountingLoader loader = new CountingLoader();
+    MetaDataRegistry registry = MetaDataRegistry.getInstance(spec, loader);
+
+    assertThat(registry.getMetaData().getCurrencyPairs()).contains(CurrencyPair.BTC_USD);
+    assertThat(loader.loaded.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+}
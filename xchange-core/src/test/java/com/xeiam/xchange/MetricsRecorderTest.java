@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.service.metrics.ExchangeMetrics;
+import com.xeiam.xchange.service.metrics.InMemoryMetricsRecorder;
+import com.xeiam.xchange.service.metrics.MetricsProxy;
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
+import com.xeiam.xchange.service.metrics.MetricsSnapshot.LatencyStats;
+import com.xeiam.xchange.service.metrics.MetricsSnapshot.OperationMetrics;
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+public class MetricsRecorderTest {
+
+  public interface Api {
+
+    String ticker() throws IOException;
+
+    String depth() throws IOException;
+  }
+
+  private static ExchangeSpecification spec(InMemoryMetricsRecorder recorder) {
+
+    ExchangeSpecification spec = new ExchangeSpecification("com.example.MetricsTestExchange");
+    spec.setMetricsRecorder(recorder);
+    return spec;
+  }
+
+  @Test
+  public void testLatencyPercentiles() {
+
+    InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+    for (long micros = 1; micros <= 1000; micros++) {
+      recorder.recordLatency("Test", "getOrderBook", Phase.ADAPTATION, micros * 1000);
+    }
+
+    OperationMetrics operation = recorder.getSnapshot().getOperation("Test", "getOrderBook");
+    assertThat(operation.getLatency(Phase.NETWORK)).isNull();
+    LatencyStats stats = operation.getLatency(Phase.ADAPTATION);
+    assertThat(stats.getCount()).isEqualTo(1000L);
+    assertThat(stats.getMean()).isEqualTo(500500L);
+    assertThat(stats.getMax()).isEqualTo(1000000L);
+    assertThat(stats.getP50()).isGreaterThanOrEqualTo(500000L).isLessThanOrEqualTo(562500L);
+    assertThat(stats.getP99()).isGreaterThanOrEqualTo(990000L).isLessThanOrEqualTo(1000000L);
+
+    recorder.reset();
+    assertThat(recorder.getSnapshot().getOperations()).isEmpty();
+  }
+
+  @Test
+  public void testProxyRecordsNetworkLatencyAndErrors() throws Exception {
+
+    InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+    ExchangeMetrics metrics = ExchangeMetrics.of(spec(recorder));
+    assertThat(metrics.getExchange()).isEqualTo("MetricsTestExchange");
+
+    Api api = MetricsProxy.wrap(Api.class, new Api() {
+
+      @Override
+      public String ticker() {
+
+        return "ticker";
+      }
+
+      @Override
+      public String depth() throws IOException {
+
+        throw new IOException("timeout");
+      }
+    }, metrics);
+
+    assertThat(api.ticker()).isEqualTo("ticker");
+    assertThat(api.ticker()).isEqualTo("ticker");
+    try {
+      api.depth();
+    } catch (IOException e) {
+      assertThat(e.getMessage()).isEqualTo("timeout");
+    }
+
+    OperationMetrics ticker = recorder.getSnapshot().getOperation("MetricsTestExchange", "ticker");
+    assertThat(ticker.getLatency(Phase.NETWORK).getCount()).isEqualTo(2L);
+    assertThat(ticker.getErrors()).isEqualTo(0L);
+    OperationMetrics depth = recorder.getSnapshot().getOperation("MetricsTestExchange", "depth");
+    assertThat(depth.getErrors()).isEqualTo(1L);
+    assertThat(depth.getLatency(Phase.NETWORK)).isNull();
+  }
+
+  @Test
+  public void testDisabledWithoutRecorder() {
+
+    ExchangeMetrics metrics = ExchangeMetrics.of(spec(null));
+    assertThat(metrics).isSameAs(ExchangeMetrics.DISABLED);
+    assertThat(metrics.start()).isEqualTo(0L);
+
+    Api api = new Api() {
+
+      @Override
+      public String ticker() {
+
+        return null;
+      }
+
+      @Override
+      public String depth() {
+
+        return null;
+      }
+    };
+    assertThat(MetricsProxy.wrap(Api.class, api, metrics)).isSameAs(api);
+  }
+
+  @Test
+  public void testEventBusInstrumentation() {
+
+    InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+    ExchangeMetrics metrics = ExchangeMetrics.of(spec(recorder));
+    ExchangeEventBus eventBus = new ExchangeEventBus();
+    metrics.instrument(eventBus, "consumerEventBus");
+
+    for (int i = 0; i < 3; i++) {
+      eventBus.publish(new DefaultExchangeEvent(ExchangeEventType.TRADE, null));
+    }
+    eventBus.poll();
+    eventBus.publish(new DefaultExchangeEvent(ExchangeEventType.DEPTH, null));
+
+    assertThat(recorder.getSnapshot().getOperation("MetricsTestExchange", "TRADE").getEvents()).isEqualTo(3L);
+    assertThat(recorder.getSnapshot().getOperation("MetricsTestExchange", "DEPTH").getEvents()).isEqualTo(1L);
+    OperationMetrics queue = recorder.getSnapshot().getOperation("MetricsTestExchange", "consumerEventBus");
+    assertThat(queue.getQueueDepth()).isEqualTo(3L);
+    assertThat(queue.getMaxQueueDepth()).isEqualTo(3L);
+  }
+
+}
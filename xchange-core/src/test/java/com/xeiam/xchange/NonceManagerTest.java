@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.service.polling.NonceManager;
+
+public class NonceManagerTest {
+
+  @Test
+  public void testNoncesFollowTheClockAndNeverRepeat() {
+
+    NonceManager nonceManager = new NonceManager(0L, 1000L);
+
+    long before = System.currentTimeMillis();
+    long first = nonceManager.next();
+    assertThat(first).isGreaterThanOrEqualTo(before);
+
+    long previous = first;
+    for (int i = 0; i < 10000; i++) {
+      long next = nonceManager.next();
+      assertThat(next).isGreaterThan(previous);
+      previous = next;
+    }
+    assertThat(nonceManager.last()).isEqualTo(previous);
+  }
+
+  @Test
+  public void testConcurrentCallersGetDistinctNonces() throws Exception {
+
+    final NonceManager nonceManager = new NonceManager(0L, 1L);
+    final Set<Long> nonces = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    final int threads = 8;
+    final int perThread = 5000;
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(threads);
+
+    for (int t = 0; t < threads; t++) {
+      new Thread(new Runnable() {
+
+        @Override
+        public void run() {
+
+          try {
+            start.await();
+            for (int i = 0; i < perThread; i++) {
+              nonces.add(nonceManager.next());
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+
+    assertThat(nonces).hasSize(threads * perThread);
+  }
+
+  @Test
+  public void testServicesOfOneKeyShareAManager() {
+
+    ExchangeSpecification spec = new ExchangeSpecification("com.example.NonceTestExchange");
+    spec.setApiKey("key-1");
+    ExchangeSpecification sameKey = new ExchangeSpecification("com.example.NonceTestExchange");
+    sameKey.setApiKey("key-1");
+    ExchangeSpecification otherKey = new ExchangeSpecification("com.example.NonceTestExchange");
+    otherKey.setApiKey("key-2");
+
+    NonceManager nonceManager = NonceManager.getInstance(spec, 0L, 1000L);
+    assertThat(NonceManager.getInstance(sameKey, 0L, 1000L)).isSameAs(nonceManager);
+    assertThat(NonceManager.getInstance(otherKey, 0L, 1000L)).isNotSameAs(nonceManager);
+  }
+
+  @Test
+  public void testRestartResumesAboveReservedNonces() throws Exception {
+
+    File file = File.createTempFile("nonce", ".dat");
+    file.deleteOnExit();
+
+    // nonces far ahead of the clock, as happens when many are drawn per tick
+    NonceManager nonceManager = new NonceManager(0L, 1L, file);
+    long last = 0;
+    for (int i = 0; i < 1000; i++) {
+      last = nonceManager.next();
+    }
+
+    NonceManager restarted = new NonceManager(0L, 1L, file);
+    assertThat(restarted.next()).isGreaterThan(last);
+  }
+
+}
@@ -34,9 +34,11 @@ import org.junit.Test;
 
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.MarketOrderEstimate;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
 import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.dto.trade.MarketOrder;
 
 public class OrderBookTest {
 
@@ -104,4 +106,130 @@ public class OrderBookTest {
     assertThat(orderBook.getTimeStamp()).isEqualTo(timeStamp);
 
   }
+
+  @Test
+  public void testSortedOnRead() {
+
+    OrderBookUpdate higherBidUpdate = new OrderBookUpdate(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, new BigDecimal("10.5"), null, BigDecimal.ONE);
+    OrderBookUpdate lowerBidUpdate = new OrderBookUpdate(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, new BigDecimal("9.5"), null, BigDecimal.ONE);
+    orderBook.update(lowerBidUpdate);
+    orderBook.update(higherBidUpdate);
+    assertThat(orderBook.getBids().size()).isEqualTo(3);
+    assertThat(orderBook.getBids().get(0).getLimitPrice()).isEqualTo(new BigDecimal("10.5"));
+    assertThat(orderBook.getBids().get(2).getLimitPrice()).isEqualTo(new BigDecimal("9.5"));
+  }
+
+  @Test
+  public void testBestAskAndBid() {
+
+    OrderBookUpdate lowerAskUpdate = new OrderBookUpdate(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, new BigDecimal("10.5"), null, BigDecimal.ONE);
+    orderBook.update(lowerAskUpdate);
+    assertThat(orderBook.getBestAsk().getLimitPrice()).isEqualTo(new BigDecimal("10.5"));
+    assertThat(orderBook.getBestBid().getLimitPrice()).isEqualTo(BigDecimal.TEN);
+
+    OrderBookUpdate removeBidUpdate = new OrderBookUpdate(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, BigDecimal.TEN, null, BigDecimal.ZERO);
+    orderBook.update(removeBidUpdate);
+    assertThat(orderBook.getBestBid()).isNull();
+  }
+
+  @Test
+  public void testSamePriceOrdersKept() {
+
+    LimitOrder first = new LimitOrder(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, "1", null, BigDecimal.TEN);
+    LimitOrder second = new LimitOrder(OrderType.ASK, BigDecimal.TEN, CurrencyPair.BTC_USD, "2", null, new BigDecimal("10.00"));
+    OrderBook book = new OrderBook(new Date(0), Arrays.asList(first, second), new ArrayList<LimitOrder>());
+    assertThat(book.getAsks().size()).isEqualTo(2);
+    assertThat(book.getAsks().get(0).getId()).isEqualTo("1");
+
+    book.update(new LimitOrder(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, "3", null, BigDecimal.TEN));
+    assertThat(book.getAsks().size()).isEqualTo(2);
+    assertThat(book.getAsks().get(0).getId()).isEqualTo("2");
+    assertThat(book.getAsks().get(1).getId()).isEqualTo("3");
+  }
+
+  @Test
+  public void testAddAndRemoveById() {
+
+    LimitOrder first = new LimitOrder(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, "1", new Date(5), BigDecimal.TEN);
+    LimitOrder second = new LimitOrder(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, "2", null, BigDecimal.TEN);
+    orderBook.add(first);
+    orderBook.add(second);
+    assertThat(orderBook.getBids().size()).isEqualTo(3);
+    assertThat(orderBook.getTimeStamp()).isEqualTo(new Date(5));
+
+    assertThat(orderBook.remove(new LimitOrder(OrderType.BID, BigDecimal.ONE, CurrencyPair.BTC_USD, "2", null, new BigDecimal("10.0")))).isTrue();
+    assertThat(orderBook.remove(second)).isFalse();
+    assertThat(orderBook.getBids().size()).isEqualTo(2);
+    assertThat(orderBook.getBids().get(1).getId()).isEqualTo("1");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnlyView() {
+
+    orderBook.getAsks().clear();
+  }
+
+  @Test
+  public void testEstimateMarketOrder() {
+
+    orderBook.add(new LimitOrder(OrderType.ASK, new BigDecimal("2"), CurrencyPair.BTC_USD, "", null, new BigDecimal("12")));
+
+    MarketOrderEstimate estimate = orderBook.estimateMarketOrder(new MarketOrder(OrderType.BID, new BigDecimal("2"), CurrencyPair.BTC_USD));
+    assertThat(estimate.getFilledAmount()).isEqualTo(new BigDecimal("2"));
+    assertThat(estimate.getTotal()).isEqualTo(new BigDecimal("23"));
+    assertThat(estimate.getAveragePrice()).isEqualTo(new BigDecimal("11.5"));
+    assertThat(estimate.getWorstPrice()).isEqualTo(new BigDecimal("12"));
+
+    // more than the book holds fills partially
+    estimate = orderBook.estimateMarketOrder(OrderType.BID, new BigDecimal("5"));
+    assertThat(estimate.getFilledAmount()).isEqualTo(new BigDecimal("3"));
+    assertThat(estimate.getTotal()).isEqualTo(new BigDecimal("35"));
+    assertThat(orderBook.getPriceToFill(OrderType.BID, new BigDecimal("5"))).isNull();
+    assertThat(orderBook.getPriceToFill(OrderType.BID, BigDecimal.ONE)).isEqualTo(new BigDecimal("11"));
+
+    estimate = orderBook.estimateMarketOrder(OrderType.ASK, new BigDecimal("0.5"));
+    assertThat(estimate.getTotal()).isEqualTo(new BigDecimal("5.0"));
+    assertThat(estimate.getWorstPrice()).isEqualTo(BigDecimal.TEN);
+  }
+
+  @Test
+  public void testEstimateIgnoresZeroAmountOrders() {
+
+    OrderBook book = new OrderBook(null, new ArrayList<LimitOrder>(), new ArrayList<LimitOrder>());
+    book.add(new LimitOrder(OrderType.ASK, BigDecimal.ZERO, CurrencyPair.BTC_USD, "", null, new BigDecimal("12")));
+
+    MarketOrderEstimate estimate = book.estimateMarketOrder(OrderType.BID, BigDecimal.ONE);
+    assertThat(estimate.getFilledAmount()).isEqualTo(BigDecimal.ZERO);
+    assertThat(estimate.getAveragePrice()).isNull();
+
+    book.add(new LimitOrder(OrderType.ASK, BigDecimal.ONE, CurrencyPair.BTC_USD, "", null, new BigDecimal("11")));
+    estimate = book.estimateMarketOrder(OrderType.BID, BigDecimal.TEN);
+    assertThat(estimate.getFilledAmount()).isEqualTo(BigDecimal.ONE);
+    assertThat(estimate.getWorstPrice()).isEqualTo(new BigDecimal("11"));
+  }
+
+  @Test
+  public void testEstimateFollowsUpdates() {
+
+    assertThat(orderBook.getPriceToFill(OrderType.BID, new BigDecimal("2"))).isNull();
+
+    orderBook.update(new OrderBookUpdate(OrderType.ASK, null, CurrencyPair.BTC_USD, new BigDecimal("11"), null, new BigDecimal("3")));
+    assertThat(orderBook.getPriceToFill(OrderType.BID, new BigDecimal("2"))).isEqualTo(new BigDecimal("11"));
+
+    orderBook.update(new OrderBookUpdate(OrderType.ASK, null, CurrencyPair.BTC_USD, new BigDecimal("11"), null, BigDecimal.ZERO));
+    assertThat(orderBook.estimateMarketOrder(OrderType.BID, BigDecimal.ONE).getFilledAmount()).isEqualTo(BigDecimal.ZERO);
+  }
+
+  @Test
+  public void testAmountWithin() {
+
+    orderBook.add(new LimitOrder(OrderType.ASK, new BigDecimal("2"), CurrencyPair.BTC_USD, "", null, new BigDecimal("12")));
+    orderBook.add(new LimitOrder(OrderType.BID, new BigDecimal("4"), CurrencyPair.BTC_USD, "", null, new BigDecimal("9.95")));
+
+    assertThat(orderBook.getAmountWithin(OrderType.BID, BigDecimal.ZERO)).isEqualTo(BigDecimal.ONE);
+    assertThat(orderBook.getAmountWithin(OrderType.BID, new BigDecimal("500"))).isEqualTo(BigDecimal.ONE);
+    assertThat(orderBook.getAmountWithin(OrderType.BID, new BigDecimal("1000"))).isEqualTo(new BigDecimal("3"));
+    assertThat(orderBook.getAmountWithin(OrderType.ASK, new BigDecimal("50"))).isEqualTo(new BigDecimal("5"));
+    assertThat(orderBook.getAmountWithin(OrderType.ASK, new BigDecimal("49"))).isEqualTo(BigDecimal.ONE);
+  }
 }
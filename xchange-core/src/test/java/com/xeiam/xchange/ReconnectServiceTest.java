@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket.READYSTATE;
+import org.junit.Test;
+
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
+import com.xeiam.xchange.service.streaming.ReconnectService;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+
+public class ReconnectServiceTest {
+
+  private static class ClosedStreamingExchangeService implements StreamingExchangeService {
+
+    final AtomicInteger connects = new AtomicInteger();
+    final AtomicInteger disconnects = new AtomicInteger();
+
+    @Override
+    public void connect() {
+
+      connects.incrementAndGet();
+    }
+
+    @Override
+    public void disconnect() {
+
+      disconnects.incrementAndGet();
+    }
+
+    @Override
+    public ExchangeEvent getNextEvent() throws InterruptedException {
+
+      return null;
+    }
+
+    @Override
+    public void send(String msg) {
+
+    }
+
+    @Override
+    public READYSTATE getWebSocketStatus() {
+
+      return READYSTATE.CLOSED;
+    }
+  }
+
+  private static ExchangeStreamingConfiguration configuration(final int reconnectWaitTimeInMs, final int maxReconnectAttempts, final int timeoutInMs) {
+
+    return new ExchangeStreamingConfiguration() {
+
+      @Override
+      public int getMaxReconnectAttempts() {
+
+        return maxReconnectAttempts;
+      }
+
+      @Override
+      public int getReconnectWaitTimeInMs() {
+
+        return reconnectWaitTimeInMs;
+      }
+
+      @Override
+      public int getTimeoutInMs() {
+
+        return timeoutInMs;
+      }
+
+      @Override
+      public boolean isEncryptedChannel() {
+
+        return false;
+      }
+
+      @Override
+      public boolean keepAlive() {
+
+        return false;
+      }
+    };
+  }
+
+  private static void awaitCount(AtomicInteger counter, int expected) throws InterruptedException {
+
+    for (int i = 0; i < 200 && counter.get() < expected; i++) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testReconnectsAfterErrorWithoutBlocking() throws InterruptedException {
+
+    ClosedStreamingExchangeService service = new ClosedStreamingExchangeService();
+    ReconnectService reconnectService = new ReconnectService(service, configuration(50, 2, 60000));
+    ExchangeEvent error = new DefaultExchangeEvent(ExchangeEventType.ERROR, "error");
+
+    long start = System.nanoTime();
+    reconnectService.intercept(error);
+    assertThat(System.nanoTime() - start).isLessThan(40000000L);
+    assertThat(service.connects.get()).isEqualTo(0);
+
+    awaitCount(service.connects, 1);
+    assertThat(service.connects.get()).isEqualTo(1);
+
+    reconnectService.intercept(error);
+    awaitCount(service.connects, 2);
+    assertThat(service.connects.get()).isEqualTo(2);
+
+    // attempts exhausted: disconnect for good
+    reconnectService.intercept(error);
+    awaitCount(service.disconnects, 3);
+    Thread.sleep(150);
+    assertThat(service.connects.get()).isEqualTo(2);
+    assertThat(service.disconnects.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testReconnectsAfterSilence() throws InterruptedException {
+
+    ClosedStreamingExchangeService service = new ClosedStreamingExchangeService();
+    ReconnectService reconnectService = new ReconnectService(service, configuration(10, 5, 50));
+
+    reconnectService.intercept(new DefaultExchangeEvent(ExchangeEventType.CONNECT, "connected"));
+
+    awaitCount(service.connects, 1);
+    assertThat(service.connects.get()).isGreaterThanOrEqualTo(1);
+  }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.service.polling.AsyncPollingMarketDataService;
+import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.service.polling.transport.RequestExecutor;
+import com.xeiam.xchange.utils.DummyMarketDataService;
+
+public class RequestExecutorTest {
+
+  @Test
+  public void testLimitsRequestsInFlight() throws Exception {
+
+    final DummyMarketDataService target = new DummyMarketDataService(20);
+    RequestExecutor requestExecutor = new RequestExecutor("test", 2);
+    final PollingMarketDataService limited = requestExecutor.limit(PollingMarketDataService.class, target);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 6; i++) {
+      Thread thread = new Thread() {
+
+        @Override
+        public void run() {
+
+          try {
+            limited.getTicker(CurrencyPair.BTC_USD);
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(target.getCalls()).isEqualTo(6);
+    assertThat(target.getMaxInFlight()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void testUnlimitedReturnsTarget() {
+
+    PollingMarketDataService target = new DummyMarketDataService(0);
+
+    assertThat(new RequestExecutor("test", 0).limit(PollingMarketDataService.class, target)).isSameAs(target);
+  }
+
+  @Test
+  public void testAsyncCalls() throws Exception {
+
+    DummyMarketDataService target = new DummyMarketDataService(20);
+    AsyncPollingMarketDataService asyncService = new AsyncPollingMarketDataService(target, new RequestExecutor("test", 3));
+
+    List<Future<Ticker>> tickers = new ArrayList<Future<Ticker>>();
+    for (int i = 0; i < 9; i++) {
+      tickers.add(asyncService.getTicker(CurrencyPair.BTC_USD));
+    }
+    for (Future<Ticker> ticker : tickers) {
+      assertThat(ticker.get().getCurrencyPair()).isEqualTo(CurrencyPair.BTC_USD);
+    }
+
+    assertThat(target.getCalls()).isEqualTo(9);
+    assertThat(target.getMaxInFlight()).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  public void testSharedPerApiKey() {
+
+    ExchangeSpecification one = new ExchangeSpecification("com.example.OtherExchange");
+    one.setMaxConcurrentRequests(2);
+    ExchangeSpecification wider = new ExchangeSpecification("com.example.OtherExchange");
+    wider.setMaxConcurrentRequests(5);
+    ExchangeSpecification otherKey = new ExchangeSpecification("com.example.OtherExchange");
+    otherKey.setApiKey("other");
+    otherKey.setMaxConcurrentRequests(5);
+
+    RequestExecutor shared = RequestExecutor.getInstance(one);
+    // a differing limit must not swap out the executor that earlier services hold
+    assertThat(RequestExecutor.getInstance(wider)).isSameAs(shared);
+    assertThat(shared.getMaxConcurrentRequests()).isEqualTo(2);
+    assertThat(RequestExecutor.getInstance(otherKey)).isNotSameAs(shared);
+    assertThat(RequestExecutor.getInstance(otherKey).getMaxConcurrentRequests()).isEqualTo(5);
+  }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy.RateLimitPolicyBuilder;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitedProxy;
+import com.xeiam.xchange.service.polling.ratelimit.RequestPriority;
+import com.xeiam.xchange.service.polling.ratelimit.RequestScheduler;
+
+public class RequestSchedulerTest {
+
+  @Test
+  public void testBurstThenRefillRate() throws Exception {
+
+    RequestScheduler scheduler = new RequestScheduler(RateLimitPolicyBuilder.newInstance(20, 3).build());
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(TimeUnit.NANOSECONDS.toMillis(scheduler.acquire("ticker"))).isLessThan(20L);
+    }
+    long waited = TimeUnit.NANOSECONDS.toMillis(scheduler.acquire("ticker"));
+    assertThat(waited).isGreaterThanOrEqualTo(40L);
+
+    assertThat(scheduler.getWaitStatistics(RequestPriority.MARKET_DATA).getCount()).isEqualTo(4L);
+    assertThat(scheduler.getWaitStatistics(RequestPriority.MARKET_DATA).getMaxWaitMillis()).isGreaterThanOrEqualTo(40L);
+    assertThat(scheduler.getWaitStatistics(RequestPriority.TRADE).getCount()).isEqualTo(0L);
+  }
+
+  @Test
+  public void testZeroWeightIsNotThrottled() throws Exception {
+
+    RequestScheduler scheduler = new RequestScheduler(RateLimitPolicyBuilder.newInstance(0.01, 1).withWeight("addOrder", 0).build());
+
+    scheduler.acquire("ticker");
+    for (int i = 0; i < 10; i++) {
+      assertThat(TimeUnit.NANOSECONDS.toMillis(scheduler.acquire("addOrder"))).isLessThan(20L);
+    }
+  }
+
+  @Test
+  public void testTradeCallsJumpAheadOfMarketData() throws Exception {
+
+    final RequestScheduler scheduler = new RequestScheduler(RateLimitPolicyBuilder.newInstance(20, 1).withPriority("cancelOrder", RequestPriority.TRADE).build());
+    scheduler.acquire("ticker"); // drain the bucket
+
+    final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    final CountDownLatch done = new CountDownLatch(4);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (final String endpoint : new String[] { "ticker", "ticker", "ticker" }) {
+      threads.add(new Thread(new Acquirer(scheduler, endpoint, order, done)));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    while (scheduler.getQueueLength() < 3) {
+      Thread.sleep(1);
+    }
+    new Thread(new Acquirer(scheduler, "cancelOrder", order, done)).start();
+
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(order.get(0)).isEqualTo("cancelOrder");
+  }
+
+  @Test
+  public void testAuthenticatedCallsKeepArrivalOrder() throws Exception {
+
+    final RequestScheduler scheduler = new RequestScheduler(RateLimitPolicyBuilder.newInstance(20, 1).withPriority("getBalance", RequestPriority.ACCOUNT)
+        .withPriority("cancelOrder", RequestPriority.TRADE).build());
+    scheduler.acquire("ticker"); // drain the bucket
+
+    final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    final CountDownLatch done = new CountDownLatch(3);
+    new Thread(new Acquirer(scheduler, "ticker", order, done)).start();
+    while (scheduler.getQueueLength() < 1) {
+      Thread.sleep(1);
+    }
+    // the balance call holds the lower nonce, so the later order cancellation must not overtake it
+    new Thread(new Acquirer(scheduler, "getBalance", order, done)).start();
+    while (scheduler.getQueueLength() < 2) {
+      Thread.sleep(1);
+    }
+    new Thread(new Acquirer(scheduler, "cancelOrder", order, done)).start();
+
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(order).isEqualTo(Arrays.asList("getBalance", "cancelOrder", "ticker"));
+  }
+
+  @Test
+  public void testSharedPerExchange() {
+
+    ExchangeSpecification one = new ExchangeSpecification("com.example.SomeExchange");
+    one.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(1, 5).build());
+    ExchangeSpecification two = new ExchangeSpecification("com.example.SomeExchange");
+    two.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(1, 5).build());
+
+    assertThat(RequestScheduler.getInstance(one)).isSameAs(RequestScheduler.getInstance(two));
+
+    // limits apply per API key, and a scheduler in use is not replaced by a later policy
+    ExchangeSpecification otherKey = new ExchangeSpecification("com.example.SomeExchange");
+    otherKey.setApiKey("other");
+    otherKey.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(1, 5).build());
+    assertThat(RequestScheduler.getInstance(otherKey)).isNotSameAs(RequestScheduler.getInstance(one));
+    ExchangeSpecification otherPolicy = new ExchangeSpecification("com.example.SomeExchange");
+    otherPolicy.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(2, 5).build());
+    assertThat(RequestScheduler.getInstance(otherPolicy)).isSameAs(RequestScheduler.getInstance(one));
+    assertThat(RequestScheduler.getInstance(new ExchangeSpecification("com.example.SomeExchange"))).isNull();
+    ExchangeSpecification unlimited = new ExchangeSpecification("com.example.SomeExchange");
+    unlimited.setRateLimitPolicy(RateLimitPolicy.UNLIMITED);
+    assertThat(RequestScheduler.getInstance(unlimited)).isNull();
+  }
+
+  @Test
+  public void testProxyAcquiresPerMethod() throws Exception {
+
+    RateLimitPolicy policy = RateLimitPolicyBuilder.newInstance(1, 10).withWeight("call", 4).build();
+    RequestScheduler scheduler = new RequestScheduler(policy);
+
+    Callable<String> target = new Callable<String>() {
+
+      @Override
+      public String call() throws Exception {
+
+        return "result";
+      }
+    };
+    @SuppressWarnings("unchecked")
+    Callable<String> proxy = RateLimitedProxy.wrap(Callable.class, target, scheduler);
+
+    assertThat(proxy.call()).isEqualTo("result");
+    assertThat(proxy.call()).isEqualTo("result");
+    assertThat(scheduler.getWaitStatistics(RequestPriority.MARKET_DATA).getCount()).isEqualTo(2L);
+    assertThat(RateLimitedProxy.wrap(Callable.class, target, null)).isSameAs(target);
+  }
+
+  private static class Acquirer implements Runnable {
+
+    private final RequestScheduler scheduler;
+    private final String endpoint;
+    private final List<String> order;
+    private final CountDownLatch done;
+
+    private Acquirer(RequestScheduler scheduler, String endpoint, List<String> order, CountDownLatch done) {
+
+      this.scheduler = scheduler;
+      this.endpoint = endpoint;
+      this.order = order;
+      this.done = done;
+    }
+
+    @Override
+    public void run() {
+
+      try {
+        scheduler.acquire(endpoint);
+        order.add(endpoint);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        done.countDown();
+      }
+    }
+  }
+
+}
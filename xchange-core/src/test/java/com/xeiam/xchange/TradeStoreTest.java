@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.service.tradestore.TradeScanner;
+import com.xeiam.xchange.service.tradestore.TradeStore;
+
+public class TradeStoreTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws Exception {
+
+    directory = File.createTempFile("xchange-trades", "");
+    directory.delete();
+    directory.mkdirs();
+  }
+
+  @After
+  public void tearDown() {
+
+    delete(directory);
+  }
+
+  private static void delete(File file) {
+
+    File[] files = file.listFiles();
+    if (files != null) {
+      for (File child : files) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static Trade trade(long time, String price, String id) {
+
+    return new Trade(time % 2 == 0 ? OrderType.BID : OrderType.ASK, new BigDecimal("0.015"), CurrencyPair.BTC_USD, new BigDecimal(price), new Date(time), id);
+  }
+
+  @Test
+  public void testScansAcrossSegments() {
+
+    TradeStore store = new TradeStore(directory, 4);
+    for (int i = 0; i < 10; i++) {
+      store.append("Bitstamp", trade(1000L + i, "600.1" + i, String.valueOf(i)));
+    }
+    store.append("Kraken", trade(1005L, "601", null));
+
+    TradeScanner scanner = store.scan("Bitstamp", CurrencyPair.BTC_USD, 1003L, 1008L);
+    int count = 0;
+    while (scanner.next()) {
+      assertThat(scanner.getTimestamp()).isEqualTo(1003L + count);
+      assertThat(scanner.getPriceMantissa()).isEqualTo(60013L + count);
+      assertThat(scanner.getPriceScale()).isEqualTo(2);
+      assertThat(scanner.getId()).isEqualTo(3L + count);
+      count++;
+    }
+    assertThat(count).isEqualTo(5);
+
+    List<Trade> trades = store.getTrades("Kraken", CurrencyPair.BTC_USD, 0, Long.MAX_VALUE).getTrades();
+    assertThat(trades).hasSize(1);
+    Trade trade = trades.get(0);
+    assertThat(trade.getPrice()).isEqualTo(new BigDecimal("601"));
+    assertThat(trade.getTradableAmount()).isEqualTo(new BigDecimal("0.015"));
+    assertThat(trade.getType()).isEqualTo(OrderType.ASK);
+    assertThat(trade.getTimestamp()).isEqualTo(new Date(1005L));
+    assertThat(trade.getId()).isNull();
+  }
+
+  @Test
+  public void testResumesAndHandlesOutOfOrderTrades() {
+
+    TradeStore store = new TradeStore(directory, 4);
+    store.append("Bitstamp", trade(2000L, "10", "a-uuid"));
+    store.append("Bitstamp", trade(1000L, "11", "7"));
+
+    // a new store on the same directory appends to the same series
+    store = new TradeStore(directory, 4);
+    store.append("Bitstamp", trade(1500L, "12", "8"));
+
+    List<Trade> trades = store.getTrades("Bitstamp", CurrencyPair.BTC_USD, 1000L, 1600L).getTrades();
+    assertThat(trades).hasSize(2);
+    assertThat(trades.get(0).getId()).isEqualTo("7");
+    assertThat(trades.get(1).getPrice()).isEqualTo(new BigDecimal("12"));
+
+    assertThat(store.getTrades("Bitstamp", CurrencyPair.BTC_USD, 2000L, 2001L).getTrades().get(0).getId()).isNull();
+    assertThat(store.getTrades("Bitstamp", CurrencyPair.LTC_USD, 0, Long.MAX_VALUE).getTrades()).isEmpty();
+
+    // scanned in append order, returned in time order
+    TradeScanner scanner = store.scan("Bitstamp", CurrencyPair.BTC_USD, 0, Long.MAX_VALUE);
+    assertThat(scanner.next()).isTrue();
+    assertThat(scanner.getTimestamp()).isEqualTo(2000L);
+    trades = store.getTrades("Bitstamp", CurrencyPair.BTC_USD, 0, Long.MAX_VALUE).getTrades();
+    assertThat(trades).hasSize(3);
+    assertThat(trades.get(0).getTimestamp()).isEqualTo(new Date(1000L));
+    assertThat(trades.get(1).getTimestamp()).isEqualTo(new Date(1500L));
+    assertThat(trades.get(2).getTimestamp()).isEqualTo(new Date(2000L));
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.service.polling.PollingMarketDataService;
+
+/**
+ * A market data service that counts its calls and optionally sleeps to simulate network latency.
+ */
+public class DummyMarketDataService implements PollingMarketDataService {
+
+  private final long latencyMillis;
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  public DummyMarketDataService(long latencyMillis) {
+
+    this.latencyMillis = latencyMillis;
+  }
+
+  @Override
+  public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    enter();
+    try {
+      return TickerBuilder.newInstance().withCurrencyPair(currencyPair).withLast(BigDecimal.valueOf(calls.get())).withTimestamp(new Date()).build();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  @Override
+  public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    enter();
+    try {
+      return new OrderBook(new Date(), new ArrayList<LimitOrder>(), new ArrayList<LimitOrder>());
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  @Override
+  public Trades getTrades(CurrencyPair currencyPair, Object... args) throws IOException {
+
+    enter();
+    try {
+      return new Trades(new ArrayList<Trade>(), TradeSortType.SortByID);
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  @Override
+  public Collection<CurrencyPair> getExchangeSymbols() throws IOException {
+
+    return null;
+  }
+
+  public int getCalls() {
+
+    return calls.get();
+  }
+
+  public int getMaxInFlight() {
+
+    return maxInFlight.get();
+  }
+
+  private void enter() throws IOException {
+
+    calls.incrementAndGet();
+    int current = inFlight.incrementAndGet();
+    int max;
+    while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {
+      // retry
+    }
+    if (latencyMillis > 0) {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted");
+      }
+    }
+  }
+}
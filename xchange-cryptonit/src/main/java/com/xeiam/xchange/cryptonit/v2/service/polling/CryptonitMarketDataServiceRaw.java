@@ -23,8 +23,6 @@ package com.xeiam.xchange.cryptonit.v2.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.cryptonit.v2.Cryptonit;
 import com.xeiam.xchange.cryptonit.v2.dto.marketdata.CryptonitOrders;
@@ -52,7 +50,7 @@ public class CryptonitMarketDataServiceRaw extends CryptonitBasePollingService {
   public CryptonitMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.cryptonit = RestProxyFactory.createProxy(Cryptonit.class, exchangeSpecification.getSslUri());
+    this.cryptonit = createProxy(Cryptonit.class, exchangeSpecification.getSslUri());
   }
 
   public CryptonitTicker getCryptonitTicker(CurrencyPair currencyPair) throws IOException {
@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -53,7 +52,7 @@ public class CryptoTradeBasePollingService<T extends CryptoTrade> extends BaseEx
 
     super(exchangeSpecification);
 
-    this.cryptoTradeProxy = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    this.cryptoTradeProxy = createProxy(type, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = CryptoTradeHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
   }
@@ -28,6 +28,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 
 import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicMarketDataReturn;
+import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderBooksReturn;
 import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderbookReturn;
 
 /**
@@ -48,6 +49,10 @@ public interface Cryptsy {
   @Path("api.php?method=orderdatav2")
   CryptsyPublicOrderbookReturn getAllOrderbookData() throws IOException;
 
+  @GET
+  @Path("api.php?method=orderdatav2")
+  CryptsyPublicOrderBooksReturn getAllOrderBooks() throws IOException;
+
   @GET
   @Path("api.php?method=singleorderdata&marketid={marketid}")
   CryptsyPublicOrderbookReturn getOrderbookData(@PathParam("marketid") int marketId) throws IOException;
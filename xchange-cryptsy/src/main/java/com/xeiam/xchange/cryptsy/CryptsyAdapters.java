@@ -371,13 +371,13 @@ public final class CryptsyAdapters {
 
   public static CurrencyPair adaptCurrencyPair(CryptsyPublicMarketData cryptsyPublicMarketData) {
 
-    return new CurrencyPair(cryptsyPublicMarketData.getPrimaryCurrencyCode(), cryptsyPublicMarketData.getSecondaryCurrencyCode());
+    return CurrencyPair.of(cryptsyPublicMarketData.getPrimaryCurrencyCode(), cryptsyPublicMarketData.getSecondaryCurrencyCode());
   }
 
   public static CurrencyPair adaptCurrencyPair(String cryptsyLabel) {
 
     String[] marketCurrencies = cryptsyLabel.split("/");
-    return new CurrencyPair(marketCurrencies[0], marketCurrencies[1]);
+    return CurrencyPair.of(marketCurrencies[0], marketCurrencies[1]);
   }
 
   /**
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.cryptsy.dto.marketdata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.cryptsy.CryptsyAdapters;
+import com.xeiam.xchange.cryptsy.dto.CryptsyGenericReturn;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.utils.jackson.DepthStreamReader;
+
+/**
+ * Public order data for all markets, streamed directly into {@link OrderBook}s keyed by currency pair instead of going through
+ * {@link CryptsyPublicOrderbook}
+ */
+public class CryptsyPublicOrderBooksReturn extends CryptsyGenericReturn<Map<CurrencyPair, OrderBook>> {
+
+  /**
+   * Constructor
+   * 
+   * @param success
+   * @param value
+   * @param error
+   */
+  public CryptsyPublicOrderBooksReturn(@JsonProperty("success") int success,
+      @JsonProperty("return") @JsonDeserialize(using = CryptsyOrderBooksDeserializer.class) Map<CurrencyPair, OrderBook> value, @JsonProperty("error") String error) {
+
+    super(success, value, error);
+  }
+
+  public static class CryptsyOrderBooksDeserializer extends JsonDeserializer<Map<CurrencyPair, OrderBook>> {
+
+    @Override
+    public Map<CurrencyPair, OrderBook> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+      return readOrderBooks(jp, DepthStreamReader.ALL_LEVELS);
+    }
+
+    /**
+     * Read the "return" object of an orderdatav2 response, keeping at most maxLevels per side
+     * 
+     * @param jp The parser, on START_OBJECT
+     * @param maxLevels The number of levels to keep per side
+     * @return The order books by currency pair
+     */
+    public static Map<CurrencyPair, OrderBook> readOrderBooks(JsonParser jp, int maxLevels) throws IOException {
+
+      Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<CurrencyPair, OrderBook>();
+      if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+        return orderBooks;
+      }
+      Date timestamp = new Date();
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        jp.nextToken();
+        readMarket(jp, maxLevels, timestamp, orderBooks);
+      }
+      return orderBooks;
+    }
+
+    private static void readMarket(JsonParser jp, int maxLevels, Date timestamp, Map<CurrencyPair, OrderBook> orderBooks) throws IOException {
+
+      CurrencyPair currencyPair = null;
+      List<LimitOrder> asks = new ArrayList<LimitOrder>();
+      List<LimitOrder> bids = new ArrayList<LimitOrder>();
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        String field = jp.getCurrentName();
+        jp.nextToken();
+        if ("label".equals(field)) {
+          currencyPair = CryptsyAdapters.adaptCurrencyPair(jp.getText());
+        }
+        else if ("sellorders".equals(field)) {
+          asks = DepthStreamReader.readLevelObjects(jp, OrderType.ASK, currencyPair, "price", "quantity", maxLevels);
+        }
+        else if ("buyorders".equals(field)) {
+          bids = DepthStreamReader.readLevelObjects(jp, OrderType.BID, currencyPair, "price", "quantity", maxLevels);
+        }
+        else {
+          jp.skipChildren();
+        }
+      }
+      if (currencyPair == null) {
+        return;
+      }
+      orderBooks.put(currencyPair, new OrderBook(timestamp, withCurrencyPair(asks, currencyPair), withCurrencyPair(bids, currencyPair)));
+    }
+
+    /**
+     * Orders read before the market label was seen have no currency pair, so they are rebuilt with it
+     */
+    private static List<LimitOrder> withCurrencyPair(List<LimitOrder> orders, CurrencyPair currencyPair) {
+
+      if (orders.isEmpty() || orders.get(0).getCurrencyPair() != null) {
+        return orders;
+      }
+      List<LimitOrder> result = new ArrayList<LimitOrder>(orders.size());
+      for (LimitOrder order : orders) {
+        result.add(new LimitOrder(order.getType(), order.getTradableAmount(), currencyPair, order.getId(), order.getTimestamp(), order.getLimitPrice()));
+      }
+      return result;
+    }
+  }
+}
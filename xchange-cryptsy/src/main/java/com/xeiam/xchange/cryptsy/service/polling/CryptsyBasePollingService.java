@@ -23,7 +23,6 @@ package com.xeiam.xchange.cryptsy.service.polling;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -33,7 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -73,7 +71,7 @@ public class CryptsyBasePollingService<T extends Cryptsy> extends BaseExchangeSe
   
     super(exchangeSpecification);
     
-    this.cryptsy = RestProxyFactory.createProxy(cryptsyType, exchangeSpecification.getSslUri());
+    this.cryptsy = createProxy(cryptsyType, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     this.signatureCreator = CryptsyHmacPostBodyDigest.createInstance(exchangeSpecification.getSecretKey());
   }
@@ -87,7 +85,7 @@ public class CryptsyBasePollingService<T extends Cryptsy> extends BaseExchangeSe
     return currencyPairs;
   }
   
-  @SuppressWarnings({ "unchecked", "rawtypes" })
+  @SuppressWarnings("unchecked")
   public void updateExchangeSymbols() throws ExchangeException, IOException {
   
     Map<Integer, CryptsyPublicMarketData> overallMarketData = new CryptsyPublicMarketDataServiceRaw().getAllCryptsyMarketData();
@@ -95,9 +93,7 @@ public class CryptsyBasePollingService<T extends Cryptsy> extends BaseExchangeSe
     currencyPairs.addAll(CryptsyAdapters.adaptCurrencyPairs(overallMarketData));
     
     // Map of market currencyPairs and marketIds also have to be updated.
-    HashMap[] marketSets = CryptsyAdapters.adaptMarketSets(overallMarketData);
-    CryptsyCurrencyUtils.marketIds_CurrencyPairs = marketSets[0];
-    CryptsyCurrencyUtils.currencyPairs_MarketIds = marketSets[1];
+    CryptsyCurrencyUtils.MARKET_IDS.putAll(CryptsyAdapters.adaptMarketSets(overallMarketData)[0]);
   }
   
   protected int nextNonce() {
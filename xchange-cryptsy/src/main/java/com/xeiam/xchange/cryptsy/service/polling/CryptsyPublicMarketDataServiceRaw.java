@@ -31,6 +31,8 @@ import com.xeiam.xchange.cryptsy.CryptsyAdapters;
 import com.xeiam.xchange.cryptsy.CryptsyExchange;
 import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicMarketData;
 import com.xeiam.xchange.cryptsy.dto.marketdata.CryptsyPublicOrderbook;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
 
 public class CryptsyPublicMarketDataServiceRaw extends CryptsyBasePollingService<Cryptsy> {
 
@@ -59,6 +61,14 @@ public class CryptsyPublicMarketDataServiceRaw extends CryptsyBasePollingService
     return CryptsyAdapters.adaptPublicOrderBookMap(checkResult(cryptsy.getAllOrderbookData()).getReturnValue());
   }
 
+  /**
+   * Like {@link #getAllCryptsyOrderBooks()}, but streams the response straight into order books without building the intermediate DTOs
+   */
+  public Map<CurrencyPair, OrderBook> getAllStreamedOrderBooks() throws IOException, ExchangeException {
+
+    return checkResult(cryptsy.getAllOrderBooks()).getReturnValue();
+  }
+
   public Map<Integer, CryptsyPublicOrderbook> getCryptsyOrderBook(int marketId) throws IOException, ExchangeException {
 
     return CryptsyAdapters.adaptPublicOrderBookMap(checkResult(cryptsy.getOrderbookData(marketId)).getReturnValue());
@@ -37,6 +37,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xeiam.xchange.cryptsy.CryptsyUtils;
 import com.xeiam.xchange.cryptsy.dto.CryptsyOrder;
 import com.xeiam.xchange.cryptsy.dto.CryptsyOrder.CryptsyOrderType;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
 
 public class CryptsyMarketDataJsonTest {
 
@@ -178,4 +180,28 @@ public class CryptsyMarketDataJsonTest {
     assertEquals(order.getTotal(), new BigDecimal("11.68622284"));
 
   }
+
+  @Test
+  public void testDeserializeStreamedOrderBooks() throws IOException {
+
+    // Read in the JSON from the example resources
+    InputStream is = CryptsyMarketDataJsonTest.class.getResourceAsStream("/marketdata/Sample_AllOrderbook_Public_Data.json");
+
+    // Use Jackson to parse it
+    ObjectMapper mapper = new ObjectMapper();
+    Map<CurrencyPair, OrderBook> orderBooks = mapper.readValue(is, CryptsyPublicOrderBooksReturn.class).getReturnValue();
+
+    assertThat(orderBooks).hasSize(2);
+    OrderBook orderBook = orderBooks.get(new CurrencyPair("DOGE", "LTC"));
+    assertThat(orderBook.getAsks()).hasSize(3);
+    assertEquals(orderBook.getBestAsk().getLimitPrice(), new BigDecimal("0.00003495"));
+    assertEquals(orderBook.getBestAsk().getTradableAmount(), new BigDecimal("334369.75217020"));
+    assertEquals(orderBook.getBestBid().getLimitPrice(), new BigDecimal("0.00003485"));
+    assertEquals(orderBook.getBestAsk().getCurrencyPair(), new CurrencyPair("DOGE", "LTC"));
+
+    // null buyorders gives an empty side
+    OrderBook oneSidedOrderBook = orderBooks.get(new CurrencyPair("BTC", "LTC"));
+    assertThat(oneSidedOrderBook.getAsks()).hasSize(3);
+    assertThat(oneSidedOrderBook.getBids()).isEmpty();
+  }
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.examples.marketdata;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.btce.v3.BTCEAdapters;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepth;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEDepthWrapper;
+import com.xeiam.xchange.btce.v3.dto.marketdata.BTCEOrderBookWrapper;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.kraken.KrakenAdapters;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult;
+
+/**
+ * Compares bytes allocated per parse of a 2000-level depth response between the DTO + adapter path and the streamed
+ * {@link com.xeiam.xchange.utils.jackson.DepthStreamReader} path. The responses have the same shape as the example-depth-data.json test
+ * resources of each module, scaled up to the exchange maximum.
+ */
+public class DepthParsingAllocationDemo {
+
+  private static final int LEVELS = 2000;
+  private static final int WARMUP = 200;
+  private static final int ITERATIONS = 200;
+
+  public static void main(String[] args) throws IOException {
+
+    ObjectMapper mapper = new ObjectMapper();
+
+    final byte[] kraken = krakenDepth(LEVELS).getBytes("UTF-8");
+    final byte[] btce = btceDepth(LEVELS).getBytes("UTF-8");
+
+    report("Kraken DTO + adapter", mapper, new Parse() {
+
+      @Override
+      public Object parse(ObjectMapper mapper) throws IOException {
+
+        KrakenDepthResult result = mapper.readValue(kraken, KrakenDepthResult.class);
+        return KrakenAdapters.adaptOrderBook(result.getResult().get("XXBTZEUR"), CurrencyPair.BTC_EUR);
+      }
+    });
+    report("Kraken streamed", mapper, new Parse() {
+
+      @Override
+      public Object parse(ObjectMapper mapper) throws IOException {
+
+        return mapper.readValue(kraken, KrakenOrderBookResult.class).getResult().get(CurrencyPair.BTC_EUR);
+      }
+    });
+    report("BTC-e DTO + adapter", mapper, new Parse() {
+
+      @Override
+      public Object parse(ObjectMapper mapper) throws IOException {
+
+        BTCEDepth depth = mapper.readValue(btce, BTCEDepthWrapper.class).getDepth("btc_usd");
+        return new OrderBook(null, BTCEAdapters.adaptOrders(depth.getAsks(), CurrencyPair.BTC_USD, "ask", ""), BTCEAdapters.adaptOrders(depth.getBids(),
+            CurrencyPair.BTC_USD, "bid", ""));
+      }
+    });
+    report("BTC-e streamed", mapper, new Parse() {
+
+      @Override
+      public Object parse(ObjectMapper mapper) throws IOException {
+
+        return mapper.readValue(btce, BTCEOrderBookWrapper.class).getOrderBook(CurrencyPair.BTC_USD);
+      }
+    });
+  }
+
+  private interface Parse {
+
+    Object parse(ObjectMapper mapper) throws IOException;
+  }
+
+  private static void report(String name, ObjectMapper mapper, Parse parse) throws IOException {
+
+    for (int i = 0; i < WARMUP; i++) {
+      parse.parse(mapper);
+    }
+
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      parse.parse(mapper);
+    }
+    long bytes = (threadMXBean.getThreadAllocatedBytes(threadId) - startBytes) / ITERATIONS;
+    long micros = (System.nanoTime() - startNanos) / ITERATIONS / 1000;
+
+    System.out.println(String.format("%-22s %,12d bytes/parse %,8d us/parse", name, bytes, micros));
+  }
+
+  private static String krakenDepth(int levels) {
+
+    StringBuilder sb = new StringBuilder("{\"error\":[],\"result\":{\"XXBTZEUR\":{\"asks\":[");
+    appendLevels(sb, levels, 530.75513, 0.001, true);
+    sb.append("],\"bids\":[");
+    appendLevels(sb, levels, 530.5, -0.001, true);
+    return sb.append("]}}}").toString();
+  }
+
+  private static String btceDepth(int levels) {
+
+    StringBuilder sb = new StringBuilder("{\"btc_usd\":{\"asks\":[");
+    appendLevels(sb, levels, 760.98, 0.01, false);
+    sb.append("],\"bids\":[");
+    appendLevels(sb, levels, 760.5, -0.01, false);
+    return sb.append("]}}").toString();
+  }
+
+  private static void appendLevels(StringBuilder sb, int levels, double price, double step, boolean kraken) {
+
+    for (int i = 0; i < levels; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      String levelPrice = String.format("%.5f", price + i * step);
+      String amount = String.format("%.3f", 0.1 + (i % 17) * 0.25);
+      if (kraken) {
+        sb.append("[\"").append(levelPrice).append("\",\"").append(amount).append("\",").append(1391825343 - i).append(']');
+      }
+      else {
+        sb.append('[').append(levelPrice).append(',').append(amount).append(']');
+      }
+    }
+  }
+}
@@ -28,7 +28,6 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
@@ -60,7 +59,7 @@ public abstract class HitbtcBasePollingService<T extends Hitbtc> extends BaseExc
 
     super(exchangeSpecification);
 
-    this.hitbtc = RestProxyFactory.createProxy(hiitbtcType, exchangeSpecification.getSslUri());
+    this.hitbtc = createProxy(hiitbtcType, exchangeSpecification.getSslUri());
     this.apiKey = exchangeSpecification.getApiKey();
     String apiKey = exchangeSpecification.getSecretKey();
     this.signatureCreator = apiKey != null && !apiKey.isEmpty() ? HitbtcHmacDigest.createInstance(apiKey) : null;
@@ -23,8 +23,6 @@ package com.xeiam.xchange.itbit.v1.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.NotAvailableFromExchangeException;
@@ -44,7 +42,7 @@ public class ItBitMarketDataServiceRaw extends ItBitBasePollingService {
   public ItBitMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    itBit = RestProxyFactory.createProxy(ItBit.class, exchangeSpecification.getSslUri());
+    itBit = createProxy(ItBit.class, exchangeSpecification.getSslUri());
   }
 
   public ItBitDepth getItBitDepth(CurrencyPair currencyPair, Object... args) throws ExchangeException, NotAvailableFromExchangeException, NotYetImplementedForExchangeException, IOException {
@@ -26,8 +26,6 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.justcoin.Justcoin;
@@ -50,7 +48,7 @@ public class JustcoinBasePollingService<T extends Justcoin> extends BaseExchange
   public JustcoinBasePollingService(Class<T> type, ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.justcoin = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    this.justcoin = createProxy(type, exchangeSpecification.getSslUri());
   }
 
   @Override
@@ -33,6 +33,7 @@ import javax.ws.rs.core.MediaType;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenAssetPairsResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenAssetsResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenPublicTradesResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenServerTimeResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenSpreadsResult;
@@ -53,6 +54,10 @@ public interface Kraken {
   @Path("public/Depth")
   KrakenDepthResult getDepth(@QueryParam("pair") String currencyPair, @QueryParam("count") long count) throws IOException;
 
+  @GET
+  @Path("public/Depth")
+  KrakenOrderBookResult getOrderBook(@QueryParam("pair") String currencyPair, @QueryParam("count") long count) throws IOException;
+
   @GET
   @Path("public/Trades")
   KrakenPublicTradesResult getTrades(@QueryParam("pair") String currencyPair) throws IOException;
@@ -33,9 +33,12 @@ import java.util.Set;
 
 import com.xeiam.xchange.currency.Currencies;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable;
+import com.xeiam.xchange.currency.CurrencyPairSymbolTable.SymbolParser;
 import com.xeiam.xchange.dto.Order.OrderType;
 import com.xeiam.xchange.dto.account.AccountInfo;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
 import com.xeiam.xchange.dto.marketdata.Ticker;
 import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
 import com.xeiam.xchange.dto.marketdata.Trade;
@@ -56,6 +59,20 @@ import com.xeiam.xchange.kraken.dto.trade.KrakenType;
 
 public class KrakenAdapters {
 
+  /**
+   * Kraken asset pair names (XXBTZEUR) are parsed once and then resolved with a single lookup. The reverse direction depends on the asset metadata, so
+   * it is left to {@link com.xeiam.xchange.kraken.service.polling.KrakenBasePollingService}.
+   */
+  private static final CurrencyPairSymbolTable<String> CURRENCY_PAIR_SYMBOLS = new CurrencyPairSymbolTable<String>(new SymbolParser<String>() {
+
+    @Override
+    public CurrencyPair parse(String krakenCurrencyPair) {
+
+      return CurrencyPair.of(adaptCurrency(krakenCurrencyPair.substring(0, 4)), adaptCurrency(krakenCurrencyPair.substring(4)));
+    }
+  });
+
+
   public static OrderBook adaptOrderBook(KrakenDepth krakenDepth, CurrencyPair currencyPair) {
 
     List<LimitOrder> bids = KrakenAdapters.adaptOrders(krakenDepth.getBids(), currencyPair, OrderType.BID);
@@ -73,6 +90,22 @@ public class KrakenAdapters {
     return limitOrders;
   }
 
+  /**
+   * Returns the orders as fixed-point price levels, avoiding the BigDecimal conversion of {@link #adaptOrders}
+   * 
+   * @param orders
+   * @return the price levels in the same order
+   */
+  public static List<PriceLevel> adaptPriceLevels(List<KrakenPublicOrder> orders) {
+
+    List<PriceLevel> priceLevels = new ArrayList<PriceLevel>(orders.size());
+    for (KrakenPublicOrder order : orders) {
+      priceLevels.add(order.getPriceLevel());
+    }
+
+    return priceLevels;
+  }
+
   public static LimitOrder adaptOrder(KrakenPublicOrder order, OrderType orderType, CurrencyPair currencyPair) {
 
     Date timeStamp = new Date(order.getTimestamp() * 1000);
@@ -141,10 +174,7 @@ public class KrakenAdapters {
 
   public static CurrencyPair adaptCurrencyPair(String krakenCurrencyPair) {
 
-    String firstCurrency = adaptCurrency(krakenCurrencyPair.substring(0, 4));
-    String secondCurrency = adaptCurrency(krakenCurrencyPair.substring(4));
-
-    return new CurrencyPair(firstCurrency, secondCurrency);
+    return CURRENCY_PAIR_SYMBOLS.getCurrencyPair(krakenCurrencyPair);
   }
 
   public static OpenOrders adaptOpenOrders(Map<String, KrakenOrder> krakenOrders) {
@@ -175,7 +205,7 @@ public class KrakenAdapters {
     String transactionCurrency = adaptCurrency(orderDescription.getAssetPair().substring(3));
     Date timestamp = new Date((long) (krakenOrder.getOpenTimestamp() * 1000L));
 
-    return new LimitOrder(type, tradableAmount, new CurrencyPair(tradableIdentifier, transactionCurrency), id, timestamp, orderDescription.getPrice());
+    return new LimitOrder(type, tradableAmount, CurrencyPair.of(tradableIdentifier, transactionCurrency), id, timestamp, orderDescription.getPrice());
   }
 
   public static Trades adaptTradesHistory(Map<String, KrakenTrade> krakenTrades) {
@@ -192,14 +222,12 @@ public class KrakenAdapters {
 
     OrderType orderType = adaptOrderType(krakenTrade.getType());
     BigDecimal tradableAmount = krakenTrade.getVolume();
-    String krakenAssetPair = krakenTrade.getAssetPair();
-    String tradableIdentifier = adaptCurrency(krakenAssetPair.substring(0, 4));
-    String transactionCurrency = adaptCurrency(krakenAssetPair.substring(4));
+    CurrencyPair currencyPair = adaptCurrencyPair(krakenTrade.getAssetPair());
     Date timestamp = new Date((long) (krakenTrade.getUnixTimestamp() * 1000L));
     BigDecimal averagePrice = krakenTrade.getAverageClosePrice();
     BigDecimal price = (averagePrice == null) ? krakenTrade.getPrice() : averagePrice;
 
-    return new Trade(orderType, tradableAmount, new CurrencyPair(tradableIdentifier, transactionCurrency), price, timestamp, tradeId, krakenTrade.getOrderTxId());
+    return new Trade(orderType, tradableAmount, currencyPair, price, timestamp, tradeId, krakenTrade.getOrderTxId());
   }
 
   public static OrderType adaptOrderType(KrakenType krakenType) {
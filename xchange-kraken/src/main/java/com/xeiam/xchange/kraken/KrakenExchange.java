@@ -27,6 +27,8 @@ import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.kraken.service.polling.KrakenAccountService;
 import com.xeiam.xchange.kraken.service.polling.KrakenMarketDataService;
 import com.xeiam.xchange.kraken.service.polling.KrakenTradeService;
+import com.xeiam.xchange.service.polling.ratelimit.RateLimitPolicy.RateLimitPolicyBuilder;
+import com.xeiam.xchange.service.polling.ratelimit.RequestPriority;
 
 /**
  * @author Benedikt Bünz
@@ -52,6 +54,17 @@ public class KrakenExchange extends BaseExchange implements Exchange {
     exchangeSpecification.setPort(80);
     exchangeSpecification.setExchangeName("Kraken");
     exchangeSpecification.setExchangeDescription("Kraken is a Bitcoin exchange operated by Payward, Inc.");
+    // the private call counter holds 20 and decays by 1 every 3 seconds; history queries count 2, order placement and cancellation are not counted,
+    // and neither are the public endpoints, which the counter does not apply to
+    exchangeSpecification.setRateLimitPolicy(RateLimitPolicyBuilder.newInstance(1 / 3d, 20).withWeight("getTicker", 0).withWeight("getDepth", 0)
+        .withWeight("getOrderBook", 0).withWeight("getTrades", 0).withWeight("getSpread", 0).withWeight("getAssets", 0).withWeight("getAssetPairs", 0)
+        .withWeight("getServerTime", 0).withWeight("ledgers", 2).withWeight("queryLedgers", 2).withWeight("tradeHistory", 2).withWeight("queryTrades", 2)
+        .withWeight("addOrder", 0).withWeight("cancelOrder", 0).withPriority("addOrder", RequestPriority.TRADE)
+        .withPriority("addOrderValidateOnly", RequestPriority.TRADE).withPriority("cancelOrder", RequestPriority.TRADE).withPriority("balance", RequestPriority.ACCOUNT)
+        .withPriority("tradeBalance", RequestPriority.ACCOUNT).withPriority("ledgers", RequestPriority.ACCOUNT).withPriority("queryLedgers", RequestPriority.ACCOUNT)
+        .withPriority("openOrders", RequestPriority.ACCOUNT).withPriority("closedOrders", RequestPriority.ACCOUNT).withPriority("queryOrders", RequestPriority.ACCOUNT)
+        .withPriority("tradeHistory", RequestPriority.ACCOUNT).withPriority("queryTrades", RequestPriority.ACCOUNT).withPriority("openPositions", RequestPriority.ACCOUNT)
+        .withPriority("tradeVolume", RequestPriority.ACCOUNT).build());
     return exchangeSpecification;
   }
 
@@ -26,22 +26,32 @@ import java.math.BigDecimal;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.dto.FixedPoint;
+import com.xeiam.xchange.dto.marketdata.PriceLevel;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenPublicOrder.KrakenOrderDeserializer;
+import com.xeiam.xchange.utils.jackson.FixedPointDeserializer;
 
+/**
+ * A public Kraken order. Price and volume are held in {@link FixedPoint} form and only converted to BigDecimal when requested.
+ */
 @JsonDeserialize(using = KrakenOrderDeserializer.class)
 public class KrakenPublicOrder {
 
-  private final BigDecimal price;
-  private final BigDecimal volume;
+  private final FixedPoint price;
+  private final FixedPoint volume;
   private final long timestamp;
 
   public KrakenPublicOrder(BigDecimal price, BigDecimal volume, long timestamp) {
 
+    this(FixedPoint.valueOf(price), FixedPoint.valueOf(volume), timestamp);
+  }
+
+  public KrakenPublicOrder(FixedPoint price, FixedPoint volume, long timestamp) {
+
     this.price = price;
     this.volume = volume;
     this.timestamp = timestamp;
@@ -49,12 +59,20 @@ public class KrakenPublicOrder {
 
   public BigDecimal getPrice() {
 
-    return price;
+    return price.toBigDecimal();
   }
 
   public BigDecimal getVolume() {
 
-    return volume;
+    return volume.toBigDecimal();
+  }
+
+  /**
+   * @return the price and volume without converting them to BigDecimal
+   */
+  public PriceLevel getPriceLevel() {
+
+    return new PriceLevel(price, volume);
   }
 
   public long getTimestamp() {
@@ -73,17 +91,26 @@ public class KrakenPublicOrder {
     @Override
     public KrakenPublicOrder deserialize(JsonParser jsonParser, DeserializationContext ctxt) throws IOException, JsonProcessingException {
 
-      ObjectCodec oc = jsonParser.getCodec();
-      JsonNode node = oc.readTree(jsonParser);
-      if (node.isArray()) {
-        BigDecimal price = new BigDecimal(node.path(0).asText());
-        BigDecimal volume = new BigDecimal(node.path(1).asText());
-        long timestamp = node.path(2).asLong();
+      if (!jsonParser.isExpectedStartArrayToken()) {
+        jsonParser.skipChildren();
+        return null;
+      }
 
-        return new KrakenPublicOrder(price, volume, timestamp);
+      // [price, volume, timestamp], read straight from the token stream
+      jsonParser.nextToken();
+      FixedPoint price = FixedPointDeserializer.parse(jsonParser, ctxt);
+      jsonParser.nextToken();
+      FixedPoint volume = FixedPointDeserializer.parse(jsonParser, ctxt);
+      long timestamp = 0;
+      if (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+        // the timestamp is missing from e.g. ticker ask/bid arrays
+        timestamp = jsonParser.getValueAsLong();
+        for (JsonToken token = jsonParser.nextToken(); token != JsonToken.END_ARRAY && token != null; token = jsonParser.nextToken()) {
+          jsonParser.skipChildren();
+        }
       }
 
-      return null;
+      return new KrakenPublicOrder(price, volume, timestamp);
     }
   }
 }
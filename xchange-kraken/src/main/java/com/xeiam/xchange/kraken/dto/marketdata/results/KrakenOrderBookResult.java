@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.kraken.dto.marketdata.results;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.kraken.KrakenAdapters;
+import com.xeiam.xchange.kraken.dto.KrakenResult;
+import com.xeiam.xchange.utils.jackson.DepthStreamReader;
+
+/**
+ * Depth result streamed directly into {@link OrderBook}s, skipping the {@link com.xeiam.xchange.kraken.dto.marketdata.KrakenDepth} DTOs
+ */
+public class KrakenOrderBookResult extends KrakenResult<Map<CurrencyPair, OrderBook>> {
+
+  /**
+   * Constructor
+   * 
+   * @param error array of string error messages
+   * @param result the returned order books
+   */
+  public KrakenOrderBookResult(@JsonProperty("error") String[] error,
+      @JsonProperty("result") @JsonDeserialize(using = KrakenOrderBooksDeserializer.class) Map<CurrencyPair, OrderBook> result) {
+
+    super(result, error);
+  }
+
+  public static class KrakenOrderBooksDeserializer extends JsonDeserializer<Map<CurrencyPair, OrderBook>> {
+
+    @Override
+    public Map<CurrencyPair, OrderBook> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+
+      return readOrderBooks(jp, DepthStreamReader.ALL_LEVELS);
+    }
+
+    /**
+     * Read the "result" object of a depth response, keeping at most maxLevels per side
+     * 
+     * @param jp The parser, on START_OBJECT
+     * @param maxLevels The number of levels to keep per side
+     * @return The order books by currency pair
+     */
+    public static Map<CurrencyPair, OrderBook> readOrderBooks(JsonParser jp, int maxLevels) throws IOException {
+
+      Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<CurrencyPair, OrderBook>();
+      if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+        return orderBooks;
+      }
+      while (jp.nextToken() == JsonToken.FIELD_NAME) {
+        CurrencyPair currencyPair = KrakenAdapters.adaptCurrencyPair(jp.getCurrentName());
+        jp.nextToken();
+        orderBooks.put(currencyPair, DepthStreamReader.readOrderBook(jp, currencyPair, maxLevels, true));
+      }
+      return orderBooks;
+    }
+  }
+}
@@ -24,19 +24,22 @@ package com.xeiam.xchange.kraken.service.polling;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import si.mazi.rescu.ParamsDigest;
-import si.mazi.rescu.RestProxyFactory;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
-import com.xeiam.xchange.currency.Currencies;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.meta.CurrencyPairMetaData;
+import com.xeiam.xchange.dto.meta.ExchangeMetaData;
 import com.xeiam.xchange.kraken.Kraken;
 import com.xeiam.xchange.kraken.KrakenAdapters;
 import com.xeiam.xchange.kraken.dto.KrakenResult;
+import com.xeiam.xchange.kraken.dto.marketdata.KrakenAssetPair;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenAssetPairs;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenAssets;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenServerTime;
@@ -46,15 +49,16 @@ import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenServerTimeResult;
 import com.xeiam.xchange.kraken.service.KrakenDigest;
 import com.xeiam.xchange.service.BaseExchangeService;
 import com.xeiam.xchange.service.polling.BasePollingService;
+import com.xeiam.xchange.service.polling.MetaDataLoader;
+import com.xeiam.xchange.service.polling.MetaDataRegistry;
+import com.xeiam.xchange.service.polling.NonceManager;
 
 public class KrakenBasePollingService<T extends Kraken> extends BaseExchangeService implements BasePollingService {
 
-  private final Set<CurrencyPair> CURRENCY_PAIRS = new HashSet<CurrencyPair>();
-  private final Set<String> FIAT_CURRENCIES = new HashSet<String>();
-  private final Set<String> DIGITAL_CURRENCIES = new HashSet<String>();
-
   protected T kraken;
   protected ParamsDigest signatureCreator;
+  protected final NonceManager nonceManager;
+  protected final MetaDataRegistry metaDataRegistry;
 
   /**
    * Constructor
@@ -64,43 +68,53 @@ public class KrakenBasePollingService<T extends Kraken> extends BaseExchangeServ
   public KrakenBasePollingService(Class<T> type, ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    kraken = RestProxyFactory.createProxy(type, exchangeSpecification.getSslUri());
+    kraken = createProxy(type, exchangeSpecification.getSslUri());
     signatureCreator = KrakenDigest.createInstance(exchangeSpecification.getSecretKey());
+    nonceManager = NonceManager.getInstance(exchangeSpecification, 0L, 1000L);
+    metaDataRegistry = MetaDataRegistry.getInstance(exchangeSpecification, new MetaDataLoader() {
+
+      @Override
+      public ExchangeMetaData load() throws IOException {
+
+        return loadMetaData();
+      }
+    });
   }
 
   @Override
-  public synchronized Collection<CurrencyPair> getExchangeSymbols() throws IOException {
+  public Collection<CurrencyPair> getExchangeSymbols() throws IOException {
 
-    if (CURRENCY_PAIRS.isEmpty()) {
-      final Set<String> krakenCurrencyPairs = getKrakenAssetPairs().getAssetPairMap().keySet();
-      for (final String krakenCurrencyPair : krakenCurrencyPairs) {
-        String krakenTradeCurrency = krakenCurrencyPair.substring(0, 4);
-        String krakenPriceCurrency = krakenCurrencyPair.substring(4);
+    return metaDataRegistry.getMetaData().getCurrencyPairs();
+  }
 
-        String tradeCurrency = addCurrencyAndGetCode(krakenTradeCurrency);
-        String priceCurrency = addCurrencyAndGetCode(krakenPriceCurrency);
+  private ExchangeMetaData loadMetaData() throws IOException {
 
-        CURRENCY_PAIRS.add(new CurrencyPair(tradeCurrency, priceCurrency));
-      }
-    }
-    return CURRENCY_PAIRS;
-  }
+    Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = new LinkedHashMap<CurrencyPair, CurrencyPairMetaData>();
+    Map<String, String> nativeCurrencies = new HashMap<String, String>();
 
-  private String addCurrencyAndGetCode(String krakenCurrencyString) {
+    for (Map.Entry<String, KrakenAssetPair> krakenAssetPair : getKrakenAssetPairs().getAssetPairMap().entrySet()) {
+      String krakenCurrencyPair = krakenAssetPair.getKey();
+      String krakenTradeCurrency = krakenCurrencyPair.substring(0, 4);
+      String krakenPriceCurrency = krakenCurrencyPair.substring(4);
 
-    String currencyCode = KrakenAdapters.adaptCurrency(krakenCurrencyString);
-    if (krakenCurrencyString.startsWith("X")) {
-      DIGITAL_CURRENCIES.add(currencyCode);
-    }
-    else {
-      FIAT_CURRENCIES.add(currencyCode);
+      String tradeCurrency = KrakenAdapters.adaptCurrency(krakenTradeCurrency);
+      String priceCurrency = KrakenAdapters.adaptCurrency(krakenPriceCurrency);
+      nativeCurrencies.put(tradeCurrency, krakenTradeCurrency);
+      nativeCurrencies.put(priceCurrency, krakenPriceCurrency);
+
+      currencyPairs.put(CurrencyPair.of(tradeCurrency, priceCurrency), new CurrencyPairMetaData(krakenCurrencyPair, krakenAssetPair.getValue().getPairScale(), null));
     }
 
-    return currencyCode;
+    return new ExchangeMetaData(currencyPairs, nativeCurrencies, System.currentTimeMillis());
   }
 
   protected String createKrakenCurrencyPair(CurrencyPair currencyPair) throws IOException {
 
+    CurrencyPairMetaData currencyPairMetaData = metaDataRegistry.getMetaData().getCurrencyPairMetaData(currencyPair);
+    if (currencyPairMetaData != null && currencyPairMetaData.getNativeSymbol() != null) {
+      return currencyPairMetaData.getNativeSymbol();
+    }
+
     return createKrakenCurrencyPair(currencyPair.baseSymbol, currencyPair.counterSymbol);
   }
 
@@ -111,22 +125,12 @@ public class KrakenBasePollingService<T extends Kraken> extends BaseExchangeServ
 
   protected String getKrakenCurrencyCode(String currency) throws IOException {
 
-    if (FIAT_CURRENCIES.isEmpty()) {
-      getExchangeSymbols();
-    }
-
-    if (FIAT_CURRENCIES.contains(currency)) {
-      return "Z" + currency;
-    }
-    else if (DIGITAL_CURRENCIES.contains(currency)) {
-      if (currency.equals(Currencies.BTC)) {
-        return "XXBT";
-      }
-
-      return "X" + currency;
+    String krakenCurrency = metaDataRegistry.getMetaData().getNativeCurrency(currency);
+    if (krakenCurrency == null) {
+      throw new ExchangeException("Kraken does not support the currency code " + currency);
     }
 
-    throw new ExchangeException("Kraken does not support the currency code " + currency);
+    return krakenCurrency;
   }
 
   public KrakenServerTime getServerTime() throws IOException {
@@ -161,7 +165,7 @@ public class KrakenBasePollingService<T extends Kraken> extends BaseExchangeServ
 
   protected long nextNonce() {
 
-    return System.currentTimeMillis();
+    return nonceManager.next();
   }
 
   protected String createDelimitedString(String[] items) {
@@ -22,9 +22,13 @@
 package com.xeiam.xchange.kraken.service.polling;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.NotAvailableFromExchangeException;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.dto.marketdata.Ticker;
@@ -32,9 +36,12 @@ import com.xeiam.xchange.dto.marketdata.Trades;
 import com.xeiam.xchange.kraken.KrakenAdapters;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenDepth;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenPublicTrades;
-import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.kraken.dto.marketdata.KrakenTicker;
+import com.xeiam.xchange.service.metrics.MetricsRecorder.Phase;
+import com.xeiam.xchange.service.polling.BulkMarketData;
+import com.xeiam.xchange.service.polling.BulkPollingMarketDataService;
 
-public class KrakenMarketDataService extends KrakenMarketDataServiceRaw implements PollingMarketDataService {
+public class KrakenMarketDataService extends KrakenMarketDataServiceRaw implements BulkPollingMarketDataService {
 
   public KrakenMarketDataService(ExchangeSpecification exchangeSpecification) {
 
@@ -44,7 +51,12 @@ public class KrakenMarketDataService extends KrakenMarketDataServiceRaw implemen
   @Override
   public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
 
-    return KrakenAdapters.adaptTicker(getKrakenTicker(currencyPair), currencyPair);
+    KrakenTicker krakenTicker = getKrakenTicker(currencyPair);
+
+    long start = metrics.start();
+    Ticker ticker = KrakenAdapters.adaptTicker(krakenTicker, currencyPair);
+    metrics.stop("getTicker", Phase.ADAPTATION, start);
+    return ticker;
   }
 
   @Override
@@ -64,7 +76,35 @@ public class KrakenMarketDataService extends KrakenMarketDataServiceRaw implemen
 
     KrakenDepth krakenDepth = getKrakenDepth(currencyPair, count);
 
-    return KrakenAdapters.adaptOrderBook(krakenDepth, currencyPair);
+    long start = metrics.start();
+    OrderBook orderBook = KrakenAdapters.adaptOrderBook(krakenDepth, currencyPair);
+    metrics.stop("getOrderBook", Phase.ADAPTATION, start);
+    return orderBook;
+  }
+
+  @Override
+  public Map<CurrencyPair, Ticker> getTickers(Collection<CurrencyPair> currencyPairs, Object... args) throws IOException {
+
+    Map<String, KrakenTicker> krakenTickers = getKrakenTicker(currencyPairs.toArray(new CurrencyPair[currencyPairs.size()]));
+
+    Map<CurrencyPair, Ticker> tickers = new LinkedHashMap<CurrencyPair, Ticker>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      KrakenTicker krakenTicker = krakenTickers.get(createKrakenCurrencyPair(currencyPair));
+      if (krakenTicker == null) {
+        throw new ExchangeException("Kraken returned no ticker for " + currencyPair);
+      }
+      tickers.put(currencyPair, KrakenAdapters.adaptTicker(krakenTicker, currencyPair));
+    }
+    return tickers;
+  }
+
+  /**
+   * Kraken's depth endpoint takes a single pair: use {@link BulkMarketData}, which makes one request per pair on the caller's executor
+   */
+  @Override
+  public Map<CurrencyPair, OrderBook> getOrderBooks(Collection<CurrencyPair> currencyPairs, Object... args) {
+
+    throw new NotAvailableFromExchangeException();
   }
 
   @Override
@@ -83,7 +123,10 @@ public class KrakenMarketDataService extends KrakenMarketDataServiceRaw implemen
     }
 
     KrakenPublicTrades krakenTrades = getKrakenTrades(currencyPair, since);
+
+    long start = metrics.start();
     Trades trades = KrakenAdapters.adaptTrades(krakenTrades.getTrades(), currencyPair, krakenTrades.getLast());
+    metrics.stop("getTrades", Phase.ADAPTATION, start);
     return trades;
   }
 
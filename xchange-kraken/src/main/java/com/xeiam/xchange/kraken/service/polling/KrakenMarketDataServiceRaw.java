@@ -26,12 +26,14 @@ import java.util.Map;
 
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
 import com.xeiam.xchange.kraken.Kraken;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenDepth;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenPublicTrades;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenSpreads;
 import com.xeiam.xchange.kraken.dto.marketdata.KrakenTicker;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenPublicTradesResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenSpreadsResult;
 import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenTickerResult;
@@ -71,6 +73,17 @@ public class KrakenMarketDataServiceRaw extends KrakenBasePollingService<Kraken>
     return checkResult(result).get(krakenCurrencyPair);
   }
 
+  /**
+   * Like {@link #getKrakenDepth(CurrencyPair, long)}, but streams the response straight into an {@link OrderBook} without building the
+   * intermediate DTOs
+   */
+  public OrderBook getStreamedOrderBook(CurrencyPair currencyPair, long count) throws IOException {
+
+    KrakenOrderBookResult result = kraken.getOrderBook(createKrakenCurrencyPair(currencyPair), count);
+
+    return checkResult(result).get(currencyPair);
+  }
+
   public KrakenPublicTrades getKrakenTrades(CurrencyPair currencyPair) throws IOException {
 
     return getKrakenTrades(currencyPair, null);
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.kraken.service.marketdata;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.kraken.KrakenAdapters;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenDepthResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult;
+import com.xeiam.xchange.kraken.dto.marketdata.results.KrakenOrderBookResult.KrakenOrderBooksDeserializer;
+
+/**
+ * Test streamed parsing of Kraken depth into OrderBook
+ */
+public class KrakenOrderBookJSONTest {
+
+  @Test
+  public void testMatchesAdaptedDepth() throws IOException {
+
+    ObjectMapper mapper = new ObjectMapper();
+    InputStream is = KrakenOrderBookJSONTest.class.getResourceAsStream("/marketdata/example-depth-data.json");
+    KrakenOrderBookResult streamed = mapper.readValue(is, KrakenOrderBookResult.class);
+    is = KrakenOrderBookJSONTest.class.getResourceAsStream("/marketdata/example-depth-data.json");
+    KrakenDepthResult depthResult = mapper.readValue(is, KrakenDepthResult.class);
+
+    OrderBook expected = KrakenAdapters.adaptOrderBook(depthResult.getResult().get("XXBTZEUR"), CurrencyPair.BTC_EUR);
+    OrderBook orderBook = streamed.getResult().get(CurrencyPair.BTC_EUR);
+
+    assertThat(streamed.getResult().size()).isEqualTo(1);
+    assertThat(orderBook.getAsks()).isEqualTo(expected.getAsks());
+    assertThat(orderBook.getBids()).isEqualTo(expected.getBids());
+
+    LimitOrder ask = orderBook.getAsks().get(0);
+    assertThat(ask.getLimitPrice()).isEqualTo(new BigDecimal("530.75513"));
+    assertThat(ask.getTradableAmount()).isEqualTo(new BigDecimal("0.248"));
+    assertThat(ask.getTimestamp()).isEqualTo(new Date(1391825343000L));
+  }
+
+  @Test
+  public void testMaxLevels() throws IOException {
+
+    InputStream is = KrakenOrderBookJSONTest.class.getResourceAsStream("/marketdata/example-depth-data.json");
+    JsonParser jp = new ObjectMapper().getFactory().createParser(is);
+    jp.nextToken();
+    Map<CurrencyPair, OrderBook> orderBooks = null;
+    while (jp.nextValue() != null) {
+      if ("result".equals(jp.getCurrentName())) {
+        orderBooks = KrakenOrderBooksDeserializer.readOrderBooks(jp, 2);
+        break;
+      }
+      jp.skipChildren();
+    }
+
+    OrderBook orderBook = orderBooks.get(CurrencyPair.BTC_EUR);
+    assertThat(orderBook.getAsks().size()).isEqualTo(2);
+    assertThat(orderBook.getBids().size()).isEqualTo(2);
+    assertThat(orderBook.getAsks().get(1).getLimitPrice()).isEqualTo(new BigDecimal("530.76113"));
+  }
+}
@@ -2,8 +2,6 @@ package com.xeiam.xchange.lakebtc.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.lakebtc.LakeBTC;
 import com.xeiam.xchange.lakebtc.dto.marketdata.LakeBTCOrderBook;
@@ -24,7 +22,7 @@ public class LakeBTCMarketDataServiceRaw extends LakeBTCBasePollingService {
   protected LakeBTCMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.lakeBTC = RestProxyFactory.createProxy(LakeBTC.class, exchangeSpecification.getSslUri());
+    this.lakeBTC = createProxy(LakeBTC.class, exchangeSpecification.getSslUri());
   }
 
   public LakeBTCTickers getLakeBTCTickers() throws IOException {
@@ -26,8 +26,6 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.CachedDataSession;
 import com.xeiam.xchange.ExchangeException;
 import com.xeiam.xchange.ExchangeSpecification;
@@ -60,7 +58,7 @@ public class OERMarketDataServiceRaw extends OERBasePollingService implements Ca
   public OERMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.openExchangeRates = RestProxyFactory.createProxy(OER.class, exchangeSpecification.getPlainTextUri());
+    this.openExchangeRates = createProxy(OER.class, exchangeSpecification.getPlainTextUri());
   }
 
   @Override
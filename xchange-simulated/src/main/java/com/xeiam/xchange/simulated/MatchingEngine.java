@@ -0,0 +1,471 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Ticker.TickerBuilder;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+
+/**
+ * <p>
+ * Price-time priority matching engine for one currency pair of a {@link SimulatedVenue}.
+ * </p>
+ * <p>
+ * Each side of the book is a map of price levels, each level a linked queue of resting orders in arrival order, and resting orders are also indexed by
+ * id, so placing an order costs O(log levels) plus O(1) per fill and cancelling costs O(1) plus O(log levels) if the level empties. An incoming order
+ * is matched against the best levels of the opposite side at the resting orders' prices; the remainder of a limit order rests in the book, the
+ * remainder of a market order is discarded.
+ * </p>
+ * <p>
+ * All operations on a pair are serialized by the engine's lock, so engines of different pairs run concurrently. Listeners of the venue get a TRADE
+ * event with the {@link Trade} for every fill and a DEPTH event with an {@link OrderBookUpdate} carrying the new total volume for every price level
+ * changed, on the thread that placed or cancelled the order. No events are created while the venue has no listeners.
+ * </p>
+ */
+public class MatchingEngine {
+
+  public static final int MAX_RECENT_TRADES = 100;
+
+  /** Minimum scale of the amount a market buy can afford */
+  private static final int AMOUNT_SCALE = 8;
+
+  private final CurrencyPair currencyPair;
+  private final SimulatedVenue venue;
+
+  private final TreeMap<BigDecimal, PriceLevel> asks = new TreeMap<BigDecimal, PriceLevel>();
+  private final TreeMap<BigDecimal, PriceLevel> bids = new TreeMap<BigDecimal, PriceLevel>(Collections.reverseOrder());
+  private final Map<String, RestingOrder> orders = new HashMap<String, RestingOrder>();
+
+  private final Trade[] recentTrades = new Trade[MAX_RECENT_TRADES];
+  private long tradeCount;
+
+  private BigDecimal last;
+  private BigDecimal high;
+  private BigDecimal low;
+  private BigDecimal volume = BigDecimal.ZERO;
+
+  /**
+   * Constructor
+   * 
+   * @param currencyPair The currency pair traded
+   * @param venue The venue assigning order ids and publishing events
+   */
+  MatchingEngine(CurrencyPair currencyPair, SimulatedVenue venue) {
+
+    this.currencyPair = currencyPair;
+    this.venue = venue;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+
+    return currencyPair;
+  }
+
+  /**
+   * Place a limit order, matching it against the book and resting the remainder
+   * 
+   * @param account The account placing the order, whose funds are reserved for it, or null for an order of no account
+   * @param type BID to buy, ASK to sell
+   * @param amount The amount of the base currency
+   * @param limitPrice The limit price
+   * @return The order id
+   * @throws com.xeiam.xchange.ExchangeException if the amount or price is not positive or the account's available balance is insufficient
+   */
+  public synchronized String placeLimitOrder(SimulatedAccount account, OrderType type, BigDecimal amount, BigDecimal limitPrice) {
+
+    SimulatedVenue.checkPositive("amount", amount);
+    SimulatedVenue.checkPositive("limit price", limitPrice);
+
+    if (account != null) {
+      if (type == OrderType.BID) {
+        account.reserve(currencyPair.counterSymbol, amount.multiply(limitPrice));
+      }
+      else {
+        account.reserve(currencyPair.baseSymbol, amount);
+      }
+    }
+
+    String id = venue.nextId();
+    Date timestamp = new Date();
+    BigDecimal remaining = match(account, id, type, amount, limitPrice, timestamp);
+    if (remaining.signum() > 0) {
+      rest(new RestingOrder(id, account, type, limitPrice, remaining, timestamp));
+    }
+    return id;
+  }
+
+  /**
+   * Place a market order, matching it against the book and discarding the remainder
+   * 
+   * @param account The account placing the order, or null for an order of no account. A buy is filled only as far as the account's available balance of
+   *          the counter currency goes.
+   * @param type BID to buy, ASK to sell
+   * @param amount The amount of the base currency
+   * @return The order id
+   * @throws com.xeiam.xchange.ExchangeException if the amount is not positive or the account's available balance is insufficient for a sell
+   */
+  public synchronized String placeMarketOrder(SimulatedAccount account, OrderType type, BigDecimal amount) {
+
+    SimulatedVenue.checkPositive("amount", amount);
+
+    boolean reserved = account != null && type == OrderType.ASK;
+    if (reserved) {
+      account.reserve(currencyPair.baseSymbol, amount);
+    }
+
+    String id = venue.nextId();
+    BigDecimal remaining = match(account, id, type, amount, null, new Date());
+    if (reserved && remaining.signum() > 0) {
+      account.release(currencyPair.baseSymbol, remaining);
+    }
+    return id;
+  }
+
+  /**
+   * Add an order to the book without matching it, e.g. to seed the book from a recorded one
+   * 
+   * @param limitOrder The order, belonging to no account
+   * @return The order id assigned by the venue
+   */
+  public synchronized String seed(LimitOrder limitOrder) {
+
+    SimulatedVenue.checkPositive("amount", limitOrder.getTradableAmount());
+    SimulatedVenue.checkPositive("limit price", limitOrder.getLimitPrice());
+
+    String id = venue.nextId();
+    Date timestamp = limitOrder.getTimestamp() == null ? new Date() : limitOrder.getTimestamp();
+    rest(new RestingOrder(id, null, limitOrder.getType(), limitOrder.getLimitPrice(), limitOrder.getTradableAmount(), timestamp));
+    return id;
+  }
+
+  /**
+   * Cancel an open order, releasing its account's reserved funds
+   * 
+   * @param account The account cancelling the order, or null to cancel any order
+   * @param orderId The order id
+   * @return true if the order was open and belonged to the account
+   */
+  public synchronized boolean cancel(SimulatedAccount account, String orderId) {
+
+    RestingOrder order = orders.get(orderId);
+    if (order == null || (account != null && order.account != account)) {
+      return false;
+    }
+
+    TreeMap<BigDecimal, PriceLevel> side = getSide(order.type);
+    PriceLevel level = side.get(order.price);
+    level.remove(order);
+    if (level.isEmpty()) {
+      side.remove(order.price);
+    }
+    orders.remove(orderId);
+    venue.closed(orderId);
+
+    if (order.account != null) {
+      if (order.type == OrderType.BID) {
+        order.account.release(currencyPair.counterSymbol, order.remaining.multiply(order.price));
+      }
+      else {
+        order.account.release(currencyPair.baseSymbol, order.remaining);
+      }
+    }
+    publishDepth(order.type, level);
+    return true;
+  }
+
+  /**
+   * @return A copy of the book, listing individual orders in priority order
+   */
+  public synchronized OrderBook getOrderBook() {
+
+    Date now = new Date();
+    return new OrderBook(now, toLimitOrders(asks), toLimitOrders(bids));
+  }
+
+  public synchronized Ticker getTicker() {
+
+    Map.Entry<BigDecimal, PriceLevel> bestAsk = asks.firstEntry();
+    Map.Entry<BigDecimal, PriceLevel> bestBid = bids.firstEntry();
+    return TickerBuilder.newInstance().withCurrencyPair(currencyPair).withLast(last).withBid(bestBid == null ? null : bestBid.getKey())
+        .withAsk(bestAsk == null ? null : bestAsk.getKey()).withHigh(high).withLow(low).withVolume(volume).withTimestamp(new Date()).build();
+  }
+
+  /**
+   * @return The most recent {@link #MAX_RECENT_TRADES} trades, sorted by id
+   */
+  public synchronized Trades getTrades() {
+
+    int count = (int) Math.min(tradeCount, MAX_RECENT_TRADES);
+    List<Trade> trades = new ArrayList<Trade>(count);
+    for (long i = tradeCount - count; i < tradeCount; i++) {
+      trades.add(recentTrades[(int) (i % MAX_RECENT_TRADES)]);
+    }
+    return new Trades(trades, tradeCount, TradeSortType.SortByID);
+  }
+
+  /**
+   * @return The number of open orders in the book
+   */
+  public synchronized int getOpenOrderCount() {
+
+    return orders.size();
+  }
+
+  synchronized void getOpenOrders(SimulatedAccount account, List<LimitOrder> openOrders) {
+
+    for (RestingOrder order : orders.values()) {
+      if (order.account == account) {
+        openOrders.add(order.toLimitOrder(currencyPair));
+      }
+    }
+  }
+
+  /**
+   * Match an incoming order against the opposite side
+   * 
+   * @param limitPrice The limit price, or null for a market order
+   * @return The amount left unfilled
+   */
+  private BigDecimal match(SimulatedAccount taker, String takerId, OrderType type, BigDecimal amount, BigDecimal limitPrice, Date timestamp) {
+
+    TreeMap<BigDecimal, PriceLevel> opposite = getSide(type == OrderType.BID ? OrderType.ASK : OrderType.BID);
+    BigDecimal remaining = amount;
+
+    while (remaining.signum() > 0 && !opposite.isEmpty()) {
+      PriceLevel level = opposite.firstEntry().getValue();
+      if (limitPrice != null && (type == OrderType.BID ? level.price.compareTo(limitPrice) > 0 : level.price.compareTo(limitPrice) < 0)) {
+        break;
+      }
+
+      boolean fundsLeft = true;
+      while (remaining.signum() > 0 && level.head != null) {
+        RestingOrder maker = level.head;
+        BigDecimal fill = remaining.min(maker.remaining);
+        if (taker != null && type == OrderType.BID && limitPrice == null) {
+          // a market buy has no reservation, so it is limited by the funds available at this price
+          int scale = Math.max(fill.scale(), AMOUNT_SCALE);
+          fill = fill.min(taker.getAvailable(currencyPair.counterSymbol).divide(level.price, scale, RoundingMode.DOWN));
+          if (fill.signum() <= 0) {
+            fundsLeft = false;
+            break;
+          }
+        }
+
+        Trade trade = recordTrade(type, fill, level.price, timestamp);
+        settle(taker, type, fill, level.price, limitPrice, new Trade(type, fill, currencyPair, level.price, timestamp, trade.getId(), takerId));
+        settle(maker.account, maker.type, fill, level.price, maker.price, new Trade(maker.type, fill, currencyPair, level.price, timestamp, trade.getId(), maker.id));
+
+        remaining = remaining.subtract(fill);
+        maker.remaining = maker.remaining.subtract(fill);
+        level.total = level.total.subtract(fill);
+        if (maker.remaining.signum() == 0) {
+          level.remove(maker);
+          orders.remove(maker.id);
+          venue.closed(maker.id);
+        }
+      }
+
+      if (level.isEmpty()) {
+        opposite.pollFirstEntry();
+      }
+      publishDepth(level.type, level);
+      if (!fundsLeft) {
+        break;
+      }
+    }
+    return remaining;
+  }
+
+  private void settle(SimulatedAccount account, OrderType type, BigDecimal fill, BigDecimal price, BigDecimal reservedPrice, Trade trade) {
+
+    if (account == null) {
+      return;
+    }
+    BigDecimal cost = fill.multiply(price);
+    if (type == OrderType.BID) {
+      BigDecimal unreserve = reservedPrice == null ? BigDecimal.ZERO : fill.multiply(reservedPrice);
+      account.settle(currencyPair.counterSymbol, cost, unreserve, currencyPair.baseSymbol, fill, trade);
+    }
+    else {
+      account.settle(currencyPair.baseSymbol, fill, fill, currencyPair.counterSymbol, cost, trade);
+    }
+  }
+
+  private Trade recordTrade(OrderType takerType, BigDecimal fill, BigDecimal price, Date timestamp) {
+
+    Trade trade = new Trade(takerType, fill, currencyPair, price, timestamp, Long.toString(tradeCount + 1));
+    recentTrades[(int) (tradeCount % MAX_RECENT_TRADES)] = trade;
+    tradeCount++;
+
+    last = price;
+    if (high == null || price.compareTo(high) > 0) {
+      high = price;
+    }
+    if (low == null || price.compareTo(low) < 0) {
+      low = price;
+    }
+    volume = volume.add(fill);
+
+    if (venue.hasListeners()) {
+      venue.publish(new DefaultExchangeEvent(ExchangeEventType.TRADE, null, trade));
+    }
+    return trade;
+  }
+
+  private void rest(RestingOrder order) {
+
+    TreeMap<BigDecimal, PriceLevel> side = getSide(order.type);
+    PriceLevel level = side.get(order.price);
+    if (level == null) {
+      level = new PriceLevel(order.type, order.price);
+      side.put(order.price, level);
+    }
+    level.add(order);
+    orders.put(order.id, order);
+    venue.opened(order.id, this);
+    publishDepth(order.type, level);
+  }
+
+  private void publishDepth(OrderType type, PriceLevel level) {
+
+    if (venue.hasListeners()) {
+      OrderBookUpdate update = new OrderBookUpdate(type, level.total, currencyPair, level.price, new Date(), level.total);
+      venue.publish(new DefaultExchangeEvent(ExchangeEventType.DEPTH, null, update));
+    }
+  }
+
+  private TreeMap<BigDecimal, PriceLevel> getSide(OrderType type) {
+
+    return type == OrderType.ASK ? asks : bids;
+  }
+
+  private List<LimitOrder> toLimitOrders(TreeMap<BigDecimal, PriceLevel> side) {
+
+    List<LimitOrder> limitOrders = new ArrayList<LimitOrder>();
+    for (PriceLevel level : side.values()) {
+      for (RestingOrder order = level.head; order != null; order = order.next) {
+        limitOrders.add(order.toLimitOrder(currencyPair));
+      }
+    }
+    return limitOrders;
+  }
+
+  /**
+   * The resting orders at one price, in arrival order
+   */
+  private static final class PriceLevel {
+
+    private final OrderType type;
+    private final BigDecimal price;
+    private BigDecimal total = BigDecimal.ZERO;
+    private RestingOrder head;
+    private RestingOrder tail;
+
+    private PriceLevel(OrderType type, BigDecimal price) {
+
+      this.type = type;
+      this.price = price;
+    }
+
+    private void add(RestingOrder order) {
+
+      order.prev = tail;
+      if (tail == null) {
+        head = order;
+      }
+      else {
+        tail.next = order;
+      }
+      tail = order;
+      total = total.add(order.remaining);
+    }
+
+    private void remove(RestingOrder order) {
+
+      if (order.prev == null) {
+        head = order.next;
+      }
+      else {
+        order.prev.next = order.next;
+      }
+      if (order.next == null) {
+        tail = order.prev;
+      }
+      else {
+        order.next.prev = order.prev;
+      }
+      total = total.subtract(order.remaining);
+    }
+
+    private boolean isEmpty() {
+
+      return head == null;
+    }
+  }
+
+  private static final class RestingOrder {
+
+    private final String id;
+    private final SimulatedAccount account;
+    private final OrderType type;
+    private final BigDecimal price;
+    private final Date timestamp;
+    private BigDecimal remaining;
+    private RestingOrder prev;
+    private RestingOrder next;
+
+    private RestingOrder(String id, SimulatedAccount account, OrderType type, BigDecimal price, BigDecimal remaining, Date timestamp) {
+
+      this.id = id;
+      this.account = account;
+      this.type = type;
+      this.price = price;
+      this.remaining = remaining;
+      this.timestamp = timestamp;
+    }
+
+    private LimitOrder toLimitOrder(CurrencyPair currencyPair) {
+
+      return new LimitOrder(type, remaining, currencyPair, id, timestamp, price);
+    }
+  }
+
+}
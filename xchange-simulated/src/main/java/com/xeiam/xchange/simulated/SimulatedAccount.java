@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.dto.account.AccountInfo;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.trade.Wallet;
+
+/**
+ * <p>
+ * Balances and trade history of one API key on a {@link SimulatedVenue}.
+ * </p>
+ * <p>
+ * Funds backing open limit orders are reserved when the order is placed and released when it is filled or cancelled, so the available balance is
+ * the total balance less the reserved funds. Only the most recent {@link #MAX_TRADE_HISTORY} trades are kept.
+ * </p>
+ */
+public class SimulatedAccount {
+
+  public static final int MAX_TRADE_HISTORY = 1000;
+
+  private final String username;
+
+  private final Map<String, BigDecimal> balances = new HashMap<String, BigDecimal>();
+  private final Map<String, BigDecimal> reserved = new HashMap<String, BigDecimal>();
+  private final Deque<Trade> tradeHistory = new ArrayDeque<Trade>();
+
+  /**
+   * Constructor
+   * 
+   * @param username The API key of the account
+   */
+  public SimulatedAccount(String username) {
+
+    this.username = username;
+  }
+
+  public String getUsername() {
+
+    return username;
+  }
+
+  /**
+   * @param currency The currency symbol
+   * @return The total balance, including reserved funds
+   */
+  public synchronized BigDecimal getBalance(String currency) {
+
+    return get(balances, currency);
+  }
+
+  /**
+   * @param currency The currency symbol
+   * @return The balance not reserved for open orders
+   */
+  public synchronized BigDecimal getAvailable(String currency) {
+
+    return get(balances, currency).subtract(get(reserved, currency));
+  }
+
+  public synchronized void deposit(String currency, BigDecimal amount) {
+
+    checkPositive(amount);
+    add(balances, currency, amount);
+  }
+
+  public synchronized void withdraw(String currency, BigDecimal amount) {
+
+    checkPositive(amount);
+    checkAvailable(currency, amount);
+    add(balances, currency, amount.negate());
+  }
+
+  /**
+   * Reserve funds for an order
+   * 
+   * @throws ExchangeException if the available balance is insufficient
+   */
+  synchronized void reserve(String currency, BigDecimal amount) {
+
+    checkAvailable(currency, amount);
+    add(reserved, currency, amount);
+  }
+
+  synchronized void release(String currency, BigDecimal amount) {
+
+    add(reserved, currency, amount.negate());
+  }
+
+  /**
+   * Settle one fill of an order of this account
+   * 
+   * @param debitCurrency The currency paid
+   * @param debit The amount paid
+   * @param unreserve The part of the reserved funds released by the fill, which may exceed the amount paid if the fill was at a better price
+   * @param creditCurrency The currency received
+   * @param credit The amount received
+   * @param trade The fill
+   */
+  synchronized void settle(String debitCurrency, BigDecimal debit, BigDecimal unreserve, String creditCurrency, BigDecimal credit, Trade trade) {
+
+    add(balances, debitCurrency, debit.negate());
+    if (unreserve.signum() != 0) {
+      add(reserved, debitCurrency, unreserve.negate());
+    }
+    add(balances, creditCurrency, credit);
+
+    tradeHistory.addLast(trade);
+    if (tradeHistory.size() > MAX_TRADE_HISTORY) {
+      tradeHistory.removeFirst();
+    }
+  }
+
+  public synchronized AccountInfo getAccountInfo() {
+
+    List<Wallet> wallets = new ArrayList<Wallet>();
+    for (Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+      wallets.add(new Wallet(balance.getKey(), balance.getValue()));
+    }
+    return new AccountInfo(username, BigDecimal.ZERO, wallets);
+  }
+
+  /**
+   * @return The most recent trades of the account, oldest first
+   */
+  public synchronized List<Trade> getTradeHistory() {
+
+    return new ArrayList<Trade>(tradeHistory);
+  }
+
+  private void checkAvailable(String currency, BigDecimal amount) {
+
+    if (getAvailable(currency).compareTo(amount) < 0) {
+      throw new ExchangeException("Insufficient " + currency + " balance: " + getAvailable(currency) + " available, " + amount + " required");
+    }
+  }
+
+  private static void checkPositive(BigDecimal amount) {
+
+    if (amount == null || amount.signum() <= 0) {
+      throw new ExchangeException("Amount must be positive: " + amount);
+    }
+  }
+
+  private static BigDecimal get(Map<String, BigDecimal> amounts, String currency) {
+
+    BigDecimal amount = amounts.get(currency);
+    return amount == null ? BigDecimal.ZERO : amount;
+  }
+
+  private static void add(Map<String, BigDecimal> amounts, String currency, BigDecimal amount) {
+
+    amounts.put(currency, get(amounts, currency).add(amount));
+  }
+
+  @Override
+  public synchronized String toString() {
+
+    return "SimulatedAccount [username=" + username + ", balances=" + balances + ", reserved=" + reserved + "]";
+  }
+
+}
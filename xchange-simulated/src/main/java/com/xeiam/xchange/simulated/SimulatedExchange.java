@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated;
+
+import com.xeiam.xchange.BaseExchange;
+import com.xeiam.xchange.Exchange;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
+import com.xeiam.xchange.service.streaming.ExchangeStreamingConfiguration;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+import com.xeiam.xchange.simulated.service.polling.SimulatedAccountService;
+import com.xeiam.xchange.simulated.service.polling.SimulatedMarketDataService;
+import com.xeiam.xchange.simulated.service.polling.SimulatedTradeService;
+import com.xeiam.xchange.simulated.service.streaming.SimulatedStreamingExchangeService;
+
+/**
+ * <p>
+ * Exchange running in-process against a {@link MatchingEngine} per currency pair, for load testing strategies and XChange itself without a live venue
+ * or the network.
+ * </p>
+ * <ul>
+ * <li>The API key selects the account; set {@link SimulatedVenue#PARAM_INITIAL_BALANCES} to fund new accounts, or deposit through the account service</li>
+ * <li>Exchanges with the same exchange name share a venue, so several simulated clients can trade with each other</li>
+ * <li>Seed the books with {@link SimulatedVenue#seed(com.xeiam.xchange.dto.marketdata.OrderBook)}, e.g. from a recorded book or one adapted from a
+ * module's JSON fixtures</li>
+ * </ul>
+ */
+public class SimulatedExchange extends BaseExchange implements Exchange {
+
+  private SimulatedVenue venue;
+
+  @Override
+  public ExchangeSpecification getDefaultExchangeSpecification() {
+
+    ExchangeSpecification exchangeSpecification = new ExchangeSpecification(this.getClass().getCanonicalName());
+    exchangeSpecification.setHost("localhost");
+    exchangeSpecification.setExchangeName("Simulated");
+    exchangeSpecification.setExchangeDescription("In-process simulated exchange with a price-time priority matching engine.");
+    return exchangeSpecification;
+  }
+
+  @Override
+  public void applySpecification(ExchangeSpecification exchangeSpecification) {
+
+    super.applySpecification(exchangeSpecification);
+    this.venue = SimulatedVenue.getInstance(this.exchangeSpecification);
+    this.pollingMarketDataService = new SimulatedMarketDataService(this.exchangeSpecification, venue);
+    this.pollingTradeService = new SimulatedTradeService(this.exchangeSpecification, venue);
+    this.pollingAccountService = new SimulatedAccountService(this.exchangeSpecification, venue);
+  }
+
+  @Override
+  public StreamingExchangeService getStreamingExchangeService(ExchangeStreamingConfiguration configuration) {
+
+    return new SimulatedStreamingExchangeService(venue, ExchangeEventBus.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @return The venue traded on, e.g. to seed its books
+   */
+  public SimulatedVenue getVenue() {
+
+    return venue;
+  }
+
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+
+/**
+ * <p>
+ * The state of a simulated exchange: a {@link MatchingEngine} per currency pair, created on first use, and a {@link SimulatedAccount} per API key.
+ * </p>
+ * <p>
+ * Exchanges with the same exchange name trade against the same venue, obtained through {@link #getInstance(ExchangeSpecification)}, so several
+ * clients can be simulated in one process. Orders loaded with {@link #seed(OrderBook)} belong to no account and provide the initial liquidity.
+ * </p>
+ */
+public class SimulatedVenue {
+
+  /**
+   * Exchange specific parameter with the initial balances of new accounts, a map of currency to amount
+   */
+  public static final String PARAM_INITIAL_BALANCES = "initialBalances";
+
+  private static final ConcurrentMap<String, SimulatedVenue> VENUES = new ConcurrentHashMap<String, SimulatedVenue>();
+
+  private final ConcurrentMap<CurrencyPair, MatchingEngine> engines = new ConcurrentHashMap<CurrencyPair, MatchingEngine>();
+  private final ConcurrentMap<String, SimulatedAccount> accounts = new ConcurrentHashMap<String, SimulatedAccount>();
+
+  /** The engine of each open order, to cancel by id */
+  private final ConcurrentMap<String, MatchingEngine> openOrders = new ConcurrentHashMap<String, MatchingEngine>();
+
+  private final List<ExchangeEventListener> listeners = new CopyOnWriteArrayList<ExchangeEventListener>();
+
+  private final AtomicLong idSequence = new AtomicLong();
+
+  private final Map<String, ?> initialBalances;
+
+  /**
+   * Constructor
+   * 
+   * @param initialBalances The balances credited to each new account, a map of currency to a BigDecimal, Number or String amount, or null
+   */
+  public SimulatedVenue(Map<String, ?> initialBalances) {
+
+    this.initialBalances = initialBalances;
+  }
+
+  /**
+   * Get the venue shared by all exchanges with the specification's exchange name
+   * 
+   * @param exchangeSpecification The exchange specification, whose {@link #PARAM_INITIAL_BALANCES} parameter is applied when the venue is created
+   * @return The venue
+   */
+  public static SimulatedVenue getInstance(ExchangeSpecification exchangeSpecification) {
+
+    String name = exchangeSpecification.getExchangeName();
+    SimulatedVenue venue = VENUES.get(name);
+    if (venue == null) {
+      @SuppressWarnings("unchecked")
+      Map<String, ?> initialBalances = (Map<String, ?>) exchangeSpecification.getExchangeSpecificParametersItem(PARAM_INITIAL_BALANCES);
+      SimulatedVenue newVenue = new SimulatedVenue(initialBalances);
+      venue = VENUES.putIfAbsent(name, newVenue);
+      if (venue == null) {
+        venue = newVenue;
+      }
+    }
+    return venue;
+  }
+
+  /**
+   * @param currencyPair The currency pair
+   * @return The pair's matching engine, created if the pair has not been traded yet
+   */
+  public MatchingEngine getMatchingEngine(CurrencyPair currencyPair) {
+
+    MatchingEngine engine = engines.get(currencyPair);
+    if (engine == null) {
+      MatchingEngine newEngine = new MatchingEngine(currencyPair, this);
+      engine = engines.putIfAbsent(currencyPair, newEngine);
+      if (engine == null) {
+        engine = newEngine;
+      }
+    }
+    return engine;
+  }
+
+  public Collection<CurrencyPair> getCurrencyPairs() {
+
+    return new ArrayList<CurrencyPair>(engines.keySet());
+  }
+
+  /**
+   * @param username The API key
+   * @return The account, created with the initial balances if it does not exist yet
+   */
+  public SimulatedAccount getAccount(String username) {
+
+    SimulatedAccount account = accounts.get(username);
+    if (account == null) {
+      SimulatedAccount newAccount = new SimulatedAccount(username);
+      account = accounts.putIfAbsent(username, newAccount);
+      if (account == null) {
+        account = newAccount;
+        if (initialBalances != null) {
+          for (Map.Entry<String, ?> balance : initialBalances.entrySet()) {
+            account.deposit(balance.getKey(), new BigDecimal(balance.getValue().toString()));
+          }
+        }
+      }
+    }
+    return account;
+  }
+
+  /**
+   * Add the orders of a book, e.g. one recorded from a live exchange or adapted from a module's JSON fixtures, as liquidity belonging to no account
+   * 
+   * @param orderBook The book, whose orders must all be for the same currency pair
+   */
+  public void seed(OrderBook orderBook) {
+
+    for (LimitOrder order : orderBook.getAsks()) {
+      getMatchingEngine(order.getCurrencyPair()).seed(order);
+    }
+    for (LimitOrder order : orderBook.getBids()) {
+      getMatchingEngine(order.getCurrencyPair()).seed(order);
+    }
+  }
+
+  /**
+   * Cancel an open order
+   * 
+   * @param account The account cancelling the order, or null to cancel any order
+   * @param orderId The order id
+   * @return true if the order was open and belonged to the account
+   */
+  public boolean cancel(SimulatedAccount account, String orderId) {
+
+    MatchingEngine engine = openOrders.get(orderId);
+    return engine != null && engine.cancel(account, orderId);
+  }
+
+  /**
+   * @param account The account
+   * @return The open orders of the account across all currency pairs
+   */
+  public List<LimitOrder> getOpenOrders(SimulatedAccount account) {
+
+    List<LimitOrder> orders = new ArrayList<LimitOrder>();
+    for (MatchingEngine engine : engines.values()) {
+      engine.getOpenOrders(account, orders);
+    }
+    return orders;
+  }
+
+  /**
+   * Register a listener for the TRADE and DEPTH events of all currency pairs, called on the thread that placed or cancelled the order
+   */
+  public void addListener(ExchangeEventListener listener) {
+
+    listeners.add(listener);
+  }
+
+  public void removeListener(ExchangeEventListener listener) {
+
+    listeners.remove(listener);
+  }
+
+  /**
+   * @return A new id, unique within the venue, for an order or a withdrawal
+   */
+  public String nextId() {
+
+    return Long.toString(idSequence.incrementAndGet());
+  }
+
+  void opened(String orderId, MatchingEngine engine) {
+
+    openOrders.put(orderId, engine);
+  }
+
+  void closed(String orderId) {
+
+    openOrders.remove(orderId);
+  }
+
+  boolean hasListeners() {
+
+    return !listeners.isEmpty();
+  }
+
+  void publish(ExchangeEvent event) {
+
+    for (ExchangeEventListener listener : listeners) {
+      listener.handleEvent(event);
+    }
+  }
+
+  /**
+   * Check an order's amount or price
+   * 
+   * @throws ExchangeException if it is missing or not positive, as an exchange would reject it
+   */
+  static void checkPositive(String name, BigDecimal value) {
+
+    if (value == null || value.signum() <= 0) {
+      throw new ExchangeException("Order " + name + " must be positive: " + value);
+    }
+  }
+
+}
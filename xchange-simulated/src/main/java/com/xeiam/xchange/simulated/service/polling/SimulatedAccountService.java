@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated.service.polling;
+
+import java.math.BigDecimal;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.dto.account.AccountInfo;
+import com.xeiam.xchange.service.polling.PollingAccountService;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * <p>
+ * Balances of the account of the specification's API key. Withdrawals debit the account immediately; deposits are made with {@link #deposit(String, BigDecimal)}.
+ * </p>
+ */
+public class SimulatedAccountService extends SimulatedBasePollingService implements PollingAccountService {
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification
+   * @param venue The venue traded on
+   */
+  public SimulatedAccountService(ExchangeSpecification exchangeSpecification, SimulatedVenue venue) {
+
+    super(exchangeSpecification, venue);
+  }
+
+  @Override
+  public AccountInfo getAccountInfo() {
+
+    return getAccount().getAccountInfo();
+  }
+
+  /**
+   * Credit the account, as if funds sent to its deposit address had arrived
+   */
+  public void deposit(String currency, BigDecimal amount) {
+
+    getAccount().deposit(currency, amount);
+  }
+
+  @Override
+  public String withdrawFunds(String currency, BigDecimal amount, String address) {
+
+    getAccount().withdraw(currency, amount);
+    return venue.nextId();
+  }
+
+  @Override
+  public String requestDepositAddress(String currency, String... args) {
+
+    return currency + "-" + getAccount().getUsername();
+  }
+
+}
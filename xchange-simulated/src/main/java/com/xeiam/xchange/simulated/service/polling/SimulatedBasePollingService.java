@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated.service.polling;
+
+import java.util.Collection;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.service.BaseExchangeService;
+import com.xeiam.xchange.service.polling.BasePollingService;
+import com.xeiam.xchange.simulated.SimulatedAccount;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * <p>
+ * Base class of the simulated exchange's polling services, which call the {@link SimulatedVenue} directly instead of a REST API
+ * </p>
+ */
+public class SimulatedBasePollingService extends BaseExchangeService implements BasePollingService {
+
+  /**
+   * The API key used when the specification has none
+   */
+  public static final String DEFAULT_API_KEY = "simulated";
+
+  protected final SimulatedVenue venue;
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification The exchange specification, whose API key identifies the account
+   * @param venue The venue traded on
+   */
+  public SimulatedBasePollingService(ExchangeSpecification exchangeSpecification, SimulatedVenue venue) {
+
+    super(exchangeSpecification);
+    this.venue = venue;
+  }
+
+  /**
+   * @return The account of the specification's API key
+   */
+  protected SimulatedAccount getAccount() {
+
+    String apiKey = exchangeSpecification.getApiKey();
+    return venue.getAccount(apiKey == null ? DEFAULT_API_KEY : apiKey);
+  }
+
+  public SimulatedVenue getVenue() {
+
+    return venue;
+  }
+
+  @Override
+  public Collection<CurrencyPair> getExchangeSymbols() {
+
+    return venue.getCurrencyPairs();
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated.service.polling;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.Ticker;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.service.polling.PollingMarketDataService;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * <p>
+ * Market data of the simulated exchange's matching engines. The ticker's high, low and volume cover all trades since the pair's engine was created.
+ * </p>
+ */
+public class SimulatedMarketDataService extends SimulatedBasePollingService implements PollingMarketDataService {
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification
+   * @param venue The venue traded on
+   */
+  public SimulatedMarketDataService(ExchangeSpecification exchangeSpecification, SimulatedVenue venue) {
+
+    super(exchangeSpecification, venue);
+  }
+
+  @Override
+  public Ticker getTicker(CurrencyPair currencyPair, Object... args) {
+
+    return venue.getMatchingEngine(currencyPair).getTicker();
+  }
+
+  @Override
+  public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) {
+
+    return venue.getMatchingEngine(currencyPair).getOrderBook();
+  }
+
+  @Override
+  public Trades getTrades(CurrencyPair currencyPair, Object... args) {
+
+    return venue.getMatchingEngine(currencyPair).getTrades();
+  }
+
+}
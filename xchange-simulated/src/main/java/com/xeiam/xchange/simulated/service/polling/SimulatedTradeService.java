@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated.service.polling;
+
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.dto.marketdata.Trades;
+import com.xeiam.xchange.dto.marketdata.Trades.TradeSortType;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.dto.trade.MarketOrder;
+import com.xeiam.xchange.dto.trade.OpenOrders;
+import com.xeiam.xchange.service.polling.PollingTradeService;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * <p>
+ * Trading on the simulated exchange with the account of the specification's API key. Orders are matched synchronously, so a marketable order is filled
+ * by the time the call returns.
+ * </p>
+ */
+public class SimulatedTradeService extends SimulatedBasePollingService implements PollingTradeService {
+
+  /**
+   * Constructor
+   * 
+   * @param exchangeSpecification
+   * @param venue The venue traded on
+   */
+  public SimulatedTradeService(ExchangeSpecification exchangeSpecification, SimulatedVenue venue) {
+
+    super(exchangeSpecification, venue);
+  }
+
+  @Override
+  public OpenOrders getOpenOrders() {
+
+    return new OpenOrders(venue.getOpenOrders(getAccount()));
+  }
+
+  @Override
+  public String placeMarketOrder(MarketOrder marketOrder) {
+
+    return venue.getMatchingEngine(marketOrder.getCurrencyPair()).placeMarketOrder(getAccount(), marketOrder.getType(), marketOrder.getTradableAmount());
+  }
+
+  @Override
+  public String placeLimitOrder(LimitOrder limitOrder) {
+
+    return venue.getMatchingEngine(limitOrder.getCurrencyPair()).placeLimitOrder(getAccount(), limitOrder.getType(), limitOrder.getTradableAmount(),
+        limitOrder.getLimitPrice());
+  }
+
+  @Override
+  public boolean cancelOrder(String orderId) {
+
+    return venue.cancel(getAccount(), orderId);
+  }
+
+  /**
+   * @return The most recent fills of the account's orders, across all currency pairs
+   */
+  @Override
+  public Trades getTradeHistory(Object... arguments) {
+
+    return new Trades(getAccount().getTradeHistory(), TradeSortType.SortByTimestamp);
+  }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated.service.streaming;
+
+import org.java_websocket.WebSocket.READYSTATE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xeiam.xchange.service.streaming.DefaultExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventBus;
+import com.xeiam.xchange.service.streaming.ExchangeEventListener;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+import com.xeiam.xchange.service.streaming.WaitStrategy;
+import com.xeiam.xchange.simulated.SimulatedVenue;
+
+/**
+ * <p>
+ * Streams the TRADE and DEPTH events of all currency pairs of a {@link SimulatedVenue} while connected. Events carry the {@link com.xeiam.xchange.dto.marketdata.Trade} or
+ * {@link com.xeiam.xchange.dto.marketdata.OrderBookUpdate} as payload and no data. As with a live feed, events are dropped if they are not consumed as
+ * fast as orders are matched.
+ * </p>
+ */
+public class SimulatedStreamingExchangeService implements StreamingExchangeService {
+
+  private final Logger log = LoggerFactory.getLogger(SimulatedStreamingExchangeService.class);
+
+  private final SimulatedVenue venue;
+  private final ExchangeEventBus eventBus;
+
+  private volatile READYSTATE readyState = READYSTATE.NOT_YET_CONNECTED;
+
+  /** Engines of different pairs publish concurrently, but the bus takes one producer at a time */
+  private final ExchangeEventListener publisher = new ExchangeEventListener() {
+
+    @Override
+    public void handleEvent(ExchangeEvent event) {
+
+      publish(event);
+    }
+  };
+
+  /**
+   * Constructor
+   * 
+   * @param venue The venue to stream
+   * @param bufferSize The number of unconsumed events kept, a power of two
+   */
+  public SimulatedStreamingExchangeService(SimulatedVenue venue, int bufferSize) {
+
+    this.venue = venue;
+    this.eventBus = new ExchangeEventBus(bufferSize, WaitStrategy.PARK);
+  }
+
+  @Override
+  public synchronized void connect() {
+
+    if (readyState == READYSTATE.OPEN) {
+      return;
+    }
+    readyState = READYSTATE.OPEN;
+    publish(new DefaultExchangeEvent(ExchangeEventType.CONNECT, "connected"));
+    venue.addListener(publisher);
+  }
+
+  @Override
+  public synchronized void disconnect() {
+
+    if (readyState != READYSTATE.OPEN) {
+      return;
+    }
+    venue.removeListener(publisher);
+    readyState = READYSTATE.CLOSED;
+    publish(new DefaultExchangeEvent(ExchangeEventType.DISCONNECT, "disconnected"));
+  }
+
+  @Override
+  public ExchangeEvent getNextEvent() throws InterruptedException {
+
+    return eventBus.take();
+  }
+
+  /**
+   * @return The bus events are published to, e.g. to register a listener called on the matching thread
+   */
+  public ExchangeEventBus getEventBus() {
+
+    return eventBus;
+  }
+
+  @Override
+  public void send(String msg) {
+
+    log.debug("Ignoring message sent to the simulated exchange: {}", msg);
+  }
+
+  @Override
+  public READYSTATE getWebSocketStatus() {
+
+    return readyState;
+  }
+
+  private void publish(ExchangeEvent event) {
+
+    synchronized (eventBus) {
+      eventBus.publish(event);
+    }
+  }
+
+}
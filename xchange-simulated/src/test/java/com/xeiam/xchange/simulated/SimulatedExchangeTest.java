@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2012 - 2014 Xeiam LLC http://xeiam.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xeiam.xchange.simulated;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.xeiam.xchange.ExchangeException;
+import com.xeiam.xchange.ExchangeSpecification;
+import com.xeiam.xchange.currency.CurrencyPair;
+import com.xeiam.xchange.dto.Order.OrderType;
+import com.xeiam.xchange.dto.marketdata.OrderBook;
+import com.xeiam.xchange.dto.marketdata.OrderBookUpdate;
+import com.xeiam.xchange.dto.marketdata.Trade;
+import com.xeiam.xchange.dto.trade.LimitOrder;
+import com.xeiam.xchange.dto.trade.MarketOrder;
+import com.xeiam.xchange.service.streaming.ExchangeEvent;
+import com.xeiam.xchange.service.streaming.ExchangeEventType;
+import com.xeiam.xchange.service.streaming.StreamingExchangeService;
+
+public class SimulatedExchangeTest {
+
+  private static SimulatedExchange createExchange(String venueName, String apiKey) {
+
+    SimulatedExchange exchange = new SimulatedExchange();
+    ExchangeSpecification spec = exchange.getDefaultExchangeSpecification();
+    spec.setExchangeName(venueName);
+    spec.setApiKey(apiKey);
+    Map<String, Object> initialBalances = new HashMap<String, Object>();
+    initialBalances.put("BTC", "10");
+    initialBalances.put("USD", 10000);
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put(SimulatedVenue.PARAM_INITIAL_BALANCES, initialBalances);
+    spec.setExchangeSpecificParameters(parameters);
+    exchange.applySpecification(spec);
+    return exchange;
+  }
+
+  private static LimitOrder order(OrderType type, String amount, String price) {
+
+    return new LimitOrder(type, new BigDecimal(amount), CurrencyPair.BTC_USD, null, null, new BigDecimal(price));
+  }
+
+  private static void seed(SimulatedExchange exchange) {
+
+    List<LimitOrder> asks = Arrays.asList(order(OrderType.ASK, "1", "101"), order(OrderType.ASK, "2", "102"));
+    List<LimitOrder> bids = Arrays.asList(order(OrderType.BID, "1", "99"), order(OrderType.BID, "2", "98"));
+    exchange.getVenue().seed(new OrderBook(null, asks, bids));
+  }
+
+  @Test
+  public void testPriceTimePriority() throws Exception {
+
+    SimulatedExchange alice = createExchange("priority", "alice");
+    SimulatedExchange bob = createExchange("priority", "bob");
+    assertThat(bob.getVenue()).isSameAs(alice.getVenue());
+
+    String first = alice.getPollingTradeService().placeLimitOrder(order(OrderType.ASK, "1", "100"));
+    String second = bob.getPollingTradeService().placeLimitOrder(order(OrderType.ASK, "1", "100"));
+    String taker = alice.getPollingTradeService().placeLimitOrder(order(OrderType.BID, "1.5", "100"));
+
+    // the earlier order at the price fills first, the later one partially
+    List<LimitOrder> bobOrders = bob.getPollingTradeService().getOpenOrders().getOpenOrders();
+    assertThat(bobOrders).hasSize(1);
+    assertThat(bobOrders.get(0).getId()).isEqualTo(second);
+    assertThat(bobOrders.get(0).getTradableAmount()).isEqualTo(new BigDecimal("0.5"));
+    assertThat(alice.getPollingTradeService().getOpenOrders().getOpenOrders()).isEmpty();
+
+    List<Trade> aliceTrades = alice.getPollingTradeService().getTradeHistory().getTrades();
+    assertThat(aliceTrades).hasSize(3);
+    assertThat(aliceTrades.get(0).getOrderId()).isEqualTo(taker);
+    assertThat(aliceTrades.get(1).getOrderId()).isEqualTo(first);
+
+    // alice traded 1 BTC with herself and bought 0.5 BTC from bob at 100
+    assertThat(alice.getPollingAccountService().getAccountInfo().getBalance("BTC")).isEqualTo(new BigDecimal("10.5"));
+    assertThat(alice.getPollingAccountService().getAccountInfo().getBalance("USD").compareTo(new BigDecimal("9950"))).isEqualTo(0);
+    assertThat(bob.getPollingAccountService().getAccountInfo().getBalance("BTC")).isEqualTo(new BigDecimal("9.5"));
+    assertThat(alice.getPollingMarketDataService().getTicker(CurrencyPair.BTC_USD).getLast()).isEqualTo(new BigDecimal("100"));
+  }
+
+  @Test
+  public void testMatchesAcrossLevelsAndRestsRemainder() throws Exception {
+
+    SimulatedExchange exchange = createExchange("levels", "carol");
+    seed(exchange);
+
+    String id = exchange.getPollingTradeService().placeLimitOrder(order(OrderType.BID, "4", "102"));
+
+    OrderBook book = exchange.getPollingMarketDataService().getOrderBook(CurrencyPair.BTC_USD);
+    assertThat(book.getAsks()).isEmpty();
+    assertThat(book.getBestBid().getId()).isEqualTo(id);
+    assertThat(book.getBestBid().getTradableAmount()).isEqualTo(new BigDecimal("1"));
+    assertThat(exchange.getPollingMarketDataService().getTrades(CurrencyPair.BTC_USD).getTrades()).hasSize(2);
+
+    // paid 101 + 2 * 102, with 102 still reserved for the resting bit
+    SimulatedAccount account = exchange.getVenue().getAccount("carol");
+    assertThat(account.getBalance("USD").compareTo(new BigDecimal("9695"))).isEqualTo(0);
+    assertThat(account.getAvailable("USD").compareTo(new BigDecimal("9593"))).isEqualTo(0);
+
+    assertThat(exchange.getPollingTradeService().cancelOrder(id)).isTrue();
+    assertThat(exchange.getPollingTradeService().cancelOrder(id)).isFalse();
+    assertThat(account.getAvailable("USD").compareTo(new BigDecimal("9695"))).isEqualTo(0);
+  }
+
+  @Test
+  public void testMarketOrders() throws Exception {
+
+    SimulatedExchange exchange = createExchange("market", "dave");
+    seed(exchange);
+
+    exchange.getPollingTradeService().placeMarketOrder(new MarketOrder(OrderType.ASK, new BigDecimal("2"), CurrencyPair.BTC_USD));
+    OrderBook book = exchange.getPollingMarketDataService().getOrderBook(CurrencyPair.BTC_USD);
+    assertThat(book.getBestBid().getLimitPrice()).isEqualTo(new BigDecimal("98"));
+    assertThat(book.getBestBid().getTradableAmount()).isEqualTo(new BigDecimal("1"));
+
+    SimulatedAccount account = exchange.getVenue().getAccount("dave");
+    assertThat(account.getBalance("BTC")).isEqualTo(new BigDecimal("8"));
+    assertThat(account.getAvailable("BTC")).isEqualTo(new BigDecimal("8"));
+    assertThat(account.getBalance("USD").compareTo(new BigDecimal("10197"))).isEqualTo(0);
+  }
+
+  @Test
+  public void testMarketBuyLimitedByFunds() throws Exception {
+
+    SimulatedExchange exchange = createExchange("funds", "erin");
+    seed(exchange);
+    exchange.getPollingAccountService().withdrawFunds("USD", new BigDecimal("9899"), "elsewhere");
+
+    exchange.getPollingTradeService().placeMarketOrder(new MarketOrder(OrderType.BID, new BigDecimal("3"), CurrencyPair.BTC_USD));
+
+    SimulatedAccount account = exchange.getVenue().getAccount("erin");
+    assertThat(account.getBalance("BTC").compareTo(new BigDecimal("11"))).isEqualTo(0);
+    assertThat(account.getBalance("USD").signum()).isEqualTo(0);
+  }
+
+  @Test(expected = ExchangeException.class)
+  public void testInsufficientBalance() throws Exception {
+
+    SimulatedExchange exchange = createExchange("insufficient", "frank");
+    exchange.getPollingTradeService().placeLimitOrder(order(OrderType.ASK, "11", "100"));
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+
+    SimulatedExchange exchange = createExchange("streaming", "grace");
+    seed(exchange);
+
+    StreamingExchangeService streaming = exchange.getStreamingExchangeService(null);
+    streaming.connect();
+    assertThat(streaming.getNextEvent().getEventType()).isEqualTo(ExchangeEventType.CONNECT);
+
+    exchange.getPollingTradeService().placeLimitOrder(order(OrderType.BID, "0.5", "101"));
+
+    ExchangeEvent trade = streaming.getNextEvent();
+    assertThat(trade.getEventType()).isEqualTo(ExchangeEventType.TRADE);
+    assertThat(((Trade) trade.getPayload()).getPrice()).isEqualTo(new BigDecimal("101"));
+    ExchangeEvent depth = streaming.getNextEvent();
+    assertThat(depth.getEventType()).isEqualTo(ExchangeEventType.DEPTH);
+    assertThat(((OrderBookUpdate) depth.getPayload()).getTotalVolume()).isEqualTo(new BigDecimal("0.5"));
+
+    streaming.disconnect();
+    assertThat(streaming.getNextEvent().getEventType()).isEqualTo(ExchangeEventType.DISCONNECT);
+  }
+
+}
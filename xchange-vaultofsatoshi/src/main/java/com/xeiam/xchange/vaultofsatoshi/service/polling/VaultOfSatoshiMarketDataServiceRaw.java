@@ -24,8 +24,6 @@ package com.xeiam.xchange.vaultofsatoshi.service.polling;
 import java.io.IOException;
 import java.util.List;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.vaultofsatoshi.VaultOfSatoshi;
@@ -53,7 +51,7 @@ public class VaultOfSatoshiMarketDataServiceRaw extends VaultOfSatoshiBasePollin
   public VaultOfSatoshiMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.vaultOfSatoshi = RestProxyFactory.createProxy(VaultOfSatoshi.class, exchangeSpecification.getSslUri());
+    this.vaultOfSatoshi = createProxy(VaultOfSatoshi.class, exchangeSpecification.getSslUri());
   }
 
   public VaultOfSatoshiTicker getVosTicker(CurrencyPair pair) throws IOException {
@@ -23,8 +23,6 @@ package com.xeiam.xchange.vircurex.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.vircurex.VircurexAuthenticated;
 import com.xeiam.xchange.vircurex.VircurexUtils;
@@ -43,7 +41,7 @@ public class VircurexAccountServiceRaw extends VircurexBasePollingService {
   public VircurexAccountServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    this.vircurex = RestProxyFactory.createProxy(VircurexAuthenticated.class, exchangeSpecification.getSslUri());
+    this.vircurex = createProxy(VircurexAuthenticated.class, exchangeSpecification.getSslUri());
   }
 
   public VircurexAccountInfoReturn getVircurexAccountInfo() throws IOException {
@@ -23,8 +23,6 @@ package com.xeiam.xchange.vircurex.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.currency.CurrencyPair;
 import com.xeiam.xchange.vircurex.Vircurex;
@@ -50,7 +48,7 @@ public class VircurexMarketDataServiceRaw extends VircurexBasePollingService {
   public VircurexMarketDataServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    vircurex = RestProxyFactory.createProxy(Vircurex.class, exchangeSpecification.getSslUri());
+    vircurex = createProxy(Vircurex.class, exchangeSpecification.getSslUri());
   }
 
   public VircurexDepth getVircurexOrderBook(CurrencyPair currencyPair) throws IOException {
@@ -23,8 +23,6 @@ package com.xeiam.xchange.vircurex.service.polling;
 
 import java.io.IOException;
 
-import si.mazi.rescu.RestProxyFactory;
-
 import com.xeiam.xchange.ExchangeSpecification;
 import com.xeiam.xchange.dto.Order;
 import com.xeiam.xchange.dto.trade.LimitOrder;
@@ -48,7 +46,7 @@ public class VircurexTradeServiceRaw extends VircurexBasePollingService {
   public VircurexTradeServiceRaw(ExchangeSpecification exchangeSpecification) {
 
     super(exchangeSpecification);
-    vircurex = RestProxyFactory.createProxy(VircurexAuthenticated.class, exchangeSpecification.getSslUri());
+    vircurex = createProxy(VircurexAuthenticated.class, exchangeSpecification.getSslUri());
   }
 
   public String placeVircurexLimitOrder(LimitOrder limitOrder) throws IOException {